@@ -0,0 +1,210 @@
+package com.backgroundlocation.data.sqlite;
+
+import static org.junit.Assert.assertEquals;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.text.TextUtils;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrent insert + sync throughput: WAL (+ LocationOpenHelper pragmas) vs rollback journal
+ * Writer thread LocationService gibi fix başına bir transaction'da insert eder; sync thread aynı anda
+ * SQLiteLocationDAO.allWithLocking + destroyAll desenini (SELECT/UPDATE locked=1, sonra DELETE) çalıştırır.
+ * Sonuçlar logcat'e yazılır (tag: InsertSyncBenchmark).
+ */
+@RunWith(AndroidJUnit4.class)
+public class InsertSyncThroughputBenchmark {
+
+    private static final String TAG = "InsertSyncBenchmark";
+    private static final int ROWS = 2000;
+    private static final int SYNC_BATCH = 100;
+
+    @Test
+    public void walVersusRollbackJournal() throws Exception {
+        Result rollback = run("bench_rollback.db", false);
+        Result wal = run("bench_wal.db", true);
+
+        log("rollback", rollback);
+        log("wal", wal);
+        Log.i(TAG, String.format("WAL speedup: insert x%.2f, sync x%.2f",
+            wal.insertsPerSecond() / rollback.insertsPerSecond(),
+            wal.syncedPerSecond() / rollback.syncedPerSecond()));
+
+        assertEquals(ROWS, rollback.inserted);
+        assertEquals(ROWS, rollback.synced);
+        assertEquals(ROWS, wal.inserted);
+        assertEquals(ROWS, wal.synced);
+    }
+
+    private Result run(String name, boolean wal) throws Exception {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(name);
+        File file = context.getDatabasePath(name);
+        file.getParentFile().mkdirs();
+
+        SQLiteDatabase db = SQLiteDatabase.openOrCreateDatabase(file, null);
+        try {
+            if (wal) {
+                db.enableWriteAheadLogging();
+                // LocationOpenHelper.onConfigure varsayılanları
+                pragma(db, "synchronous=NORMAL");
+                pragma(db, "cache_size=-4096");
+                pragma(db, "temp_store=MEMORY");
+            } else {
+                // Android 9+ compatibility WAL'ı da kapatır: klasik rollback journal
+                db.disableWriteAheadLogging();
+            }
+            db.execSQL("CREATE TABLE locations (" +
+                "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                "uuid TEXT NOT NULL DEFAULT '', " +
+                "timestamp TEXT, " +
+                "data BLOB, " +
+                "locked BOOLEAN NOT NULL DEFAULT 0, " +
+                "recorded_at INTEGER, latitude REAL, longitude REAL)");
+            db.execSQL("CREATE INDEX idx_locked ON locations(locked)");
+            db.execSQL("CREATE UNIQUE INDEX idx_uuid ON locations(uuid)");
+
+            return measure(db);
+        } finally {
+            db.close();
+            context.deleteDatabase(name);
+        }
+    }
+
+    private Result measure(final SQLiteDatabase db) throws Exception {
+        final AtomicBoolean writing = new AtomicBoolean(true);
+        final AtomicInteger inserted = new AtomicInteger();
+        final AtomicInteger synced = new AtomicInteger();
+        final long[] insertNanos = new long[1];
+        final long[] syncNanos = new long[1];
+
+        Thread writer = new Thread(() -> {
+            long started = System.nanoTime();
+            for (int i = 0; i < ROWS; i++) {
+                ContentValues values = new ContentValues();
+                String uuid = UUID.randomUUID().toString();
+                values.put("uuid", uuid);
+                values.put("timestamp", String.valueOf(i));
+                values.put("data", ("{\"uuid\":\"" + uuid + "\",\"coords\":{\"latitude\":41.0,\"longitude\":29.0}}").getBytes());
+                values.put("recorded_at", System.currentTimeMillis());
+                values.put("latitude", 41.0 + i * 1e-5);
+                values.put("longitude", 29.0 + i * 1e-5);
+                db.beginTransaction();
+                try {
+                    if (db.insert("locations", null, values) > -1) {
+                        inserted.incrementAndGet();
+                    }
+                    db.setTransactionSuccessful();
+                } finally {
+                    db.endTransaction();
+                }
+            }
+            insertNanos[0] = System.nanoTime() - started;
+            writing.set(false);
+        }, "bench-writer");
+
+        Thread syncer = new Thread(() -> {
+            long started = System.nanoTime();
+            while (true) {
+                boolean done = !writing.get();
+                List<Long> ids = lockBatch(db);
+                if (ids.isEmpty()) {
+                    if (done) break;
+                    Thread.yield();
+                    continue;
+                }
+                // HTTP 200 sonrası destroyAll
+                synced.addAndGet(db.delete("locations", "id IN (" + TextUtils.join(",", ids) + ")", null));
+            }
+            syncNanos[0] = System.nanoTime() - started;
+        }, "bench-sync");
+
+        writer.start();
+        syncer.start();
+        writer.join();
+        syncer.join();
+
+        return new Result(inserted.get(), synced.get(), insertNanos[0], syncNanos[0]);
+    }
+
+    /**
+     * SELECT locked=0 LIMIT n + UPDATE locked=1 tek transaction'da (allWithLocking)
+     */
+    private static List<Long> lockBatch(SQLiteDatabase db) {
+        List<Long> ids = new ArrayList<>();
+        db.beginTransaction();
+        try {
+            Cursor cursor = db.query("locations", new String[]{"id", "data"}, "locked=0", null, null, null,
+                "id ASC", String.valueOf(SYNC_BATCH));
+            try {
+                while (cursor.moveToNext()) {
+                    ids.add(cursor.getLong(0));
+                }
+            } finally {
+                cursor.close();
+            }
+            if (!ids.isEmpty()) {
+                ContentValues values = new ContentValues();
+                values.put("locked", 1);
+                db.update("locations", values, "id IN (" + TextUtils.join(",", ids) + ")", null);
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        return ids;
+    }
+
+    private static void pragma(SQLiteDatabase db, String statement) {
+        Cursor cursor = db.rawQuery("PRAGMA " + statement, null);
+        try {
+            cursor.moveToFirst();
+        } finally {
+            cursor.close();
+        }
+    }
+
+    private static void log(String mode, Result result) {
+        Log.i(TAG, String.format("%s: %d inserts in %dms (%.0f/s), %d synced in %dms (%.0f/s)",
+            mode, result.inserted, result.insertNanos / 1_000_000, result.insertsPerSecond(),
+            result.synced, result.syncNanos / 1_000_000, result.syncedPerSecond()));
+    }
+
+    private static class Result {
+        final int inserted;
+        final int synced;
+        final long insertNanos;
+        final long syncNanos;
+
+        Result(int inserted, int synced, long insertNanos, long syncNanos) {
+            this.inserted = inserted;
+            this.synced = synced;
+            this.insertNanos = insertNanos;
+            this.syncNanos = syncNanos;
+        }
+
+        double insertsPerSecond() {
+            return inserted * 1e9 / Math.max(insertNanos, 1);
+        }
+
+        double syncedPerSecond() {
+            return synced * 1e9 / Math.max(syncNanos, 1);
+        }
+    }
+}
@@ -6,9 +6,11 @@ import android.content.Intent;
 import com.backgroundlocation.adapter.BackgroundLocationAdapter;
 import com.backgroundlocation.config.Config;
 import com.backgroundlocation.event.BootEvent;
+import com.backgroundlocation.headless.HeadlessTaskManager;
 import com.backgroundlocation.lifecycle.LifecycleManager;
+import com.backgroundlocation.scheduler.WakeupScheduler;
 import com.backgroundlocation.util.LogHelper;
-import org.greenrobot.eventbus.EventBus;
+import com.backgroundlocation.event.EventDispatcher;
 
 /**
  * BootReceiver
@@ -40,7 +42,20 @@ public class BootReceiver extends BroadcastReceiver {
         }
         
         // Post BootEvent ()
-        EventBus.getDefault().post(new BootEvent(context, intent));
+        EventDispatcher.getInstance().post(new BootEvent(context, intent));
+        
+        // Headless warm-up: boot sonrası ilk event'ler ReactContext oluşturmayı beklemesin
+        if (config.enableHeadless && config.headlessWarmUp && !config.stopOnTerminate) {
+            BackgroundLocationAdapter.getUiHandler().post(() ->
+                HeadlessTaskManager.getInstance().warmUp(context.getApplicationContext()));
+        }
+        
+        // Reboot / update alarm'ları siler: kalıcı wakeup task tablosundan yeniden kur
+        if (action.equalsIgnoreCase(Constants.ACTION_BOOT_COMPLETED) || 
+            action.equalsIgnoreCase(Constants.ACTION_LOCKED_BOOT_COMPLETED) ||
+            action.equalsIgnoreCase(Constants.ACTION_MY_PACKAGE_REPLACED)) {
+            WakeupScheduler.getInstance(context).restore();
+        }
         
         // Handle different boot actions
         if (action.equalsIgnoreCase(Constants.ACTION_BOOT_COMPLETED) || 
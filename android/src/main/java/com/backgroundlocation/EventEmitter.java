@@ -0,0 +1,345 @@
+package com.backgroundlocation;
+
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.SystemClock;
+
+import com.backgroundlocation.util.LogHelper;
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+import com.facebook.react.modules.core.DeviceEventManagerModule;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Event Emitter
+ * JS event'lerini (RCTDeviceEventEmitter) kendi background thread'inde, event tipi bazında
+ * emit policy'sine göre gönderir (Config.eventEmitPolicy):
+ *
+ *   { location: { mode: "batch", interval: 1000, strategy: "drop", maxBatchSize: 50 },
+ *     activitychange: { mode: "throttle", rate: 1, strategy: "merge" } }
+ *
+ * - immediate: her event hemen (varsayılan)
+ * - throttle: saniyede en fazla `rate` event. Aradaki event'ler strategy=drop ise atılır,
+ *   merge ise en sonuncusu pencere sonunda gönderilir
+ * - batch: `interval` ms boyunca toplanır, { __batch: [...], dropped } olarak tek event gönderilir.
+ *   strategy=drop: maxBatchSize aşılınca en eski atılır, merge: yalnızca en son event gönderilir
+ *
+ * JSON -> WritableMap dönüşümü de bu thread'de yapılır; main thread yalnızca kuyruğa ekler.
+ * JS tarafı (src/index.tsx) __batch payload'larını listener'lara tek tek açar.
+ */
+final class EventEmitter {
+
+    private static final String TAG = "EventEmitter";
+
+    static final String MODE_IMMEDIATE = "immediate";
+    static final String MODE_THROTTLE = "throttle";
+    static final String MODE_BATCH = "batch";
+    static final String STRATEGY_DROP = "drop";
+    static final String STRATEGY_MERGE = "merge";
+
+    private static final int DEFAULT_MAX_BATCH_SIZE = 100;
+
+    private final ReactApplicationContext reactContext;
+    private final Handler handler;
+    // Event adı -> state (emitter thread yazar; getMetrics için put synchronized)
+    private final Map<String, Channel> channels = new HashMap<>();
+    private volatile JSONObject policies = new JSONObject();
+
+    EventEmitter(ReactApplicationContext reactContext) {
+        this.reactContext = reactContext;
+        HandlerThread thread = new HandlerThread("BackgroundLocation-emitter");
+        thread.start();
+        this.handler = new Handler(thread.getLooper());
+    }
+
+    /**
+     * Update policies (Config.eventEmitPolicy JSON string)
+     */
+    void setPolicies(String json) {
+        JSONObject parsed;
+        try {
+            parsed = new JSONObject(json == null || json.isEmpty() ? "{}" : json);
+        } catch (JSONException e) {
+            LogHelper.w(TAG, "⚠️ Invalid eventEmitPolicy, using immediate: " + e.getMessage());
+            parsed = new JSONObject();
+        }
+        final JSONObject next = parsed;
+        policies = next;
+        // Mevcut kanallar yeni policy'yi alsın; bekleyen event'ler eski policy ile boşaltılır
+        handler.post(() -> {
+            for (Channel channel : channels.values()) {
+                channel.flush();
+                channel.policy = Policy.from(next.optJSONObject(channel.eventName));
+            }
+        });
+    }
+
+    /**
+     * Queue event for emission (any thread)
+     */
+    void emit(String eventName, JSONObject payload) {
+        handler.post(() -> channel(eventName).offer(payload));
+    }
+
+    /**
+     * Queue several events of one type in a single emitter hop (batched location delivery)
+     */
+    void emitAll(String eventName, List<JSONObject> payloads) {
+        handler.post(() -> channel(eventName).offerAll(payloads));
+    }
+
+    /**
+     * Emission counters per event name
+     */
+    JSONObject getMetrics() {
+        final JSONObject json = new JSONObject();
+        // Sayaçlar emitter thread'inde tutulur; kısa snapshot için senkron beklemeye gerek yok
+        synchronized (channels) {
+            for (Channel channel : channels.values()) {
+                try {
+                    json.put(channel.eventName, channel.getMetrics());
+                } catch (JSONException e) {
+                    LogHelper.w(TAG, "Failed to build metrics: " + e.getMessage());
+                }
+            }
+        }
+        return json;
+    }
+
+    void destroy() {
+        // Bekleyen throttle / batch flush'ları teardown'dan sonra çalışmasın
+        handler.removeCallbacksAndMessages(null);
+        handler.getLooper().quitSafely();
+    }
+
+    private Channel channel(String eventName) {
+        Channel channel = channels.get(eventName);
+        if (channel == null) {
+            channel = new Channel(eventName, Policy.from(policies.optJSONObject(eventName)));
+            synchronized (channels) {
+                channels.put(eventName, channel);
+            }
+        }
+        return channel;
+    }
+
+    private void send(String eventName, WritableMap params) {
+        // Context henüz hazır değil / reload / teardown: emitter thread'inde exception process'i düşürür
+        if (!reactContext.hasActiveReactInstance()) {
+            LogHelper.d(TAG, "⏸️ No active React instance, skipping " + eventName);
+            return;
+        }
+        try {
+            reactContext
+                .getJSModule(DeviceEventManagerModule.RCTDeviceEventEmitter.class)
+                .emit(eventName, params);
+        } catch (Exception e) {
+            LogHelper.e(TAG, "❌ Failed to emit " + eventName + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static WritableMap toWritableMap(JSONObject json) {
+        try {
+            return RNBackgroundLocationModule.jsonToWritableMap(json);
+        } catch (JSONException e) {
+            LogHelper.w(TAG, "Failed to convert event payload: " + e.getMessage());
+            return Arguments.createMap();
+        }
+    }
+
+    /**
+     * Parsed per-event policy
+     */
+    private static final class Policy {
+        final String mode;
+        final String strategy;
+        final long intervalMs;
+        final int maxBatchSize;
+
+        private Policy(String mode, String strategy, long intervalMs, int maxBatchSize) {
+            this.mode = mode;
+            this.strategy = strategy;
+            this.intervalMs = intervalMs;
+            this.maxBatchSize = maxBatchSize;
+        }
+
+        static Policy from(JSONObject json) {
+            if (json == null) {
+                return new Policy(MODE_IMMEDIATE, STRATEGY_DROP, 0, DEFAULT_MAX_BATCH_SIZE);
+            }
+            String mode = json.optString("mode", MODE_IMMEDIATE);
+            String strategy = STRATEGY_MERGE.equals(json.optString("strategy")) ? STRATEGY_MERGE : STRATEGY_DROP;
+            int maxBatchSize = Math.max(json.optInt("maxBatchSize", DEFAULT_MAX_BATCH_SIZE), 1);
+            if (MODE_THROTTLE.equals(mode)) {
+                double rate = json.optDouble("rate", 0);
+                if (rate > 0) {
+                    return new Policy(MODE_THROTTLE, strategy, (long) Math.ceil(1000d / rate), maxBatchSize);
+                }
+            } else if (MODE_BATCH.equals(mode)) {
+                long interval = json.optLong("interval", 0);
+                if (interval > 0) {
+                    return new Policy(MODE_BATCH, strategy, interval, maxBatchSize);
+                }
+            }
+            return new Policy(MODE_IMMEDIATE, strategy, 0, maxBatchSize);
+        }
+    }
+
+    /**
+     * Per-event emission state (emitter thread)
+     */
+    private final class Channel {
+        final String eventName;
+        volatile Policy policy;
+
+        private final ArrayDeque<JSONObject> pending = new ArrayDeque<>();
+        private final Runnable flushRunnable = this::flush;
+        private boolean flushScheduled = false;
+        private long lastEmitAt = 0;
+        private int droppedSinceFlush = 0;
+
+        // Metrics
+        private volatile long received = 0;
+        private volatile long emitted = 0;
+        private volatile long batches = 0;
+        private volatile long dropped = 0;
+        private volatile long merged = 0;
+
+        Channel(String eventName, Policy policy) {
+            this.eventName = eventName;
+            this.policy = policy;
+        }
+
+        void offer(JSONObject payload) {
+            received++;
+            switch (policy.mode) {
+                case MODE_THROTTLE:
+                    throttle(payload);
+                    break;
+                case MODE_BATCH:
+                    batch(payload);
+                    break;
+                default:
+                    emitOne(payload);
+                    break;
+            }
+        }
+
+        void offerAll(List<JSONObject> payloads) {
+            if (payloads.size() > 1 && MODE_IMMEDIATE.equals(policy.mode)) {
+                // Immediate: native tarafta zaten birikmiş olan liste tek __batch emit'i olarak gider
+                received += payloads.size();
+                pending.addAll(payloads);
+                emitBatch();
+                return;
+            }
+            for (JSONObject payload : payloads) {
+                offer(payload);
+            }
+        }
+
+        private void throttle(JSONObject payload) {
+            long now = SystemClock.elapsedRealtime();
+            long wait = lastEmitAt + policy.intervalMs - now;
+            if (wait <= 0 && pending.isEmpty()) {
+                emitOne(payload);
+                return;
+            }
+            if (STRATEGY_MERGE.equals(policy.strategy)) {
+                // Pencere sonunda en güncel değer gönderilir
+                if (!pending.isEmpty()) {
+                    pending.clear();
+                    merged++;
+                }
+                pending.addLast(payload);
+                schedule(Math.max(wait, 0));
+            } else {
+                dropped++;
+            }
+        }
+
+        private void batch(JSONObject payload) {
+            if (STRATEGY_MERGE.equals(policy.strategy)) {
+                if (!pending.isEmpty()) {
+                    pending.clear();
+                    merged++;
+                }
+            } else if (pending.size() >= policy.maxBatchSize) {
+                // JS yetişemiyor: en eski event atılır
+                pending.pollFirst();
+                dropped++;
+                droppedSinceFlush++;
+            }
+            pending.addLast(payload);
+            schedule(policy.intervalMs);
+        }
+
+        private void schedule(long delayMs) {
+            if (!flushScheduled) {
+                flushScheduled = true;
+                handler.postDelayed(flushRunnable, delayMs);
+            }
+        }
+
+        void flush() {
+            flushScheduled = false;
+            handler.removeCallbacks(flushRunnable);
+            if (pending.isEmpty()) {
+                return;
+            }
+            if (!MODE_BATCH.equals(policy.mode)) {
+                // throttle / immediate: bekleyen (merge edilmiş) son event
+                emitOne(pending.pollLast());
+                pending.clear();
+                return;
+            }
+            emitBatch();
+        }
+
+        private void emitBatch() {
+            WritableArray events = Arguments.createArray();
+            Iterator<JSONObject> iterator = pending.iterator();
+            while (iterator.hasNext()) {
+                events.pushMap(toWritableMap(iterator.next()));
+            }
+            int count = pending.size();
+            pending.clear();
+
+            WritableMap params = Arguments.createMap();
+            params.putArray("__batch", events);
+            params.putInt("dropped", droppedSinceFlush);
+            droppedSinceFlush = 0;
+            send(eventName, params);
+            emitted += count;
+            batches++;
+            lastEmitAt = SystemClock.elapsedRealtime();
+        }
+
+        private void emitOne(JSONObject payload) {
+            send(eventName, toWritableMap(payload));
+            emitted++;
+            lastEmitAt = SystemClock.elapsedRealtime();
+        }
+
+        JSONObject getMetrics() throws JSONException {
+            JSONObject json = new JSONObject();
+            json.put("mode", policy.mode);
+            json.put("received", received);
+            json.put("emitted", emitted);
+            json.put("batches", batches);
+            json.put("dropped", dropped);
+            json.put("merged", merged);
+            return json;
+        }
+    }
+}
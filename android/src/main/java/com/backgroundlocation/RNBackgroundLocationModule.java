@@ -15,25 +15,45 @@ import androidx.core.app.ActivityCompat;
 import androidx.core.content.ContextCompat;
 
 import com.backgroundlocation.adapter.BackgroundLocationAdapter;
+import com.backgroundlocation.adapter.callback.DatabaseCallback;
+import com.backgroundlocation.adapter.callback.SyncCallback;
 import com.backgroundlocation.config.Config;
 import com.backgroundlocation.data.GeofenceModel;
 import com.backgroundlocation.data.LocationModel;
+import com.backgroundlocation.data.LocationQuery;
+import com.backgroundlocation.data.sqlite.AsyncGeofenceDAO;
+import com.backgroundlocation.data.sqlite.AsyncLocationDAO;
 import com.backgroundlocation.data.sqlite.SQLiteLocationDAO;
-import com.backgroundlocation.data.sqlite.SQLiteGeofenceDAO;
+import com.backgroundlocation.data.sqlite.DatabaseThreadPolicy;
+import com.backgroundlocation.data.sqlite.RetentionManager;
+import com.backgroundlocation.event.LocationBatchEvent;
 import com.backgroundlocation.event.LocationEvent;
 import com.backgroundlocation.event.HttpResponseEvent;
+import com.backgroundlocation.event.TemplateErrorEvent;
 import com.backgroundlocation.event.ConnectivityChangeEvent;
 import com.backgroundlocation.event.EnabledChangeEvent;
 import com.backgroundlocation.event.MotionChangeEvent;
 import com.backgroundlocation.event.GeofenceEvent;
 import com.backgroundlocation.event.ActivityChangeEvent;
 import com.backgroundlocation.event.HeartbeatEvent;
+import com.backgroundlocation.event.HeadlessEvent;
+import com.backgroundlocation.event.EventDispatcher;
 import com.backgroundlocation.receiver.GeofenceBroadcastReceiver;
 import com.backgroundlocation.service.LocationService;
 import com.backgroundlocation.service.SyncService;
+import com.backgroundlocation.service.PayloadTemplate;
 import com.backgroundlocation.service.ActivityRecognitionService;
+import com.backgroundlocation.service.HeartbeatService;
+import com.backgroundlocation.service.ForegroundNotification;
+import com.backgroundlocation.scheduler.WakeupScheduler;
 import com.backgroundlocation.lifecycle.LifecycleManager;
+import com.backgroundlocation.location.ElasticityController;
+import com.backgroundlocation.location.KalmanLocationFilter;
+import com.backgroundlocation.location.MotionPolicyEngine;
+import com.backgroundlocation.location.TrajectoryCompressor;
 import com.backgroundlocation.headless.HeadlessTask;
+import com.backgroundlocation.headless.HeadlessTaskManager;
+import com.backgroundlocation.util.ThreadPools;
 import com.facebook.react.bridge.Arguments;
 import com.facebook.react.bridge.Callback;
 import com.facebook.react.bridge.LifecycleEventListener;
@@ -45,7 +65,6 @@ import com.facebook.react.bridge.ReadableMap;
 import com.facebook.react.bridge.ReadableMapKeySetIterator;
 import com.facebook.react.bridge.WritableArray;
 import com.facebook.react.bridge.WritableMap;
-import com.facebook.react.modules.core.DeviceEventManagerModule;
 import com.facebook.react.modules.core.PermissionAwareActivity;
 import com.facebook.react.modules.core.PermissionListener;
 import com.google.android.gms.location.FusedLocationProviderClient;
@@ -55,8 +74,6 @@ import com.google.android.gms.location.GeofencingRequest;
 import com.google.android.gms.location.LocationServices;
 
 import org.greenrobot.eventbus.EventBus;
-import org.greenrobot.eventbus.Subscribe;
-import org.greenrobot.eventbus.ThreadMode;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
@@ -77,12 +94,15 @@ public class RNBackgroundLocationModule extends ReactContextBaseJavaModule imple
     private final ReactApplicationContext reactContext;
     private BackgroundLocationAdapter adapter;
     private Config config;
-    private SQLiteLocationDAO locationDatabase;
-    private SQLiteGeofenceDAO geofenceDatabase;
+    // Async facades: DB erişimi native modules / UI thread'ini bloklamaz
+    private AsyncLocationDAO locationDatabase;
+    private AsyncGeofenceDAO geofenceDatabase;
     private FusedLocationProviderClient fusedLocationClient;
     private GeofencingClient geofencingClient;
     private boolean isReady = false;
     private Callback pendingPermissionCallback;
+    // JS event emission (throttle / batch policy, background thread)
+    private final EventEmitter emitter;
     
     // Duplicate event prevention (prevent same UUID from being sent twice)
     // CRITICAL: Static Set - tüm modül instance'ları aynı Set'i paylaşır (modül birden fazla kez oluşturulsa bile)
@@ -98,26 +118,23 @@ public class RNBackgroundLocationModule extends ReactContextBaseJavaModule imple
         // Initialize adapter
         this.adapter = BackgroundLocationAdapter.getInstance(reactContext);
         this.config = Config.getInstance(reactContext);
-        this.locationDatabase = SQLiteLocationDAO.getInstance(reactContext);
-        this.geofenceDatabase = SQLiteGeofenceDAO.getInstance(reactContext);
+        this.locationDatabase = AsyncLocationDAO.getInstance(reactContext);
+        this.geofenceDatabase = AsyncGeofenceDAO.getInstance(reactContext);
         this.fusedLocationClient = LocationServices.getFusedLocationProviderClient(reactContext);
         this.geofencingClient = LocationServices.getGeofencingClient(reactContext);
+        this.emitter = new EventEmitter(reactContext);
+        this.emitter.setPolicies(config.eventEmitPolicy);
         
         reactContext.addLifecycleEventListener(this);
         
-        // Register EventBus (adapter zaten kayıtlı, ama module de kayıtlı olmalı React Native events için)
-        if (!EventBus.getDefault().isRegistered(this)) {
-            EventBus.getDefault().register(this);
-            android.util.Log.d("RNBackgroundLocation", "✅ EventBus registered for RNBackgroundLocationModule");
-        } else {
-            android.util.Log.w("RNBackgroundLocation", "⚠️ EventBus already registered for RNBackgroundLocationModule");
-        }
+        // Subscribe to native events (adapter zaten kayıtlı, ama module de kayıtlı olmalı React Native events için)
+        subscribeEvents();
         
         // Register HeadlessTask if headless mode is enabled
         if (config.enableHeadless) {
-            HeadlessTask headlessTask = new HeadlessTask();
-            if (!EventBus.getDefault().isRegistered(headlessTask)) {
-                EventBus.getDefault().register(headlessTask);
+            // HeadlessEvent EventBus'ta kalır (custom HeadlessTask sınıfları @Subscribe kullanır)
+            if (!EventBus.getDefault().hasSubscriberForEvent(HeadlessEvent.class)) {
+                EventBus.getDefault().register(new HeadlessTask());
             }
         }
     }
@@ -140,18 +157,43 @@ public class RNBackgroundLocationModule extends ReactContextBaseJavaModule imple
     @Override
     public void onHostDestroy() {
         // Cleanup
-        if (EventBus.getDefault().isRegistered(this)) {
-            EventBus.getDefault().unregister(this);
-        }
+        EventDispatcher.getInstance().unsubscribe(this);
     }
 
-    // EventBus subscribers for native events
+    @Override
+    public void onCatalystInstanceDestroy() {
+        // Module teardown (reload): emitter thread'ini kapat
+        emitter.destroy();
+    }
+
+    /**
+     * Typed native event subscriptions (main thread)
+     */
+    private void subscribeEvents() {
+        EventDispatcher dispatcher = EventDispatcher.getInstance();
+        if (dispatcher.isSubscribed(this)) {
+            android.util.Log.w("RNBackgroundLocation", "⚠️ Events already subscribed for RNBackgroundLocationModule");
+            return;
+        }
+        dispatcher.subscribe(this, LocationEvent.class, EventDispatcher.Delivery.MAIN, this::_onLocationEvent);
+        dispatcher.subscribe(this, LocationBatchEvent.class, EventDispatcher.Delivery.MAIN, this::_onLocationBatch);
+        dispatcher.subscribe(this, HttpResponseEvent.class, EventDispatcher.Delivery.MAIN, this::_onHttpResponse);
+        dispatcher.subscribe(this, ConnectivityChangeEvent.class, EventDispatcher.Delivery.MAIN, this::_onConnectivityChange);
+        dispatcher.subscribe(this, EnabledChangeEvent.class, EventDispatcher.Delivery.MAIN, this::_onEnabledChange);
+        dispatcher.subscribe(this, MotionChangeEvent.class, EventDispatcher.Delivery.MAIN, this::_onMotionChange);
+        dispatcher.subscribe(this, GeofenceEvent.class, EventDispatcher.Delivery.MAIN, this::_onGeofence);
+        dispatcher.subscribe(this, ActivityChangeEvent.class, EventDispatcher.Delivery.MAIN, this::_onActivityChange);
+        dispatcher.subscribe(this, HeartbeatEvent.class, EventDispatcher.Delivery.MAIN, this::_onHeartbeat);
+        dispatcher.subscribe(this, TemplateErrorEvent.class, EventDispatcher.Delivery.MAIN, this::_onTemplateError);
+        android.util.Log.d("RNBackgroundLocation", "✅ Events subscribed for RNBackgroundLocationModule");
+    }
+
+    // Native event listeners
     
-    @Subscribe(threadMode = ThreadMode.MAIN)
-    public void _onLocationEvent(LocationEvent event) {
+    private void _onLocationEvent(LocationEvent event) {
         try {
             // CRITICAL: Duplicate check - prevent same UUID from being sent twice to React Native
-            // This can happen if EventBus has multiple subscribers or event is posted twice
+            // This can happen if the event is posted twice
             JSONObject locationJson = event.toJson();
             String uuid = locationJson.optString("uuid", null);
             
@@ -163,108 +205,127 @@ public class RNBackgroundLocationModule extends ReactContextBaseJavaModule imple
                 return;
             }
             
-            // CRITICAL: Thread-safe duplicate check - çifte gönderimi önle
-            // Static Set kullanıyoruz, böylece tüm modül instance'ları aynı Set'i paylaşır
-            synchronized (sentLocationUUIDsLock) {
-                // UUID daha önce gönderilmiş mi kontrol et
-                if (sentLocationUUIDs.contains(uuid)) {
-                    // Duplicate event - ignore (çifte gönderim önlendi)
-                    android.util.Log.d("RNBackgroundLocation", "⚠️ DUPLICATE location event IGNORED (UUID already sent): " + uuid);
-                    return;
-                }
-                
-                // UUID'yi set'e ekle (göndermeden ÖNCE ekle - race condition önleme)
-                sentLocationUUIDs.add(uuid);
-                
-                // Set çok büyüdüyse eski kayıtları temizle
-                if (sentLocationUUIDs.size() > MAX_TRACKED_UUIDS) {
-                    // En eski UUID'yi kaldır (FIFO)
-                    String oldestUUID = sentLocationUUIDs.iterator().next();
-                    sentLocationUUIDs.remove(oldestUUID);
-                }
+            if (!markSent(uuid)) {
+                // Duplicate event - ignore (çifte gönderim önlendi)
+                android.util.Log.d("RNBackgroundLocation", "⚠️ DUPLICATE location event IGNORED (UUID already sent): " + uuid);
+                return;
             }
             
-            // Update last sent UUID (backward compatibility)
-            lastSentLocationUUID = uuid;
-            
             // CRITICAL: Event'i React Native'e gönder (duplicate check'ten geçti)
-            WritableMap params = jsonToWritableMap(locationJson);
-            sendEvent(event.getEventName(), params);
+            emitter.emit(event.getEventName(), locationJson);
             
-            android.util.Log.d("RNBackgroundLocation", "✅ Location event sent to React Native: " + uuid);
-        } catch (JSONException e) {
+            android.util.Log.d("RNBackgroundLocation", "✅ Location event queued for React Native: " + uuid);
+        } catch (Exception e) {
             android.util.Log.e("RNBackgroundLocation", "❌ Error processing location event: " + e.getMessage());
             e.printStackTrace();
         }
     }
     
-    @Subscribe(threadMode = ThreadMode.MAIN)
-    public void _onHttpResponse(HttpResponseEvent event) {
+    private void _onLocationBatch(LocationBatchEvent event) {
+        // Batched delivery: tek duplicate pass, JS'e tek emit (immediate policy'de __batch)
+        List<JSONObject> locations = new ArrayList<>(event.getLocations().size());
+        for (JSONObject locationJson : event.getLocations()) {
+            String uuid = locationJson.optString("uuid", null);
+            if (uuid != null && !uuid.isEmpty() && markSent(uuid)) {
+                locations.add(locationJson);
+            }
+        }
+        if (!locations.isEmpty()) {
+            emitter.emitAll(event.getEventName(), locations);
+            android.util.Log.d("RNBackgroundLocation", "✅ Location batch queued for React Native: " + locations.size());
+        }
+    }
+    
+    /**
+     * Record uuid as sent to JS; false if it was already sent
+     */
+    private boolean markSent(String uuid) {
+        // CRITICAL: Thread-safe duplicate check - çifte gönderimi önle
+        // Static Set kullanıyoruz, böylece tüm modül instance'ları aynı Set'i paylaşır
+        synchronized (sentLocationUUIDsLock) {
+            // UUID daha önce gönderilmiş mi kontrol et
+            if (sentLocationUUIDs.contains(uuid)) {
+                return false;
+            }
+            
+            // UUID'yi set'e ekle (göndermeden ÖNCE ekle - race condition önleme)
+            sentLocationUUIDs.add(uuid);
+            
+            // Set çok büyüdüyse eski kayıtları temizle
+            if (sentLocationUUIDs.size() > MAX_TRACKED_UUIDS) {
+                // En eski UUID'yi kaldır (FIFO)
+                String oldestUUID = sentLocationUUIDs.iterator().next();
+                sentLocationUUIDs.remove(oldestUUID);
+            }
+        }
+        
+        // Update last sent UUID (backward compatibility)
+        lastSentLocationUUID = uuid;
+        return true;
+    }
+    
+    private void _onHttpResponse(HttpResponseEvent event) {
         try {
-            WritableMap params = jsonToWritableMap(event.toJson());
-            sendEvent(event.getEventName(), params);
-        } catch (JSONException e) {
+            emitter.emit(event.getEventName(), event.toJson());
+        } catch (Exception e) {
             e.printStackTrace();
         }
     }
     
-    @Subscribe(threadMode = ThreadMode.MAIN)
-    public void _onConnectivityChange(ConnectivityChangeEvent event) {
+    private void _onConnectivityChange(ConnectivityChangeEvent event) {
         try {
-            WritableMap params = jsonToWritableMap(event.toJson());
-            sendEvent(event.getEventName(), params);
-        } catch (JSONException e) {
+            emitter.emit(event.getEventName(), event.toJson());
+        } catch (Exception e) {
             e.printStackTrace();
         }
     }
     
-    @Subscribe(threadMode = ThreadMode.MAIN)
-    public void _onEnabledChange(EnabledChangeEvent event) {
+    private void _onEnabledChange(EnabledChangeEvent event) {
         try {
-            WritableMap params = Arguments.createMap();
-            params.putBoolean("enabled", event.isEnabled());
-            sendEvent(event.getEventName(), params);
+            JSONObject params = new JSONObject();
+            params.put("enabled", event.isEnabled());
+            emitter.emit(event.getEventName(), params);
         } catch (Exception e) {
             e.printStackTrace();
         }
     }
     
-    @Subscribe(threadMode = ThreadMode.MAIN)
-    public void _onMotionChange(MotionChangeEvent event) {
+    private void _onMotionChange(MotionChangeEvent event) {
         try {
-            WritableMap params = jsonToWritableMap(event.toJson());
-            sendEvent(event.getEventName(), params);
-        } catch (JSONException e) {
+            emitter.emit(event.getEventName(), event.toJson());
+        } catch (Exception e) {
             e.printStackTrace();
         }
     }
     
-    @Subscribe(threadMode = ThreadMode.MAIN)
-    public void _onGeofence(GeofenceEvent event) {
+    private void _onGeofence(GeofenceEvent event) {
         try {
-            WritableMap params = jsonToWritableMap(event.toJson());
-            sendEvent(event.getEventName(), params);
-        } catch (JSONException e) {
+            emitter.emit(event.getEventName(), event.toJson());
+        } catch (Exception e) {
             e.printStackTrace();
         }
     }
     
-    @Subscribe(threadMode = ThreadMode.MAIN)
-    public void _onActivityChange(ActivityChangeEvent event) {
+    private void _onActivityChange(ActivityChangeEvent event) {
         try {
-            WritableMap params = jsonToWritableMap(event.toJson());
-            sendEvent(event.getEventName(), params);
-        } catch (JSONException e) {
+            emitter.emit(event.getEventName(), event.toJson());
+        } catch (Exception e) {
             e.printStackTrace();
         }
     }
     
-    @Subscribe(threadMode = ThreadMode.MAIN)
-    public void _onHeartbeat(HeartbeatEvent event) {
+    private void _onHeartbeat(HeartbeatEvent event) {
         try {
-            WritableMap params = jsonToWritableMap(event.toJson());
-            sendEvent(event.getEventName(), params);
-        } catch (JSONException e) {
+            emitter.emit(event.getEventName(), event.toJson());
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+    
+    private void _onTemplateError(TemplateErrorEvent event) {
+        try {
+            emitter.emit(event.getEventName(), event.toJson());
+        } catch (Exception e) {
             e.printStackTrace();
         }
     }
@@ -278,6 +339,9 @@ public class RNBackgroundLocationModule extends ReactContextBaseJavaModule imple
             // Update configuration
             JSONObject configJson = readableMapToJson(configMap);
             config.updateFromJSON(configJson);
+            emitter.setPolicies(config.eventEmitPolicy);
+            PayloadTemplate.update(config);
+            MotionPolicyEngine.getInstance().update(config);
             
             // Use adapter
             adapter.ready(new com.backgroundlocation.adapter.callback.Callback() {
@@ -306,6 +370,9 @@ public class RNBackgroundLocationModule extends ReactContextBaseJavaModule imple
             config.reset();
             JSONObject configJson = readableMapToJson(configMap);
             config.updateFromJSON(configJson);
+            emitter.setPolicies(config.eventEmitPolicy);
+            PayloadTemplate.update(config);
+            MotionPolicyEngine.getInstance().update(config);
             
             isReady = true;
             success.invoke(getStateMap());
@@ -322,6 +389,10 @@ public class RNBackgroundLocationModule extends ReactContextBaseJavaModule imple
         try {
             JSONObject configJson = readableMapToJson(configMap);
             config.updateFromJSON(configJson);
+            emitter.setPolicies(config.eventEmitPolicy);
+            PayloadTemplate.update(config);
+            MotionPolicyEngine.getInstance().update(config);
+            ForegroundNotification.update(reactContext);
             success.invoke(getStateMap());
         } catch (Exception e) {
             failure.invoke(e.getMessage());
@@ -339,6 +410,10 @@ public class RNBackgroundLocationModule extends ReactContextBaseJavaModule imple
                 JSONObject configJson = readableMapToJson(defaultConfig);
                 config.updateFromJSON(configJson);
             }
+            emitter.setPolicies(config.eventEmitPolicy);
+            PayloadTemplate.update(config);
+            MotionPolicyEngine.getInstance().update(config);
+            ForegroundNotification.update(reactContext);
             success.invoke(getStateMap());
         } catch (Exception e) {
             failure.invoke(e.getMessage());
@@ -476,7 +551,7 @@ public class RNBackgroundLocationModule extends ReactContextBaseJavaModule imple
                             
                             // Optionally persist
                             if (options.hasKey("persist") && options.getBoolean("persist")) {
-                                locationDatabase.persist(model.toJSON());
+                                locationDatabase.persist(model.toJSON(), null);
                             }
                             
                             WritableMap result = jsonToWritableMap(model.toJSON());
@@ -525,39 +600,189 @@ public class RNBackgroundLocationModule extends ReactContextBaseJavaModule imple
         }
     }
 
+    // ============================================
+    // Synchronous fast path (JS thread, bridge round-trip yok)
+    // Remote debugger'da (Chrome) blocking metodlar çalışmaz; JS tarafı async versiyona düşer.
+    // ============================================
+
+    /**
+     * Get current state (synchronous)
+     */
+    @ReactMethod(isBlockingSynchronousMethod = true)
+    public WritableMap getStateSync() {
+        return getStateMap();
+    }
+
+    /**
+     * Get location count (synchronous). DAO'nun cached sayacından, DB'ye gitmez;
+     * sayaçlar henüz yüklenmediyse -1 (yükleme arka planda başlar)
+     */
+    @ReactMethod(isBlockingSynchronousMethod = true)
+    public int getCountSync() {
+        return SQLiteLocationDAO.getInstance(reactContext).cachedCount();
+    }
+
+    /**
+     * Get { total, pending, locked } counts (synchronous); sayaçlar yüklenmediyse boş map
+     */
+    @ReactMethod(isBlockingSynchronousMethod = true)
+    public WritableMap getLocationCountsSync() {
+        try {
+            return jsonToWritableMap(SQLiteLocationDAO.getInstance(reactContext).cachedCounts());
+        } catch (JSONException e) {
+            return Arguments.createMap();
+        }
+    }
+
+    /**
+     * Get odometer value (synchronous)
+     */
+    @ReactMethod(isBlockingSynchronousMethod = true)
+    public double getOdometerSync() {
+        return config.odometer;
+    }
+
+    /**
+     * Check if moving (synchronous)
+     */
+    @ReactMethod(isBlockingSynchronousMethod = true)
+    public boolean isMovingSync() {
+        if (ActivityRecognitionService.getLastActivity() == null) {
+            return config.isMoving;
+        }
+        return ActivityRecognitionService.isMoving(reactContext);
+    }
+
     /**
      * Get stored locations
      */
     @ReactMethod
     public void getLocations(Callback success, Callback failure) {
-        try {
-            List<LocationModel> locations = locationDatabase.all();
-            WritableArray array = Arguments.createArray();
-            
-            for (LocationModel location : locations) {
-                WritableMap map = jsonToWritableMap(location.toJSON());
-                array.pushMap(map);
+        locationDatabase.all(new DatabaseCallback<List<LocationModel>>() {
+            @Override
+            public void onSuccess(List<LocationModel> locations) {
+                try {
+                    WritableArray array = Arguments.createArray();
+                    for (LocationModel location : locations) {
+                        WritableMap map = jsonToWritableMap(location.toJSON());
+                        array.pushMap(map);
+                    }
+                    success.invoke(array);
+                } catch (Exception e) {
+                    failure.invoke(e.getMessage());
+                }
             }
             
-            success.invoke(array);
+            @Override
+            public void onFailure(String error) {
+                failure.invoke(error);
+            }
+        });
+    }
+
+    /**
+     * Query stored locations (filter / projection / keyset paging SQL tarafında)
+     * Result: { locations, cursor, hasMore }
+     */
+    @ReactMethod
+    public void queryLocations(ReadableMap queryMap, Callback success, Callback failure) {
+        try {
+            LocationQuery query = LocationQuery.fromJSON(readableMapToJson(queryMap));
+            locationDatabase.query(query, new DatabaseCallback<LocationQuery.Page>() {
+                @Override
+                public void onSuccess(LocationQuery.Page page) {
+                    try {
+                        WritableArray array = Arguments.createArray();
+                        for (JSONObject row : page.rows) {
+                            array.pushMap(jsonToWritableMap(row));
+                        }
+                        WritableMap result = Arguments.createMap();
+                        result.putArray("locations", array);
+                        result.putDouble("cursor", page.cursor);
+                        result.putBoolean("hasMore", page.hasMore);
+                        success.invoke(result);
+                    } catch (Exception e) {
+                        failure.invoke(e.getMessage());
+                    }
+                }
+                
+                @Override
+                public void onFailure(String error) {
+                    failure.invoke(error);
+                }
+            });
         } catch (Exception e) {
             failure.invoke(e.getMessage());
         }
     }
 
     /**
-     * Get location count
+     * Aggregate stored locations (count, bbox, timespan, distance; groupBy: "day")
      */
     @ReactMethod
-    public void getCount(Callback success, Callback failure) {
+    public void aggregateLocations(ReadableMap queryMap, Callback success, Callback failure) {
         try {
-            int count = locationDatabase.count();
-            success.invoke(count);
+            LocationQuery query = LocationQuery.fromJSON(readableMapToJson(queryMap));
+            locationDatabase.aggregate(query, new DatabaseCallback<JSONObject>() {
+                @Override
+                public void onSuccess(JSONObject result) {
+                    try {
+                        success.invoke(jsonToWritableMap(result));
+                    } catch (Exception e) {
+                        failure.invoke(e.getMessage());
+                    }
+                }
+                
+                @Override
+                public void onFailure(String error) {
+                    failure.invoke(error);
+                }
+            });
         } catch (Exception e) {
             failure.invoke(e.getMessage());
         }
     }
 
+    /**
+     * Get location count
+     */
+    @ReactMethod
+    public void getCount(Callback success, Callback failure) {
+        locationDatabase.count(new DatabaseCallback<Integer>() {
+            @Override
+            public void onSuccess(Integer count) {
+                success.invoke(count);
+            }
+            
+            @Override
+            public void onFailure(String error) {
+                failure.invoke(error);
+            }
+        });
+    }
+
+    /**
+     * Get { total, pending, locked } counts (pending: henüz sync edilmemiş, locked: sync sürüyor)
+     */
+    @ReactMethod
+    public void getLocationCounts(Callback success, Callback failure) {
+        locationDatabase.counts(new DatabaseCallback<JSONObject>() {
+            @Override
+            public void onSuccess(JSONObject counts) {
+                try {
+                    success.invoke(jsonToWritableMap(counts));
+                } catch (Exception e) {
+                    failure.invoke(e.getMessage());
+                }
+            }
+            
+            @Override
+            public void onFailure(String error) {
+                failure.invoke(error);
+            }
+        });
+    }
+
     /**
      * Insert location manually
      */
@@ -565,13 +790,21 @@ public class RNBackgroundLocationModule extends ReactContextBaseJavaModule imple
     public void insertLocation(ReadableMap locationMap, Callback success, Callback failure) {
         try {
             JSONObject locationJson = readableMapToJson(locationMap);
-            String uuid = locationDatabase.persist(locationJson);
-            
-            if (uuid != null) {
-                success.invoke(uuid);
-            } else {
-                failure.invoke("Failed to insert location");
-            }
+            locationDatabase.persist(locationJson, new DatabaseCallback<String>() {
+                @Override
+                public void onSuccess(String uuid) {
+                    if (uuid != null) {
+                        success.invoke(uuid);
+                    } else {
+                        failure.invoke("Failed to insert location");
+                    }
+                }
+                
+                @Override
+                public void onFailure(String error) {
+                    failure.invoke(error);
+                }
+            });
         } catch (Exception e) {
             failure.invoke(e.getMessage());
         }
@@ -582,12 +815,17 @@ public class RNBackgroundLocationModule extends ReactContextBaseJavaModule imple
      */
     @ReactMethod
     public void destroyLocations(Callback success, Callback failure) {
-        try {
-            locationDatabase.clear();
-            success.invoke();
-        } catch (Exception e) {
-            failure.invoke(e.getMessage());
-        }
+        locationDatabase.clear(new DatabaseCallback<Boolean>() {
+            @Override
+            public void onSuccess(Boolean cleared) {
+                success.invoke();
+            }
+            
+            @Override
+            public void onFailure(String error) {
+                failure.invoke(error);
+            }
+        });
     }
 
     /**
@@ -595,20 +833,72 @@ public class RNBackgroundLocationModule extends ReactContextBaseJavaModule imple
      */
     @ReactMethod
     public void destroyLocation(String uuid, Callback success, Callback failure) {
-        try {
-            // Find location by uuid first
-            List<LocationModel> allLocations = locationDatabase.all();
-            for (LocationModel location : allLocations) {
-                if (location.uuid != null && location.uuid.equals(uuid)) {
-                    locationDatabase.destroy(location);
+        locationDatabase.destroy(uuid, new DatabaseCallback<Boolean>() {
+            @Override
+            public void onSuccess(Boolean destroyed) {
+                if (destroyed) {
                     success.invoke();
-                    return;
+                } else {
+                    failure.invoke("Location not found");
                 }
             }
-            failure.invoke("Location not found");
-        } catch (Exception e) {
-            failure.invoke(e.getMessage());
+            
+            @Override
+            public void onFailure(String error) {
+                failure.invoke(error);
+            }
+        });
+    }
+
+    /**
+     * Delete locations by uuid (ör. custom upload sonrası ack), resolves with deleted count
+     */
+    @ReactMethod
+    public void destroyLocationsByUuid(ReadableArray uuidArray, Callback success, Callback failure) {
+        List<String> uuids = new ArrayList<>(uuidArray.size());
+        for (int i = 0; i < uuidArray.size(); i++) {
+            String uuid = uuidArray.getString(i);
+            if (uuid != null) {
+                uuids.add(uuid);
+            }
         }
+        locationDatabase.destroy(uuids, new DatabaseCallback<Integer>() {
+            @Override
+            public void onSuccess(Integer deleted) {
+                success.invoke(deleted);
+            }
+            
+            @Override
+            public void onFailure(String error) {
+                failure.invoke(error);
+            }
+        });
+    }
+
+    /**
+     * Get stored location by uuid
+     */
+    @ReactMethod
+    public void getLocation(String uuid, Callback success, Callback failure) {
+        locationDatabase.find(uuid, new DatabaseCallback<LocationModel>() {
+            @Override
+            public void onSuccess(LocationModel location) {
+                if (location == null) {
+                    failure.invoke("Location not found");
+                    return;
+                }
+                try {
+                    success.invoke(jsonToWritableMap(location.toJSON()));
+                } catch (Exception e) {
+                    failure.invoke(e.getMessage());
+                }
+            }
+            
+            @Override
+            public void onFailure(String error) {
+                failure.invoke(error);
+            }
+        });
     }
 
     /**
@@ -622,17 +912,27 @@ public class RNBackgroundLocationModule extends ReactContextBaseJavaModule imple
                 return;
             }
             
-            List<LocationModel> locations = locationDatabase.allWithLocking(config.maxBatchSize);
-            
-            SyncService.sync(reactContext);
-            
-            WritableArray array = Arguments.createArray();
-            for (LocationModel location : locations) {
-                WritableMap map = jsonToWritableMap(location.toJSON());
-                array.pushMap(map);
-            }
-            
-            success.invoke(array);
+            // SyncService locks/uploads/destroys the batch and completes with the synced records
+            SyncService.sync(reactContext, new SyncCallback() {
+                @Override
+                public void onSuccess(List<LocationModel> locations) {
+                    try {
+                        WritableArray array = Arguments.createArray();
+                        for (LocationModel location : locations) {
+                            WritableMap map = jsonToWritableMap(location.toJSON());
+                            array.pushMap(map);
+                        }
+                        success.invoke(array);
+                    } catch (Exception e) {
+                        failure.invoke(e.getMessage());
+                    }
+                }
+                
+                @Override
+                public void onFailure(String error) {
+                    failure.invoke(error);
+                }
+            });
         } catch (Exception e) {
             failure.invoke(e.getMessage());
         }
@@ -685,13 +985,19 @@ public class RNBackgroundLocationModule extends ReactContextBaseJavaModule imple
                 return;
             }
             
-            // Save to SQLite database
-            geofenceDatabase.persist(geofenceModel);
-            
-            // Register with Google Play Services
-            registerGeofence(geofenceModel);
-            
-            success.invoke();
+            // Save to SQLite database, then register with Google Play Services
+            geofenceDatabase.persist(geofenceModel, new DatabaseCallback<Boolean>() {
+                @Override
+                public void onSuccess(Boolean persisted) {
+                    registerGeofence(geofenceModel);
+                    success.invoke();
+                }
+                
+                @Override
+                public void onFailure(String error) {
+                    failure.invoke(error);
+                }
+            });
         } catch (Exception e) {
             failure.invoke(e.getMessage());
         }
@@ -715,14 +1021,21 @@ public class RNBackgroundLocationModule extends ReactContextBaseJavaModule imple
                 }
             }
             
-            // Save to SQLite database
-            for (GeofenceModel geofence : geofences) {
-                geofenceDatabase.persist(geofence);
-                // Register with Google Play Services
-                registerGeofence(geofence);
-            }
-            
-            success.invoke();
+            // Save to SQLite database (tek writer işi), then register with Google Play Services
+            geofenceDatabase.persist(geofences, new DatabaseCallback<Boolean>() {
+                @Override
+                public void onSuccess(Boolean persisted) {
+                    for (GeofenceModel geofence : geofences) {
+                        registerGeofence(geofence);
+                    }
+                    success.invoke();
+                }
+                
+                @Override
+                public void onFailure(String error) {
+                    failure.invoke(error);
+                }
+            });
         } catch (Exception e) {
             failure.invoke(e.getMessage());
         }
@@ -733,17 +1046,24 @@ public class RNBackgroundLocationModule extends ReactContextBaseJavaModule imple
      */
     @ReactMethod
     public void removeGeofence(String identifier, Callback success, Callback failure) {
-        try {
-            geofenceDatabase.destroy(identifier);
-            
-            List<String> ids = new ArrayList<>();
-            ids.add(identifier);
-            geofencingClient.removeGeofences(ids);
+        geofenceDatabase.destroy(identifier, new DatabaseCallback<Boolean>() {
+            @Override
+            public void onSuccess(Boolean destroyed) {
+                try {
+                    List<String> ids = new ArrayList<>();
+                    ids.add(identifier);
+                    geofencingClient.removeGeofences(ids);
+                    success.invoke();
+                } catch (Exception e) {
+                    failure.invoke(e.getMessage());
+                }
+            }
             
-            success.invoke();
-        } catch (Exception e) {
-            failure.invoke(e.getMessage());
-        }
+            @Override
+            public void onFailure(String error) {
+                failure.invoke(error);
+            }
+        });
     }
 
     /**
@@ -751,13 +1071,22 @@ public class RNBackgroundLocationModule extends ReactContextBaseJavaModule imple
      */
     @ReactMethod
     public void removeGeofences(Callback success, Callback failure) {
-        try {
-            geofenceDatabase.clear();
-            geofencingClient.removeGeofences(getGeofencePendingIntent());
-            success.invoke();
-        } catch (Exception e) {
-            failure.invoke(e.getMessage());
-        }
+        geofenceDatabase.clear(new DatabaseCallback<Boolean>() {
+            @Override
+            public void onSuccess(Boolean cleared) {
+                try {
+                    geofencingClient.removeGeofences(getGeofencePendingIntent());
+                    success.invoke();
+                } catch (Exception e) {
+                    failure.invoke(e.getMessage());
+                }
+            }
+            
+            @Override
+            public void onFailure(String error) {
+                failure.invoke(error);
+            }
+        });
     }
 
     /**
@@ -765,19 +1094,26 @@ public class RNBackgroundLocationModule extends ReactContextBaseJavaModule imple
      */
     @ReactMethod
     public void getGeofences(Callback success, Callback failure) {
-        try {
-            List<GeofenceModel> geofences = geofenceDatabase.all();
-            WritableArray array = Arguments.createArray();
-            
-            for (GeofenceModel geofence : geofences) {
-                WritableMap map = jsonToWritableMap(geofence.toJSON());
-                array.pushMap(map);
+        geofenceDatabase.all(new DatabaseCallback<List<GeofenceModel>>() {
+            @Override
+            public void onSuccess(List<GeofenceModel> geofences) {
+                try {
+                    WritableArray array = Arguments.createArray();
+                    for (GeofenceModel geofence : geofences) {
+                        WritableMap map = jsonToWritableMap(geofence.toJSON());
+                        array.pushMap(map);
+                    }
+                    success.invoke(array);
+                } catch (Exception e) {
+                    failure.invoke(e.getMessage());
+                }
             }
             
-            success.invoke(array);
-        } catch (Exception e) {
-            failure.invoke(e.getMessage());
-        }
+            @Override
+            public void onFailure(String error) {
+                failure.invoke(error);
+            }
+        });
     }
 
     /**
@@ -785,18 +1121,25 @@ public class RNBackgroundLocationModule extends ReactContextBaseJavaModule imple
      */
     @ReactMethod
     public void getGeofence(String identifier, Callback success, Callback failure) {
-        try {
-            GeofenceModel geofence = geofenceDatabase.get(identifier);
+        geofenceDatabase.get(identifier, new DatabaseCallback<GeofenceModel>() {
+            @Override
+            public void onSuccess(GeofenceModel geofence) {
+                try {
+                    if (geofence != null) {
+                        success.invoke(jsonToWritableMap(geofence.toJSON()));
+                    } else {
+                        failure.invoke("Geofence not found");
+                    }
+                } catch (Exception e) {
+                    failure.invoke(e.getMessage());
+                }
+            }
             
-            if (geofence != null) {
-                WritableMap map = jsonToWritableMap(geofence.toJSON());
-                success.invoke(map);
-            } else {
-                failure.invoke("Geofence not found");
+            @Override
+            public void onFailure(String error) {
+                failure.invoke(error);
             }
-        } catch (Exception e) {
-            failure.invoke(e.getMessage());
-        }
+        });
     }
 
     /**
@@ -804,12 +1147,17 @@ public class RNBackgroundLocationModule extends ReactContextBaseJavaModule imple
      */
     @ReactMethod
     public void geofenceExists(String identifier, Callback callback) {
-        try {
-            boolean exists = geofenceDatabase.exists(identifier);
-            callback.invoke(exists);
-        } catch (Exception e) {
-            callback.invoke(false);
-        }
+        geofenceDatabase.exists(identifier, new DatabaseCallback<Boolean>() {
+            @Override
+            public void onSuccess(Boolean exists) {
+                callback.invoke(exists);
+            }
+            
+            @Override
+            public void onFailure(String error) {
+                callback.invoke(false);
+            }
+        });
     }
 
     /**
@@ -928,6 +1276,48 @@ public class RNBackgroundLocationModule extends ReactContextBaseJavaModule imple
         }
     }
 
+    /**
+     * Get diagnostics
+     * Executor metrikleri (queue depth, wait/run time, rejections), main-thread DB erişim sayısı
+     * headless cold-start faz süreleri ve event dispatcher buffer/drop sayıları
+     */
+    @ReactMethod
+    public void getDiagnostics(Callback success, Callback failure) {
+        try {
+            JSONObject json = new JSONObject();
+            json.put("executors", ThreadPools.getMetrics());
+            json.put("mainThreadDbAccess", DatabaseThreadPolicy.getViolationCount());
+            json.put("headless", HeadlessTaskManager.getInstance().getMetrics());
+            json.put("events", EventDispatcher.getInstance().getMetrics());
+            json.put("emitter", emitter.getMetrics());
+            json.put("retention", RetentionManager.getInstance(reactContext).getMetrics());
+            json.put("compression", TrajectoryCompressor.getInstance().getMetrics());
+            json.put("kalman", KalmanLocationFilter.getInstance().getMetrics());
+            json.put("elasticity", ElasticityController.getInstance().getMetrics());
+            json.put("motionPolicy", MotionPolicyEngine.getInstance().getMetrics());
+            json.put("heartbeat", HeartbeatService.getMetrics());
+            json.put("scheduler", WakeupScheduler.getInstance(reactContext).getMetrics());
+            json.put("notification", ForegroundNotification.getMetrics());
+            success.invoke(jsonToWritableMap(json));
+        } catch (Exception e) {
+            failure.invoke(e.getMessage());
+        }
+    }
+
+    /**
+     * Finish headless task
+     * JS headless task işini bitirdiğini bildirir; journal'daki event'ler ack'lenir
+     */
+    @ReactMethod
+    public void finishHeadlessTask(int taskId, Callback success, Callback failure) {
+        try {
+            HeadlessTaskManager.getInstance().finishTask(reactContext, taskId);
+            success.invoke(taskId);
+        } catch (Exception e) {
+            failure.invoke(e.getMessage());
+        }
+    }
+
     /**
      * Destroy logs
      */
@@ -995,7 +1385,9 @@ public class RNBackgroundLocationModule extends ReactContextBaseJavaModule imple
      */
     @ReactMethod
     public void isMoving(Callback callback) {
-        boolean moving = ActivityRecognitionService.isMoving(reactContext);
+        boolean moving = ActivityRecognitionService.getLastActivity() == null
+            ? config.isMoving
+            : ActivityRecognitionService.isMoving(reactContext);
         callback.invoke(moving);
     }
 
@@ -1117,12 +1509,6 @@ public class RNBackgroundLocationModule extends ReactContextBaseJavaModule imple
         return PendingIntent.getBroadcast(reactContext, 0, intent, flags);
     }
 
-    private void sendEvent(String eventName, WritableMap params) {
-        reactContext
-                .getJSModule(DeviceEventManagerModule.RCTDeviceEventEmitter.class)
-                .emit(eventName, params);
-    }
-
     // JSON Conversion Helpers
 
     public static WritableMap jsonToWritableMap(JSONObject json) throws JSONException {
@@ -1143,8 +1529,13 @@ public class RNBackgroundLocationModule extends ReactContextBaseJavaModule imple
                 map.putInt(key, (Integer) value);
             } else if (value instanceof Double) {
                 map.putDouble(key, (Double) value);
+            } else if (value instanceof Number) {
+                // Long (timestamps) / Float: JS tarafında number
+                map.putDouble(key, ((Number) value).doubleValue());
             } else if (value instanceof String) {
                 map.putString(key, (String) value);
+            } else if (value == JSONObject.NULL) {
+                map.putNull(key);
             }
         }
         
@@ -1167,8 +1558,12 @@ public class RNBackgroundLocationModule extends ReactContextBaseJavaModule imple
                 writableArray.pushInt((Integer) value);
             } else if (value instanceof Double) {
                 writableArray.pushDouble((Double) value);
+            } else if (value instanceof Number) {
+                writableArray.pushDouble(((Number) value).doubleValue());
             } else if (value instanceof String) {
                 writableArray.pushString((String) value);
+            } else if (value == JSONObject.NULL) {
+                writableArray.pushNull();
             }
         }
         
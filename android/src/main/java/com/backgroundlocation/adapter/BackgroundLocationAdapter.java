@@ -7,7 +7,13 @@ import android.os.Looper;
 import com.backgroundlocation.adapter.callback.ActivityChangeCallback;
 import com.backgroundlocation.adapter.callback.Callback;
 import com.backgroundlocation.adapter.callback.ConnectivityChangeCallback;
+import com.backgroundlocation.adapter.callback.DatabaseCallback;
 import com.backgroundlocation.adapter.callback.EnabledChangeCallback;
+import com.backgroundlocation.adapter.callback.GeofenceExistsCallback;
+import com.backgroundlocation.adapter.callback.GetCountCallback;
+import com.backgroundlocation.adapter.callback.GetGeofenceCallback;
+import com.backgroundlocation.adapter.callback.GetGeofencesCallback;
+import com.backgroundlocation.adapter.callback.GetLocationsCallback;
 import com.backgroundlocation.adapter.callback.GeofenceCallback;
 import com.backgroundlocation.adapter.callback.HeartbeatCallback;
 import com.backgroundlocation.adapter.callback.HttpResponseCallback;
@@ -15,16 +21,21 @@ import com.backgroundlocation.adapter.callback.LocationCallback;
 import com.backgroundlocation.config.Config;
 import com.backgroundlocation.data.LocationModel;
 import com.backgroundlocation.data.GeofenceModel;
+import com.backgroundlocation.data.sqlite.AsyncGeofenceDAO;
+import com.backgroundlocation.data.sqlite.AsyncLocationDAO;
 import com.backgroundlocation.data.sqlite.SQLiteLocationDAO;
 import com.backgroundlocation.data.sqlite.SQLiteGeofenceDAO;
 import com.backgroundlocation.event.ActivityChangeEvent;
 import com.backgroundlocation.event.ConnectivityChangeEvent;
 import com.backgroundlocation.event.EnabledChangeEvent;
+import com.backgroundlocation.event.EventDispatcher;
 import com.backgroundlocation.event.GeofenceEvent;
 import com.backgroundlocation.event.HeartbeatEvent;
 import com.backgroundlocation.event.HttpResponseEvent;
+import com.backgroundlocation.event.LocationBatchEvent;
 import com.backgroundlocation.event.LocationEvent;
 import com.backgroundlocation.event.MotionChangeEvent;
+import com.backgroundlocation.event.TerminateEvent;
 import com.backgroundlocation.lifecycle.LifecycleManager;
 import com.backgroundlocation.service.LocationService;
 import com.backgroundlocation.service.SyncService;
@@ -35,17 +46,14 @@ import com.backgroundlocation.geofence.GeofenceManager;
 import com.backgroundlocation.event.HeadlessEvent;
 import com.backgroundlocation.util.HeadlessEventBroadcaster;
 import com.backgroundlocation.util.LogHelper;
+import com.backgroundlocation.util.ThreadPools;
 import com.google.android.gms.location.FusedLocationProviderClient;
 import com.google.android.gms.location.LocationServices;
 
-import org.greenrobot.eventbus.EventBus;
-import org.greenrobot.eventbus.Subscribe;
-import org.greenrobot.eventbus.ThreadMode;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
@@ -56,7 +64,6 @@ public class BackgroundLocationAdapter {
     
     private static final String TAG = "BackgroundLocationAdapter";
     private static BackgroundLocationAdapter instance;
-    private static final ExecutorService threadPool = Executors.newCachedThreadPool();
     private static Handler uiHandler;
     
     // Context
@@ -96,10 +103,8 @@ public class BackgroundLocationAdapter {
         this.fusedLocationClient = LocationServices.getFusedLocationProviderClient(this.context);
         this.geofenceManager = GeofenceManager.getInstance(this.context);
         
-        // Register EventBus
-        if (!EventBus.getDefault().isRegistered(this)) {
-            EventBus.getDefault().register(this);
-        }
+        // Subscribe to native events
+        subscribeEvents();
         
         // Initialize LifecycleManager
         if (isOnMainThread()) {
@@ -127,9 +132,10 @@ public class BackgroundLocationAdapter {
     
     /**
      * Get thread pool
+     * Genel amaçlı (compute) pool. DB / network işleri için ThreadPools.db() / ThreadPools.io() kullanın.
      */
     public static ExecutorService getThreadPool() {
-        return threadPool;
+        return ThreadPools.compute();
     }
     
     /**
@@ -157,11 +163,30 @@ public class BackgroundLocationAdapter {
     }
     
     // ============================================
-    // EventBus Subscribers ( _ prefix)
+    // Event Listeners ( _ prefix)
     // ============================================
     
-    @Subscribe(threadMode = ThreadMode.MAIN)
-    public void _onLocationEvent(LocationEvent event) {
+    /**
+     * Typed event subscriptions (main thread)
+     */
+    private void subscribeEvents() {
+        EventDispatcher dispatcher = EventDispatcher.getInstance();
+        if (dispatcher.isSubscribed(this)) {
+            return;
+        }
+        dispatcher.subscribe(this, LocationEvent.class, EventDispatcher.Delivery.MAIN, this::_onLocationEvent);
+        dispatcher.subscribe(this, LocationBatchEvent.class, EventDispatcher.Delivery.MAIN, this::_onLocationBatch);
+        dispatcher.subscribe(this, MotionChangeEvent.class, EventDispatcher.Delivery.MAIN, this::_onMotionChange);
+        dispatcher.subscribe(this, GeofenceEvent.class, EventDispatcher.Delivery.MAIN, this::_onGeofence);
+        dispatcher.subscribe(this, HeartbeatEvent.class, EventDispatcher.Delivery.MAIN, this::_onHeartbeat);
+        dispatcher.subscribe(this, HttpResponseEvent.class, EventDispatcher.Delivery.MAIN, this::_onHttpResponse);
+        dispatcher.subscribe(this, EnabledChangeEvent.class, EventDispatcher.Delivery.MAIN, this::_onEnabledChange);
+        dispatcher.subscribe(this, ActivityChangeEvent.class, EventDispatcher.Delivery.MAIN, this::_onActivityChange);
+        dispatcher.subscribe(this, ConnectivityChangeEvent.class, EventDispatcher.Delivery.MAIN, this::_onConnectivityChange);
+        dispatcher.subscribe(this, TerminateEvent.class, EventDispatcher.Delivery.MAIN, this::_onTerminate);
+    }
+    
+    private void _onLocationEvent(LocationEvent event) {
         if (LifecycleManager.getInstance().isHeadless()) {
             // Headless mode - event'i broadcast et
             HeadlessEventBroadcaster.post(new HeadlessEvent(context, "location", event));
@@ -169,12 +194,17 @@ public class BackgroundLocationAdapter {
         
         // Callback'leri çağır
         synchronized (locationCallbacks) {
+            if (locationCallbacks.isEmpty()) {
+                return;
+            }
+            // Tüm callback'ler için tek parse
+            LocationModel locationModel = LocationModel.fromJSON(event.toJson());
+            if (locationModel == null) {
+                return;
+            }
             for (LocationCallback callback : locationCallbacks) {
                 try {
-                    LocationModel locationModel = LocationModel.fromJSON(event.toJson());
-                    if (locationModel != null) {
-                        callback.onLocation(locationModel);
-                    }
+                    callback.onLocation(locationModel);
                 } catch (Exception e) {
                     LogHelper.e(TAG, "Error in location callback: " + e.getMessage(), e);
                 }
@@ -182,8 +212,14 @@ public class BackgroundLocationAdapter {
         }
     }
     
-    @Subscribe(threadMode = ThreadMode.MAIN)
-    public void _onMotionChange(MotionChangeEvent event) {
+    private void _onLocationBatch(LocationBatchEvent event) {
+        // Headless task'lar ve callback'ler location başına çalışır
+        for (org.json.JSONObject locationJson : event.getLocations()) {
+            _onLocationEvent(new LocationEvent(locationJson));
+        }
+    }
+    
+    private void _onMotionChange(MotionChangeEvent event) {
         if (LifecycleManager.getInstance().isHeadless()) {
             // Headless mode
             HeadlessEventBroadcaster.post(new HeadlessEvent(context, "motionchange", event));
@@ -191,12 +227,17 @@ public class BackgroundLocationAdapter {
         
         // Callback'leri çağır
         synchronized (motionChangeCallbacks) {
+            if (motionChangeCallbacks.isEmpty()) {
+                return;
+            }
+            // Tüm callback'ler için tek parse
+            LocationModel locationModel = LocationModel.fromJSON(event.toJson());
+            if (locationModel == null) {
+                return;
+            }
             for (LocationCallback callback : motionChangeCallbacks) {
                 try {
-                    LocationModel locationModel = LocationModel.fromJSON(event.toJson());
-                    if (locationModel != null) {
-                        callback.onLocation(locationModel);
-                    }
+                    callback.onLocation(locationModel);
                 } catch (Exception e) {
                     LogHelper.e(TAG, "Error in motion change callback: " + e.getMessage(), e);
                 }
@@ -204,8 +245,7 @@ public class BackgroundLocationAdapter {
         }
     }
     
-    @Subscribe(threadMode = ThreadMode.MAIN)
-    public void _onGeofence(GeofenceEvent event) {
+    private void _onGeofence(GeofenceEvent event) {
         if (LifecycleManager.getInstance().isHeadless()) {
             // Headless mode
             HeadlessEventBroadcaster.post(new HeadlessEvent(context, "geofence", event));
@@ -223,8 +263,7 @@ public class BackgroundLocationAdapter {
         }
     }
     
-    @Subscribe(threadMode = ThreadMode.MAIN)
-    public void _onHeartbeat(HeartbeatEvent event) {
+    private void _onHeartbeat(HeartbeatEvent event) {
         if (LifecycleManager.getInstance().isHeadless()) {
             // Headless mode
             HeadlessEventBroadcaster.post(new HeadlessEvent(context, "heartbeat", event));
@@ -242,8 +281,7 @@ public class BackgroundLocationAdapter {
         }
     }
     
-    @Subscribe(threadMode = ThreadMode.MAIN)
-    public void _onHttpResponse(HttpResponseEvent event) {
+    private void _onHttpResponse(HttpResponseEvent event) {
         if (LifecycleManager.getInstance().isHeadless()) {
             // Headless mode
             HeadlessEventBroadcaster.post(new HeadlessEvent(context, "http", event));
@@ -261,8 +299,7 @@ public class BackgroundLocationAdapter {
         }
     }
     
-    @Subscribe(threadMode = ThreadMode.MAIN)
-    public void _onEnabledChange(EnabledChangeEvent event) {
+    private void _onEnabledChange(EnabledChangeEvent event) {
         if (LifecycleManager.getInstance().isHeadless()) {
             // Headless mode
             HeadlessEventBroadcaster.post(new HeadlessEvent(context, "enabledchange", event));
@@ -280,8 +317,7 @@ public class BackgroundLocationAdapter {
         }
     }
     
-    @Subscribe(threadMode = ThreadMode.MAIN)
-    public void _onActivityChange(ActivityChangeEvent event) {
+    private void _onActivityChange(ActivityChangeEvent event) {
         if (LifecycleManager.getInstance().isHeadless()) {
             // Headless mode
             HeadlessEventBroadcaster.post(new HeadlessEvent(context, "activitychange", event));
@@ -299,8 +335,7 @@ public class BackgroundLocationAdapter {
         }
     }
     
-    @Subscribe(threadMode = ThreadMode.MAIN)
-    public void _onConnectivityChange(ConnectivityChangeEvent event) {
+    private void _onConnectivityChange(ConnectivityChangeEvent event) {
         if (LifecycleManager.getInstance().isHeadless()) {
             // Headless mode
             HeadlessEventBroadcaster.post(new HeadlessEvent(context, "connectivitychange", event));
@@ -322,8 +357,7 @@ public class BackgroundLocationAdapter {
      * Handle TerminateEvent
      * Uygulama kapandığında stopOnTerminate kontrolü yap
      */
-    @Subscribe(threadMode = ThreadMode.MAIN)
-    public void _onTerminate(com.backgroundlocation.event.TerminateEvent event) {
+    private void _onTerminate(TerminateEvent event) {
         LogHelper.d(TAG, "📱 TerminateEvent received: " + event.getReason());
         
         // Check if app is still active (not headless)
@@ -566,7 +600,7 @@ public class BackgroundLocationAdapter {
      *  startOnBoot()
      */
     public void startOnBoot() {
-        threadPool.execute(() -> {
+        ThreadPools.compute().execute(() -> {
             try {
                 if (config.enabled && config.startOnBoot) {
                     LogHelper.d(TAG, "🔄 Starting on boot...");
@@ -659,7 +693,7 @@ public class BackgroundLocationAdapter {
             locationJson.put("timestamp", System.currentTimeMillis());
             locationJson.put("is_moving", isMoving);
             
-            EventBus.getDefault().post(new MotionChangeEvent(isMoving, locationJson));
+            EventDispatcher.getInstance().post(new MotionChangeEvent(isMoving, locationJson));
             
             if (callback != null) {
                 callback.onSuccess();
@@ -679,7 +713,7 @@ public class BackgroundLocationAdapter {
      *  getCurrentPosition()
      */
     public void getCurrentPosition(org.json.JSONObject options, LocationCallback callback) {
-        threadPool.execute(() -> {
+        ThreadPools.compute().execute(() -> {
             try {
                 fusedLocationClient.getLastLocation()
                     .addOnSuccessListener(location -> {
@@ -688,7 +722,7 @@ public class BackgroundLocationAdapter {
                             
                             // Optionally persist
                             if (options != null && options.optBoolean("persist", false)) {
-                                locationDatabase.persist(model.toJSON());
+                                AsyncLocationDAO.getInstance(context).persist(model.toJSON(), null);
                             }
                             
                             if (callback != null) {
@@ -720,25 +754,61 @@ public class BackgroundLocationAdapter {
      *  sync()
      */
     public void sync() {
-        threadPool.execute(() -> {
-            SyncService.sync(context);
-        });
+        // SyncService kendi io executor'ında çalışır
+        SyncService.sync(context);
     }
     
     /**
      * Get count of locations
+     * Blocking: main thread'den çağırmayın, getCount(GetCountCallback) kullanın
      */
     public int getCount() {
         return locationDatabase.count();
     }
     
+    /**
+     * Get count of locations (async)
+     */
+    public void getCount(GetCountCallback callback) {
+        AsyncLocationDAO.getInstance(context).count(new DatabaseCallback<Integer>() {
+            @Override
+            public void onSuccess(Integer count) {
+                callback.onSuccess(count);
+            }
+            
+            @Override
+            public void onFailure(String error) {
+                callback.onFailure(error);
+            }
+        });
+    }
+    
     /**
      * Get locations
+     * Blocking: main thread'den çağırmayın, getLocations(GetLocationsCallback) kullanın
      */
     public List<LocationModel> getLocations() {
         return locationDatabase.all();
     }
     
+    /**
+     * Get locations (async)
+     */
+    public void getLocations(GetLocationsCallback callback) {
+        AsyncLocationDAO.getInstance(context).all(new DatabaseCallback<List<LocationModel>>() {
+            @Override
+            public void onSuccess(List<LocationModel> locations) {
+                callback.onSuccess(locations);
+            }
+            
+            @Override
+            public void onFailure(String error) {
+                LogHelper.e(TAG, "getLocations failed: " + error);
+                callback.onFailure(0);
+            }
+        });
+    }
+    
     // ============================================
     // Geofence Methods
     // ============================================
@@ -748,7 +818,7 @@ public class BackgroundLocationAdapter {
      *  addGeofence()
      */
     public void addGeofence(GeofenceModel geofence, Callback callback) {
-        threadPool.execute(() -> {
+        ThreadPools.db().execute(() -> {
             geofenceManager.addGeofence(geofence, new Callback() {
                 @Override
                 public void onSuccess() {
@@ -772,7 +842,7 @@ public class BackgroundLocationAdapter {
      *  addGeofences()
      */
     public void addGeofences(List<GeofenceModel> geofences, Callback callback) {
-        threadPool.execute(() -> {
+        ThreadPools.db().execute(() -> {
             geofenceManager.addGeofences(geofences, new Callback() {
                 @Override
                 public void onSuccess() {
@@ -796,7 +866,7 @@ public class BackgroundLocationAdapter {
      *  removeGeofence()
      */
     public void removeGeofence(String identifier, Callback callback) {
-        threadPool.execute(() -> {
+        ThreadPools.db().execute(() -> {
             geofenceManager.removeGeofence(identifier, new Callback() {
                 @Override
                 public void onSuccess() {
@@ -820,7 +890,7 @@ public class BackgroundLocationAdapter {
      *  removeGeofences()
      */
     public void removeAllGeofences(Callback callback) {
-        threadPool.execute(() -> {
+        ThreadPools.db().execute(() -> {
             geofenceManager.removeAllGeofences(new Callback() {
                 @Override
                 public void onSuccess() {
@@ -847,6 +917,23 @@ public class BackgroundLocationAdapter {
         return geofenceManager.getGeofences();
     }
     
+    /**
+     * Get all geofences (async)
+     */
+    public void getGeofences(GetGeofencesCallback callback) {
+        AsyncGeofenceDAO.getInstance(context).all(new DatabaseCallback<List<GeofenceModel>>() {
+            @Override
+            public void onSuccess(List<GeofenceModel> geofences) {
+                callback.onSuccess(geofences);
+            }
+            
+            @Override
+            public void onFailure(String error) {
+                callback.onFailure(error);
+            }
+        });
+    }
+    
     /**
      * Get geofence by identifier
      *  getGeofence()
@@ -855,6 +942,27 @@ public class BackgroundLocationAdapter {
         return geofenceManager.getGeofence(identifier);
     }
     
+    /**
+     * Get geofence by identifier (async)
+     */
+    public void getGeofence(String identifier, GetGeofenceCallback callback) {
+        AsyncGeofenceDAO.getInstance(context).get(identifier, new DatabaseCallback<GeofenceModel>() {
+            @Override
+            public void onSuccess(GeofenceModel geofence) {
+                if (geofence != null) {
+                    callback.onSuccess(geofence);
+                } else {
+                    callback.onFailure("Geofence not found: " + identifier);
+                }
+            }
+            
+            @Override
+            public void onFailure(String error) {
+                callback.onFailure(error);
+            }
+        });
+    }
+    
     /**
      * Check if geofence exists
      *  geofenceExists()
@@ -863,6 +971,23 @@ public class BackgroundLocationAdapter {
         return geofenceManager.geofenceExists(identifier);
     }
     
+    /**
+     * Check if geofence exists (async)
+     */
+    public void geofenceExists(String identifier, GeofenceExistsCallback callback) {
+        AsyncGeofenceDAO.getInstance(context).exists(identifier, new DatabaseCallback<Boolean>() {
+            @Override
+            public void onSuccess(Boolean exists) {
+                callback.onResult(exists);
+            }
+            
+            @Override
+            public void onFailure(String error) {
+                callback.onResult(false);
+            }
+        });
+    }
+    
     // ============================================
     // Private Helper Methods
     // ============================================
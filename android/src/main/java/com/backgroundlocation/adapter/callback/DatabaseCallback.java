@@ -0,0 +1,10 @@
+package com.backgroundlocation.adapter.callback;
+
+/**
+ * DatabaseCallback
+ * AsyncLocationDAO / AsyncGeofenceDAO sonuç callback'i (UI thread'de çağrılır)
+ */
+public interface DatabaseCallback<T> {
+    void onSuccess(T result);
+    void onFailure(String error);
+}
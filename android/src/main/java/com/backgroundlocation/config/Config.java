@@ -30,6 +30,9 @@ public class Config {
     @SerializedName("stationaryRadius")
     public int stationaryRadius = 25; // Default: 25 meters
     
+    @SerializedName("trajectoryTolerance")
+    public float trajectoryTolerance = 0f; // metre, >0: persist öncesi yol sıkıştırma (SED hata sınırı), 0 = kapalı
+    
     @SerializedName("locationUpdateInterval")
     public long locationUpdateInterval = 1000; // Default: 1000ms (1 second)
     
@@ -143,6 +146,21 @@ public class Config {
     @SerializedName("maxRecordsToPersist")
     public int maxRecordsToPersist = 10000;
     
+    @SerializedName("httpTimeout")
+    public int httpTimeout = 60000; // ms, per sync attempt
+    
+    @SerializedName("sqliteSynchronous")
+    public String sqliteSynchronous = "NORMAL"; // OFF | NORMAL | FULL (WAL ile NORMAL güvenli)
+    
+    @SerializedName("sqliteCacheSize")
+    public int sqliteCacheSize = -4096; // PRAGMA cache_size (negatif = KiB)
+    
+    @SerializedName("sqliteTempStore")
+    public String sqliteTempStore = "MEMORY"; // DEFAULT | FILE | MEMORY
+    
+    @SerializedName("sqliteMmapSize")
+    public long sqliteMmapSize = 0; // bytes, 0 = disabled
+    
     // Geofence
     @SerializedName("geofenceProximityRadius")
     public int geofenceProximityRadius = 1000; // meters
@@ -157,6 +175,9 @@ public class Config {
     @SerializedName("allowIdenticalLocations")
     public boolean allowIdenticalLocations = false;
     
+    @SerializedName("kalmanFilter")
+    public boolean kalmanFilter = false; // Kalman yumuşatma + outlier (innovation gating) eleme
+    
     // Debug
     @SerializedName("debug")
     public boolean debug = false;
@@ -171,6 +192,15 @@ public class Config {
     @SerializedName("enableHeadless")
     public boolean enableHeadless = false;
     
+    @SerializedName("headlessBatchWindow")
+    public long headlessBatchWindow = 0; // ms, > 0: headless event'leri tek task'ta toplu gönder
+    
+    @SerializedName("headlessBatchMaxSize")
+    public int headlessBatchMaxSize = 500; // buffer limiti, aşılınca en eski düşürülebilir event atılır
+    
+    @SerializedName("headlessWarmUp")
+    public boolean headlessWarmUp = false; // service restart / boot'ta ReactContext'i önceden oluştur
+    
     @SerializedName("headlessJobService")
     public String headlessJobService = "com.backgroundlocation.HeadlessTask";
     
@@ -190,6 +220,9 @@ public class Config {
     @SerializedName("elasticityMultiplier")
     public float elasticityMultiplier = 1.0f;
     
+    @SerializedName("motionPolicy")
+    public String motionPolicy = ""; // JSON string: motion state -> LocationRequest profile (MotionPolicyEngine)
+    
     // Advanced
     @SerializedName("batchSync")
     public boolean batchSync = true;
@@ -219,9 +252,18 @@ public class Config {
     @SerializedName("params")
     public String params = "{}"; // JSON string
     
+    @SerializedName("locationTemplate")
+    public String locationTemplate = ""; // HTTP body template, ör: {"lat":<%= latitude %>} (boş: varsayılan JSON)
+    
+    @SerializedName("geofenceTemplate")
+    public String geofenceTemplate = ""; // Geofence kayıtları için template (boş: locationTemplate)
+    
     @SerializedName("extras")
     public String extras = "{}"; // JSON string
     
+    @SerializedName("eventEmitPolicy")
+    public String eventEmitPolicy = "{}"; // JSON string, event adı -> { mode, rate, interval, strategy, maxBatchSize }
+    
     // State
     @SerializedName("enabled")
     public boolean enabled = false;
@@ -284,6 +326,7 @@ public class Config {
         desiredAccuracy = 10;
         distanceFilter = 10;
         stationaryRadius = 25;
+        trajectoryTolerance = 0f;
         locationUpdateInterval = 10000;
         fastestLocationUpdateInterval = 5000;
         activityRecognitionInterval = 10000;
@@ -309,19 +352,29 @@ public class Config {
         maxBatchSize = 250;
         maxDaysToPersist = 1;
         maxRecordsToPersist = 10000;
+        httpTimeout = 60000;
+        sqliteSynchronous = "NORMAL";
+        sqliteCacheSize = -4096;
+        sqliteTempStore = "MEMORY";
+        sqliteMmapSize = 0;
         geofenceProximityRadius = 1000;
         geofenceInitialTriggerEntry = true;
         deferTime = 0;
         allowIdenticalLocations = false;
+        kalmanFilter = false;
         debug = false;
         logLevel = 3;
         logMaxDays = 3;
         enableHeadless = false;
+        headlessBatchWindow = 0;
+        headlessBatchMaxSize = 500;
+        headlessWarmUp = false;
         startOnBoot = false;
         stopOnTerminate = false;
         stopAfterElapsedMinutes = 0;
         disableElasticity = false;
         elasticityMultiplier = 1.0f;
+        motionPolicy = "";
         batchSync = true;
         heartbeatInterval = 60;
         preventSuspend = true;
@@ -331,7 +384,10 @@ public class Config {
         schedule = "";
         headers = "{}";
         params = "{}";
+        locationTemplate = "";
+        geofenceTemplate = "";
         extras = "{}";
+        eventEmitPolicy = "{}";
         enabled = false;
         isMoving = false;
         save();
@@ -345,6 +401,7 @@ public class Config {
             if (json.has("desiredAccuracy")) desiredAccuracy = json.getInt("desiredAccuracy");
             if (json.has("distanceFilter")) distanceFilter = json.getInt("distanceFilter");
             if (json.has("stationaryRadius")) stationaryRadius = json.getInt("stationaryRadius");
+            if (json.has("trajectoryTolerance")) trajectoryTolerance = (float) json.getDouble("trajectoryTolerance");
             if (json.has("locationUpdateInterval")) locationUpdateInterval = json.getLong("locationUpdateInterval");
             if (json.has("fastestLocationUpdateInterval")) fastestLocationUpdateInterval = json.getLong("fastestLocationUpdateInterval");
             if (json.has("activityRecognitionInterval")) activityRecognitionInterval = json.getLong("activityRecognitionInterval");
@@ -378,19 +435,29 @@ public class Config {
             if (json.has("maxBatchSize")) maxBatchSize = json.getInt("maxBatchSize");
             if (json.has("maxDaysToPersist")) maxDaysToPersist = json.getInt("maxDaysToPersist");
             if (json.has("maxRecordsToPersist")) maxRecordsToPersist = json.getInt("maxRecordsToPersist");
+            if (json.has("httpTimeout")) httpTimeout = json.getInt("httpTimeout");
+            if (json.has("sqliteSynchronous")) sqliteSynchronous = json.getString("sqliteSynchronous");
+            if (json.has("sqliteCacheSize")) sqliteCacheSize = json.getInt("sqliteCacheSize");
+            if (json.has("sqliteTempStore")) sqliteTempStore = json.getString("sqliteTempStore");
+            if (json.has("sqliteMmapSize")) sqliteMmapSize = json.getLong("sqliteMmapSize");
             if (json.has("geofenceProximityRadius")) geofenceProximityRadius = json.getInt("geofenceProximityRadius");
             if (json.has("geofenceInitialTriggerEntry")) geofenceInitialTriggerEntry = json.getBoolean("geofenceInitialTriggerEntry");
             if (json.has("deferTime")) deferTime = json.getLong("deferTime");
             if (json.has("allowIdenticalLocations")) allowIdenticalLocations = json.getBoolean("allowIdenticalLocations");
+            if (json.has("kalmanFilter")) kalmanFilter = json.getBoolean("kalmanFilter");
             if (json.has("debug")) debug = json.getBoolean("debug");
             if (json.has("logLevel")) logLevel = json.getInt("logLevel");
             if (json.has("logMaxDays")) logMaxDays = json.getInt("logMaxDays");
             if (json.has("enableHeadless")) enableHeadless = json.getBoolean("enableHeadless");
+            if (json.has("headlessBatchWindow")) headlessBatchWindow = json.getLong("headlessBatchWindow");
+            if (json.has("headlessBatchMaxSize")) headlessBatchMaxSize = json.getInt("headlessBatchMaxSize");
+            if (json.has("headlessWarmUp")) headlessWarmUp = json.getBoolean("headlessWarmUp");
             if (json.has("startOnBoot")) startOnBoot = json.getBoolean("startOnBoot");
             if (json.has("stopOnTerminate")) stopOnTerminate = json.getBoolean("stopOnTerminate");
             if (json.has("stopAfterElapsedMinutes")) stopAfterElapsedMinutes = json.getInt("stopAfterElapsedMinutes");
             if (json.has("disableElasticity")) disableElasticity = json.getBoolean("disableElasticity");
             if (json.has("elasticityMultiplier")) elasticityMultiplier = (float) json.getDouble("elasticityMultiplier");
+            if (json.has("motionPolicy")) motionPolicy = json.getJSONObject("motionPolicy").toString();
             if (json.has("batchSync")) batchSync = json.getBoolean("batchSync");
             if (json.has("heartbeatInterval")) heartbeatInterval = json.getInt("heartbeatInterval");
             if (json.has("preventSuspend")) preventSuspend = json.getBoolean("preventSuspend");
@@ -400,7 +467,10 @@ public class Config {
             if (json.has("schedule")) schedule = json.getString("schedule");
             if (json.has("headers")) headers = json.getJSONObject("headers").toString();
             if (json.has("params")) params = json.getJSONObject("params").toString();
+            if (json.has("locationTemplate")) locationTemplate = json.getString("locationTemplate");
+            if (json.has("geofenceTemplate")) geofenceTemplate = json.getString("geofenceTemplate");
             if (json.has("extras")) extras = json.getJSONObject("extras").toString();
+            if (json.has("eventEmitPolicy")) eventEmitPolicy = json.getJSONObject("eventEmitPolicy").toString();
             
             save();
         } catch (Exception e) {
@@ -428,6 +498,7 @@ public class Config {
         this.desiredAccuracy = other.desiredAccuracy;
         this.distanceFilter = other.distanceFilter;
         this.stationaryRadius = other.stationaryRadius;
+        this.trajectoryTolerance = other.trajectoryTolerance;
         this.locationUpdateInterval = other.locationUpdateInterval;
         this.fastestLocationUpdateInterval = other.fastestLocationUpdateInterval;
         this.activityRecognitionInterval = other.activityRecognitionInterval;
@@ -452,19 +523,29 @@ public class Config {
         this.maxBatchSize = other.maxBatchSize;
         this.maxDaysToPersist = other.maxDaysToPersist;
         this.maxRecordsToPersist = other.maxRecordsToPersist;
+        this.httpTimeout = other.httpTimeout;
+        this.sqliteSynchronous = other.sqliteSynchronous;
+        this.sqliteCacheSize = other.sqliteCacheSize;
+        this.sqliteTempStore = other.sqliteTempStore;
+        this.sqliteMmapSize = other.sqliteMmapSize;
         this.geofenceProximityRadius = other.geofenceProximityRadius;
         this.geofenceInitialTriggerEntry = other.geofenceInitialTriggerEntry;
         this.deferTime = other.deferTime;
         this.allowIdenticalLocations = other.allowIdenticalLocations;
+        this.kalmanFilter = other.kalmanFilter;
         this.debug = other.debug;
         this.logLevel = other.logLevel;
         this.logMaxDays = other.logMaxDays;
         this.enableHeadless = other.enableHeadless;
+        this.headlessBatchWindow = other.headlessBatchWindow;
+        this.headlessBatchMaxSize = other.headlessBatchMaxSize;
+        this.headlessWarmUp = other.headlessWarmUp;
         this.startOnBoot = other.startOnBoot;
         this.stopOnTerminate = other.stopOnTerminate;
         this.stopAfterElapsedMinutes = other.stopAfterElapsedMinutes;
         this.disableElasticity = other.disableElasticity;
         this.elasticityMultiplier = other.elasticityMultiplier;
+        this.motionPolicy = other.motionPolicy;
         this.batchSync = other.batchSync;
         this.heartbeatInterval = other.heartbeatInterval;
         this.preventSuspend = other.preventSuspend;
@@ -474,7 +555,10 @@ public class Config {
         this.schedule = other.schedule;
         this.headers = other.headers;
         this.params = other.params;
+        this.locationTemplate = other.locationTemplate;
+        this.geofenceTemplate = other.geofenceTemplate;
         this.extras = other.extras;
+        this.eventEmitPolicy = other.eventEmitPolicy;
         this.enabled = other.enabled;
         this.isMoving = other.isMoving;
         this.odometer = other.odometer;
@@ -501,13 +585,34 @@ public class Config {
             return distanceFilter;
         }
         
+        return distanceFilterForBucket(elasticityBucket(speed));
+    }
+    
+    /**
+     * Speed bucket used by elasticity (0 = base distanceFilter)
+     * 
+     * @param speed Speed in m/s
+     * @return Speed factor bucket
+     */
+    public static int elasticityBucket(float speed) {
+        if (speed <= 0.0f || Float.isNaN(speed)) {
+            return 0;
+        }
         // Hızı 5'e bölüp yuvarlama: Math.floor((speed/5) + 0.5) * 5 / 5
         // Örnek: 36 m/s → 36/5 = 7.2 → floor(7.2 + 0.5) = 7 → 7 * 5 / 5 = 7
-        float speedFactor = (float) ((Math.floor((speed / 5.0) + 0.5) * 5.0) / 5.0);
-        if (speedFactor < 0.0f) {
-            speedFactor = 0.0f;
+        return (int) Math.max(Math.floor((speed / 5.0) + 0.5), 0);
+    }
+    
+    /**
+     * Distance filter for an elasticity speed bucket
+     * 
+     * @param speedFactor Bucket from elasticityBucket()
+     * @return Calculated distance filter in meters
+     */
+    public float distanceFilterForBucket(int speedFactor) {
+        if (speedFactor <= 0 || disableElasticity) {
+            return distanceFilter;
         }
-        
         // Dinamik distance filter: base + (base * multiplier * speedFactor)
         // Örnek: distanceFilter=50, elasticityMultiplier=1.0, speed=36 m/s
         // → speedFactor = 7
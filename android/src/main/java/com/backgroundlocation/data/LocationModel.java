@@ -32,6 +32,10 @@ public class LocationModel {
     
     public String extras;
     
+    // Geofence transition kaydı ise (geofenceTemplate için)
+    public String geofenceIdentifier;
+    public String geofenceAction;
+    
     // LOCKING mekanizması için
     public boolean locked = false;
     
@@ -86,6 +90,14 @@ public class LocationModel {
                 json.put("extras", new JSONObject(extras));
             }
             
+            // Geofence
+            if (geofenceIdentifier != null) {
+                JSONObject geofence = new JSONObject();
+                geofence.put("identifier", geofenceIdentifier);
+                geofence.put("action", geofenceAction);
+                json.put("geofence", geofence);
+            }
+            
             return json;
         } catch (Exception e) {
             e.printStackTrace();
@@ -144,6 +156,13 @@ public class LocationModel {
                 location.extras = json.getJSONObject("extras").toString();
             }
             
+            // Geofence
+            JSONObject geofence = json.optJSONObject("geofence");
+            if (geofence != null) {
+                location.geofenceIdentifier = geofence.optString("identifier", null);
+                location.geofenceAction = geofence.optString("action", null);
+            }
+            
             return location;
         } catch (Exception e) {
             e.printStackTrace();
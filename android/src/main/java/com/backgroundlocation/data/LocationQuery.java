@@ -0,0 +1,233 @@
+package com.backgroundlocation.data;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Location Query
+ * Kayıtlı location'lar için query builder. Typed kolonlar (v3) üzerinde parametreli SQL'e derlenir,
+ * JSON payload parse edilmeden filtrelenir / aggregate edilir.
+ *
+ *   { start, end, order: "asc"|"desc", limit, cursor,
+ *     fields: ["uuid", "timestamp", "latitude", ...],
+ *     maxAccuracy, activities: ["walking", ...], isMoving,
+ *     aggregates: ["count", "bbox", "timespan", "distance"], groupBy: "day" }
+ *
+ * Sayfalama keyset (id) ile yapılır: sonuç sayfasının cursor'ı bir sonraki query'ye verilir.
+ */
+public class LocationQuery extends SQLQuery {
+
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    public static final String AGGREGATE_COUNT = "count";
+    public static final String AGGREGATE_BBOX = "bbox";
+    public static final String AGGREGATE_TIMESPAN = "timespan";
+    public static final String AGGREGATE_DISTANCE = "distance";
+    public static final String GROUP_BY_DAY = "day";
+
+    // Field adı (JS) -> kolon. Projection ve filtreler yalnızca bu whitelist'i kullanır.
+    private static final Map<String, String> FIELD_COLUMNS = new LinkedHashMap<>();
+    static {
+        FIELD_COLUMNS.put("uuid", "uuid");
+        FIELD_COLUMNS.put("timestamp", "recorded_at");
+        FIELD_COLUMNS.put("latitude", "latitude");
+        FIELD_COLUMNS.put("longitude", "longitude");
+        FIELD_COLUMNS.put("accuracy", "accuracy");
+        FIELD_COLUMNS.put("speed", "speed");
+        FIELD_COLUMNS.put("activity", "activity_type");
+        FIELD_COLUMNS.put("is_moving", "is_moving");
+        FIELD_COLUMNS.put("odometer", "odometer");
+    }
+
+    private final List<String> fields = new ArrayList<>();
+    private final Set<String> activities = new LinkedHashSet<>();
+    private final Set<String> aggregates = new LinkedHashSet<>();
+    private float maxAccuracy = 0;
+    private Boolean isMoving = null;
+    private String groupBy = null;
+    private int pageSize = DEFAULT_PAGE_SIZE;
+    private long cursor = 0;
+
+    public LocationQuery() {
+    }
+
+    /**
+     * Parse query from JS options. Bilinmeyen field / aggregate'ler yok sayılır.
+     */
+    public static LocationQuery fromJSON(JSONObject json) {
+        LocationQuery query = new LocationQuery();
+        if (json == null) {
+            return query;
+        }
+        query.setStart(json.optLong("start", 0));
+        query.setEnd(json.optLong("end", 0));
+        query.setOrder("desc".equalsIgnoreCase(json.optString("order")) ? ORDER_DESC : ORDER_ASC);
+        query.setPageSize(json.optInt("limit", DEFAULT_PAGE_SIZE));
+        query.cursor = Math.max(json.optLong("cursor", 0), 0);
+        query.maxAccuracy = (float) Math.max(json.optDouble("maxAccuracy", 0), 0);
+        if (json.has("isMoving") && !json.isNull("isMoving")) {
+            query.isMoving = json.optBoolean("isMoving");
+        }
+        if (GROUP_BY_DAY.equals(json.optString("groupBy"))) {
+            query.groupBy = GROUP_BY_DAY;
+        }
+
+        JSONArray fields = json.optJSONArray("fields");
+        if (fields != null) {
+            for (int i = 0; i < fields.length(); i++) {
+                String field = fields.optString(i);
+                if (FIELD_COLUMNS.containsKey(field) && !query.fields.contains(field)) {
+                    query.fields.add(field);
+                }
+            }
+        }
+        JSONArray activities = json.optJSONArray("activities");
+        if (activities != null) {
+            for (int i = 0; i < activities.length(); i++) {
+                String activity = activities.optString(i);
+                if (!activity.isEmpty()) {
+                    query.activities.add(activity);
+                }
+            }
+        }
+        JSONArray aggregates = json.optJSONArray("aggregates");
+        if (aggregates != null) {
+            for (int i = 0; i < aggregates.length(); i++) {
+                String aggregate = aggregates.optString(i);
+                if (AGGREGATE_COUNT.equals(aggregate) || AGGREGATE_BBOX.equals(aggregate) ||
+                        AGGREGATE_TIMESPAN.equals(aggregate) || AGGREGATE_DISTANCE.equals(aggregate)) {
+                    query.aggregates.add(aggregate);
+                }
+            }
+        }
+        return query;
+    }
+
+    /**
+     * Compile filters into selection / selectionArgs / orderBy / limit
+     * @param paged true: keyset cursor + page limit (row query), false: tüm eşleşenler (aggregate)
+     */
+    public void compile(boolean paged) {
+        StringBuilder where = new StringBuilder();
+        List<String> args = new ArrayList<>();
+
+        if (getStart() > 0) {
+            and(where).append("recorded_at >= ?");
+            args.add(String.valueOf(getStart()));
+        }
+        if (getEnd() > 0) {
+            and(where).append("recorded_at <= ?");
+            args.add(String.valueOf(getEnd()));
+        }
+        if (maxAccuracy > 0) {
+            and(where).append("accuracy <= ?");
+            args.add(String.valueOf(maxAccuracy));
+        }
+        if (isMoving != null) {
+            and(where).append("is_moving = ?");
+            args.add(isMoving ? "1" : "0");
+        }
+        if (!activities.isEmpty()) {
+            and(where).append("activity_type IN (");
+            int i = 0;
+            for (String activity : activities) {
+                where.append(i++ == 0 ? "?" : ", ?");
+                args.add(activity);
+            }
+            where.append(")");
+        }
+        if (paged && cursor > 0) {
+            and(where).append(getOrder() == ORDER_DESC ? "id < ?" : "id > ?");
+            args.add(String.valueOf(cursor));
+        }
+
+        setSelection(where.length() > 0 ? where.toString() : null);
+        setSelectionArgs(args.isEmpty() ? null : args.toArray(new String[0]));
+        setOrderBy(getOrder() == ORDER_DESC ? "id DESC" : "id ASC");
+        // +1: bir sonraki sayfanın varlığını ek sorgu yapmadan anlamak için
+        setLimit(paged ? String.valueOf(pageSize + 1) : null);
+    }
+
+    private static StringBuilder and(StringBuilder where) {
+        if (where.length() > 0) {
+            where.append(" AND ");
+        }
+        return where;
+    }
+
+    /**
+     * Projected columns (empty = full location JSON)
+     */
+    public List<String> getFields() {
+        return Collections.unmodifiableList(fields);
+    }
+
+    public static String columnFor(String field) {
+        return FIELD_COLUMNS.get(field);
+    }
+
+    public Set<String> getAggregates() {
+        return Collections.unmodifiableSet(aggregates);
+    }
+
+    public boolean hasAggregate(String aggregate) {
+        return aggregates.contains(aggregate);
+    }
+
+    public String getGroupBy() {
+        return groupBy;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public void setPageSize(int pageSize) {
+        this.pageSize = Math.max(1, Math.min(pageSize, MAX_PAGE_SIZE));
+    }
+
+    public long getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(long cursor) {
+        this.cursor = Math.max(cursor, 0);
+    }
+
+    public void setMaxAccuracy(float maxAccuracy) {
+        this.maxAccuracy = Math.max(maxAccuracy, 0);
+    }
+
+    public void setIsMoving(Boolean isMoving) {
+        this.isMoving = isMoving;
+    }
+
+    public void addActivity(String activity) {
+        activities.add(activity);
+    }
+
+    /**
+     * Query result page
+     */
+    public static class Page {
+        public final List<JSONObject> rows;
+        /** Bir sonraki sayfa için cursor (son satırın id'si) */
+        public final long cursor;
+        public final boolean hasMore;
+
+        public Page(List<JSONObject> rows, long cursor, boolean hasMore) {
+            this.rows = rows;
+            this.cursor = cursor;
+            this.hasMore = hasMore;
+        }
+    }
+}
@@ -7,11 +7,19 @@ package com.backgroundlocation.data;
  */
 public class SQLQuery {
     
+    public static final int ORDER_ASC = 1;
+    public static final int ORDER_DESC = -1;
+    
     private String selection;
     private String[] selectionArgs;
     private String orderBy;
     private String limit;
     
+    // Time range (epoch ms, 0 = unbounded) ve sıralama
+    private long start = 0;
+    private long end = 0;
+    private int order = ORDER_ASC;
+    
     public SQLQuery() {
     }
     
@@ -47,6 +55,30 @@ public class SQLQuery {
         this.limit = limit;
     }
     
+    public long getStart() {
+        return start;
+    }
+    
+    public void setStart(long start) {
+        this.start = start;
+    }
+    
+    public long getEnd() {
+        return end;
+    }
+    
+    public void setEnd(long end) {
+        this.end = end;
+    }
+    
+    public int getOrder() {
+        return order;
+    }
+    
+    public void setOrder(int order) {
+        this.order = order == ORDER_DESC ? ORDER_DESC : ORDER_ASC;
+    }
+    
     /**
      * Get selection for logback database resolver
      */
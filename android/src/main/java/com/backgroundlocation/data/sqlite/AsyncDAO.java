@@ -0,0 +1,108 @@
+package com.backgroundlocation.data.sqlite;
+
+import com.backgroundlocation.adapter.BackgroundLocationAdapter;
+import com.backgroundlocation.adapter.callback.DatabaseCallback;
+import com.backgroundlocation.util.LogHelper;
+import com.backgroundlocation.util.ThreadPools;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Async DAO base
+ * Yazmalar tek writer thread'de (ThreadPools.db) sırayla, okumalar WAL reader
+ * pool'unda (ThreadPools.dbRead) çalışır. Sonuç Future olarak döner, callback
+ * verilmişse UI thread'de çağrılır.
+ */
+abstract class AsyncDAO {
+
+    private static final String TAG = "AsyncDAO";
+
+    static final String DATABASE_BUSY = "DATABASE_BUSY";
+
+    /**
+     * Run on a WAL reader connection
+     */
+    protected <T> Future<T> read(Callable<T> query, DatabaseCallback<T> callback) {
+        return submit(ThreadPools.dbRead(), query, callback);
+    }
+
+    /**
+     * Run on the single writer thread (FIFO)
+     */
+    protected <T> Future<T> write(Callable<T> operation, DatabaseCallback<T> callback) {
+        if (ThreadPools.isDbThread()) {
+            // Zaten writer thread'deyiz: kuyruğa koyup beklemek deadlock olur
+            DAOFuture<T> future = new DAOFuture<>(operation, callback);
+            future.run();
+            return future;
+        }
+        return submit(ThreadPools.db(), operation, callback);
+    }
+
+    private <T> Future<T> submit(ExecutorService executor, Callable<T> task, DatabaseCallback<T> callback) {
+        DAOFuture<T> future = new DAOFuture<>(task, callback);
+        try {
+            executor.execute(future);
+        } catch (RejectedExecutionException e) {
+            LogHelper.w(TAG, "⚠️ Database queue full, rejecting request");
+            future.reject();
+        }
+        return future;
+    }
+
+    /**
+     * FutureTask that delivers its result to a DatabaseCallback on the UI thread
+     */
+    private static class DAOFuture<T> extends FutureTask<T> {
+        private final DatabaseCallback<T> callback;
+        private volatile boolean rejected = false;
+
+        DAOFuture(Callable<T> callable, DatabaseCallback<T> callback) {
+            super(callable);
+            this.callback = callback;
+        }
+
+        void reject() {
+            rejected = true;
+            setException(new RejectedExecutionException(DATABASE_BUSY));
+        }
+
+        @Override
+        protected void done() {
+            if (callback == null) {
+                return;
+            }
+            String error = null;
+            T result = null;
+            if (isCancelled()) {
+                error = "CANCELLED";
+            } else if (rejected) {
+                error = DATABASE_BUSY;
+            } else {
+                try {
+                    result = get();
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    LogHelper.e(TAG, "❌ Database operation failed: " + cause.getMessage(), cause);
+                    error = cause.getMessage() != null ? cause.getMessage() : cause.toString();
+                } catch (Exception e) {
+                    error = e.getMessage();
+                }
+            }
+            final T value = result;
+            final String failure = error;
+            BackgroundLocationAdapter.getUiHandler().post(() -> {
+                if (failure != null) {
+                    callback.onFailure(failure);
+                } else {
+                    callback.onSuccess(value);
+                }
+            });
+        }
+    }
+}
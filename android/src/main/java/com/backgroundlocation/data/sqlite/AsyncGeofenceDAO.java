@@ -0,0 +1,92 @@
+package com.backgroundlocation.data.sqlite;
+
+import android.content.Context;
+
+import com.backgroundlocation.adapter.callback.DatabaseCallback;
+import com.backgroundlocation.data.GeofenceModel;
+
+import java.util.List;
+import java.util.concurrent.Future;
+
+/**
+ * Async Geofence DAO
+ * SQLiteGeofenceDAO için main thread dışı facade
+ */
+public class AsyncGeofenceDAO extends AsyncDAO {
+
+    private static AsyncGeofenceDAO instance;
+    private final SQLiteGeofenceDAO dao;
+
+    private AsyncGeofenceDAO(Context context) {
+        this.dao = SQLiteGeofenceDAO.getInstance(context);
+    }
+
+    public static synchronized AsyncGeofenceDAO getInstance(Context context) {
+        if (instance == null) {
+            instance = new AsyncGeofenceDAO(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /**
+     * Get all geofences
+     */
+    public Future<List<GeofenceModel>> all(DatabaseCallback<List<GeofenceModel>> callback) {
+        return read(dao::all, callback);
+    }
+
+    /**
+     * Get geofence by identifier (null if not found)
+     */
+    public Future<GeofenceModel> get(String identifier, DatabaseCallback<GeofenceModel> callback) {
+        return read(() -> dao.get(identifier), callback);
+    }
+
+    /**
+     * Check if geofence exists
+     */
+    public Future<Boolean> exists(String identifier, DatabaseCallback<Boolean> callback) {
+        return read(() -> dao.exists(identifier), callback);
+    }
+
+    /**
+     * Get count of geofences
+     */
+    public Future<Integer> count(DatabaseCallback<Integer> callback) {
+        return read(dao::count, callback);
+    }
+
+    /**
+     * Insert or update geofence
+     */
+    public Future<Boolean> persist(GeofenceModel geofence, DatabaseCallback<Boolean> callback) {
+        return write(() -> dao.persist(geofence), callback);
+    }
+
+    /**
+     * Insert or update multiple geofences
+     */
+    public Future<Boolean> persist(List<GeofenceModel> geofences, DatabaseCallback<Boolean> callback) {
+        return write(() -> {
+            boolean success = true;
+            for (GeofenceModel geofence : geofences) {
+                success &= dao.persist(geofence);
+            }
+            return success;
+        }, callback);
+    }
+
+    /**
+     * Delete geofence
+     */
+    public Future<Boolean> destroy(String identifier, DatabaseCallback<Boolean> callback) {
+        return write(() -> dao.destroy(identifier), callback);
+    }
+
+    /**
+     * Delete all geofences
+     */
+    public Future<Boolean> clear(DatabaseCallback<Boolean> callback) {
+        return write(dao::clear, callback);
+    }
+}
@@ -0,0 +1,110 @@
+package com.backgroundlocation.data.sqlite;
+
+import android.content.Context;
+
+import com.backgroundlocation.adapter.callback.DatabaseCallback;
+import com.backgroundlocation.data.LocationModel;
+import com.backgroundlocation.data.LocationQuery;
+
+import org.json.JSONObject;
+
+import java.util.List;
+import java.util.concurrent.Future;
+
+/**
+ * Async Location DAO
+ * SQLiteLocationDAO için main thread dışı facade
+ */
+public class AsyncLocationDAO extends AsyncDAO {
+
+    private static AsyncLocationDAO instance;
+    private final SQLiteLocationDAO dao;
+
+    private AsyncLocationDAO(Context context) {
+        this.dao = SQLiteLocationDAO.getInstance(context);
+    }
+
+    public static synchronized AsyncLocationDAO getInstance(Context context) {
+        if (instance == null) {
+            instance = new AsyncLocationDAO(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /**
+     * Get all locations
+     */
+    public Future<List<LocationModel>> all(DatabaseCallback<List<LocationModel>> callback) {
+        return read(dao::all, callback);
+    }
+
+    /**
+     * Get count of locations
+     */
+    public Future<Integer> count(DatabaseCallback<Integer> callback) {
+        return count(false, callback);
+    }
+
+    /**
+     * Get count (optionally only unlocked)
+     */
+    public Future<Integer> count(boolean onlyUnlocked, DatabaseCallback<Integer> callback) {
+        return read(() -> dao.count(onlyUnlocked), callback);
+    }
+
+    /**
+     * Get cached { total, pending, locked } counts
+     */
+    public Future<JSONObject> counts(DatabaseCallback<JSONObject> callback) {
+        return read(dao::counts, callback);
+    }
+
+    /**
+     * Query one page of locations (filters / projection SQL tarafında)
+     */
+    public Future<LocationQuery.Page> query(LocationQuery query, DatabaseCallback<LocationQuery.Page> callback) {
+        return read(() -> dao.query(query), callback);
+    }
+
+    /**
+     * Aggregate matching locations
+     */
+    public Future<JSONObject> aggregate(LocationQuery query, DatabaseCallback<JSONObject> callback) {
+        return read(() -> dao.aggregate(query), callback);
+    }
+
+    /**
+     * Insert location, returns uuid (null on failure)
+     */
+    public Future<String> persist(JSONObject json, DatabaseCallback<String> callback) {
+        return write(() -> dao.persist(json), callback);
+    }
+
+    /**
+     * Delete location by uuid, returns false if not found
+     */
+    public Future<Boolean> destroy(String uuid, DatabaseCallback<Boolean> callback) {
+        return write(() -> dao.destroyByUuid(uuid), callback);
+    }
+
+    /**
+     * Delete locations by uuid, returns number of deleted records
+     */
+    public Future<Integer> destroy(List<String> uuids, DatabaseCallback<Integer> callback) {
+        return write(() -> dao.destroyByUuids(uuids), callback);
+    }
+
+    /**
+     * Find location by uuid (null if not found)
+     */
+    public Future<LocationModel> find(String uuid, DatabaseCallback<LocationModel> callback) {
+        return read(() -> dao.findByUuid(uuid), callback);
+    }
+
+    /**
+     * Delete all locations
+     */
+    public Future<Boolean> clear(DatabaseCallback<Boolean> callback) {
+        return write(dao::clear, callback);
+    }
+}
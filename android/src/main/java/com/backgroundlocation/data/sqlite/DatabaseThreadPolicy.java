@@ -0,0 +1,80 @@
+package com.backgroundlocation.data.sqlite;
+
+import android.content.Context;
+import android.content.pm.ApplicationInfo;
+import android.os.Looper;
+
+import com.backgroundlocation.util.LogHelper;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Database Thread Policy
+ * StrictMode benzeri kontrol: debug build'lerde main thread'den yapılan
+ * SQLite erişimlerini tespit eder ve call site başına bir kez stack trace loglar.
+ * Release build'lerde no-op.
+ */
+public final class DatabaseThreadPolicy {
+
+    private static final String TAG = "DatabaseThreadPolicy";
+    private static final String DAO_PACKAGE = DatabaseThreadPolicy.class.getPackage().getName();
+
+    private static final AtomicInteger violationCount = new AtomicInteger(0);
+    private static final Set<String> reportedCallSites = Collections.synchronizedSet(new HashSet<String>());
+    private static volatile Boolean enabled;
+
+    private DatabaseThreadPolicy() {
+    }
+
+    /**
+     * Check current thread before touching the database
+     */
+    static void check(Context context) {
+        if (Looper.myLooper() != Looper.getMainLooper()) {
+            return;
+        }
+        if (!isEnabled(context)) {
+            return;
+        }
+        violationCount.incrementAndGet();
+
+        Throwable trace = new Throwable("Database access on main thread");
+        String callSite = findCallSite(trace);
+        if (reportedCallSites.add(callSite)) {
+            LogHelper.e(TAG, "⚠️ StrictMode: main-thread database access at " + callSite +
+                " (use AsyncLocationDAO / AsyncGeofenceDAO)", trace);
+        }
+    }
+
+    /**
+     * Number of main-thread database accesses since process start (debug builds only)
+     */
+    public static int getViolationCount() {
+        return violationCount.get();
+    }
+
+    private static boolean isEnabled(Context context) {
+        Boolean value = enabled;
+        if (value == null) {
+            value = context != null &&
+                (context.getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0;
+            enabled = value;
+        }
+        return value;
+    }
+
+    /**
+     * İlk DAO dışı frame: ihlali yapan gerçek çağıran
+     */
+    private static String findCallSite(Throwable trace) {
+        for (StackTraceElement element : trace.getStackTrace()) {
+            if (!element.getClassName().startsWith(DAO_PACKAGE)) {
+                return element.getClassName() + "." + element.getMethodName() + ":" + element.getLineNumber();
+            }
+        }
+        return "unknown";
+    }
+}
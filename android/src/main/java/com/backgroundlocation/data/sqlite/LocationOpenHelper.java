@@ -1,10 +1,17 @@
 package com.backgroundlocation.data.sqlite;
 
+import android.content.ContentValues;
 import android.content.Context;
+import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteOpenHelper;
 import android.util.Log;
 
+import com.backgroundlocation.config.Config;
+import com.backgroundlocation.scheduler.WalCheckpointJobService;
+
+import org.json.JSONObject;
+
 /**
  * SQLite Database Helper
  * RAW SQLite implementation
@@ -13,10 +20,23 @@ public class LocationOpenHelper extends SQLiteOpenHelper {
     
     private static final String TAG = "LocationOpenHelper";
     private static final String DATABASE_NAME = "background_location.db";
-    private static final int DATABASE_VERSION = 1;
+    private static final int DATABASE_VERSION = 4;
     
     public static final String LOCATIONS_TABLE = "locations";
     public static final String GEOFENCES_TABLE = "geofences";
+    public static final String HEADLESS_EVENTS_TABLE = "headless_events";
+    
+    // Typed location columns (v3): query API data BLOB'u parse etmeden filtreler / aggregate eder
+    private static final String[][] TYPED_COLUMNS = {
+        {"recorded_at", "INTEGER"},
+        {"latitude", "REAL"},
+        {"longitude", "REAL"},
+        {"accuracy", "REAL"},
+        {"speed", "REAL"},
+        {"activity_type", "TEXT"},
+        {"is_moving", "INTEGER"},
+        {"odometer", "REAL"}
+    };
     
     // Locations table schema
     private static final String CREATE_LOCATIONS_TABLE = 
@@ -26,7 +46,8 @@ public class LocationOpenHelper extends SQLiteOpenHelper {
         "timestamp TEXT, " +
         "data BLOB, " +                          // JSON as BLOB ()
         "encrypted BOOLEAN NOT NULL DEFAULT 0, " +
-        "locked BOOLEAN NOT NULL DEFAULT 0" +    // CRITICAL: Locking column
+        "locked BOOLEAN NOT NULL DEFAULT 0, " +  // CRITICAL: Locking column
+        typedColumnsDefinition() +
         ");";
     
     // Geofences table schema
@@ -44,6 +65,19 @@ public class LocationOpenHelper extends SQLiteOpenHelper {
         "extras TEXT" +
         ");";
     
+    // Headless event journal (v2): at-least-once delivery, acked rows compacted in background
+    private static final String CREATE_HEADLESS_EVENTS_TABLE =
+        "CREATE TABLE IF NOT EXISTS headless_events (" +
+        "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+        "name TEXT NOT NULL, " +
+        "payload TEXT, " +
+        "created_at INTEGER NOT NULL, " +
+        "acked BOOLEAN NOT NULL DEFAULT 0" +
+        ");";
+    
+    private static final String CREATE_HEADLESS_ACKED_INDEX =
+        "CREATE INDEX IF NOT EXISTS idx_headless_acked ON headless_events(acked);";
+    
     // Indexes for performance ()
     private static final String CREATE_LOCKED_INDEX = 
         "CREATE INDEX IF NOT EXISTS idx_locked ON locations(locked);";
@@ -51,10 +85,23 @@ public class LocationOpenHelper extends SQLiteOpenHelper {
     private static final String CREATE_TIMESTAMP_INDEX =
         "CREATE INDEX IF NOT EXISTS idx_timestamp ON locations(timestamp);";
     
+    // uuid ile O(log n) lookup / delete; aynı uuid ikinci kez yazılamaz
+    private static final String CREATE_UUID_INDEX =
+        "CREATE UNIQUE INDEX IF NOT EXISTS idx_uuid ON locations(uuid);";
+    
+    private static final String CREATE_RECORDED_AT_INDEX =
+        "CREATE INDEX IF NOT EXISTS idx_recorded_at ON locations(recorded_at);";
+    
     private static LocationOpenHelper instance;
     
+    private final Context context;
+    
     private LocationOpenHelper(Context context) {
         super(context, DATABASE_NAME, null, DATABASE_VERSION);
+        this.context = context;
+        // WAL: writer thread (ThreadPools.db) yazarken reader'lar (ThreadPools.dbRead) bloklanmaz,
+        // sync'in UPDATE locked=1'i LocationService insert'lerini beklemez
+        setWriteAheadLoggingEnabled(true);
     }
     
     public static synchronized LocationOpenHelper getInstance(Context context) {
@@ -64,6 +111,30 @@ public class LocationOpenHelper extends SQLiteOpenHelper {
         return instance;
     }
     
+    /**
+     * Apply tuning pragmas (primary/writer connection)
+     * Reader connection'ları Android varsayılanlarıyla açılır
+     */
+    @Override
+    public void onConfigure(SQLiteDatabase db) {
+        super.onConfigure(db);
+        Config config = Config.getInstance(context);
+        
+        pragma(db, "synchronous", oneOf(config.sqliteSynchronous, "NORMAL", "OFF", "NORMAL", "FULL"));
+        pragma(db, "cache_size", String.valueOf(config.sqliteCacheSize));
+        pragma(db, "temp_store", oneOf(config.sqliteTempStore, "MEMORY", "DEFAULT", "FILE", "MEMORY"));
+        if (config.sqliteMmapSize > 0) {
+            pragma(db, "mmap_size", String.valueOf(config.sqliteMmapSize));
+        }
+    }
+    
+    @Override
+    public void onOpen(SQLiteDatabase db) {
+        super.onOpen(db);
+        // Checkpoint'ler cihaz şarjdayken / idle iken yapılır
+        WalCheckpointJobService.schedule(context);
+    }
+    
     @Override
     public void onCreate(SQLiteDatabase db) {
         Log.d(TAG, "🛠 Creating database tables");
@@ -71,10 +142,14 @@ public class LocationOpenHelper extends SQLiteOpenHelper {
         // Create tables
         db.execSQL(CREATE_LOCATIONS_TABLE);
         db.execSQL(CREATE_GEOFENCES_TABLE);
+        db.execSQL(CREATE_HEADLESS_EVENTS_TABLE);
         
         // Create indexes
         db.execSQL(CREATE_LOCKED_INDEX);
         db.execSQL(CREATE_TIMESTAMP_INDEX);
+        db.execSQL(CREATE_RECORDED_AT_INDEX);
+        db.execSQL(CREATE_UUID_INDEX);
+        db.execSQL(CREATE_HEADLESS_ACKED_INDEX);
         
         Log.d(TAG, "✅ Database created successfully");
     }
@@ -83,13 +158,113 @@ public class LocationOpenHelper extends SQLiteOpenHelper {
     public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
         Log.d(TAG, "🛠 Upgrading database from version " + oldVersion + " to " + newVersion);
         
-        // Add new columns if needed (migration)
-        // For now, simple approach:
-        if (oldVersion < newVersion) {
-            db.execSQL("DROP TABLE IF EXISTS locations");
-            db.execSQL("DROP TABLE IF EXISTS geofences");
-            onCreate(db);
+        // Incremental migrations: mevcut locations / geofences kayıtları korunur
+        if (oldVersion < 2) {
+            db.execSQL(CREATE_HEADLESS_EVENTS_TABLE);
+            db.execSQL(CREATE_HEADLESS_ACKED_INDEX);
+        }
+        if (oldVersion < 3) {
+            for (String[] column : TYPED_COLUMNS) {
+                db.execSQL("ALTER TABLE " + LOCATIONS_TABLE + " ADD COLUMN " + column[0] + " " + column[1]);
+            }
+            db.execSQL(CREATE_RECORDED_AT_INDEX);
+            backfillTypedColumns(db);
+        }
+        if (oldVersion < 4) {
+            // Unique index öncesi: boş uuid'lere yeni uuid ver, duplicate'lerin en eskisini tut
+            db.execSQL("UPDATE " + LOCATIONS_TABLE + " SET uuid = lower(hex(randomblob(16))) " +
+                "WHERE uuid IS NULL OR uuid = ''");
+            db.execSQL("DELETE FROM " + LOCATIONS_TABLE + " WHERE id NOT IN " +
+                "(SELECT MIN(id) FROM " + LOCATIONS_TABLE + " GROUP BY uuid)");
+            db.execSQL(CREATE_UUID_INDEX);
+        }
+    }
+    
+    private static String typedColumnsDefinition() {
+        StringBuilder sb = new StringBuilder();
+        for (String[] column : TYPED_COLUMNS) {
+            if (sb.length() > 0) sb.append(", ");
+            sb.append(column[0]).append(" ").append(column[1]);
+        }
+        return sb.toString();
+    }
+    
+    /**
+     * Populate typed columns of existing rows from their JSON payload (v3 migration)
+     */
+    private void backfillTypedColumns(SQLiteDatabase db) {
+        Cursor cursor = null;
+        int updated = 0;
+        try {
+            cursor = db.query(LOCATIONS_TABLE, new String[]{"id", "data"}, null, null, null, null, null);
+            ContentValues values = new ContentValues();
+            String[] args = new String[1];
+            while (cursor.moveToNext()) {
+                try {
+                    JSONObject json = new JSONObject(new String(cursor.getBlob(1)));
+                    values.clear();
+                    SQLiteLocationDAO.putTypedColumns(values, json);
+                    args[0] = String.valueOf(cursor.getLong(0));
+                    updated += db.update(LOCATIONS_TABLE, values, "id=?", args);
+                } catch (Exception e) {
+                    // Parse edilemeyen kayıt: typed kolonlar NULL kalır, query filtrelerine takılmaz
+                }
+            }
+        } finally {
+            if (cursor != null) cursor.close();
+        }
+        Log.d(TAG, "✅ Backfilled typed columns for " + updated + " locations");
+    }
+    
+    /**
+     * Checkpoint WAL into the main database file and truncate the -wal file
+     * @return true if the checkpoint completed (not blocked by a reader/writer)
+     */
+    public boolean checkpoint() {
+        Cursor cursor = null;
+        try {
+            cursor = getWritableDatabase().rawQuery("PRAGMA wal_checkpoint(TRUNCATE)", null);
+            if (cursor.moveToFirst()) {
+                boolean busy = cursor.getInt(0) != 0;
+                Log.d(TAG, "🧹 WAL checkpoint: busy=" + busy + ", log=" + cursor.getInt(1) +
+                        ", checkpointed=" + cursor.getInt(2));
+                return !busy;
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "WAL checkpoint failed: " + e.getMessage());
+        } finally {
+            if (cursor != null) cursor.close();
+        }
+        return false;
+    }
+    
+    /**
+     * PRAGMA'lar satır döndürebilir (mmap_size gibi), execSQL yerine rawQuery
+     */
+    private static void pragma(SQLiteDatabase db, String name, String value) {
+        Cursor cursor = null;
+        try {
+            cursor = db.rawQuery("PRAGMA " + name + "=" + value, null);
+            cursor.moveToFirst();
+        } catch (Exception e) {
+            Log.w(TAG, "PRAGMA " + name + "=" + value + " failed: " + e.getMessage());
+        } finally {
+            if (cursor != null) cursor.close();
+        }
+    }
+    
+    /**
+     * Whitelist pragma keyword values
+     */
+    private static String oneOf(String value, String fallback, String... allowed) {
+        if (value != null) {
+            for (String option : allowed) {
+                if (option.equalsIgnoreCase(value)) {
+                    return option;
+                }
+            }
         }
+        return fallback;
     }
     
     @Override
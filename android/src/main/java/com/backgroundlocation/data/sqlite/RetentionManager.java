@@ -0,0 +1,177 @@
+package com.backgroundlocation.data.sqlite;
+
+import android.content.Context;
+
+import com.backgroundlocation.config.Config;
+import com.backgroundlocation.util.LogHelper;
+import com.backgroundlocation.util.ThreadPools;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Retention Manager
+ * maxDaysToPersist / maxRecordsToPersist'i her fix'te tam tablo taraması yapmadan uygular.
+ * - Satır sayısı ve en eski recorded_at bellekte tutulur (insert'te güncellenir, gerektiğinde DB'den yenilenir)
+ * - Pruning yalnızca eşik aşılınca (count > max + slack, en eski kayıt cutoff'tan AGE_SLACK_MS daha eski)
+ *   veya periyodik idle job'da (WalCheckpointJobService) çalışır
+ * - Silmeler idx_recorded_at / primary key üzerinde CHUNK_SIZE'lık parçalar halinde yapılır;
+ *   her parça ayrı bir writer task'ı olduğu için araya insert'ler girebilir
+ *
+ * Tüm metodlar (getMetrics hariç) writer thread'de (ThreadPools.db) çağrılır.
+ */
+public class RetentionManager {
+
+    private static final String TAG = "RetentionManager";
+
+    private static final int CHUNK_SIZE = 500;
+    private static final int MAX_COUNT_SLACK = 100;
+    private static final long AGE_SLACK_MS = 60 * 60 * 1000L; // 1 saat
+    private static final long DAY_MS = 24 * 60 * 60 * 1000L;
+
+    private static RetentionManager instance;
+
+    private final Context context;
+
+    // Stats (-1: bilinmiyor, DB'den yüklenecek)
+    private volatile int rowCount = -1;
+    private volatile long minRecordedAt = -1;
+    private boolean pruning = false;
+
+    // Metrics
+    private volatile long prunedTotal = 0;
+    private volatile long lastPruneAt = 0;
+
+    private RetentionManager(Context context) {
+        this.context = context;
+    }
+
+    public static synchronized RetentionManager getInstance(Context context) {
+        if (instance == null) {
+            instance = new RetentionManager(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /**
+     * Update stats after insert
+     */
+    void onInserted(Long recordedAt) {
+        if (rowCount < 0) {
+            return;
+        }
+        rowCount++;
+        if (recordedAt != null && (minRecordedAt <= 0 || recordedAt < minRecordedAt)) {
+            minRecordedAt = recordedAt;
+        }
+    }
+
+    /**
+     * Stats are stale (clear / external delete); reloaded on next check
+     */
+    void invalidate() {
+        rowCount = -1;
+        minRecordedAt = -1;
+    }
+
+    /**
+     * Prune if a retention threshold is crossed (her persist sonrası, writer thread)
+     */
+    public void maybePrune() {
+        Config config = Config.getInstance(context);
+        if (pruning || (config.maxDaysToPersist <= 0 && config.maxRecordsToPersist <= 0)) {
+            return;
+        }
+        ensureStats();
+        boolean overCount = config.maxRecordsToPersist > 0 &&
+            rowCount > config.maxRecordsToPersist + countSlack(config.maxRecordsToPersist);
+        boolean overAge = config.maxDaysToPersist > 0 && minRecordedAt > 0 &&
+            minRecordedAt < cutoff(config.maxDaysToPersist) - AGE_SLACK_MS;
+        if (overCount || overAge) {
+            prune();
+        }
+    }
+
+    /**
+     * Enforce retention exactly (periyodik idle job)
+     */
+    public void prune() {
+        if (pruning) {
+            return;
+        }
+        // Sync / manuel silmeler sayacı bozmuş olabilir: tam uygulamadan önce DB'den yenile
+        invalidate();
+        ensureStats();
+        pruning = true;
+        pruneChunk();
+    }
+
+    private void pruneChunk() {
+        Config config = Config.getInstance(context);
+        SQLiteLocationDAO dao = SQLiteLocationDAO.getInstance(context);
+        int deleted = 0;
+        try {
+            if (config.maxDaysToPersist > 0 && minRecordedAt > 0 &&
+                    minRecordedAt < cutoff(config.maxDaysToPersist)) {
+                deleted = dao.pruneBefore(cutoff(config.maxDaysToPersist), CHUNK_SIZE);
+                if (deleted < CHUNK_SIZE) {
+                    minRecordedAt = dao.minRecordedAt();
+                }
+            } else if (config.maxRecordsToPersist > 0 && rowCount > config.maxRecordsToPersist) {
+                deleted = dao.deleteOldest(Math.min(rowCount - config.maxRecordsToPersist, CHUNK_SIZE));
+                if (deleted > 0) {
+                    minRecordedAt = dao.minRecordedAt();
+                }
+            }
+        } catch (Exception e) {
+            LogHelper.e(TAG, "❌ Prune failed: " + e.getMessage(), e);
+            invalidate();
+            pruning = false;
+            return;
+        }
+
+        if (deleted <= 0) {
+            pruning = false;
+            return;
+        }
+        rowCount = Math.max(rowCount - deleted, 0);
+        prunedTotal += deleted;
+        lastPruneAt = System.currentTimeMillis();
+        // Sonraki parça kuyruğun sonuna: bekleyen insert'ler önce yazılır
+        ThreadPools.db().execute(this::pruneChunk);
+    }
+
+    private void ensureStats() {
+        if (rowCount >= 0) {
+            return;
+        }
+        SQLiteLocationDAO dao = SQLiteLocationDAO.getInstance(context);
+        rowCount = dao.count();
+        minRecordedAt = dao.minRecordedAt();
+    }
+
+    private static int countSlack(int maxRecords) {
+        // Küçük limitlerde tam, büyüklerde en fazla %5 / MAX_COUNT_SLACK aşıma izin ver
+        return Math.min(maxRecords / 20, MAX_COUNT_SLACK);
+    }
+
+    private static long cutoff(int days) {
+        return System.currentTimeMillis() - days * DAY_MS;
+    }
+
+    /**
+     * Retention stats for diagnostics
+     */
+    public JSONObject getMetrics() {
+        JSONObject json = new JSONObject();
+        try {
+            json.put("rowCount", rowCount);
+            json.put("minRecordedAt", minRecordedAt);
+            json.put("pruned", prunedTotal);
+            json.put("lastPruneAt", lastPruneAt);
+        } catch (JSONException e) {
+            LogHelper.w(TAG, "Failed to build metrics: " + e.getMessage());
+        }
+        return json;
+    }
+}
@@ -11,7 +11,11 @@ import com.backgroundlocation.data.GeofenceModel;
 import org.json.JSONObject;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * SQLite Geofence DAO
@@ -20,9 +24,24 @@ import java.util.List;
 public class SQLiteGeofenceDAO {
     
     private static final String TAG = "SQLiteGeofenceDAO";
+    // GeofenceManager.MAX_GEOFENCES (97) + headroom: tüm aktif geofence'ler cache'e sığar
+    private static final int CACHE_SIZE = 128;
     private static SQLiteGeofenceDAO instance;
     private Context context;
     
+    // LRU cache: identifier -> deserialized GeofenceModel
+    // Her mutasyonda (persist/destroy/clear) commit'ten (endTransaction) sonra invalidate edilir;
+    // cacheGeneration: sorgusu bir commit'ten önce başlamış reader eski satırı cache'e koyamaz
+    private final Map<String, GeofenceModel> cache = new LinkedHashMap<String, GeofenceModel>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, GeofenceModel> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+    
+    // guarded by cache
+    private long cacheGeneration = 0;
+    
     private SQLiteGeofenceDAO(Context context) {
         this.context = context.getApplicationContext();
     }
@@ -62,23 +81,24 @@ public class SQLiteGeofenceDAO {
                 values.put("extras", json.toString());
             }
             
+            long rowId;
             db.beginTransaction();
             try {
-                long rowId = db.insertWithOnConflict(
+                rowId = db.insertWithOnConflict(
                     LocationOpenHelper.GEOFENCES_TABLE,
                     null,
                     values,
                     SQLiteDatabase.CONFLICT_REPLACE
                 );
-                
                 db.setTransactionSuccessful();
-                
-                if (rowId > -1) {
-                    Log.d(TAG, "✅ INSERT geofence: " + geofence.getIdentifier());
-                    return true;
-                }
             } finally {
                 db.endTransaction();
+                invalidate(geofence.getIdentifier());
+            }
+            
+            if (rowId > -1) {
+                Log.d(TAG, "✅ INSERT geofence: " + geofence.getIdentifier());
+                return true;
             }
         } catch (Exception e) {
             Log.e(TAG, "Persist geofence error: " + e.getMessage());
@@ -125,8 +145,20 @@ public class SQLiteGeofenceDAO {
     
     /**
      * Get geofence by identifier
+     * Önce LRU cache'e bakar, yoksa DB'den okuyup cache'e ekler
      */
     public GeofenceModel get(String identifier) {
+        if (identifier == null) return null;
+        
+        long generation;
+        synchronized (cache) {
+            GeofenceModel cached = cache.get(identifier);
+            if (cached != null) {
+                return cached;
+            }
+            generation = cacheGeneration;
+        }
+        
         SQLiteDatabase db = getDatabase();
         if (db == null) return null;
         
@@ -144,7 +176,15 @@ public class SQLiteGeofenceDAO {
             );
             
             if (cursor.moveToFirst()) {
-                return cursorToGeofence(cursor);
+                GeofenceModel geofence = cursorToGeofence(cursor);
+                if (geofence != null) {
+                    synchronized (cache) {
+                        if (generation == cacheGeneration) {
+                            cache.put(identifier, geofence);
+                        }
+                    }
+                }
+                return geofence;
             }
         } catch (Exception e) {
             Log.e(TAG, "Get geofence error: " + e.getMessage());
@@ -162,6 +202,72 @@ public class SQLiteGeofenceDAO {
         return get(identifier);
     }
     
+    /**
+     * Get multiple geofences by identifier
+     * Cache'de olmayanlar tek bir "identifier IN (...)" sorgusu ile okunur
+     * (geofence transition burst'ü tek DB okuması yapar)
+     */
+    public Map<String, GeofenceModel> get(Collection<String> identifiers) {
+        Map<String, GeofenceModel> result = new HashMap<>();
+        if (identifiers == null || identifiers.isEmpty()) return result;
+        
+        List<String> missing = new ArrayList<>();
+        long generation;
+        synchronized (cache) {
+            generation = cacheGeneration;
+            for (String identifier : identifiers) {
+                GeofenceModel cached = cache.get(identifier);
+                if (cached != null) {
+                    result.put(identifier, cached);
+                } else if (!missing.contains(identifier)) {
+                    missing.add(identifier);
+                }
+            }
+        }
+        
+        if (missing.isEmpty()) return result;
+        
+        SQLiteDatabase db = getDatabase();
+        if (db == null) return result;
+        
+        StringBuilder placeholders = new StringBuilder();
+        for (int i = 0; i < missing.size(); i++) {
+            placeholders.append(i == 0 ? "?" : ",?");
+        }
+        
+        Cursor cursor = null;
+        try {
+            cursor = db.query(
+                LocationOpenHelper.GEOFENCES_TABLE,
+                null,
+                "identifier IN (" + placeholders + ")",
+                missing.toArray(new String[0]),
+                null,
+                null,
+                null,
+                null
+            );
+            
+            while (cursor.moveToNext()) {
+                GeofenceModel geofence = cursorToGeofence(cursor);
+                if (geofence != null) {
+                    result.put(geofence.getIdentifier(), geofence);
+                    synchronized (cache) {
+                        if (generation == cacheGeneration) {
+                            cache.put(geofence.getIdentifier(), geofence);
+                        }
+                    }
+                }
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "Get geofences error: " + e.getMessage());
+        } finally {
+            if (cursor != null) cursor.close();
+        }
+        
+        return result;
+    }
+    
     /**
      * Delete geofence by identifier
      */
@@ -238,24 +344,24 @@ public class SQLiteGeofenceDAO {
         SQLiteDatabase db = getDatabase();
         if (db == null) return false;
         
+        int deleted;
         db.beginTransaction();
         try {
-            int deleted = db.delete(
+            deleted = db.delete(
                 LocationOpenHelper.GEOFENCES_TABLE,
                 "identifier=?",
                 new String[]{identifier}
             );
-            
             db.setTransactionSuccessful();
-            
-            if (deleted > 0) {
-                Log.d(TAG, "✅ DELETED geofence: " + identifier);
-                return true;
-            }
         } finally {
             db.endTransaction();
+            invalidate(identifier);
         }
         
+        if (deleted > 0) {
+            Log.d(TAG, "✅ DELETED geofence: " + identifier);
+            return true;
+        }
         return false;
     }
     
@@ -270,10 +376,31 @@ public class SQLiteGeofenceDAO {
         try {
             db.delete(LocationOpenHelper.GEOFENCES_TABLE, null, null);
             db.setTransactionSuccessful();
-            Log.d(TAG, "✅ All geofences cleared");
-            return true;
         } finally {
             db.endTransaction();
+            invalidateAll();
+        }
+        Log.d(TAG, "✅ All geofences cleared");
+        return true;
+    }
+    
+    /**
+     * Invalidate cached geofence
+     */
+    private void invalidate(String identifier) {
+        synchronized (cache) {
+            cacheGeneration++;
+            cache.remove(identifier);
+        }
+    }
+    
+    /**
+     * Invalidate entire cache
+     */
+    private void invalidateAll() {
+        synchronized (cache) {
+            cacheGeneration++;
+            cache.clear();
         }
     }
     
@@ -314,6 +441,7 @@ public class SQLiteGeofenceDAO {
      * Get writable database
      */
     private SQLiteDatabase getDatabase() {
+        DatabaseThreadPolicy.check(context);
         try {
             return LocationOpenHelper.getInstance(context).getWritableDatabase();
         } catch (Exception e) {
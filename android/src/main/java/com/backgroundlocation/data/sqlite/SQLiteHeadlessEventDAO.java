@@ -0,0 +1,165 @@
+package com.backgroundlocation.data.sqlite;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.text.TextUtils;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * SQLite Headless Event DAO
+ * Append-only headless event journal (at-least-once delivery)
+ */
+public class SQLiteHeadlessEventDAO {
+
+    private static final String TAG = "SQLiteHeadlessEventDAO";
+    private static SQLiteHeadlessEventDAO instance;
+    private Context context;
+
+    /**
+     * Journal entry
+     */
+    public static class Entry {
+        public final long id;
+        public final String name;
+        public final String payload;
+
+        public Entry(long id, String name, String payload) {
+            this.id = id;
+            this.name = name;
+            this.payload = payload;
+        }
+    }
+
+    private SQLiteHeadlessEventDAO(Context context) {
+        this.context = context.getApplicationContext();
+    }
+
+    public static synchronized SQLiteHeadlessEventDAO getInstance(Context context) {
+        if (instance == null) {
+            instance = new SQLiteHeadlessEventDAO(context);
+        }
+        return instance;
+    }
+
+    /**
+     * Append event, returns row id (-1 on failure)
+     */
+    public long append(String name, String payload) {
+        SQLiteDatabase db = getDatabase();
+        if (db == null) return -1;
+
+        ContentValues values = new ContentValues();
+        values.put("name", name);
+        values.put("payload", payload);
+        values.put("created_at", System.currentTimeMillis());
+        values.put("acked", 0);
+
+        try {
+            return db.insert(LocationOpenHelper.HEADLESS_EVENTS_TABLE, null, values);
+        } catch (Exception e) {
+            Log.e(TAG, "Append error: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * Unacknowledged entries in journal order
+     */
+    public List<Entry> pending(int limit) {
+        List<Entry> entries = new ArrayList<>();
+        SQLiteDatabase db = getDatabase();
+        if (db == null) return entries;
+
+        Cursor cursor = null;
+        try {
+            cursor = db.query(
+                LocationOpenHelper.HEADLESS_EVENTS_TABLE,
+                new String[]{"id", "name", "payload"},
+                "acked=0",
+                null,
+                null,
+                null,
+                "id ASC",
+                String.valueOf(limit)
+            );
+            while (cursor.moveToNext()) {
+                entries.add(new Entry(cursor.getLong(0), cursor.getString(1), cursor.getString(2)));
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "Pending query error: " + e.getMessage());
+        } finally {
+            if (cursor != null) cursor.close();
+        }
+        return entries;
+    }
+
+    /**
+     * Acknowledge delivered entries (compact() removes them)
+     */
+    public int ack(Collection<Long> ids) {
+        SQLiteDatabase db = getDatabase();
+        if (db == null || ids.isEmpty()) return 0;
+
+        ContentValues values = new ContentValues();
+        values.put("acked", 1);
+        try {
+            return db.update(
+                LocationOpenHelper.HEADLESS_EVENTS_TABLE,
+                values,
+                "id IN (" + TextUtils.join(",", ids) + ")",
+                null
+            );
+        } catch (Exception e) {
+            Log.e(TAG, "Ack error: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Delete acknowledged entries and cap unacknowledged backlog to maxEntries (oldest dropped)
+     */
+    public int compact(int maxEntries) {
+        SQLiteDatabase db = getDatabase();
+        if (db == null) return 0;
+
+        db.beginTransaction();
+        try {
+            int deleted = db.delete(LocationOpenHelper.HEADLESS_EVENTS_TABLE, "acked=1", null);
+            int overflow = db.delete(
+                LocationOpenHelper.HEADLESS_EVENTS_TABLE,
+                "id NOT IN (SELECT id FROM " + LocationOpenHelper.HEADLESS_EVENTS_TABLE +
+                    " ORDER BY id DESC LIMIT ?)",
+                new String[]{String.valueOf(maxEntries)}
+            );
+            db.setTransactionSuccessful();
+            if (overflow > 0) {
+                Log.w(TAG, "⚠️ Headless journal overflow, dropped " + overflow + " oldest entries");
+            }
+            return deleted + overflow;
+        } catch (Exception e) {
+            Log.e(TAG, "Compact error: " + e.getMessage());
+            return 0;
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /**
+     * Get writable database
+     */
+    private SQLiteDatabase getDatabase() {
+        DatabaseThreadPolicy.check(context);
+        try {
+            return LocationOpenHelper.getInstance(context).getWritableDatabase();
+        } catch (Exception e) {
+            Log.e(TAG, "Failed to open database: " + e.getMessage());
+            return null;
+        }
+    }
+}
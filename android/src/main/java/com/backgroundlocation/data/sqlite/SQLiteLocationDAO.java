@@ -4,16 +4,25 @@ import android.content.ContentValues;
 import android.content.Context;
 import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
+import android.location.Location;
 import android.text.TextUtils;
 import android.util.Log;
 
 import com.backgroundlocation.data.LocationModel;
+import com.backgroundlocation.data.LocationQuery;
+import com.backgroundlocation.util.ThreadPools;
 
+import org.json.JSONArray;
+import org.json.JSONException;
 import org.json.JSONObject;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * SQLite Location DAO
@@ -23,11 +32,35 @@ import java.util.UUID;
 public class SQLiteLocationDAO {
     
     private static final String TAG = "SQLiteLocationDAO";
+    private static final int UUID_CHUNK_SIZE = 500;
     private static SQLiteLocationDAO instance;
     private Context context;
     
+    // Cached row counts (pending: locked=0). Her insert / lock / unlock / delete ile güncellenir,
+    // ilk erişimde DB'den yüklenir. -1: henüz yüklenmedi
+    private final Object countLock = new Object();
+    private int pendingCount = -1;
+    private int lockedCount = -1;
+    private long countVersion = 0;
+    private int openTransactions = 0;
+    private boolean loadScheduled = false;
+    
+    // Transaction içinde biriken sayaç delta'ları; yalnızca en dıştaki transaction commit olunca yayınlanır.
+    // SQLite transaction'ları thread'e bağlı olduğu için thread başına tutulur
+    private static class CountTx {
+        int depth;
+        int pendingDelta;
+        int lockedDelta;
+        boolean cleared;
+        boolean invalidate;
+        boolean rolledBack;
+    }
+    private final ThreadLocal<CountTx> countTx = new ThreadLocal<>();
+    
     private SQLiteLocationDAO(Context context) {
         this.context = context.getApplicationContext();
+        // Sayaçları erkenden arka planda yükle; sync getter'lar (JS thread) DB'ye gitmez
+        loadCountsAsync();
     }
     
     public static synchronized SQLiteLocationDAO getInstance(Context context) {
@@ -86,6 +119,8 @@ public class SQLiteLocationDAO {
         if (db == null) return locations;
         
         Cursor cursor = null;
+        boolean successful = false;
+        beginCounted(db);
         try {
             // 1. SELECT unlocked locations
             cursor = db.query(
@@ -117,14 +152,20 @@ public class SQLiteLocationDAO {
                 
                 String whereClause = "id IN (" + TextUtils.join(",", ids) + ")";
                 int updated = db.update(LocationOpenHelper.LOCATIONS_TABLE, values, whereClause, null);
+                recordCounts(-updated, updated);
                 
                 Log.d(TAG, "✅ Locked " + updated + " records");
             }
             
+            db.setTransactionSuccessful();
+            successful = true;
         } catch (Exception e) {
+            // Rollback: hiçbiri kilitlenmedi
             Log.e(TAG, "Error in allWithLocking: " + e.getMessage());
+            locations.clear();
         } finally {
             if (cursor != null) cursor.close();
+            endCounted(db, successful);
         }
         
         return locations;
@@ -138,6 +179,9 @@ public class SQLiteLocationDAO {
         if (db == null) return null;
         
         Cursor cursor = null;
+        LocationModel result = null;
+        boolean successful = false;
+        beginCounted(db);
         try {
             cursor = db.query(
                 LocationOpenHelper.LOCATIONS_TABLE,
@@ -157,25 +201,30 @@ public class SQLiteLocationDAO {
                     // Lock it
                     ContentValues values = new ContentValues();
                     values.put("locked", 1);
-                    db.update(
+                    int updated = db.update(
                         LocationOpenHelper.LOCATIONS_TABLE,
                         values,
                         "id=?",
                         new String[]{String.valueOf(location.id)}
                     );
+                    recordCounts(-updated, updated);
                     
                     Log.d(TAG, "✅ Locked 1 record: " + location.uuid);
                 }
                 
-                return location;
+                result = location;
             }
+            db.setTransactionSuccessful();
+            successful = true;
         } catch (Exception e) {
             Log.e(TAG, "Error in first: " + e.getMessage());
+            result = null;
         } finally {
             if (cursor != null) cursor.close();
+            endCounted(db, successful);
         }
         
-        return null;
+        return result;
     }
     
     /**
@@ -186,36 +235,30 @@ public class SQLiteLocationDAO {
         if (db == null) return null;
         
         try {
-            String uuid = json.has("uuid") ? json.getString("uuid") : UUID.randomUUID().toString();
-            String timestamp = json.has("timestamp") ? 
-                String.valueOf(json.getLong("timestamp")) : 
-                String.valueOf(System.currentTimeMillis());
+            ContentValues values = toContentValues(json);
+            String uuid = values.getAsString("uuid");
             
-            if (!json.has("uuid")) {
-                json.put("uuid", uuid);
-            }
-            
-            ContentValues values = new ContentValues();
-            values.put("uuid", uuid);
-            values.put("timestamp", timestamp);
-            values.put("data", json.toString().getBytes()); // Store as BLOB
-            values.put("encrypted", 0);
-            values.put("locked", 0);
-            
-            db.beginTransaction();
+            long rowId;
+            boolean successful = false;
+            beginCounted(db);
             try {
-                long rowId = db.insert(LocationOpenHelper.LOCATIONS_TABLE, null, values);
-                db.setTransactionSuccessful();
-                
+                rowId = db.insert(LocationOpenHelper.LOCATIONS_TABLE, null, values);
                 if (rowId > -1) {
-                    Log.d(TAG, "✅ INSERT: " + uuid);
-                    return uuid;
-                } else {
-                    Log.e(TAG, "❌ INSERT failed");
-                    return null;
+                    recordCounts(1, 0);
                 }
+                db.setTransactionSuccessful();
+                successful = true;
             } finally {
-                db.endTransaction();
+                endCounted(db, successful);
+            }
+            
+            if (rowId > -1) {
+                RetentionManager.getInstance(context).onInserted(values.getAsLong("recorded_at"));
+                Log.d(TAG, "✅ INSERT: " + uuid);
+                return uuid;
+            } else {
+                Log.e(TAG, "❌ INSERT failed");
+                return null;
             }
         } catch (Exception e) {
             Log.e(TAG, "Persist error: " + e.getMessage());
@@ -223,6 +266,295 @@ public class SQLiteLocationDAO {
         }
     }
     
+    /**
+     * Insert locations in one transaction (batched delivery)
+     * @return uuids of inserted rows, in order
+     */
+    public List<String> persistAll(List<JSONObject> locations) {
+        List<String> uuids = new ArrayList<>(locations.size());
+        SQLiteDatabase db = getDatabase();
+        if (db == null || locations.isEmpty()) return uuids;
+        
+        List<Long> recordedAt = new ArrayList<>(locations.size());
+        boolean successful = false;
+        beginCounted(db);
+        try {
+            for (JSONObject json : locations) {
+                ContentValues values = toContentValues(json);
+                if (db.insert(LocationOpenHelper.LOCATIONS_TABLE, null, values) > -1) {
+                    uuids.add(values.getAsString("uuid"));
+                    recordedAt.add(values.getAsLong("recorded_at"));
+                }
+            }
+            recordCounts(uuids.size(), 0);
+            db.setTransactionSuccessful();
+            successful = true;
+        } catch (Exception e) {
+            // Rollback: hiçbiri yazılmadı
+            Log.e(TAG, "Persist batch error: " + e.getMessage());
+            uuids.clear();
+            recordedAt.clear();
+        } finally {
+            endCounted(db, successful);
+        }
+        
+        RetentionManager retention = RetentionManager.getInstance(context);
+        for (Long time : recordedAt) {
+            retention.onInserted(time);
+        }
+        Log.d(TAG, "✅ INSERT batch: " + uuids.size() + "/" + locations.size());
+        return uuids;
+    }
+    
+    private static ContentValues toContentValues(JSONObject json) throws JSONException {
+        String uuid = json.has("uuid") ? json.getString("uuid") : UUID.randomUUID().toString();
+        String timestamp = json.has("timestamp") ? 
+            String.valueOf(json.getLong("timestamp")) : 
+            String.valueOf(System.currentTimeMillis());
+        
+        if (!json.has("uuid")) {
+            json.put("uuid", uuid);
+        }
+        
+        ContentValues values = new ContentValues();
+        values.put("uuid", uuid);
+        values.put("timestamp", timestamp);
+        values.put("data", json.toString().getBytes()); // Store as BLOB
+        values.put("encrypted", 0);
+        values.put("locked", 0);
+        putTypedColumns(values, json);
+        return values;
+    }
+    
+    /**
+     * Typed query columns (v3) from location JSON
+     */
+    static void putTypedColumns(ContentValues values, JSONObject json) {
+        values.put("recorded_at", json.optLong("timestamp", System.currentTimeMillis()));
+        values.put("odometer", json.optDouble("odometer", 0));
+        values.put("is_moving", json.optBoolean("is_moving", false) ? 1 : 0);
+        JSONObject coords = json.optJSONObject("coords");
+        if (coords != null) {
+            values.put("latitude", coords.optDouble("latitude"));
+            values.put("longitude", coords.optDouble("longitude"));
+            values.put("accuracy", coords.optDouble("accuracy"));
+            values.put("speed", coords.optDouble("speed", 0));
+        }
+        JSONObject activity = json.optJSONObject("activity");
+        if (activity != null) {
+            values.put("activity_type", activity.optString("type", null));
+        }
+    }
+    
+    /**
+     * Query one page of locations (projection: typed kolonlar, JSON parse yok)
+     */
+    public LocationQuery.Page query(LocationQuery query) {
+        List<JSONObject> rows = new ArrayList<>();
+        SQLiteDatabase db = getDatabase();
+        if (db == null) return new LocationQuery.Page(rows, query.getCursor(), false);
+        
+        query.compile(true);
+        List<String> fields = query.getFields();
+        String[] columns = new String[fields.size() + 1];
+        columns[0] = "id";
+        for (int i = 0; i < fields.size(); i++) {
+            columns[i + 1] = LocationQuery.columnFor(fields.get(i));
+        }
+        if (fields.isEmpty()) {
+            columns = new String[]{"id", "uuid", "data"};
+        }
+        
+        long cursorId = query.getCursor();
+        boolean hasMore = false;
+        Cursor cursor = null;
+        try {
+            cursor = db.query(
+                LocationOpenHelper.LOCATIONS_TABLE,
+                columns,
+                query.getSelection(),
+                query.getSelectionArgs(),
+                null,
+                null,
+                query.getOrderBy(),
+                query.getLimit()
+            );
+            while (cursor.moveToNext()) {
+                if (rows.size() == query.getPageSize()) {
+                    hasMore = true;
+                    break;
+                }
+                cursorId = cursor.getLong(0);
+                JSONObject row = fields.isEmpty() ? rowToJSON(cursor) : projectRow(cursor, fields);
+                if (row != null) {
+                    rows.add(row);
+                }
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "Query error: " + e.getMessage());
+        } finally {
+            if (cursor != null) cursor.close();
+        }
+        return new LocationQuery.Page(rows, cursorId, hasMore);
+    }
+    
+    /**
+     * Aggregate matching locations (count, bbox, timespan, distance), optionally grouped by day
+     */
+    public JSONObject aggregate(LocationQuery query) {
+        JSONObject result = new JSONObject();
+        SQLiteDatabase db = getDatabase();
+        if (db == null) return result;
+        
+        query.compile(false);
+        boolean byDay = LocationQuery.GROUP_BY_DAY.equals(query.getGroupBy());
+        String dayExpr = "strftime('%Y-%m-%d', recorded_at / 1000, 'unixepoch', 'localtime')";
+        String sql = "SELECT " + (byDay ? dayExpr : "NULL") + " AS day, COUNT(*), " +
+            "MIN(latitude), MAX(latitude), MIN(longitude), MAX(longitude), " +
+            "MIN(recorded_at), MAX(recorded_at) FROM " + LocationOpenHelper.LOCATIONS_TABLE +
+            (query.getSelection() != null ? " WHERE " + query.getSelection() : "") +
+            (byDay ? " GROUP BY day ORDER BY day" : "");
+        
+        Map<String, JSONObject> groups = new LinkedHashMap<>();
+        Cursor cursor = null;
+        try {
+            cursor = db.rawQuery(sql, query.getSelectionArgs());
+            while (cursor.moveToNext()) {
+                JSONObject group = new JSONObject();
+                if (byDay) {
+                    group.put("day", cursor.getString(0));
+                }
+                if (query.hasAggregate(LocationQuery.AGGREGATE_COUNT) || query.getAggregates().isEmpty()) {
+                    group.put("count", cursor.getInt(1));
+                }
+                if (query.hasAggregate(LocationQuery.AGGREGATE_BBOX) && !cursor.isNull(2)) {
+                    JSONObject bbox = new JSONObject();
+                    bbox.put("minLatitude", cursor.getDouble(2));
+                    bbox.put("maxLatitude", cursor.getDouble(3));
+                    bbox.put("minLongitude", cursor.getDouble(4));
+                    bbox.put("maxLongitude", cursor.getDouble(5));
+                    group.put("bbox", bbox);
+                }
+                if (query.hasAggregate(LocationQuery.AGGREGATE_TIMESPAN) && !cursor.isNull(6)) {
+                    JSONObject span = new JSONObject();
+                    span.put("start", cursor.getLong(6));
+                    span.put("end", cursor.getLong(7));
+                    span.put("duration", cursor.getLong(7) - cursor.getLong(6));
+                    group.put("timespan", span);
+                }
+                groups.put(byDay ? cursor.getString(0) : "", group);
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "Aggregate error: " + e.getMessage());
+        } finally {
+            if (cursor != null) cursor.close();
+        }
+        
+        if (query.hasAggregate(LocationQuery.AGGREGATE_DISTANCE)) {
+            sumDistance(db, query, byDay ? dayExpr : null, groups);
+        }
+        
+        try {
+            if (byDay) {
+                JSONArray array = new JSONArray();
+                for (JSONObject group : groups.values()) {
+                    array.put(group);
+                }
+                result.put("groups", array);
+            } else if (!groups.isEmpty()) {
+                result = groups.values().iterator().next();
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "Aggregate result error: " + e.getMessage());
+        }
+        return result;
+    }
+    
+    /**
+     * Sum great-circle distance between consecutive fixes (streamed, typed columns only)
+     */
+    private void sumDistance(SQLiteDatabase db, LocationQuery query, String dayExpr, Map<String, JSONObject> groups) {
+        String sql = "SELECT " + (dayExpr != null ? dayExpr : "''") + ", latitude, longitude FROM " +
+            LocationOpenHelper.LOCATIONS_TABLE +
+            " WHERE latitude IS NOT NULL" +
+            (query.getSelection() != null ? " AND " + query.getSelection() : "") +
+            " ORDER BY recorded_at ASC, id ASC";
+        
+        Map<String, Double> distances = new LinkedHashMap<>();
+        float[] results = new float[1];
+        Cursor cursor = null;
+        try {
+            cursor = db.rawQuery(sql, query.getSelectionArgs());
+            String lastKey = null;
+            double lastLat = 0;
+            double lastLng = 0;
+            while (cursor.moveToNext()) {
+                String key = cursor.getString(0);
+                double lat = cursor.getDouble(1);
+                double lng = cursor.getDouble(2);
+                if (key != null && key.equals(lastKey)) {
+                    Location.distanceBetween(lastLat, lastLng, lat, lng, results);
+                    Double sum = distances.get(key);
+                    distances.put(key, (sum != null ? sum : 0d) + results[0]);
+                } else if (key != null && !distances.containsKey(key)) {
+                    distances.put(key, 0d);
+                }
+                lastKey = key;
+                lastLat = lat;
+                lastLng = lng;
+            }
+            for (Map.Entry<String, Double> entry : distances.entrySet()) {
+                JSONObject group = groups.get(entry.getKey());
+                if (group != null) {
+                    group.put("distance", entry.getValue());
+                }
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "Distance aggregate error: " + e.getMessage());
+        } finally {
+            if (cursor != null) cursor.close();
+        }
+    }
+    
+    private JSONObject rowToJSON(Cursor cursor) {
+        try {
+            JSONObject json = new JSONObject(new String(cursor.getBlob(2)));
+            json.put("uuid", cursor.getString(1));
+            return json;
+        } catch (Exception e) {
+            Log.e(TAG, "Failed to parse location row: " + e.getMessage());
+            return null;
+        }
+    }
+    
+    private JSONObject projectRow(Cursor cursor, List<String> fields) throws JSONException {
+        JSONObject row = new JSONObject();
+        for (int i = 0; i < fields.size(); i++) {
+            int column = i + 1;
+            String field = fields.get(i);
+            if (cursor.isNull(column)) {
+                row.put(field, JSONObject.NULL);
+                continue;
+            }
+            switch (cursor.getType(column)) {
+                case Cursor.FIELD_TYPE_INTEGER:
+                    if ("is_moving".equals(field)) {
+                        row.put(field, cursor.getInt(column) != 0);
+                    } else {
+                        row.put(field, cursor.getLong(column));
+                    }
+                    break;
+                case Cursor.FIELD_TYPE_FLOAT:
+                    row.put(field, cursor.getDouble(column));
+                    break;
+                default:
+                    row.put(field, cursor.getString(column));
+                    break;
+            }
+        }
+        return row;
+    }
+    
     /**
      * Get count of locations
      */
@@ -231,30 +563,311 @@ public class SQLiteLocationDAO {
     }
     
     /**
-     * Get count (optionally only unlocked)
+     * Get count (optionally only unlocked), served from the cached counters
      */
     public int count(boolean onlyUnlocked) {
+        if (!countsLoaded() && !verifyCounts()) {
+            return 0;
+        }
+        synchronized (countLock) {
+            return onlyUnlocked ? pendingCount : pendingCount + lockedCount;
+        }
+    }
+    
+    /**
+     * Pending (unlocked) row count
+     */
+    public int pendingCount() {
+        return count(true);
+    }
+    
+    /**
+     * Locked (sync in progress) row count
+     */
+    public int lockedCount() {
+        if (!countsLoaded() && !verifyCounts()) {
+            return 0;
+        }
+        synchronized (countLock) {
+            return lockedCount;
+        }
+    }
+    
+    /**
+     * Cached total without touching the DB (JS thread sync getter'ları).
+     * -1: sayaçlar henüz yüklenmedi, yükleme arka planda başlatılır
+     */
+    public int cachedCount() {
+        synchronized (countLock) {
+            if (pendingCount >= 0) {
+                return pendingCount + lockedCount;
+            }
+        }
+        loadCountsAsync();
+        return -1;
+    }
+    
+    /**
+     * Cached counters as JSON without touching the DB; sayaçlar yüklenmediyse boş obje
+     */
+    public JSONObject cachedCounts() {
+        if (!countsLoaded()) {
+            loadCountsAsync();
+            return new JSONObject();
+        }
+        return countsJson();
+    }
+    
+    /**
+     * Cached counters as JSON: { total, pending, locked }
+     */
+    public JSONObject counts() {
+        if (!countsLoaded() && !verifyCounts()) {
+            return new JSONObject();
+        }
+        return countsJson();
+    }
+    
+    private JSONObject countsJson() {
+        JSONObject json = new JSONObject();
+        try {
+            synchronized (countLock) {
+                json.put("total", pendingCount + lockedCount);
+                json.put("pending", pendingCount);
+                json.put("locked", lockedCount);
+            }
+        } catch (JSONException e) {
+            Log.e(TAG, "Counts error: " + e.getMessage());
+        }
+        return json;
+    }
+    
+    private boolean countsLoaded() {
+        synchronized (countLock) {
+            return pendingCount >= 0;
+        }
+    }
+    
+    /**
+     * Load counters on the reader pool (tek seferde bir yükleme)
+     */
+    private void loadCountsAsync() {
+        synchronized (countLock) {
+            if (loadScheduled) {
+                return;
+            }
+            loadScheduled = true;
+        }
+        try {
+            ThreadPools.dbRead().execute(() -> {
+                try {
+                    verifyCounts();
+                } finally {
+                    synchronized (countLock) {
+                        loadScheduled = false;
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            Log.w(TAG, "⚠️ Count load rejected: " + e.getMessage());
+            synchronized (countLock) {
+                loadScheduled = false;
+            }
+        }
+    }
+    
+    /**
+     * Reload cached counters from the table (ilk erişim / startup).
+     * Query lock dışında çalışır; arada bir yazma olduysa veya açık bir yazma transaction'ı varsa
+     * (commit edilmiş ama delta'sı henüz yayınlanmamış olabilir) sonuç atılıp tekrar okunur.
+     */
+    public boolean verifyCounts() {
         SQLiteDatabase db = getDatabase();
-        if (db == null) return 0;
+        if (db == null) return false;
         
-        Cursor cursor = null;
+        CountTx own = countTx.get();
+        if (own != null && own.depth > 0) {
+            // Bu thread'in kendi transaction'ı açık: yayınlanmamış delta'lar tutarsız sonuç verir
+            return countsLoaded();
+        }
+        
+        for (int attempt = 0; attempt < 3; attempt++) {
+            long version;
+            synchronized (countLock) {
+                if (openTransactions > 0) {
+                    try {
+                        countLock.wait(100);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return countsLoaded();
+                    }
+                    if (openTransactions > 0) {
+                        continue;
+                    }
+                }
+                version = countVersion;
+            }
+            int pending = 0;
+            int locked = 0;
+            Cursor cursor = null;
+            try {
+                cursor = db.rawQuery("SELECT locked, count(*) FROM " + LocationOpenHelper.LOCATIONS_TABLE +
+                    " GROUP BY locked", null);
+                while (cursor.moveToNext()) {
+                    if (cursor.getInt(0) == 0) {
+                        pending += cursor.getInt(1);
+                    } else {
+                        locked += cursor.getInt(1);
+                    }
+                }
+            } catch (Exception e) {
+                Log.e(TAG, "Count error: " + e.getMessage());
+                return false;
+            } finally {
+                if (cursor != null) cursor.close();
+            }
+            synchronized (countLock) {
+                if (version != countVersion) {
+                    continue;
+                }
+                if (pendingCount >= 0 && (pending != pendingCount || locked != lockedCount)) {
+                    Log.w(TAG, "⚠️ Count drift corrected: pending " + pendingCount + " -> " + pending +
+                        ", locked " + lockedCount + " -> " + locked);
+                }
+                pendingCount = pending;
+                lockedCount = locked;
+                return true;
+            }
+        }
+        return countsLoaded();
+    }
+    
+    /**
+     * Begin a transaction whose counter deltas are published only after the outermost commit
+     */
+    private void beginCounted(SQLiteDatabase db) {
+        db.beginTransaction();
+        CountTx tx = countTx.get();
+        if (tx == null) {
+            tx = new CountTx();
+            countTx.set(tx);
+        }
+        if (tx.depth++ == 0) {
+            synchronized (countLock) {
+                openTransactions++;
+                countVersion++;
+            }
+        }
+    }
+    
+    /**
+     * End a counted transaction. Herhangi bir seviye başarısızsa SQLite tüm transaction'ı geri alır;
+     * delta'lar atılır. Commit hata verirse tablo durumu belirsizdir, sayaçlar yeniden yüklenir
+     */
+    private void endCounted(SQLiteDatabase db, boolean successful) {
+        CountTx tx = countTx.get();
+        if (!successful) {
+            tx.rolledBack = true;
+        }
+        boolean ended = false;
         try {
-            String query = "SELECT count(*) FROM " + LocationOpenHelper.LOCATIONS_TABLE;
-            if (onlyUnlocked) {
-                query += " WHERE locked=0";
+            db.endTransaction();
+            ended = true;
+        } finally {
+            if (!ended) {
+                tx.invalidate = true;
             }
-            
-            cursor = db.rawQuery(query, null);
-            if (cursor.moveToFirst()) {
-                return cursor.getInt(0);
+            if (--tx.depth == 0) {
+                countTx.remove();
+                publishCounts(tx);
+            }
+        }
+    }
+    
+    private void recordCounts(int pendingDelta, int lockedDelta) {
+        CountTx tx = countTx.get();
+        tx.pendingDelta += pendingDelta;
+        tx.lockedDelta += lockedDelta;
+    }
+    
+    /**
+     * Tablo tamamen silindi: önceki delta'lar geçersiz, commit sonrası sayaçlar 0'dan başlar
+     */
+    private void recordCleared() {
+        CountTx tx = countTx.get();
+        tx.cleared = true;
+        tx.pendingDelta = 0;
+        tx.lockedDelta = 0;
+    }
+    
+    private void recordInvalidate() {
+        countTx.get().invalidate = true;
+    }
+    
+    private void publishCounts(CountTx tx) {
+        boolean reload = false;
+        synchronized (countLock) {
+            openTransactions--;
+            countVersion++;
+            if (tx.invalidate) {
+                pendingCount = -1;
+                lockedCount = -1;
+                reload = true;
+            } else if (!tx.rolledBack) {
+                if (tx.cleared) {
+                    pendingCount = 0;
+                    lockedCount = 0;
+                }
+                if (pendingCount >= 0) {
+                    pendingCount = Math.max(pendingCount + tx.pendingDelta, 0);
+                    lockedCount = Math.max(lockedCount + tx.lockedDelta, 0);
+                }
+            }
+            countLock.notifyAll();
+        }
+        if (reload) {
+            loadCountsAsync();
+        }
+    }
+    
+    /**
+     * Count matching rows by lock state: {pending, locked}
+     */
+    private int[] countByLock(SQLiteDatabase db, String where, String[] args) {
+        int[] result = new int[2];
+        Cursor cursor = null;
+        try {
+            cursor = db.rawQuery("SELECT locked, count(*) FROM " + LocationOpenHelper.LOCATIONS_TABLE +
+                " WHERE " + where + " GROUP BY locked", args);
+            while (cursor.moveToNext()) {
+                result[cursor.getInt(0) == 0 ? 0 : 1] += cursor.getInt(1);
             }
-        } catch (Exception e) {
-            Log.e(TAG, "Count error: " + e.getMessage());
         } finally {
             if (cursor != null) cursor.close();
         }
-        
-        return 0;
+        return result;
+    }
+    
+    /**
+     * Delete matching rows and keep the cached counters exact
+     */
+    private int deleteCounted(SQLiteDatabase db, String where, String[] args) {
+        boolean successful = false;
+        beginCounted(db);
+        try {
+            int[] byLock = countByLock(db, where, args);
+            int deleted = db.delete(LocationOpenHelper.LOCATIONS_TABLE, where, args);
+            if (deleted == byLock[0] + byLock[1]) {
+                recordCounts(-byLock[0], -byLock[1]);
+            } else {
+                recordInvalidate();
+            }
+            db.setTransactionSuccessful();
+            successful = true;
+            return deleted;
+        } finally {
+            endCounted(db, successful);
+        }
     }
     
     /**
@@ -264,26 +877,95 @@ public class SQLiteLocationDAO {
         SQLiteDatabase db = getDatabase();
         if (db == null) return false;
         
-        db.beginTransaction();
+        int deleted;
+        boolean successful = false;
+        beginCounted(db);
         try {
-            int deleted = db.delete(
+            deleted = deleteCounted(db, "id=?", new String[]{String.valueOf(location.id)});
+            db.setTransactionSuccessful();
+            successful = true;
+        } finally {
+            endCounted(db, successful);
+        }
+        
+        if (deleted == 1) {
+            Log.d(TAG, "✅ DESTROY: " + location.uuid);
+            return true;
+        } else {
+            Log.e(TAG, "❌ DESTROY failed: " + location.uuid);
+            return false;
+        }
+    }
+    
+    /**
+     * Find location by uuid (unique index lookup)
+     */
+    public LocationModel findByUuid(String uuid) {
+        SQLiteDatabase db = getDatabase();
+        if (db == null || uuid == null) return null;
+        
+        Cursor cursor = null;
+        try {
+            cursor = db.query(
                 LocationOpenHelper.LOCATIONS_TABLE,
-                "id=?",
-                new String[]{String.valueOf(location.id)}
+                null,
+                "uuid=?",
+                new String[]{uuid},
+                null,
+                null,
+                null,
+                "1"
             );
-            
-            db.setTransactionSuccessful();
-            
-            if (deleted == 1) {
-                Log.d(TAG, "✅ DESTROY: " + location.uuid);
-                return true;
-            } else {
-                Log.e(TAG, "❌ DESTROY failed: " + location.uuid);
-                return false;
+            return cursor.moveToFirst() ? cursorToLocation(cursor) : null;
+        } catch (Exception e) {
+            Log.e(TAG, "Error finding location " + uuid + ": " + e.getMessage());
+            return null;
+        } finally {
+            if (cursor != null) cursor.close();
+        }
+    }
+    
+    /**
+     * Delete location by uuid, returns false if not found
+     */
+    public boolean destroyByUuid(String uuid) {
+        SQLiteDatabase db = getDatabase();
+        if (db == null || uuid == null) return false;
+        
+        int deleted = deleteCounted(db, "uuid=?", new String[]{uuid});
+        if (deleted > 0) {
+            Log.d(TAG, "✅ DESTROY: " + uuid);
+            return true;
+        }
+        Log.w(TAG, "⚠️ DESTROY: not found " + uuid);
+        return false;
+    }
+    
+    /**
+     * Delete locations by uuid (single transaction), returns number of deleted records.
+     * Unknown uuids are ignored.
+     */
+    public int destroyByUuids(List<String> uuids) {
+        SQLiteDatabase db = getDatabase();
+        if (db == null || uuids == null || uuids.isEmpty()) return 0;
+        
+        int deleted = 0;
+        boolean successful = false;
+        beginCounted(db);
+        try {
+            // SQLite bind parametresi limiti (999) altında kalmak için parça parça
+            for (int from = 0; from < uuids.size(); from += UUID_CHUNK_SIZE) {
+                List<String> chunk = uuids.subList(from, Math.min(from + UUID_CHUNK_SIZE, uuids.size()));
+                String placeholders = TextUtils.join(",", Collections.nCopies(chunk.size(), "?"));
+                deleted += deleteCounted(db, "uuid IN (" + placeholders + ")", chunk.toArray(new String[0]));
             }
+            db.setTransactionSuccessful();
+            successful = true;
         } finally {
-            db.endTransaction();
+            endCounted(db, successful);
         }
+        Log.d(TAG, "✅ DELETED by uuid: (" + deleted + "/" + uuids.size() + " records)");
+        return deleted;
     }
     
     /**
@@ -300,20 +982,22 @@ public class SQLiteLocationDAO {
         
         if (ids.isEmpty()) return;
         
-        db.beginTransaction();
+        int deleted;
+        boolean successful = false;
+        beginCounted(db);
         try {
             String whereClause = "id IN (" + TextUtils.join(",", ids) + ")";
-            int deleted = db.delete(LocationOpenHelper.LOCATIONS_TABLE, whereClause, null);
-            
+            deleted = deleteCounted(db, whereClause, null);
             db.setTransactionSuccessful();
-            
-            if (deleted == locations.size()) {
-                Log.d(TAG, "✅ DELETED: (" + deleted + " records)");
-            } else {
-                Log.e(TAG, "❌ DELETE mismatch: expected " + locations.size() + ", deleted " + deleted);
-            }
+            successful = true;
         } finally {
-            db.endTransaction();
+            endCounted(db, successful);
+        }
+        
+        if (deleted == locations.size()) {
+            Log.d(TAG, "✅ DELETED: (" + deleted + " records)");
+        } else {
+            Log.e(TAG, "❌ DELETE mismatch: expected " + locations.size() + ", deleted " + deleted);
         }
     }
     
@@ -331,27 +1015,32 @@ public class SQLiteLocationDAO {
         
         if (ids.isEmpty()) return false;
         
-        db.beginTransaction();
+        int updated;
+        boolean successful = false;
+        beginCounted(db);
         try {
             ContentValues values = new ContentValues();
             values.put("locked", 0);
             
             String whereClause = "id IN (" + TextUtils.join(",", ids) + ")";
-            int updated = db.update(LocationOpenHelper.LOCATIONS_TABLE, values, whereClause, null);
+            int[] byLock = countByLock(db, whereClause, null);
+            updated = db.update(LocationOpenHelper.LOCATIONS_TABLE, values, whereClause, null);
+            recordCounts(byLock[1], -byLock[1]);
             
             db.setTransactionSuccessful();
-            
-            boolean success = (updated == locations.size());
-            if (success) {
-                Log.d(TAG, "✅ UNLOCKED: (" + updated + " records)");
-            } else {
-                Log.e(TAG, "❌ UNLOCK mismatch: expected " + locations.size() + ", unlocked " + updated);
-            }
-            
-            return success;
+            successful = true;
         } finally {
-            db.endTransaction();
+            endCounted(db, successful);
+        }
+        
+        boolean success = (updated == locations.size());
+        if (success) {
+            Log.d(TAG, "✅ UNLOCKED: (" + updated + " records)");
+        } else {
+            Log.e(TAG, "❌ UNLOCK mismatch: expected " + locations.size() + ", unlocked " + updated);
         }
+        
+        return success;
     }
     
     /**
@@ -361,19 +1050,28 @@ public class SQLiteLocationDAO {
         SQLiteDatabase db = getDatabase();
         if (db == null) return false;
         
-        db.beginTransaction();
+        int updated;
+        boolean successful = false;
+        beginCounted(db);
         try {
             ContentValues values = new ContentValues();
             values.put("locked", 0);
             
-            int updated = db.update(LocationOpenHelper.LOCATIONS_TABLE, values, null, null);
+            int locked = countByLock(db, "locked!=0", null)[1];
+            updated = db.update(LocationOpenHelper.LOCATIONS_TABLE, values, "locked!=0", null);
+            if (updated == locked) {
+                recordCounts(locked, -locked);
+            } else {
+                recordInvalidate();
+            }
             db.setTransactionSuccessful();
-            
-            Log.d(TAG, "✅ UNLOCKED ALL: " + updated + " records");
-            return true;
+            successful = true;
         } finally {
-            db.endTransaction();
+            endCounted(db, successful);
         }
+        
+        Log.d(TAG, "✅ UNLOCKED ALL: " + updated + " records");
+        return true;
     }
     
     /**
@@ -383,59 +1081,79 @@ public class SQLiteLocationDAO {
         SQLiteDatabase db = getDatabase();
         if (db == null) return false;
         
-        db.beginTransaction();
+        boolean successful = false;
+        beginCounted(db);
         try {
             db.delete(LocationOpenHelper.LOCATIONS_TABLE, null, null);
+            recordCleared();
             db.setTransactionSuccessful();
-            Log.d(TAG, "✅ Database cleared");
-            return true;
+            successful = true;
         } finally {
-            db.endTransaction();
+            endCounted(db, successful);
         }
+        RetentionManager.getInstance(context).invalidate();
+        Log.d(TAG, "✅ Database cleared");
+        return true;
     }
     
     /**
-     * Prune old records
+     * Oldest recorded_at (idx_recorded_at), 0 if empty
      */
-    public void prune(int days) {
+    public long minRecordedAt() {
         SQLiteDatabase db = getDatabase();
-        if (db == null) return;
+        if (db == null) return 0;
         
-        db.beginTransaction();
+        Cursor cursor = null;
         try {
-            String whereClause = "datetime(timestamp) < datetime('now', '-" + days + " day')";
-            int deleted = db.delete(LocationOpenHelper.LOCATIONS_TABLE, whereClause, null);
-            
-            db.setTransactionSuccessful();
-            Log.d(TAG, "✅ PRUNED: " + deleted + " old records (>" + days + " days)");
+            cursor = db.rawQuery("SELECT MIN(recorded_at) FROM " + LocationOpenHelper.LOCATIONS_TABLE, null);
+            if (cursor.moveToFirst() && !cursor.isNull(0)) {
+                return cursor.getLong(0);
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "minRecordedAt error: " + e.getMessage());
         } finally {
-            db.endTransaction();
+            if (cursor != null) cursor.close();
         }
+        return 0;
     }
     
     /**
-     * Shrink database to max size
+     * Delete up to {@code limit} records recorded before cutoff (range scan on idx_recorded_at)
+     * @return number of deleted records
      */
-    public void shrink(int maxRecords) {
+    public int pruneBefore(long cutoff, int limit) {
         SQLiteDatabase db = getDatabase();
-        if (db == null) return;
+        if (db == null) return 0;
         
-        db.beginTransaction();
-        try {
-            String whereClause = "id <= (SELECT id FROM (SELECT id FROM " + 
-                LocationOpenHelper.LOCATIONS_TABLE + 
-                " ORDER BY id DESC LIMIT 1 OFFSET " + maxRecords + ") foo)";
-            
-            int deleted = db.delete(LocationOpenHelper.LOCATIONS_TABLE, whereClause, null);
-            
-            db.setTransactionSuccessful();
-            
-            if (deleted > 0) {
-                Log.d(TAG, "✅ SHRINK: deleted " + deleted + " records (limit: " + maxRecords + ")");
-            }
-        } finally {
-            db.endTransaction();
+        int deleted = deleteCounted(
+            db,
+            "id IN (SELECT id FROM " + LocationOpenHelper.LOCATIONS_TABLE +
+                " WHERE recorded_at < ? ORDER BY recorded_at, id LIMIT " + limit + ")",
+            new String[]{String.valueOf(cutoff)}
+        );
+        if (deleted > 0) {
+            Log.d(TAG, "✅ PRUNED: " + deleted + " records before " + cutoff);
+        }
+        return deleted;
+    }
+    
+    /**
+     * Delete the {@code limit} oldest records (primary key order)
+     * @return number of deleted records
+     */
+    public int deleteOldest(int limit) {
+        SQLiteDatabase db = getDatabase();
+        if (db == null || limit <= 0) return 0;
+        
+        int deleted = deleteCounted(
+            db,
+            "id IN (SELECT id FROM " + LocationOpenHelper.LOCATIONS_TABLE + " ORDER BY id LIMIT " + limit + ")",
+            null
+        );
+        if (deleted > 0) {
+            Log.d(TAG, "✅ SHRINK: deleted " + deleted + " oldest records");
         }
+        return deleted;
     }
     
     /**
@@ -469,6 +1187,7 @@ public class SQLiteLocationDAO {
      * Get writable database
      */
     private SQLiteDatabase getDatabase() {
+        DatabaseThreadPolicy.check(context);
         try {
             return LocationOpenHelper.getInstance(context).getWritableDatabase();
         } catch (Exception e) {
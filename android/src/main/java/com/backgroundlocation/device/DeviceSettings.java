@@ -13,7 +13,7 @@ import android.os.PowerManager;
 import android.provider.Settings;
 import com.backgroundlocation.event.PowerSaveModeChangeEvent;
 import com.backgroundlocation.util.LogHelper;
-import org.greenrobot.eventbus.EventBus;
+import com.backgroundlocation.event.EventDispatcher;
 
 /**
  * DeviceSettings
@@ -199,7 +199,7 @@ public class DeviceSettings {
                 }
                 
                 LogHelper.i(TAG, isPowerSaveMode ? "PowerSaveMode ON" : "PowerSaveMode OFF");
-                EventBus.getDefault().post(new PowerSaveModeChangeEvent(isPowerSaveMode));
+                EventDispatcher.getInstance().post(new PowerSaveModeChangeEvent(isPowerSaveMode));
             }
         };
         
@@ -0,0 +1,335 @@
+package com.backgroundlocation.event;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import com.backgroundlocation.util.LogHelper;
+import com.backgroundlocation.util.ThreadPools;
+
+import org.greenrobot.eventbus.EventBus;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Event Dispatcher
+ * Plugin içi typed event dağıtıcı (EventBus yerine, reflection yok).
+ * - Listener'lar event tipine göre önceden derlenmiş array'lerde tutulur (copy-on-write);
+ *   post() lock almadan tek map lookup + array iterasyonu yapar
+ * - Delivery: POSTING (post eden thread), MAIN (main thread), BACKGROUND (ThreadPools.compute)
+ * - Yüksek frekanslı tipler (location, activitychange) MAIN teslimatı için coalescing buffer
+ *   kullanır: burst tek drain runnable ile sırayla boşaltılır. Buffer kayıpsızdır (adapter callback'leri
+ *   ve headless journal her event'i almalı); capacity yalnızca yüksek su seviyesidir, aşımı
+ *   overCapacity olarak sayılır. Lossy davranış yalnızca JS emit katmanındadır (EventEmitter policy)
+ * - Typed listener'ı olmayan ama EventBus'ta @Subscribe'ı olan tipler (ör. custom HeadlessTask)
+ *   EventBus'a iletilir
+ */
+public final class EventDispatcher {
+
+    private static final String TAG = "EventDispatcher";
+
+    private static final int LOCATION_BUFFER_CAPACITY = 64;
+    private static final int ACTIVITY_BUFFER_CAPACITY = 16;
+
+    private static final Subscriber[] EMPTY = new Subscriber[0];
+
+    private static volatile EventDispatcher instance;
+
+    public enum Delivery {
+        POSTING,
+        MAIN,
+        BACKGROUND
+    }
+
+    public interface Listener<T> {
+        void onEvent(T event);
+    }
+
+    private final Map<Class<?>, Channel> channels = new ConcurrentHashMap<>();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final AtomicLong posted = new AtomicLong(0);
+    private final AtomicLong bridged = new AtomicLong(0);
+    private final AtomicLong failed = new AtomicLong(0);
+
+    private EventDispatcher() {
+        configureBuffer(LocationEvent.class, LOCATION_BUFFER_CAPACITY);
+        configureBuffer(ActivityChangeEvent.class, ACTIVITY_BUFFER_CAPACITY);
+    }
+
+    public static EventDispatcher getInstance() {
+        if (instance == null) {
+            synchronized (EventDispatcher.class) {
+                if (instance == null) {
+                    instance = new EventDispatcher();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Subscribe owner to event type
+     */
+    public <T> void subscribe(Object owner, Class<T> type, Delivery delivery, Listener<? super T> listener) {
+        channel(type).add(new Subscriber(owner, delivery, listener));
+    }
+
+    /**
+     * Remove all subscriptions of owner
+     */
+    public void unsubscribe(Object owner) {
+        for (Channel channel : channels.values()) {
+            channel.remove(owner);
+        }
+    }
+
+    public boolean isSubscribed(Object owner) {
+        for (Channel channel : channels.values()) {
+            if (channel.contains(owner)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean hasSubscriberForEvent(Class<?> type) {
+        Channel channel = channels.get(type);
+        return channel != null && channel.subscribers.length > 0;
+    }
+
+    /**
+     * Coalesce MAIN delivery of event type through a lossless buffer (capacity: overCapacity eşiği, <= 0: direct post)
+     */
+    public void configureBuffer(Class<?> type, int capacity) {
+        channel(type).setCapacity(capacity);
+    }
+
+    /**
+     * Publish event to typed listeners
+     */
+    public void post(Object event) {
+        if (event == null) {
+            return;
+        }
+        posted.incrementAndGet();
+        Channel channel = channels.get(event.getClass());
+        Subscriber[] subscribers = channel != null ? channel.subscribers : EMPTY;
+
+        if (subscribers.length == 0) {
+            // Migrate edilmemiş / uygulama tarafı @Subscribe handler'ları
+            EventBus eventBus = EventBus.getDefault();
+            if (eventBus.hasSubscriberForEvent(event.getClass())) {
+                bridged.incrementAndGet();
+                eventBus.post(event);
+            }
+            return;
+        }
+
+        boolean onMain = Looper.myLooper() == Looper.getMainLooper();
+        boolean hasMain = false;
+        for (Subscriber subscriber : subscribers) {
+            switch (subscriber.delivery) {
+                case POSTING:
+                    invoke(subscriber, event);
+                    break;
+                case BACKGROUND:
+                    try {
+                        ThreadPools.compute().execute(() -> invoke(subscriber, event));
+                    } catch (RejectedExecutionException e) {
+                        invoke(subscriber, event);
+                    }
+                    break;
+                case MAIN:
+                    hasMain = true;
+                    break;
+            }
+        }
+        if (!hasMain) {
+            return;
+        }
+        if (channel.capacity > 0) {
+            channel.enqueue(event);
+        } else if (onMain) {
+            deliverMain(channel.subscribers, event);
+        } else {
+            mainHandler.post(() -> deliverMain(channel.subscribers, event));
+        }
+    }
+
+    private void deliverMain(Subscriber[] subscribers, Object event) {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.delivery == Delivery.MAIN) {
+                invoke(subscriber, event);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void invoke(Subscriber subscriber, Object event) {
+        if (!subscriber.active) {
+            return;
+        }
+        try {
+            ((Listener<Object>) subscriber.listener).onEvent(event);
+        } catch (Exception e) {
+            failed.incrementAndGet();
+            LogHelper.e(TAG, "❌ Listener failed for " + event.getClass().getSimpleName() + ": " + e.getMessage(), e);
+        }
+    }
+
+    private Channel channel(Class<?> type) {
+        Channel channel = channels.get(type);
+        if (channel == null) {
+            Channel created = new Channel(type);
+            channel = channels.putIfAbsent(type, created);
+            if (channel == null) {
+                channel = created;
+            }
+        }
+        return channel;
+    }
+
+    /**
+     * Dispatcher metrics (posted, bridged to EventBus, listener failures, per-buffer depth)
+     */
+    public JSONObject getMetrics() {
+        JSONObject json = new JSONObject();
+        try {
+            json.put("posted", posted.get());
+            json.put("bridged", bridged.get());
+            json.put("failed", failed.get());
+            JSONObject buffers = new JSONObject();
+            for (Channel channel : channels.values()) {
+                if (channel.capacity > 0) {
+                    buffers.put(channel.type.getSimpleName(), channel.getMetrics());
+                }
+            }
+            json.put("buffers", buffers);
+        } catch (JSONException e) {
+            LogHelper.w(TAG, "Failed to build metrics: " + e.getMessage());
+        }
+        return json;
+    }
+
+    private static final class Subscriber {
+        final Object owner;
+        final Delivery delivery;
+        final Listener<?> listener;
+        // unsubscribe sonrası kuyruktaki (main / background) teslimatları iptal eder
+        volatile boolean active = true;
+
+        Subscriber(Object owner, Delivery delivery, Listener<?> listener) {
+            this.owner = owner;
+            this.delivery = delivery;
+            this.listener = listener;
+        }
+    }
+
+    /**
+     * Per-type listener list and optional MAIN ring buffer
+     */
+    private final class Channel {
+        final Class<?> type;
+        volatile Subscriber[] subscribers = EMPTY;
+        volatile int capacity = 0;
+
+        // Coalescing buffer (guarded by buffer)
+        private final ArrayDeque<Object> buffer = new ArrayDeque<>();
+        private final AtomicBoolean drainScheduled = new AtomicBoolean(false);
+        private final Runnable drainRunnable = this::drain;
+        private long enqueued = 0;
+        private long overCapacity = 0;
+        private int maxDepth = 0;
+
+        Channel(Class<?> type) {
+            this.type = type;
+        }
+
+        synchronized void add(Subscriber subscriber) {
+            Subscriber[] next = new Subscriber[subscribers.length + 1];
+            System.arraycopy(subscribers, 0, next, 0, subscribers.length);
+            next[subscribers.length] = subscriber;
+            subscribers = next;
+        }
+
+        synchronized void remove(Object owner) {
+            int kept = 0;
+            for (Subscriber subscriber : subscribers) {
+                if (subscriber.owner != owner) kept++;
+            }
+            if (kept == subscribers.length) {
+                return;
+            }
+            Subscriber[] next = new Subscriber[kept];
+            int i = 0;
+            for (Subscriber subscriber : subscribers) {
+                if (subscriber.owner != owner) {
+                    next[i++] = subscriber;
+                } else {
+                    subscriber.active = false;
+                }
+            }
+            subscribers = next;
+        }
+
+        boolean contains(Object owner) {
+            for (Subscriber subscriber : subscribers) {
+                if (subscriber.owner == owner) return true;
+            }
+            return false;
+        }
+
+        void setCapacity(int capacity) {
+            this.capacity = Math.max(capacity, 0);
+        }
+
+        void enqueue(Object event) {
+            synchronized (buffer) {
+                if (buffer.size() >= capacity) {
+                    // Event atılmaz: main thread yetişemiyor, sinyal olarak say / log'la
+                    if (overCapacity++ % capacity == 0) {
+                        LogHelper.w(TAG, "⚠️ " + type.getSimpleName() + " buffer over capacity (" + buffer.size() + ")");
+                    }
+                }
+                buffer.addLast(event);
+                enqueued++;
+                maxDepth = Math.max(maxDepth, buffer.size());
+            }
+            if (drainScheduled.compareAndSet(false, true)) {
+                mainHandler.post(drainRunnable);
+            }
+        }
+
+        private void drain() {
+            drainScheduled.set(false);
+            while (true) {
+                Object event;
+                synchronized (buffer) {
+                    event = buffer.pollFirst();
+                }
+                if (event == null) {
+                    return;
+                }
+                deliverMain(subscribers, event);
+            }
+        }
+
+        JSONObject getMetrics() throws JSONException {
+            JSONObject json = new JSONObject();
+            synchronized (buffer) {
+                json.put("capacity", capacity);
+                json.put("depth", buffer.size());
+                json.put("maxDepth", maxDepth);
+                json.put("enqueued", enqueued);
+                json.put("overCapacity", overCapacity);
+            }
+            return json;
+        }
+    }
+}
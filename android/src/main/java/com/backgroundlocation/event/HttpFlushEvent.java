@@ -1,7 +1,6 @@
 package com.backgroundlocation.event;
 
 import android.content.Context;
-import com.backgroundlocation.adapter.BackgroundLocationAdapter;
 import com.backgroundlocation.config.Config;
 import com.backgroundlocation.service.SyncService;
 
@@ -16,9 +15,8 @@ public class HttpFlushEvent {
     public static void run(Context context) {
         Config config = Config.getInstance(context);
         if (config.enabled && config.autoSync && !config.url.isEmpty() && !config.isMoving) {
-            BackgroundLocationAdapter.getThreadPool().execute(() -> {
-                SyncService.sync(context);
-            });
+            // SyncService kendi io executor'ında çalışır
+            SyncService.autoSync(context);
         }
     }
     
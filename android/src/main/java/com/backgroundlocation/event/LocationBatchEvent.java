@@ -0,0 +1,27 @@
+package com.backgroundlocation.event;
+
+import org.json.JSONObject;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Location Batch Event
+ * Batched delivery (deferTime / maxWaitTime) ile gelen LocationResult'ın kayıtlı location'ları.
+ * Tek dispatch: subscriber'lar listeyi sırayla işler, JS'e tek emit gider.
+ */
+public class LocationBatchEvent {
+    private final List<JSONObject> locations;
+
+    public LocationBatchEvent(List<JSONObject> locations) {
+        this.locations = Collections.unmodifiableList(locations);
+    }
+
+    public List<JSONObject> getLocations() {
+        return locations;
+    }
+
+    public String getEventName() {
+        return "location";
+    }
+}
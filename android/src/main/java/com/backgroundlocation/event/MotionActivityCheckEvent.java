@@ -2,7 +2,6 @@ package com.backgroundlocation.event;
 
 import android.content.Context;
 import com.backgroundlocation.config.Config;
-import org.greenrobot.eventbus.EventBus;
 
 /**
  * MotionActivityCheckEvent
@@ -15,7 +14,7 @@ public class MotionActivityCheckEvent {
     public MotionActivityCheckEvent(Context context) {
         Config config = Config.getInstance(context);
         if (config.enabled && config.isMoving) {
-            EventBus.getDefault().post(this);
+            EventDispatcher.getInstance().post(this);
         }
     }
     
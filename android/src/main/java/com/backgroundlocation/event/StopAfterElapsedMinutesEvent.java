@@ -3,12 +3,11 @@ package com.backgroundlocation.event;
 import android.content.Context;
 import com.backgroundlocation.config.Config;
 import com.backgroundlocation.service.LocationService;
-import org.greenrobot.eventbus.EventBus;
 
 /**
  * Stop After Elapsed Minutes Event
  * stopAfterElapsedMinutes süresi dolduğunda tetiklenir
- * AlarmManager → Event → Service stop
+ * WakeupScheduler → Event → Service stop
  */
 public class StopAfterElapsedMinutesEvent {
     public static final String ACTION = "STOP_AFTER_ELAPSED_MINUTES";
@@ -17,8 +16,12 @@ public class StopAfterElapsedMinutesEvent {
         Config config = Config.getInstance(context);
         
         if (config.enabled) {
-            // Post self to EventBus
-            EventBus.getDefault().post(this);
+            config.enabled = false;
+            config.save();
+            
+            // Post self
+            EventDispatcher.getInstance().post(this);
+            EventDispatcher.getInstance().post(new EnabledChangeEvent(false));
             
             // Stop tracking service
             LocationService.stop(context);
@@ -1,5 +1,7 @@
 package com.backgroundlocation.event;
 
+import org.json.JSONObject;
+
 /**
  * TemplateErrorEvent
  * TemplateErrorEvent.java
@@ -28,6 +30,18 @@ public class TemplateErrorEvent {
         return field;
     }
     
+    public JSONObject toJson() {
+        try {
+            JSONObject json = new JSONObject();
+            json.put("template", template);
+            json.put("error", error);
+            json.put("field", field != null ? field : JSONObject.NULL);
+            return json;
+        } catch (Exception e) {
+            return new JSONObject();
+        }
+    }
+    
     public String getEventName() {
         return "templateerror";
     }
@@ -10,6 +10,7 @@ import com.backgroundlocation.config.Config;
 import com.backgroundlocation.data.GeofenceModel;
 import com.backgroundlocation.data.sqlite.SQLiteGeofenceDAO;
 import com.backgroundlocation.util.LogHelper;
+import com.backgroundlocation.util.ThreadPools;
 import com.google.android.gms.location.Geofence;
 import com.google.android.gms.location.GeofencingClient;
 import com.google.android.gms.location.GeofencingRequest;
@@ -57,8 +58,8 @@ public class GeofenceManager {
         // Note: GeofenceManager doesn't need to subscribe to EventBus
         // Geofence events are handled by GeofenceBroadcastReceiver
         
-        // Initialize geofence count
-        geofenceCount.set(geofenceDatabase.count());
+        // Initialize geofence count (writer thread'de: sonraki add/remove işlemleriyle sıralı)
+        ThreadPools.db().execute(() -> geofenceCount.set(geofenceDatabase.count()));
         
         LogHelper.d(TAG, "✅ GeofenceManager initialized");
     }
@@ -219,6 +220,7 @@ public class GeofenceManager {
     
     /**
      * Get all geofences
+     * Blocking: main thread'den çağırmayın (AsyncGeofenceDAO kullanın)
      */
     public List<GeofenceModel> getGeofences() {
         return geofenceDatabase.all();
@@ -263,10 +265,12 @@ public class GeofenceManager {
         isMonitoring.set(true);
         
         // Load all geofences and register
-        List<GeofenceModel> geofences = geofenceDatabase.all();
-        if (!geofences.isEmpty()) {
-            registerGeofences(geofences, null);
-        }
+        ThreadPools.db().execute(() -> {
+            List<GeofenceModel> geofences = geofenceDatabase.all();
+            if (!geofences.isEmpty()) {
+                registerGeofences(geofences, null);
+            }
+        });
         
         LogHelper.d(TAG, "✅ Geofence monitoring started");
     }
@@ -282,10 +286,12 @@ public class GeofenceManager {
         isMonitoring.set(false);
         
         // Remove all geofences from Google Play Services
-        List<String> identifiers = geofenceDatabase.getAllIdentifiers();
-        if (!identifiers.isEmpty()) {
-            geofencingClient.removeGeofences(identifiers);
-        }
+        ThreadPools.db().execute(() -> {
+            List<String> identifiers = geofenceDatabase.getAllIdentifiers();
+            if (!identifiers.isEmpty()) {
+                geofencingClient.removeGeofences(identifiers);
+            }
+        });
         
         LogHelper.d(TAG, "✅ Geofence monitoring stopped");
     }
@@ -426,6 +432,13 @@ public class GeofenceManager {
         lastLocation = location;
         
         // Check polygon geofences
+        ThreadPools.db().execute(() -> evaluatePolygons(location));
+    }
+    
+    /**
+     * Evaluate polygon geofences (db thread)
+     */
+    private void evaluatePolygons(Location location) {
         List<GeofenceModel> geofences = geofenceDatabase.all();
         for (GeofenceModel geofence : geofences) {
             if (geofence.isPolygon()) {
@@ -0,0 +1,194 @@
+package com.backgroundlocation.headless;
+
+import android.content.Context;
+import android.os.Handler;
+
+import com.backgroundlocation.adapter.BackgroundLocationAdapter;
+import com.backgroundlocation.config.Config;
+import com.backgroundlocation.util.LogHelper;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+import com.facebook.react.bridge.WritableNativeArray;
+import com.facebook.react.bridge.WritableNativeMap;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Headless Event Dispatcher
+ * Headless event'leri headlessBatchWindow süresince toplar ve tek HeadlessJS task'ında
+ * { name: "batch", events: [...], dropped } olarak gönderir.
+ *
+ * - Sıra: tek FIFO buffer, event'ler geliş sırasıyla (dolayısıyla tip başına sıra da korunur)
+ * - Backpressure: aynı anda tek batch task; JS bitirene kadar yeni event'ler buffer'da bekler
+ *   (ReactContext henüz hazır değilse ilk task HeadlessTaskManager kuyruğunda bekler)
+ * - Overflow: headlessBatchMaxSize aşılınca en eski düşürülebilir event (location, heartbeat,
+ *   activitychange, connectivitychange) atılır; hiç yoksa en eski event atılır
+ * - Journal: task bitince batch'teki kayıtlar ack'lenir; task başarısızsa journal'da kalır
+ *
+ * Tüm state main thread'de tutulur (HeadlessEventJournal'dan çağrılır).
+ */
+public class HeadlessEventDispatcher {
+
+    private static final String TAG = "HeadlessEventDispatcher";
+    private static final int MAX_EVENTS_PER_TASK = 100;
+    // Task finish/error callback'i hiç gelmezse (context init başarısız) buffer kilitlenmesin
+    private static final long TASK_WATCHDOG_MS = HeadlessTask.TASK_TIMEOUT + 5000L;
+
+    private static HeadlessEventDispatcher instance;
+
+    private final Handler handler = BackgroundLocationAdapter.getUiHandler();
+    private final ArrayDeque<HeadlessEventJournal.Record> buffer = new ArrayDeque<>();
+    private final Runnable flushRunnable = this::flush;
+    private final Runnable watchdogRunnable = this::onTaskWatchdog;
+
+    private Context context;
+    private boolean flushScheduled = false;
+    private boolean taskInFlight = false;
+    private int inFlightBatchId = 0;
+    private int droppedCount = 0;
+    private List<Long> inFlightIds = Collections.emptyList();
+
+    private HeadlessEventDispatcher() {
+    }
+
+    public static synchronized HeadlessEventDispatcher getInstance() {
+        if (instance == null) {
+            instance = new HeadlessEventDispatcher();
+        }
+        return instance;
+    }
+
+    /**
+     * Buffer journaled headless event (main thread)
+     */
+    void dispatch(Context context, HeadlessEventJournal.Record record) {
+        this.context = context.getApplicationContext();
+        Config config = Config.getInstance(context);
+
+        int maxSize = Math.max(config.headlessBatchMaxSize, 1);
+        while (buffer.size() >= maxSize) {
+            evictOne();
+        }
+        buffer.addLast(record);
+
+        if (!taskInFlight && !flushScheduled) {
+            flushScheduled = true;
+            handler.postDelayed(flushRunnable, Math.max(config.headlessBatchWindow, 0));
+        }
+    }
+
+    /**
+     * Drop oldest droppable event (overflow policy)
+     */
+    private void evictOne() {
+        HeadlessEventJournal.Record evicted = null;
+        Iterator<HeadlessEventJournal.Record> iterator = buffer.iterator();
+        while (iterator.hasNext()) {
+            HeadlessEventJournal.Record candidate = iterator.next();
+            if (isDroppable(candidate.name)) {
+                iterator.remove();
+                evicted = candidate;
+                break;
+            }
+        }
+        if (evicted == null) {
+            evicted = buffer.pollFirst();
+        }
+        droppedCount++;
+        if (evicted != null) {
+            LogHelper.w(TAG, "⚠️ Headless buffer full, dropped event: " + evicted.name +
+                " (dropped: " + droppedCount + ")");
+            // Bilinçli düşürüldü: replay'de tekrar gelmesin
+            journal().complete(Collections.singletonList(evicted.id), true);
+        }
+    }
+
+    private static boolean isDroppable(String name) {
+        return "location".equals(name) || "heartbeat".equals(name) ||
+            "activitychange".equals(name) || "connectivitychange".equals(name);
+    }
+
+    /**
+     * Deliver buffered events as a single HeadlessJS task
+     */
+    private void flush() {
+        flushScheduled = false;
+        if (taskInFlight || buffer.isEmpty() || context == null) {
+            return;
+        }
+
+        WritableArray events = new WritableNativeArray();
+        List<Long> ids = new ArrayList<>();
+        int count = 0;
+        while (!buffer.isEmpty() && count < MAX_EVENTS_PER_TASK) {
+            HeadlessEventJournal.Record record = buffer.pollFirst();
+            events.pushMap(HeadlessTask.toWritableMap(record.clientEvent));
+            ids.add(record.id);
+            count++;
+        }
+
+        WritableMap params = new WritableNativeMap();
+        params.putString("name", "batch");
+        params.putArray("events", events);
+        params.putInt("dropped", droppedCount);
+        droppedCount = 0;
+
+        final int batchId = ++inFlightBatchId;
+        taskInFlight = true;
+        inFlightIds = ids;
+        handler.postDelayed(watchdogRunnable, TASK_WATCHDOG_MS);
+
+        LogHelper.d(TAG, "💀 Headless batch: " + count + " events (" + buffer.size() + " remaining)");
+        try {
+            HeadlessTask.startTask(context, params, delivered ->
+                handler.post(() -> onTaskComplete(batchId, delivered)));
+        } catch (Exception e) {
+            LogHelper.e(TAG, "Failed to start headless batch task: " + e.getMessage(), e);
+            onTaskComplete(batchId, false);
+        }
+    }
+
+    private void onTaskComplete(int batchId, boolean delivered) {
+        if (batchId != inFlightBatchId || !taskInFlight) {
+            return;
+        }
+        taskInFlight = false;
+        handler.removeCallbacks(watchdogRunnable);
+        releaseInFlight(delivered);
+        scheduleNextFlush();
+    }
+
+    private void onTaskWatchdog() {
+        if (taskInFlight) {
+            LogHelper.w(TAG, "⚠️ Headless batch task did not finish in " + TASK_WATCHDOG_MS + "ms, releasing");
+            taskInFlight = false;
+            // Ack'lenmedi: kayıtlar bir sonraki replay'de tekrar gönderilir
+            releaseInFlight(false);
+            scheduleNextFlush();
+        }
+    }
+
+    private void releaseInFlight(boolean delivered) {
+        List<Long> ids = inFlightIds;
+        inFlightIds = Collections.emptyList();
+        if (!ids.isEmpty()) {
+            journal().complete(ids, delivered);
+        }
+    }
+
+    private HeadlessEventJournal journal() {
+        return HeadlessEventJournal.getInstance(context);
+    }
+
+    private void scheduleNextFlush() {
+        // Backlog'u bekletmeden sıradaki batch
+        if (!buffer.isEmpty() && !flushScheduled) {
+            flushScheduled = true;
+            handler.post(flushRunnable);
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.backgroundlocation.headless;
+
+import android.content.Context;
+import android.os.Handler;
+
+import com.backgroundlocation.adapter.BackgroundLocationAdapter;
+import com.backgroundlocation.config.Config;
+import com.backgroundlocation.data.sqlite.SQLiteHeadlessEventDAO;
+import com.backgroundlocation.util.LogHelper;
+import com.backgroundlocation.util.ThreadPools;
+
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Headless Event Journal
+ * Headless event'ler teslimden önce SQLite journal'a (headless_events) yazılır.
+ * - At-least-once: JS task'ı bitince (finishTask / onHeadlessJsTaskFinish) ack'lenir;
+ *   process ölürse ack'lenmemiş kayıtlar ReactContext hazır olunca sırayla tekrar gönderilir
+ * - Teslim edilemeyen kayıtlar (task hatası / ReactContext yok) artan aralıklarla MAX_RETRIES kez
+ *   yeniden denenir; başarılı bir teslim sayacı sıfırlar, sonrası bir sonraki ReactContext'e kalır
+ * - Compaction: ack'lenmiş kayıtlar writer thread'de toplu silinir, backlog MAX_ENTRIES ile sınırlı
+ *
+ * inFlight set'i ve retry durumu main thread'de tutulur.
+ */
+public class HeadlessEventJournal {
+
+    private static final String TAG = "HeadlessEventJournal";
+    private static final int MAX_ENTRIES = 1000;
+    private static final int REPLAY_LIMIT = 500;
+    private static final int COMPACT_THRESHOLD = 50;
+    private static final long RETRY_BASE_MS = 5000;
+    private static final int MAX_RETRIES = 5;
+
+    private static HeadlessEventJournal instance;
+
+    private final Context context;
+    private final SQLiteHeadlessEventDAO dao;
+    private final Handler handler = BackgroundLocationAdapter.getUiHandler();
+    private final Set<Long> inFlight = new HashSet<>();
+    private final AtomicInteger ackedSinceCompaction = new AtomicInteger(0);
+    private final Runnable retryRunnable = this::retry;
+    private int retryAttempt = 0;
+    private boolean retryScheduled = false;
+
+    /**
+     * Journal record ready for delivery
+     */
+    static class Record {
+        final long id;
+        final String name;
+        final JSONObject clientEvent;
+
+        Record(long id, String name, JSONObject clientEvent) {
+            this.id = id;
+            this.name = name;
+            this.clientEvent = clientEvent;
+        }
+    }
+
+    private HeadlessEventJournal(Context context) {
+        this.context = context;
+        this.dao = SQLiteHeadlessEventDAO.getInstance(context);
+    }
+
+    public static synchronized HeadlessEventJournal getInstance(Context context) {
+        if (instance == null) {
+            instance = new HeadlessEventJournal(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /**
+     * Append event to journal (writer thread), then deliver (main thread)
+     */
+    public void record(String name, JSONObject clientEvent) {
+        ThreadPools.db().execute(() -> {
+            long id = dao.append(name, clientEvent.toString());
+            if (id < 0) {
+                LogHelper.w(TAG, "⚠️ Failed to journal headless event, delivering without persistence: " + name);
+            }
+            handler.post(() -> deliver(new Record(id, name, clientEvent)));
+        });
+    }
+
+    /**
+     * Replay unacknowledged entries in journal order (ReactContext hazır olunca)
+     */
+    public void replay() {
+        ThreadPools.db().execute(() -> {
+            dao.compact(MAX_ENTRIES);
+            List<SQLiteHeadlessEventDAO.Entry> entries = dao.pending(REPLAY_LIMIT);
+            if (entries.isEmpty()) {
+                return;
+            }
+            List<Record> records = new ArrayList<>(entries.size());
+            List<Long> corrupt = new ArrayList<>();
+            for (SQLiteHeadlessEventDAO.Entry entry : entries) {
+                try {
+                    records.add(new Record(entry.id, entry.name, new JSONObject(entry.payload)));
+                } catch (Exception e) {
+                    corrupt.add(entry.id);
+                }
+            }
+            if (!corrupt.isEmpty()) {
+                LogHelper.w(TAG, "⚠️ Discarding " + corrupt.size() + " unreadable journal entries");
+                dao.ack(corrupt);
+            }
+            handler.post(() -> {
+                int replayed = 0;
+                for (Record record : records) {
+                    if (deliver(record)) {
+                        replayed++;
+                    }
+                }
+                if (replayed > 0) {
+                    LogHelper.i(TAG, "🔁 Replayed " + replayed + " unacknowledged headless events");
+                }
+            });
+        });
+    }
+
+    /**
+     * Deliver record (main thread). Returns false if already in flight or headless disabled.
+     */
+    private boolean deliver(Record record) {
+        Config config = Config.getInstance(context);
+        if (!config.enableHeadless) {
+            return false;
+        }
+        if (record.id > 0 && !inFlight.add(record.id)) {
+            return false;
+        }
+
+        if (config.headlessBatchWindow > 0) {
+            HeadlessEventDispatcher.getInstance().dispatch(context, record);
+            return true;
+        }
+
+        try {
+            HeadlessTask.startTask(context, HeadlessTask.toWritableMap(record.clientEvent), delivered ->
+                handler.post(() -> complete(Collections.singletonList(record.id), delivered)));
+        } catch (Exception e) {
+            LogHelper.e(TAG, "Failed to invoke HeadlessTask " + record.name + ": " + e.getMessage(), e);
+            complete(Collections.singletonList(record.id), false);
+        }
+        return true;
+    }
+
+    /**
+     * Task completed (main thread). Delivered entries are acknowledged,
+     * failed ones stay in the journal and a bounded retry is scheduled.
+     */
+    void complete(List<Long> ids, boolean delivered) {
+        List<Long> persisted = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            inFlight.remove(id);
+            if (id > 0) {
+                persisted.add(id);
+            }
+        }
+        if (persisted.isEmpty()) {
+            return;
+        }
+        if (delivered) {
+            retryAttempt = 0;
+            ack(persisted);
+        } else {
+            scheduleRetry();
+        }
+    }
+
+    /**
+     * Exponential backoff (RETRY_BASE_MS * 2^n), en fazla MAX_RETRIES deneme (main thread)
+     */
+    private void scheduleRetry() {
+        if (retryScheduled) {
+            return;
+        }
+        if (retryAttempt >= MAX_RETRIES) {
+            LogHelper.w(TAG, "⚠️ Headless delivery failed " + MAX_RETRIES + " times, waiting for next ReactContext");
+            return;
+        }
+        long delay = RETRY_BASE_MS << retryAttempt;
+        retryAttempt++;
+        retryScheduled = true;
+        handler.postDelayed(retryRunnable, delay);
+        LogHelper.d(TAG, "🔁 Retrying failed headless events in " + (delay / 1000) + "s (attempt " +
+            retryAttempt + "/" + MAX_RETRIES + ")");
+    }
+
+    private void retry() {
+        retryScheduled = false;
+        replay();
+    }
+
+    private void ack(List<Long> ids) {
+        ThreadPools.db().execute(() -> {
+            dao.ack(ids);
+            if (ackedSinceCompaction.addAndGet(ids.size()) >= COMPACT_THRESHOLD) {
+                ackedSinceCompaction.set(0);
+                dao.compact(MAX_ENTRIES);
+            }
+        });
+    }
+}
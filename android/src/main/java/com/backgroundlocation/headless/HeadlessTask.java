@@ -13,7 +13,6 @@ import com.backgroundlocation.RNBackgroundLocationModule;
 import com.backgroundlocation.util.LogHelper;
 import org.greenrobot.eventbus.Subscribe;
 import org.greenrobot.eventbus.ThreadMode;
-import org.json.JSONException;
 import org.json.JSONObject;
 
 /**
@@ -24,7 +23,14 @@ import org.json.JSONObject;
 public class HeadlessTask {
     private static final String TAG = "HeadlessTask";
     private static final String HEADLESS_TASK_NAME = "BackgroundLocation";
-    private static final int TASK_TIMEOUT = 120000; // 2 minutes
+    static final int TASK_TIMEOUT = 120000; // 2 minutes
+    
+    /**
+     * Task completion (delivered = JS task finished, false = invoke error)
+     */
+    interface Completion {
+        void onComplete(boolean delivered);
+    }
     
     /**
      * Handle headless event
@@ -35,92 +41,122 @@ public class HeadlessTask {
         String name = event.getName();
         LogHelper.d(TAG, "💀 Headless event: " + name);
         
-        WritableMap clientEvent = new WritableNativeMap();
-        clientEvent.putString("name", name);
-        
-        JSONObject params = null;
+        // Journal'a yaz, sonra teslim et (process ölse bile ReactContext hazır olunca tekrar gönderilir)
+        try {
+            HeadlessEventJournal.getInstance(event.getContext()).record(name, toClientEvent(event));
+        } catch (Exception e) {
+            LogHelper.e(TAG, "Failed to invoke HeadlessTask " + name + ". Task ignored: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Start a HeadlessJS task with given params, notifying when it finishes or fails
+     */
+    static void startTask(Context context, WritableMap params, Completion completion) {
+        HeadlessTaskManager.getInstance().startTask(
+            context,
+            new Task.Builder()
+                .setName(HEADLESS_TASK_NAME)
+                .setParams(params)
+                .setTimeout(TASK_TIMEOUT)
+                .setOnInvokeCallback(new OnInvokeCallback() {
+                    @Override
+                    public void onInvoke(ReactContext reactContext, Task task) {
+                        LogHelper.d(TAG, "Headless task invoked: " + task.getId());
+                    }
+                })
+                .setOnFinishCallback(new OnFinishCallback() {
+                    @Override
+                    public void onFinish(int taskId) {
+                        LogHelper.d(TAG, "Headless task finished: " + taskId);
+                        if (completion != null) {
+                            completion.onComplete(true);
+                        }
+                    }
+                })
+                .setOnErrorCallback(new OnErrorCallback() {
+                    @Override
+                    public void onError(Task task, Exception exc) {
+                        LogHelper.e(TAG, "Headless task error: " + exc.getMessage(), exc);
+                        if (completion != null) {
+                            completion.onComplete(false);
+                        }
+                    }
+                })
+                .build()
+        );
+    }
+    
+    /**
+     * Convert HeadlessEvent to { name, params } client event
+     */
+    static JSONObject toClientEvent(HeadlessEvent event) {
+        String name = event.getName();
+        JSONObject clientEvent = new JSONObject();
         
         try {
+            clientEvent.put("name", name);
+            
             // Convert event to JSON based on type
             switch (name) {
                 case "location":
-                    params = event.getLocationEvent().toJson();
+                    clientEvent.put("params", event.getLocationEvent().toJson());
                     break;
                 case "motionchange":
-                    params = event.getMotionChangeEvent().toJson();
+                    clientEvent.put("params", event.getMotionChangeEvent().toJson());
                     break;
                 case "geofence":
-                    params = event.getGeofenceEvent().toJson();
+                    clientEvent.put("params", event.getGeofenceEvent().toJson());
                     break;
                 case "heartbeat":
-                    params = event.getHeartbeatEvent().toJson();
+                    clientEvent.put("params", event.getHeartbeatEvent().toJson());
                     break;
                 case "http":
-                    params = event.getHttpEvent().toJson();
+                    clientEvent.put("params", event.getHttpEvent().toJson());
                     break;
                 case "activitychange":
-                    params = event.getActivityChangeEvent().toJson();
+                    clientEvent.put("params", event.getActivityChangeEvent().toJson());
                     break;
                 case "connectivitychange":
-                    params = event.getConnectivityChangeEvent().toJson();
+                    clientEvent.put("params", event.getConnectivityChangeEvent().toJson());
                     break;
                 case "enabledchange":
-                    WritableMap enabledMap = new WritableNativeMap();
-                    enabledMap.putBoolean("enabled", event.getEnabledChangeEvent().isEnabled());
-                    clientEvent.putMap("params", enabledMap);
-                    params = null; // Already set in clientEvent
+                    JSONObject enabled = new JSONObject();
+                    enabled.put("enabled", event.getEnabledChangeEvent().isEnabled());
+                    clientEvent.put("params", enabled);
                     break;
                 default:
                     LogHelper.w(TAG, "Unknown Headless Event: " + name);
-                    clientEvent.putString("error", "Unknown event: " + name);
-                    clientEvent.putNull("params");
-                    params = null;
+                    clientEvent.put("error", "Unknown event: " + name);
+                    clientEvent.put("params", JSONObject.NULL);
                     break;
             }
-            
-            // Add params to clientEvent if available
-            if (params != null) {
-                try {
-                    WritableMap paramsMap = RNBackgroundLocationModule.jsonToWritableMap(params);
-                    clientEvent.putMap("params", paramsMap);
-                } catch (Exception e) {
-                    clientEvent.putNull("params");
-                    clientEvent.putString("error", e.getMessage());
-                    LogHelper.e(TAG, "Error converting params to WritableMap: " + e.getMessage(), e);
-                }
-            }
-            
-            // Start headless task
-            HeadlessTaskManager.getInstance().startTask(
-                event.getContext(),
-                new Task.Builder()
-                    .setName(HEADLESS_TASK_NAME)
-                    .setParams(clientEvent)
-                    .setTimeout(TASK_TIMEOUT)
-                    .setOnInvokeCallback(new OnInvokeCallback() {
-                        @Override
-                        public void onInvoke(ReactContext reactContext, Task task) {
-                            LogHelper.d(TAG, "Headless task invoked: " + task.getId());
-                        }
-                    })
-                    .setOnFinishCallback(new OnFinishCallback() {
-                        @Override
-                        public void onFinish(int taskId) {
-                            LogHelper.d(TAG, "Headless task finished: " + taskId);
-                        }
-                    })
-                    .setOnErrorCallback(new OnErrorCallback() {
-                        @Override
-                        public void onError(Task task, Exception exc) {
-                            LogHelper.e(TAG, "Headless task error: " + exc.getMessage(), exc);
-                        }
-                    })
-                    .build()
-            );
         } catch (Exception e) {
-            LogHelper.e(TAG, "Failed to invoke HeadlessTask " + name + ". Task ignored: " + e.getMessage(), e);
+            LogHelper.e(TAG, "Error converting headless event " + name + ": " + e.getMessage(), e);
+            try {
+                clientEvent.put("params", JSONObject.NULL);
+                clientEvent.put("error", e.getMessage());
+            } catch (Exception ignored) {
+                // JSONObject.put only throws for invalid keys / NaN
+            }
         }
+        return clientEvent;
     }
     
+    /**
+     * Client event JSON → WritableMap (task params)
+     */
+    static WritableMap toWritableMap(JSONObject clientEvent) {
+        try {
+            return RNBackgroundLocationModule.jsonToWritableMap(clientEvent);
+        } catch (Exception e) {
+            LogHelper.e(TAG, "Error converting params to WritableMap: " + e.getMessage(), e);
+            WritableMap map = new WritableNativeMap();
+            map.putString("name", clientEvent.optString("name"));
+            map.putNull("params");
+            map.putString("error", e.getMessage());
+            return map;
+        }
+    }
 }
 
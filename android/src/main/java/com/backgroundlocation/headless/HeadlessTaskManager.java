@@ -1,8 +1,11 @@
 package com.backgroundlocation.headless;
 
 import android.content.Context;
+import android.os.Build;
 import android.os.Handler;
 import android.os.Looper;
+import android.os.Process;
+import android.os.SystemClock;
 import com.facebook.infer.annotation.Assertions;
 import com.facebook.react.ReactApplication;
 import com.facebook.react.ReactInstanceEventListener;
@@ -16,9 +19,13 @@ import com.facebook.react.jstasks.HeadlessJsTaskContext;
 import com.facebook.react.jstasks.HeadlessJsTaskEventListener;
 import com.backgroundlocation.util.LogHelper;
 
-import java.util.Iterator;
-import java.util.Set;
-import java.util.concurrent.CopyOnWriteArraySet;
+import org.json.JSONObject;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -34,9 +41,28 @@ public class HeadlessTaskManager implements HeadlessJsTaskEventListener {
     private final AtomicBoolean isHeadlessJsTaskListenerRegistered = new AtomicBoolean(false);
     private final AtomicBoolean isInitializingReactContext = new AtomicBoolean(false);
     private final AtomicBoolean isReactContextInitialized = new AtomicBoolean(false);
-    private final Set<Task> taskQueue = new CopyOnWriteArraySet<>();
+    // Task id -> Task (insertion order = invoke order), guarded by synchronized(taskQueue)
+    private final Map<Integer, Task> taskQueue = new LinkedHashMap<>();
     private final AtomicBoolean willDrainTaskQueue = new AtomicBoolean(false);
     
+    // Cached reflective handles (New Architecture / ReactHost)
+    private static volatile Boolean bridgelessEnabled;
+    private static volatile Method getReactHostMethod;
+    private static volatile Method getCurrentReactContextMethod;
+    private static volatile Method addReactInstanceEventListenerMethod;
+    private static volatile Method removeReactInstanceEventListenerMethod;
+    private static volatile Method startMethod;
+    
+    // Cold-start timings (SystemClock.elapsedRealtime, 0 = not reached)
+    private final long processStartAt;
+    private volatile long contextInitStartedAt = 0;
+    private volatile long contextReadyAt = 0;
+    private volatile long firstEventAt = 0;
+    private volatile long firstTaskInvokedAt = 0;
+    private volatile boolean warmUp = false;
+    private volatile boolean contextReused = false;
+    private volatile Context appContext;
+    
     public interface OnErrorCallback {
         void onError(Task task, Exception exc);
     }
@@ -50,6 +76,9 @@ public class HeadlessTaskManager implements HeadlessJsTaskEventListener {
     }
     
     private HeadlessTaskManager() {
+        processStartAt = Build.VERSION.SDK_INT >= Build.VERSION_CODES.N
+            ? Process.getStartElapsedRealtime()
+            : SystemClock.elapsedRealtime();
     }
     
     public static HeadlessTaskManager getInstance() {
@@ -68,6 +97,10 @@ public class HeadlessTaskManager implements HeadlessJsTaskEventListener {
      */
     public void startTask(Context context, Task task) throws AssertionError {
         UiThreadUtil.assertOnUiThread();
+        appContext = context.getApplicationContext();
+        if (firstEventAt == 0) {
+            firstEventAt = SystemClock.elapsedRealtime();
+        }
         addTask(task);
         
         if (!isReactContextInitialized.get()) {
@@ -78,10 +111,57 @@ public class HeadlessTaskManager implements HeadlessJsTaskEventListener {
                 if (!invokeStartTask(reactContext, task)) {
                     removeTask(task);
                 }
+            } else {
+                // Kuyrukta sonsuza kadar bekletme: task başarısız, journal kaydı retry'a kalır
+                removeTask(task);
+                task.onError(new ContextError(getClass().getName() + ".startTask: ReactContext is null"));
             }
         }
     }
     
+    /**
+     * Warm up: ReactContext'i ilk headless event'i beklemeden oluştur
+     * (service restart / boot). Main thread'den çağrılmalı.
+     */
+    public void warmUp(Context context) {
+        UiThreadUtil.assertOnUiThread();
+        appContext = context.getApplicationContext();
+        if (isReactContextInitialized.get() || isInitializingReactContext.get()) {
+            return;
+        }
+        warmUp = true;
+        LogHelper.d(TAG, "🔥 Warming up ReactContext for headless tasks");
+        try {
+            createReactContextAndScheduleTask(context);
+        } catch (Exception e) {
+            LogHelper.e(TAG, "Headless warm-up failed: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Cold-start phase timings (ms, -1 = not reached)
+     */
+    public JSONObject getMetrics() {
+        JSONObject json = new JSONObject();
+        try {
+            json.put("warmUp", warmUp);
+            json.put("contextReused", contextReused);
+            json.put("processStartToContextInit", elapsed(processStartAt, contextInitStartedAt));
+            json.put("contextInitToReady", elapsed(contextInitStartedAt, contextReadyAt));
+            json.put("processStartToContextReady", elapsed(processStartAt, contextReadyAt));
+            json.put("processStartToFirstEvent", elapsed(processStartAt, firstEventAt));
+            json.put("firstEventToFirstTask", elapsed(firstEventAt, firstTaskInvokedAt));
+            json.put("processStartToFirstTask", elapsed(processStartAt, firstTaskInvokedAt));
+        } catch (Exception e) {
+            LogHelper.w(TAG, "Failed to build metrics: " + e.getMessage());
+        }
+        return json;
+    }
+    
+    private static long elapsed(long from, long to) {
+        return (from > 0 && to > 0) ? Math.max(to - from, 0) : -1;
+    }
+    
     /**
      * Finish headless task
      */
@@ -114,7 +194,12 @@ public class HeadlessTaskManager implements HeadlessJsTaskEventListener {
         }
         
         try {
-            return task.invoke(reactContext);
+            boolean invoked = task.invoke(reactContext);
+            if (invoked && firstTaskInvokedAt == 0) {
+                firstTaskInvokedAt = SystemClock.elapsedRealtime();
+                LogHelper.d(TAG, "⏱️ Headless cold start: " + getMetrics());
+            }
+            return invoked;
         } catch (Exception e) {
             task.onError(e);
             return false;
@@ -143,8 +228,12 @@ public class HeadlessTaskManager implements HeadlessJsTaskEventListener {
     private Object getReactHost(Context context) {
         Context appContext = context.getApplicationContext();
         try {
-            return appContext.getClass().getMethod("getReactHost", new Class[0])
-                .invoke(appContext, new Object[0]);
+            Method method = getReactHostMethod;
+            if (method == null) {
+                method = appContext.getClass().getMethod("getReactHost");
+                getReactHostMethod = method;
+            }
+            return method.invoke(appContext);
         } catch (Exception e) {
             return null;
         }
@@ -155,9 +244,12 @@ public class HeadlessTaskManager implements HeadlessJsTaskEventListener {
             Object reactHost = getReactHost(context);
             Assertions.assertNotNull(reactHost, "getReactHost() is null in New Architecture");
             try {
-                return (ReactContext) reactHost.getClass()
-                    .getMethod("getCurrentReactContext", new Class[0])
-                    .invoke(reactHost, new Object[0]);
+                Method method = getCurrentReactContextMethod;
+                if (method == null) {
+                    method = reactHost.getClass().getMethod("getCurrentReactContext");
+                    getCurrentReactContextMethod = method;
+                }
+                return (ReactContext) method.invoke(reactHost);
             } catch (Exception e) {
                 LogHelper.e(TAG, "Reflection error getCurrentReactContext: " + e.getMessage(), e);
             }
@@ -165,16 +257,30 @@ public class HeadlessTaskManager implements HeadlessJsTaskEventListener {
         return getReactNativeHost(context).getReactInstanceManager().getCurrentReactContext();
     }
     
+    private void onReactContextReady(ReactContext reactContext) {
+        isReactContextInitialized.set(true);
+        if (contextReadyAt == 0) {
+            contextReadyAt = SystemClock.elapsedRealtime();
+        }
+        drainTaskQueue(reactContext);
+        // Önceki process'ten ack'lenmemiş headless event'leri tekrar gönder
+        Context context = appContext;
+        if (context != null) {
+            HeadlessEventJournal.getInstance(context).replay();
+        }
+    }
+    
     private void createReactContextAndScheduleTask(Context context) {
         ReactContext reactContext = getReactContext(context);
         if (reactContext != null && !isInitializingReactContext.get()) {
-            isReactContextInitialized.set(true);
-            drainTaskQueue(reactContext);
+            contextReused = true;
+            onReactContextReady(reactContext);
             return;
         }
         
         if (isInitializingReactContext.compareAndSet(false, true)) {
             LogHelper.d(TAG, "Initializing ReactContext for headless task");
+            contextInitStartedAt = SystemClock.elapsedRealtime();
             
             final Object reactHost = getReactHost(context);
             
@@ -182,26 +288,34 @@ public class HeadlessTaskManager implements HeadlessJsTaskEventListener {
                 ReactInstanceEventListener callback = new ReactInstanceEventListener() {
                     @Override
                     public void onReactContextInitialized(ReactContext reactContext) {
-                        isReactContextInitialized.set(true);
-                        drainTaskQueue(reactContext);
+                        onReactContextReady(reactContext);
                         try {
-                            reactHost.getClass()
-                                .getMethod("removeReactInstanceEventListener", 
-                                    new Class[]{ReactInstanceEventListener.class})
-                                .invoke(reactHost, new Object[]{this});
+                            Method method = removeReactInstanceEventListenerMethod;
+                            if (method == null) {
+                                method = reactHost.getClass().getMethod(
+                                    "removeReactInstanceEventListener", ReactInstanceEventListener.class);
+                                removeReactInstanceEventListenerMethod = method;
+                            }
+                            method.invoke(reactHost, this);
                         } catch (Exception e) {
                             LogHelper.e(TAG, "Reflection error removeReactInstanceEventListener: " + e.getMessage(), e);
                         }
                     }
                 };
                 try {
-                    reactHost.getClass()
-                        .getMethod("addReactInstanceEventListener", 
-                            new Class[]{ReactInstanceEventListener.class})
-                        .invoke(reactHost, new Object[]{callback});
-                    reactHost.getClass()
-                        .getMethod("start", new Class[0])
-                        .invoke(reactHost, new Object[0]);
+                    Method addMethod = addReactInstanceEventListenerMethod;
+                    if (addMethod == null) {
+                        addMethod = reactHost.getClass().getMethod(
+                            "addReactInstanceEventListener", ReactInstanceEventListener.class);
+                        addReactInstanceEventListenerMethod = addMethod;
+                    }
+                    Method start = startMethod;
+                    if (start == null) {
+                        start = reactHost.getClass().getMethod("start");
+                        startMethod = start;
+                    }
+                    addMethod.invoke(reactHost, callback);
+                    start.invoke(reactHost);
                 } catch (Exception e) {
                     LogHelper.e(TAG, "Reflection error ReactHost start: " + e.getMessage(), e);
                 }
@@ -211,37 +325,43 @@ public class HeadlessTaskManager implements HeadlessJsTaskEventListener {
                 reactInstanceManager.addReactInstanceEventListener(new ReactInstanceEventListener() {
                     @Override
                     public void onReactContextInitialized(ReactContext reactContext) {
-                        isReactContextInitialized.set(true);
-                        drainTaskQueue(reactContext);
+                        onReactContextReady(reactContext);
                         reactInstanceManager.removeReactInstanceEventListener(this);
                     }
                 });
-                reactInstanceManager.createReactContextInBackground();
+                // Activity zaten oluşturmaya başladıysa ikinci kez başlatma (sadece listener yeterli)
+                if (!reactInstanceManager.hasStartedCreatingInitialContext()) {
+                    reactInstanceManager.createReactContextInBackground();
+                }
             }
         }
     }
     
     private boolean isBridglessArchitectureEnabled() {
-        try {
-            Class<?> clazz = Class.forName("com.facebook.react.defaults.DefaultNewArchitectureEntryPoint");
-            Object result = clazz.getMethod("getBridgelessEnabled", new Class[0])
-                .invoke(null, new Object[0]);
-            return Boolean.TRUE.equals(result);
-        } catch (Exception e) {
-            return false;
+        Boolean enabled = bridgelessEnabled;
+        if (enabled == null) {
+            try {
+                Class<?> clazz = Class.forName("com.facebook.react.defaults.DefaultNewArchitectureEntryPoint");
+                Object result = clazz.getMethod("getBridgelessEnabled").invoke(null);
+                enabled = Boolean.TRUE.equals(result);
+            } catch (Exception e) {
+                enabled = false;
+            }
+            bridgelessEnabled = enabled;
         }
+        return enabled;
     }
     
     private void drainTaskQueue(ReactContext reactContext) {
         if (willDrainTaskQueue.compareAndSet(false, true)) {
             new Handler(Looper.getMainLooper()).postDelayed(() -> {
+                List<Task> pending;
                 synchronized (taskQueue) {
-                    Iterator<Task> iterator = taskQueue.iterator();
-                    while (iterator.hasNext()) {
-                        Task task = iterator.next();
-                        if (!invokeStartTask(reactContext, task)) {
-                            removeTask(task);
-                        }
+                    pending = new ArrayList<>(taskQueue.values());
+                }
+                for (Task task : pending) {
+                    if (!invokeStartTask(reactContext, task)) {
+                        removeTask(task);
                     }
                 }
             }, 250);
@@ -250,18 +370,13 @@ public class HeadlessTaskManager implements HeadlessJsTaskEventListener {
     
     private Task findTask(int taskId) {
         synchronized (taskQueue) {
-            for (Task task : taskQueue) {
-                if (task.getId() == taskId) {
-                    return task;
-                }
-            }
+            return taskQueue.get(taskId);
         }
-        return null;
     }
     
     private Task findTaskByReactId(int reactTaskId) {
         synchronized (taskQueue) {
-            for (Task task : taskQueue) {
+            for (Task task : taskQueue.values()) {
                 if (task.getReactTaskId() == reactTaskId) {
                     return task;
                 }
@@ -272,13 +387,13 @@ public class HeadlessTaskManager implements HeadlessJsTaskEventListener {
     
     private void addTask(Task task) {
         synchronized (taskQueue) {
-            taskQueue.add(task);
+            taskQueue.put(task.getId(), task);
         }
     }
     
     private void removeTask(Task task) {
         synchronized (taskQueue) {
-            taskQueue.remove(task);
+            taskQueue.remove(task.getId());
         }
     }
     
@@ -335,6 +450,10 @@ public class HeadlessTaskManager implements HeadlessJsTaskEventListener {
         }
         
         private HeadlessJsTaskConfig buildTaskConfig() {
+            // JS tarafı finishHeadlessTask(taskId) ile erken ack verebilsin
+            if (this.params != null && !this.params.hasKey("taskId")) {
+                this.params.putInt("taskId", this.id);
+            }
             return new HeadlessJsTaskConfig(this.taskName, this.params, (long) this.timeout);
         }
         
@@ -11,7 +11,6 @@ import android.net.NetworkInfo;
 import android.net.NetworkRequest;
 import android.os.Build;
 import android.os.Bundle;
-import com.backgroundlocation.adapter.BackgroundLocationAdapter;
 import com.backgroundlocation.adapter.callback.AuthorizationCallback;
 import com.backgroundlocation.adapter.callback.SyncCallback;
 import com.backgroundlocation.config.Config;
@@ -20,10 +19,8 @@ import com.backgroundlocation.event.ConfigChangeEvent;
 import com.backgroundlocation.event.ConnectivityChangeEvent;
 import com.backgroundlocation.lifecycle.LifecycleManager;
 import com.backgroundlocation.util.LogHelper;
+import com.backgroundlocation.event.EventDispatcher;
 import okhttp3.OkHttpClient;
-import org.greenrobot.eventbus.EventBus;
-import org.greenrobot.eventbus.Subscribe;
-import org.greenrobot.eventbus.ThreadMode;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -62,9 +59,10 @@ public class HttpService {
             .writeTimeout(timeout, TimeUnit.MILLISECONDS)
             .build();
         
-        // Register EventBus
-        if (!EventBus.getDefault().isRegistered(this)) {
-            EventBus.getDefault().register(this);
+        // Subscribe to config changes
+        if (!EventDispatcher.getInstance().isSubscribed(this)) {
+            EventDispatcher.getInstance().subscribe(this, ConfigChangeEvent.class,
+                EventDispatcher.Delivery.MAIN, this::onConfigChange);
         }
         
         // Start monitoring if enabled
@@ -183,7 +181,7 @@ public class HttpService {
      */
     public void startMonitoringConnectivityChanges(Context context) {
         if (!isNetworkAvailable()) {
-            EventBus.getDefault().post(new ConnectivityChangeEvent(false));
+            EventDispatcher.getInstance().post(new ConnectivityChangeEvent(false));
         }
         
         LogHelper.d(TAG, "Start monitoring connectivity changes");
@@ -260,7 +258,7 @@ public class HttpService {
      * Handle connectivity change
      */
     private void handleConnectivityChange(boolean isConnected) {
-        EventBus.getDefault().post(new ConnectivityChangeEvent(isConnected));
+        EventDispatcher.getInstance().post(new ConnectivityChangeEvent(isConnected));
         LogHelper.d(TAG, "Connectivity changed: " + (isConnected ? "CONNECTED" : "DISCONNECTED"));
     }
     
@@ -296,8 +294,8 @@ public class HttpService {
      */
     public void fireAuthorizationEvent(AuthorizationEvent event) {
         if (LifecycleManager.getInstance().isHeadless()) {
-            // Headless mode - post to EventBus
-            EventBus.getDefault().post(event);
+            // Headless mode - post event
+            EventDispatcher.getInstance().post(event);
             return;
         }
         
@@ -333,19 +331,13 @@ public class HttpService {
             return;
         }
         
-        // Use SyncService to sync
-        com.backgroundlocation.service.SyncService.sync(context);
-        
-        // TODO: Implement callback support in SyncService
-        if (callback != null) {
-            LogHelper.w(TAG, "SyncCallback not fully implemented in SyncService yet");
-        }
+        // Use SyncService to sync; callback is completed on the UI thread with the synced records
+        com.backgroundlocation.service.SyncService.sync(context, callback);
     }
     
     /**
      * Handle config change event
      */
-    @Subscribe(threadMode = ThreadMode.MAIN)
     public void onConfigChange(ConfigChangeEvent event) {
         Config config = Config.getInstance(context);
         
@@ -354,9 +346,7 @@ public class HttpService {
              event.isDirty("headers")) && 
             !config.url.isEmpty() && config.autoSync && isNetworkAvailable()) {
             // Trigger sync if config changed
-            BackgroundLocationAdapter.getThreadPool().execute(() -> {
-                flush(null);
-            });
+            flush(null);
         }
     }
     
@@ -364,10 +354,7 @@ public class HttpService {
      * Destroy service
      */
     public void destroy() {
-        EventBus eventBus = EventBus.getDefault();
-        if (eventBus.isRegistered(this)) {
-            eventBus.unregister(this);
-        }
+        EventDispatcher.getInstance().unsubscribe(this);
         
         stopMonitoringConnectivityChanges(context);
         removeAllAuthorizationCallbacks();
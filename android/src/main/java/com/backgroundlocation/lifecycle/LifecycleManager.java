@@ -177,7 +177,7 @@ public class LifecycleManager implements DefaultLifecycleObserver, Runnable {
         
         // Fire TerminateEvent
         // This will be handled by BackgroundLocationAdapter to check stopOnTerminate
-        org.greenrobot.eventbus.EventBus.getDefault().post(
+        com.backgroundlocation.event.EventDispatcher.getInstance().post(
             new com.backgroundlocation.event.TerminateEvent(owner.getLifecycle().getClass().getSimpleName())
         );
     }
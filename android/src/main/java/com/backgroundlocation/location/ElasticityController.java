@@ -0,0 +1,141 @@
+package com.backgroundlocation.location;
+
+import android.location.Location;
+
+import com.backgroundlocation.config.Config;
+import com.backgroundlocation.util.LogHelper;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Elasticity Controller
+ * distanceFilter elasticity'sini (Config.calculateDistanceFilter) LocationRequest'e uygular.
+ * - Hız Config.elasticityBucket ile bucket'lanır; yeni bucket yalnızca HOLD_MS boyunca (ve en az
+ *   MIN_HOLD_FIXES fix) sabit kalırsa kabul edilir (hız gürültüsünde request titreşmez)
+ * - Re-request'ler MIN_REQUEST_INTERVAL_MS ile rate-limit'lenir
+ * - fixesSaved: büyütülmüş smallestDisplacement sayesinde gelmeyen fix tahmini
+ *   (ardışık fix'ler arası mesafe / base distanceFilter - 1)
+ *
+ * LocationService tarafından main thread'de kullanılır.
+ */
+public class ElasticityController {
+
+    private static final String TAG = "ElasticityController";
+
+    private static final long HOLD_MS = 30 * 1000L;
+    private static final int MIN_HOLD_FIXES = 2;
+    private static final long MIN_REQUEST_INTERVAL_MS = 60 * 1000L;
+
+    private static ElasticityController instance;
+
+    // Uygulanmış bucket (0: base distanceFilter)
+    private volatile int bucket = 0;
+    private int candidate = 0;
+    private long candidateSince = 0;
+    private int candidateFixes = 0;
+    private long lastRequestAt = 0;
+    private Location lastFix;
+
+    // Metrics
+    private volatile long requests = 0;
+    private volatile long suppressed = 0;
+    private volatile long fixesSaved = 0;
+
+    private ElasticityController() {
+    }
+
+    public static synchronized ElasticityController getInstance() {
+        if (instance == null) {
+            instance = new ElasticityController();
+        }
+        return instance;
+    }
+
+    /**
+     * Back to base distanceFilter (tracking başladı / durdu)
+     */
+    public void reset() {
+        bucket = 0;
+        candidate = 0;
+        candidateSince = 0;
+        candidateFixes = 0;
+        lastRequestAt = 0;
+        lastFix = null;
+    }
+
+    /**
+     * Effective smallestDisplacement for current bucket
+     */
+    public float getDistanceFilter(Config config) {
+        return config.distanceFilterForBucket(bucket);
+    }
+
+    /**
+     * Offer delivered fix
+     * @return true: bucket değişti, LocationRequest yeniden istenmeli
+     */
+    public boolean offer(Location location, Config config) {
+        countSaved(location, config);
+
+        int next = Config.elasticityBucket(location.getSpeed());
+        long now = location.getTime();
+        if (next == bucket) {
+            candidate = bucket;
+            candidateFixes = 0;
+            return false;
+        }
+        if (next != candidate || candidateFixes == 0) {
+            candidate = next;
+            candidateSince = now;
+            candidateFixes = 1;
+            return false;
+        }
+        candidateFixes++;
+        if (now - candidateSince < HOLD_MS || candidateFixes < MIN_HOLD_FIXES) {
+            return false;
+        }
+        // Ölçeklenmiş filtre base ile pratikte aynıysa request'e dokunma
+        if (Math.abs(config.distanceFilterForBucket(next) - getDistanceFilter(config)) < 1.0f) {
+            bucket = next;
+            candidateFixes = 0;
+            return false;
+        }
+        long elapsed = System.currentTimeMillis() - lastRequestAt;
+        if (lastRequestAt > 0 && elapsed < MIN_REQUEST_INTERVAL_MS) {
+            suppressed++;
+            return false;
+        }
+        LogHelper.d(TAG, "🔄 Speed bucket " + bucket + " -> " + next + " (stable " + (now - candidateSince) + "ms)");
+        bucket = next;
+        candidateFixes = 0;
+        lastRequestAt = System.currentTimeMillis();
+        requests++;
+        return true;
+    }
+
+    private void countSaved(Location location, Config config) {
+        Location previous = lastFix;
+        lastFix = location;
+        if (previous == null || bucket == 0 || config.distanceFilter <= 0) {
+            return;
+        }
+        int skipped = (int) (location.distanceTo(previous) / config.distanceFilter) - 1;
+        if (skipped > 0) {
+            fixesSaved += skipped;
+        }
+    }
+
+    public JSONObject getMetrics() {
+        JSONObject json = new JSONObject();
+        try {
+            json.put("bucket", bucket);
+            json.put("requests", requests);
+            json.put("suppressed", suppressed);
+            json.put("fixesSaved", fixesSaved);
+        } catch (JSONException e) {
+            LogHelper.w(TAG, "Failed to build metrics: " + e.getMessage());
+        }
+        return json;
+    }
+}
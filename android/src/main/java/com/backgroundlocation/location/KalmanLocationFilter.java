@@ -0,0 +1,237 @@
+package com.backgroundlocation.location;
+
+import com.backgroundlocation.util.LogHelper;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Kalman Location Filter
+ * Sabit hız (constant-velocity) modeli ile fix yumuşatma ve outlier eleme.
+ * - State: yerel düzlemde (origin'e göre metre) her eksen için [konum, hız]; izotropik ölçüm gürültüsü
+ *   nedeniyle x / y eksenleri bağımsız 2x2 filtreler olarak çalışır (primitive alanlar, update başına
+ *   allocation yok)
+ * - Process noise: beyaz ivme (ACCELERATION_NOISE m/s²)
+ * - Ölçüm gürültüsü: fix accuracy² (metre)
+ * - Innovation gating: Mahalanobis² > GATE (χ², 2 DOF, %99.9) olan fix atılır. Art arda
+ *   MAX_CONSECUTIVE_REJECTS red veya MAX_GAP_MS boşluktan sonra filtre ölçümde yeniden başlatılır
+ *   (tünel çıkışı gibi gerçek sıçramalarda kilitlenmemek için)
+ *
+ * LocationService tarafından main thread'de kullanılır.
+ */
+public class KalmanLocationFilter {
+
+    private static final String TAG = "KalmanLocationFilter";
+
+    private static final double ACCELERATION_NOISE = 3.0; // m/s²
+    private static final double GATE = 13.82; // χ²(2) %99.9
+    static final int MAX_CONSECUTIVE_REJECTS = 3;
+    static final long MAX_GAP_MS = 60 * 1000L;
+    static final double REBASE_DISTANCE = 50000; // metre, projeksiyon hatasını sınırlamak için
+    private static final double EARTH_RADIUS = 6371008.8; // metre
+    private static final double MIN_ACCURACY = 1.0; // metre
+
+    private static KalmanLocationFilter instance;
+
+    // Projection origin
+    private double originLat;
+    private double originLng;
+    private double cosOriginLat;
+
+    // State (x: doğu, y: kuzey)
+    private double px, vx, pxx, pxv, pvvx;
+    private double py, vy, pyy, pyv, pvvy;
+    private long lastTime;
+    private boolean initialized = false;
+    private int consecutiveRejects = 0;
+
+    // Son çıktı
+    private double latitude;
+    private double longitude;
+    private float speed;
+    private float accuracy;
+
+    // Metrics
+    private volatile long accepted = 0;
+    private volatile long rejected = 0;
+    private volatile long resets = 0;
+
+    private KalmanLocationFilter() {
+    }
+
+    public static synchronized KalmanLocationFilter getInstance() {
+        if (instance == null) {
+            instance = new KalmanLocationFilter();
+        }
+        return instance;
+    }
+
+    /**
+     * Forget state (tracking yeniden başladı)
+     */
+    public void reset() {
+        initialized = false;
+        consecutiveRejects = 0;
+    }
+
+    /**
+     * Feed fix. Returns false if rejected as outlier; otherwise smoothed output is available via getters.
+     */
+    public boolean update(double lat, double lng, float fixAccuracy, long time) {
+        double r = Math.max(fixAccuracy, MIN_ACCURACY);
+        r = r * r;
+
+        if (!initialized || time - lastTime > MAX_GAP_MS || consecutiveRejects >= MAX_CONSECUTIVE_REJECTS) {
+            if (initialized) {
+                resets++;
+            }
+            init(lat, lng, r, time);
+            return true;
+        }
+
+        // Predict
+        double dt = Math.max((time - lastTime) / 1000.0, 0);
+        double q = ACCELERATION_NOISE * ACCELERATION_NOISE;
+        double dt2 = dt * dt;
+        double q11 = q * dt2 * dt2 / 4;
+        double q12 = q * dt2 * dt / 2;
+        double q22 = q * dt2;
+
+        double ppx = px + vx * dt;
+        double ppxx = pxx + 2 * dt * pxv + dt2 * pvvx + q11;
+        double ppxv = pxv + dt * pvvx + q12;
+        double ppvvx = pvvx + q22;
+
+        double ppy = py + vy * dt;
+        double ppyy = pyy + 2 * dt * pyv + dt2 * pvvy + q11;
+        double ppyv = pyv + dt * pvvy + q12;
+        double ppvvy = pvvy + q22;
+
+        // Innovation gating
+        double zx = x(lng);
+        double zy = y(lat);
+        double ix = zx - ppx;
+        double iy = zy - ppy;
+        double sx = ppxx + r;
+        double sy = ppyy + r;
+        double mahalanobis = ix * ix / sx + iy * iy / sy;
+        if (mahalanobis > GATE) {
+            consecutiveRejects++;
+            rejected++;
+            LogHelper.d(TAG, "⚠️ Outlier rejected (d²=" + String.format("%.1f", mahalanobis) +
+                ", innovation=" + String.format("%.0f", Math.sqrt(ix * ix + iy * iy)) + "m)");
+            return false;
+        }
+        consecutiveRejects = 0;
+
+        // Update
+        double kx0 = ppxx / sx;
+        double kx1 = ppxv / sx;
+        px = ppx + kx0 * ix;
+        vx = vx + kx1 * ix;
+        pxx = (1 - kx0) * ppxx;
+        pxv = (1 - kx0) * ppxv;
+        pvvx = ppvvx - kx1 * ppxv;
+
+        double ky0 = ppyy / sy;
+        double ky1 = ppyv / sy;
+        py = ppy + ky0 * iy;
+        vy = vy + ky1 * iy;
+        pyy = (1 - ky0) * ppyy;
+        pyv = (1 - ky0) * ppyv;
+        pvvy = ppvvy - ky1 * ppyv;
+
+        lastTime = time;
+        publish();
+        accepted++;
+
+        if (px * px + py * py > REBASE_DISTANCE * REBASE_DISTANCE) {
+            rebase();
+        }
+        return true;
+    }
+
+    private void init(double lat, double lng, double r, long time) {
+        setOrigin(lat, lng);
+        px = 0;
+        py = 0;
+        vx = 0;
+        vy = 0;
+        pxx = r;
+        pyy = r;
+        pxv = 0;
+        pyv = 0;
+        // Başlangıç hızı bilinmiyor: ~10 m/s belirsizlik
+        pvvx = 100;
+        pvvy = 100;
+        lastTime = time;
+        initialized = true;
+        consecutiveRejects = 0;
+        publish();
+        accepted++;
+    }
+
+    /**
+     * Move projection origin to current estimate (state korunur)
+     */
+    void rebase() {
+        setOrigin(latitude, longitude);
+        px = 0;
+        py = 0;
+    }
+
+    private void setOrigin(double lat, double lng) {
+        originLat = lat;
+        originLng = lng;
+        cosOriginLat = Math.cos(Math.toRadians(lat));
+    }
+
+    private void publish() {
+        latitude = originLat + Math.toDegrees(py / EARTH_RADIUS);
+        longitude = originLng + Math.toDegrees(px / (EARTH_RADIUS * cosOriginLat));
+        speed = (float) Math.sqrt(vx * vx + vy * vy);
+        accuracy = (float) Math.sqrt((pxx + pyy) / 2);
+    }
+
+    private double x(double lng) {
+        return Math.toRadians(lng - originLng) * cosOriginLat * EARTH_RADIUS;
+    }
+
+    private double y(double lat) {
+        return Math.toRadians(lat - originLat) * EARTH_RADIUS;
+    }
+
+    public double getLatitude() {
+        return latitude;
+    }
+
+    public double getLongitude() {
+        return longitude;
+    }
+
+    /**
+     * Filtered speed (m/s)
+     */
+    public float getSpeed() {
+        return speed;
+    }
+
+    /**
+     * Posterior position std-dev (metre)
+     */
+    public float getAccuracy() {
+        return accuracy;
+    }
+
+    public JSONObject getMetrics() {
+        JSONObject json = new JSONObject();
+        try {
+            json.put("accepted", accepted);
+            json.put("rejected", rejected);
+            json.put("resets", resets);
+        } catch (JSONException e) {
+            LogHelper.w(TAG, "Failed to build metrics: " + e.getMessage());
+        }
+        return json;
+    }
+}
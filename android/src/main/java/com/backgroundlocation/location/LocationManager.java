@@ -8,9 +8,6 @@ import com.backgroundlocation.config.Config;
 import com.backgroundlocation.util.LogHelper;
 import com.google.android.gms.location.FusedLocationProviderClient;
 import com.google.android.gms.location.LocationServices;
-import org.greenrobot.eventbus.EventBus;
-import org.greenrobot.eventbus.Subscribe;
-import org.greenrobot.eventbus.ThreadMode;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -55,11 +52,6 @@ public class LocationManager {
         this.context = context.getApplicationContext();
         this.fusedLocationClient = LocationServices.getFusedLocationProviderClient(this.context);
         
-        // Register EventBus
-        if (!EventBus.getDefault().isRegistered(this)) {
-            EventBus.getDefault().register(this);
-        }
-        
         isInitialized.set(true);
         LogHelper.d(TAG, "LocationManager initialized");
     }
@@ -200,10 +192,6 @@ public class LocationManager {
             activeRequests.clear();
         }
         
-        if (EventBus.getDefault().isRegistered(this)) {
-            EventBus.getDefault().unregister(this);
-        }
-        
         isInitialized.set(false);
         LogHelper.d(TAG, "LocationManager destroyed");
     }
@@ -0,0 +1,314 @@
+package com.backgroundlocation.location;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import com.backgroundlocation.config.Config;
+import com.backgroundlocation.util.LogHelper;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Motion Policy Engine
+ * Hareket durumunu (activity transition + fix hızı) Config.motionPolicy'deki LocationRequest profiline eşler:
+ *
+ *   { "still":      { "priority": 104, "interval": 300000, "distanceFilter": 100, "maxWaitTime": 900000 },
+ *     "on_foot":    { "priority": 102, "interval": 10000,  "distanceFilter": 10 },
+ *     "on_bicycle": { ... },
+ *     "in_vehicle": { "priority": 100, "interval": 5000,   "distanceFilter": 50,  "maxWaitTime": 60000 } }
+ *
+ * Eksik alanlar / tanımsız durumlar Config'teki statik değerleri kullanır. motionPolicy boşsa engine kapalıdır.
+ *
+ * Hysteresis:
+ * - Durum = activity durumu, fix hızı daha aktif bir durum gösteriyorsa o (activity transition gecikir)
+ * - Daha aktif profile geçiş ESCALATE_MS, daha pasife geçiş DEESCALATE_MS boyunca sabit kalmayı bekler
+ *   (trafik ışığında durmak in_vehicle profilini düşürmez)
+ * - Bekleme süresi dolunca yeni event gelmese de main thread'de yeniden değerlendirilir
+ *
+ * update / getMetrics dışındaki metodlar main thread'de çağrılır.
+ */
+public class MotionPolicyEngine {
+
+    private static final String TAG = "MotionPolicyEngine";
+
+    private static final long ESCALATE_MS = 10 * 1000L;
+    private static final long DEESCALATE_MS = 2 * 60 * 1000L;
+
+    // Hız eşikleri (m/s): hız kanıtı yalnızca yükseltmek için kullanılır
+    private static final float ON_FOOT_SPEED = 0.8f;
+    private static final float ON_BICYCLE_SPEED = 3.5f;
+    private static final float IN_VEHICLE_SPEED = 8.0f;
+
+    /**
+     * Motion states, in increasing activity order
+     */
+    public enum MotionState {
+        STILL("still"),
+        ON_FOOT("on_foot"),
+        ON_BICYCLE("on_bicycle"),
+        IN_VEHICLE("in_vehicle");
+
+        public final String key;
+
+        MotionState(String key) {
+            this.key = key;
+        }
+
+        static MotionState forActivity(String activity) {
+            if (activity == null) {
+                return null;
+            }
+            switch (activity) {
+                case "still":
+                    return STILL;
+                case "walking":
+                case "running":
+                case "on_foot":
+                    return ON_FOOT;
+                case "on_bicycle":
+                    return ON_BICYCLE;
+                case "in_vehicle":
+                    return IN_VEHICLE;
+                default:
+                    return null;
+            }
+        }
+
+        static MotionState forSpeed(float speed) {
+            if (speed >= IN_VEHICLE_SPEED) {
+                return IN_VEHICLE;
+            } else if (speed >= ON_BICYCLE_SPEED) {
+                return ON_BICYCLE;
+            } else if (speed >= ON_FOOT_SPEED) {
+                return ON_FOOT;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * LocationRequest profile for a motion state
+     */
+    public static final class Profile {
+        public final int priority;
+        public final long interval;
+        public final long fastestInterval;
+        public final float distanceFilter;
+        public final long maxWaitTime;
+
+        Profile(int priority, long interval, long fastestInterval, float distanceFilter, long maxWaitTime) {
+            this.priority = priority;
+            this.interval = interval;
+            this.fastestInterval = fastestInterval;
+            this.distanceFilter = distanceFilter;
+            this.maxWaitTime = maxWaitTime;
+        }
+
+        static Profile fromJSON(JSONObject json, Profile defaults) {
+            return new Profile(
+                json.optInt("priority", defaults.priority),
+                json.optLong("interval", defaults.interval),
+                json.optLong("fastestInterval", defaults.fastestInterval),
+                (float) json.optDouble("distanceFilter", defaults.distanceFilter),
+                json.optLong("maxWaitTime", defaults.maxWaitTime));
+        }
+
+        @Override
+        public String toString() {
+            return "priority=" + priority + ", interval=" + interval + "ms, fastestInterval=" + fastestInterval +
+                "ms, distanceFilter=" + distanceFilter + "m, maxWaitTime=" + maxWaitTime + "ms";
+        }
+    }
+
+    private static MotionPolicyEngine instance;
+
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable evaluateTask = this::evaluate;
+
+    // Derlenmiş policy (index: MotionState.ordinal, null: statik config)
+    private String source = "";
+    private volatile Profile[] profiles;
+
+    private volatile MotionState state = MotionState.STILL;
+    private MotionState activityState = MotionState.STILL;
+    private volatile MotionState candidate;
+    private long candidateSince = 0;
+    private Runnable listener;
+
+    // Metrics
+    private volatile long transitions = 0;
+    private volatile long lastTransitionAt = 0;
+
+    private MotionPolicyEngine() {
+    }
+
+    public static synchronized MotionPolicyEngine getInstance() {
+        if (instance == null) {
+            instance = new MotionPolicyEngine();
+        }
+        return instance;
+    }
+
+    /**
+     * Recompile policy if Config.motionPolicy changed (setConfig, değişmediyse no-op).
+     * Herhangi bir thread'den çağrılabilir; yeni profiller main thread'de uygulanır.
+     */
+    public void update(Config config) {
+        String policy = config.motionPolicy != null ? config.motionPolicy : "";
+        synchronized (this) {
+            if (policy.equals(source)) {
+                return;
+            }
+            source = policy;
+        }
+        Profile[] compiled = compile(policy, config);
+        handler.post(() -> {
+            profiles = compiled;
+            if (compiled != null) {
+                LogHelper.d(TAG, "✅ Motion policy compiled (state: " + state.key + ", " + compiled[state.ordinal()] + ")");
+            }
+            if (listener != null) {
+                listener.run();
+            }
+        });
+    }
+
+    private static Profile[] compile(String policy, Config config) {
+        if (policy.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            JSONObject json = new JSONObject(policy);
+            Profile defaults = new Profile(-1, config.locationUpdateInterval,
+                config.fastestLocationUpdateInterval, config.distanceFilter, 0);
+            Profile[] compiled = new Profile[MotionState.values().length];
+            boolean any = false;
+            for (MotionState state : MotionState.values()) {
+                JSONObject profile = json.optJSONObject(state.key);
+                if (profile != null) {
+                    compiled[state.ordinal()] = Profile.fromJSON(profile, defaults);
+                    any = true;
+                }
+            }
+            return any ? compiled : null;
+        } catch (JSONException e) {
+            LogHelper.w(TAG, "⚠️ Invalid motionPolicy: " + e.getMessage());
+            return null;
+        }
+    }
+
+    public String getState() {
+        return state.key;
+    }
+
+    public boolean isEnabled() {
+        return profiles != null;
+    }
+
+    /**
+     * Profile for current state (null: policy kapalı veya durum tanımsız, statik config kullanılır)
+     */
+    public Profile getProfile() {
+        Profile[] compiled = profiles;
+        return compiled != null ? compiled[state.ordinal()] : null;
+    }
+
+    /**
+     * Called on applied profile change (LocationService request'i yeniden ister)
+     */
+    public void setListener(Runnable listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Tracking restarted: hareket bilinmiyor, en pasif durumdan başla
+     */
+    public void reset() {
+        handler.removeCallbacks(evaluateTask);
+        state = MotionState.STILL;
+        activityState = MotionState.STILL;
+        candidate = null;
+    }
+
+    /**
+     * Activity transition (ENTER) / yüksek confidence'lı activity
+     */
+    public void onActivity(String activity) {
+        MotionState next = MotionState.forActivity(activity);
+        if (next == null) {
+            return;
+        }
+        activityState = next;
+        propose(next);
+    }
+
+    /**
+     * Fix speed evidence (m/s)
+     */
+    public void onSpeed(float speed) {
+        MotionState bySpeed = MotionState.forSpeed(speed);
+        MotionState next = bySpeed != null && bySpeed.ordinal() > activityState.ordinal() ? bySpeed : activityState;
+        propose(next);
+    }
+
+    private void propose(MotionState next) {
+        if (profiles == null) {
+            // Policy kapalıyken de durumu izle (policy sonradan açılabilir)
+            state = next;
+            candidate = null;
+            return;
+        }
+        if (next == state) {
+            candidate = null;
+            handler.removeCallbacks(evaluateTask);
+            return;
+        }
+        if (next != candidate) {
+            candidate = next;
+            candidateSince = System.currentTimeMillis();
+            handler.removeCallbacks(evaluateTask);
+            handler.postDelayed(evaluateTask, dwellFor(next));
+        }
+        evaluate();
+    }
+
+    private void evaluate() {
+        MotionState next = candidate;
+        if (next == null || next == state) {
+            return;
+        }
+        if (System.currentTimeMillis() - candidateSince < dwellFor(next)) {
+            return;
+        }
+        handler.removeCallbacks(evaluateTask);
+        Profile previous = getProfile();
+        LogHelper.d(TAG, "🔀 Motion state " + state.key + " -> " + next.key);
+        state = next;
+        candidate = null;
+        transitions++;
+        lastTransitionAt = System.currentTimeMillis();
+        Profile profile = getProfile();
+        if (profile != previous && listener != null) {
+            listener.run();
+        }
+    }
+
+    private long dwellFor(MotionState next) {
+        return next.ordinal() > state.ordinal() ? ESCALATE_MS : DEESCALATE_MS;
+    }
+
+    public JSONObject getMetrics() {
+        JSONObject json = new JSONObject();
+        try {
+            json.put("enabled", profiles != null);
+            json.put("state", state.key);
+            json.put("candidate", candidate != null ? candidate.key : JSONObject.NULL);
+            json.put("transitions", transitions);
+            json.put("lastTransitionAt", lastTransitionAt);
+        } catch (JSONException e) {
+            LogHelper.w(TAG, "Failed to build metrics: " + e.getMessage());
+        }
+        return json;
+    }
+}
@@ -0,0 +1,170 @@
+package com.backgroundlocation.location;
+
+import com.backgroundlocation.data.LocationModel;
+import com.backgroundlocation.util.LogHelper;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Trajectory Compressor
+ * Persist öncesi streaming yol sıkıştırma (opening window, SED hata sınırı).
+ * Son tutulan nokta (anchor) ile yeni fix arasındaki segment, penceredeki ara noktaların
+ * zamana göre interpolasyonla beklenen konumlarından en fazla `tolerance` metre sapıyorsa
+ * ara noktalar atılır; aşılınca pencerenin son noktası tutulur ve yeni anchor olur.
+ * Böylece atılan her nokta, tutulan iki komşusu arasındaki lineer interpolasyonla tolerans içinde
+ * (hem konum hem zaman) yeniden üretilebilir.
+ *
+ * - Pencere MAX_WINDOW nokta / MAX_WINDOW_MS ile sınırlı (bellekte bekleyen veri kaybı sınırlı)
+ * - is_moving değişimi ve geofence kayıtları her zaman tutulur
+ * - flush(): tracking durunca bekleyen son nokta yazılır
+ *
+ * Writer thread'de (ThreadPools.db) kullanılır; metrikler her thread'den okunabilir.
+ */
+public class TrajectoryCompressor {
+
+    private static final String TAG = "TrajectoryCompressor";
+
+    private static final int MAX_WINDOW = 32;
+    private static final long MAX_WINDOW_MS = 2 * 60 * 1000L;
+    private static final double EARTH_RADIUS = 6371008.8; // metre
+
+    private static TrajectoryCompressor instance;
+
+    private LocationModel anchor;
+    private final List<LocationModel> window = new ArrayList<>(MAX_WINDOW);
+
+    // Metrics
+    private volatile long received = 0;
+    private volatile long retained = 0;
+
+    private TrajectoryCompressor() {
+    }
+
+    public static synchronized TrajectoryCompressor getInstance() {
+        if (instance == null) {
+            instance = new TrajectoryCompressor();
+        }
+        return instance;
+    }
+
+    /**
+     * Offer accepted fix; returns the points to persist now (0..n, sırayla)
+     * @param tolerance max deviation (metre), <= 0: sıkıştırma kapalı (bekleyenler + fix döner)
+     */
+    public synchronized List<LocationModel> offer(LocationModel point, float tolerance) {
+        received++;
+        List<LocationModel> out = new ArrayList<>(2);
+
+        if (tolerance <= 0) {
+            closeWindow(out);
+            keep(point, out);
+            return out;
+        }
+        if (anchor == null) {
+            keep(point, out);
+            return out;
+        }
+        // Durum değişimleri yeniden üretilemez: her zaman tut
+        if (point.isMoving != anchor.isMoving || point.geofenceIdentifier != null) {
+            closeWindow(out);
+            keep(point, out);
+            return out;
+        }
+        if (window.size() >= MAX_WINDOW || point.timestamp - anchor.timestamp > MAX_WINDOW_MS) {
+            closeWindow(out);
+        } else if (!withinTolerance(point, tolerance)) {
+            closeWindow(out);
+        }
+        window.add(point);
+        return out;
+    }
+
+    /**
+     * Emit pending window end (tracking durdu / servis kapanıyor)
+     */
+    public synchronized List<LocationModel> flush() {
+        if (window.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<LocationModel> out = new ArrayList<>(1);
+        closeWindow(out);
+        LogHelper.d(TAG, "💾 Flushed trajectory window");
+        return out;
+    }
+
+    public synchronized boolean hasPending() {
+        return !window.isEmpty();
+    }
+
+    /**
+     * Pencerenin son noktası tutulur ve yeni anchor olur
+     */
+    private void closeWindow(List<LocationModel> out) {
+        if (window.isEmpty()) {
+            return;
+        }
+        LocationModel last = window.get(window.size() - 1);
+        window.clear();
+        keep(last, out);
+    }
+
+    private void keep(LocationModel point, List<LocationModel> out) {
+        anchor = point;
+        retained++;
+        out.add(point);
+    }
+
+    /**
+     * Synchronized Euclidean distance of every window point to anchor -> candidate segment
+     */
+    private boolean withinTolerance(LocationModel candidate, float tolerance) {
+        double cosLat = Math.cos(Math.toRadians(anchor.latitude));
+        double cx = x(candidate, cosLat);
+        double cy = y(candidate);
+        long span = candidate.timestamp - anchor.timestamp;
+
+        for (LocationModel point : window) {
+            double ratio = span > 0 ? (double) (point.timestamp - anchor.timestamp) / span : 0;
+            double dx = x(point, cosLat) - cx * ratio;
+            double dy = y(point) - cy * ratio;
+            if (dx * dx + dy * dy > (double) tolerance * tolerance) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Anchor'a göre yerel equirectangular projeksiyon (metre); pencere birkaç km'yi geçmez
+    private double x(LocationModel point, double cosLat) {
+        return Math.toRadians(point.longitude - anchor.longitude) * cosLat * EARTH_RADIUS;
+    }
+
+    private double y(LocationModel point) {
+        return Math.toRadians(point.latitude - anchor.latitude) * EARTH_RADIUS;
+    }
+
+    /**
+     * Compression metrics (received / retained)
+     */
+    public JSONObject getMetrics() {
+        JSONObject json = new JSONObject();
+        try {
+            long in = received;
+            long kept = retained;
+            json.put("received", in);
+            json.put("retained", kept);
+            json.put("ratio", kept > 0 ? (double) in / kept : 1.0);
+            synchronized (this) {
+                json.put("buffered", window.size());
+            }
+        } catch (JSONException e) {
+            LogHelper.w(TAG, "Failed to build metrics: " + e.getMessage());
+        }
+        return json;
+    }
+}
@@ -9,6 +9,7 @@ import com.backgroundlocation.config.Config;
 import com.backgroundlocation.data.SQLQuery;
 import com.backgroundlocation.device.DeviceInfo;
 import com.backgroundlocation.util.LogHelper;
+import com.backgroundlocation.util.ThreadPools;
 
 import org.json.JSONObject;
 
@@ -154,7 +155,7 @@ public class Log {
      * Get log
      */
     public static void getLog(Context context, SQLQuery query, GetLogCallback callback) {
-        BackgroundLocationAdapter.getThreadPool().execute(() -> {
+        ThreadPools.db().execute(() -> {
             try {
                 String log = LogReader.getLog(context, query);
                 if (log != null) {
@@ -183,7 +184,7 @@ public class Log {
      */
     public static void emailLog(android.app.Activity activity, String email, 
                                 SQLQuery query, EmailLogCallback callback) {
-        BackgroundLocationAdapter.getThreadPool().execute(() -> {
+        ThreadPools.db().execute(() -> {
             try {
                 String log = LogReader.getLog(activity, query);
                 if (log == null) {
@@ -243,7 +244,7 @@ public class Log {
      * Destroy log
      */
     public static void destroyLog(Callback callback) {
-        BackgroundLocationAdapter.getThreadPool().execute(() -> {
+        ThreadPools.db().execute(() -> {
             if (getDatabaseAppender().destroyLog()) {
                 BackgroundLocationAdapter.getUiHandler().post(() -> {
                     callback.onSuccess();
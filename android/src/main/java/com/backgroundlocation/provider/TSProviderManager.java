@@ -11,7 +11,7 @@ import com.backgroundlocation.lifecycle.LifecycleManager;
 import com.backgroundlocation.location.LocationManager;
 import com.backgroundlocation.logger.Log;
 import com.backgroundlocation.util.LogHelper;
-import org.greenrobot.eventbus.EventBus;
+import com.backgroundlocation.event.EventDispatcher;
 
 /**
  * TSProviderManager
@@ -89,7 +89,7 @@ public class TSProviderManager {
             if (LifecycleManager.getInstance().isHeadless() && 
                 Config.isLoaded() && 
                 Config.getInstance(context).enabled) {
-                EventBus.getDefault().post(new LocationProviderChangeEvent(context));
+                EventDispatcher.getInstance().post(new LocationProviderChangeEvent(context));
             }
         }
     }
@@ -156,8 +156,8 @@ public class TSProviderManager {
         logMessage.append(Log.boxRow("AP Mode: " + newEvent.isAirplaneMode()));
         Log.logger.info(logMessage.toString());
         
-        // Post event to EventBus
-        EventBus.getDefault().post(newEvent);
+        // Post event
+        EventDispatcher.getInstance().post(newEvent);
     }
     
     /**
@@ -4,18 +4,26 @@ import android.app.PendingIntent;
 import android.content.BroadcastReceiver;
 import android.content.Context;
 import android.content.Intent;
+import android.location.Location;
 import android.os.Build;
 import android.util.Log;
 
+import com.backgroundlocation.config.Config;
 import com.backgroundlocation.data.GeofenceModel;
+import com.backgroundlocation.data.LocationModel;
 import com.backgroundlocation.data.sqlite.SQLiteGeofenceDAO;
+import com.backgroundlocation.data.sqlite.SQLiteLocationDAO;
 import com.backgroundlocation.event.GeofenceEvent;
+import com.backgroundlocation.util.ThreadPools;
+import com.backgroundlocation.event.EventDispatcher;
+import com.backgroundlocation.service.HeartbeatService;
 
-import org.greenrobot.eventbus.EventBus;
 import com.google.android.gms.location.Geofence;
 import com.google.android.gms.location.GeofencingEvent;
 
-import org.json.JSONObject;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Geofence Broadcast Receiver
@@ -43,30 +51,80 @@ public class GeofenceBroadcastReceiver extends BroadcastReceiver {
             return;
         }
         
-        // Get triggering geofences
-        for (Geofence geofence : geofencingEvent.getTriggeringGeofences()) {
-            String identifier = geofence.getRequestId();
-            
-            // Get geofence details from SQLite database
-            SQLiteGeofenceDAO database = SQLiteGeofenceDAO.getInstance(context);
-            GeofenceModel geofenceModel = database.get(identifier);
-            
-            if (geofenceModel != null) {
-                try {
-                    // Emit event (direct EventBus)
-                    GeofenceEvent event = new GeofenceEvent(
-                        identifier, 
-                        action, 
-                        geofenceModel.toJSON()
-                    );
-                    EventBus.getDefault().post(event);
-                } catch (Exception e) {
-                    e.printStackTrace();
-                }
+        List<Geofence> triggeringGeofences = geofencingEvent.getTriggeringGeofences();
+        if (triggeringGeofences == null || triggeringGeofences.isEmpty()) {
+            return;
+        }
+        
+        // DB okuması main thread'de yapılmaz: goAsync() ile receiver'ı canlı tut,
+        // tüm transition'ları thread pool'da tek batch olarak işle
+        final Context appContext = context.getApplicationContext();
+        final Location triggeringLocation = geofencingEvent.getTriggeringLocation();
+        final PendingResult pendingResult = goAsync();
+        ThreadPools.db().execute(() -> {
+            try {
+                handleTransitions(appContext, action, triggeringGeofences, triggeringLocation);
+            } finally {
+                pendingResult.finish();
+            }
+        });
+    }
+    
+    /**
+     * Process a burst of transitions with a single DB read (db thread)
+     */
+    private void handleTransitions(Context context, String action, List<Geofence> triggeringGeofences,
+                                   Location triggeringLocation) {
+        Config config = Config.getInstance(context);
+        List<String> identifiers = new ArrayList<>(triggeringGeofences.size());
+        for (Geofence geofence : triggeringGeofences) {
+            identifiers.add(geofence.getRequestId());
+        }
+        
+        // Get geofence details (LRU cache, eksikler tek sorguda DB'den)
+        Map<String, GeofenceModel> geofences = SQLiteGeofenceDAO.getInstance(context).get(identifiers);
+        
+        for (String identifier : identifiers) {
+            GeofenceModel geofenceModel = geofences.get(identifier);
+            if (geofenceModel == null) {
+                continue;
+            }
+            // Transition'ı tetikleyen location'ı geofence identifier / action ile kaydet (sync + geofenceTemplate)
+            if (config.enabled && triggeringLocation != null) {
+                persistTransition(context, identifier, action, triggeringLocation, config);
+            }
+            try {
+                // Emit event (direct dispatch)
+                GeofenceEvent event = new GeofenceEvent(
+                    identifier, 
+                    action, 
+                    geofenceModel.toJSON()
+                );
+                EventDispatcher.getInstance().post(event);
+            } catch (Exception e) {
+                e.printStackTrace();
             }
         }
     }
     
+    private void persistTransition(Context context, String identifier, String action, Location location, Config config) {
+        LocationModel model = new LocationModel();
+        model.latitude = location.getLatitude();
+        model.longitude = location.getLongitude();
+        model.accuracy = location.getAccuracy();
+        model.speed = location.getSpeed();
+        model.heading = location.getBearing();
+        model.altitude = location.getAltitude();
+        model.timestamp = location.getTime();
+        model.isMoving = config.isMoving;
+        model.odometer = config.odometer;
+        model.geofenceIdentifier = identifier;
+        model.geofenceAction = action;
+        
+        SQLiteLocationDAO.getInstance(context).persist(model.toJSON());
+        HeartbeatService.onLocationRecorded(model);
+    }
+    
     private String getActionString(int transitionType) {
         switch (transitionType) {
             case Geofence.GEOFENCE_TRANSITION_ENTER:
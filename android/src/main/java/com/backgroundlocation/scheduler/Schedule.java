@@ -119,6 +119,13 @@ public class Schedule {
         return Boolean.valueOf(this.days.contains(Integer.valueOf(day)));
     }
     
+    /**
+     * Days of week (Calendar.DAY_OF_WEEK, literal date ise boş)
+     */
+    public List<Integer> getDays() {
+        return this.days;
+    }
+    
     /**
      * Check if schedule is expired
      */
@@ -15,7 +15,7 @@ import com.backgroundlocation.event.TerminateEvent;
 import com.backgroundlocation.logger.Log;
 import com.backgroundlocation.service.HeartbeatService;
 import com.backgroundlocation.util.LogHelper;
-import org.greenrobot.eventbus.EventBus;
+import com.backgroundlocation.event.EventDispatcher;
 import org.json.JSONObject;
 
 import java.util.Calendar;
@@ -88,7 +88,7 @@ public class ScheduleEvent {
             });
         }
         
-        EventBus.getDefault().post(new ScheduleEvent(Boolean.valueOf(enabled), config.toJSON()));
+        EventDispatcher.getInstance().post(new ScheduleEvent(Boolean.valueOf(enabled), config.toJSON()));
         TSScheduleManager.getInstance(context).scheduleNext(Calendar.getInstance(Locale.US), config.enabled);
     }
     
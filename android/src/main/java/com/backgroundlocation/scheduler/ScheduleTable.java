@@ -0,0 +1,424 @@
+package com.backgroundlocation.scheduler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * Schedule Table
+ * Config.schedule'un derlenmiş, immutable hali. Schedule string'leri bir kez parse edilir:
+ * - Haftalık girişler hafta dakikası (0 = Pazar 00:00, Calendar.DAY_OF_WEEK sırası) cinsinden
+ *   sıralı, ayrık [start, end) segmentlerine; gece yarısını / hafta sonunu aşanlar bölünür
+ * - Tarihli girişler (YYYY-MM-DD) sıralı, ayrık mutlak [on, off) segmentlerine
+ * - Tarihli girişlerin kapsadığı günler override'dır: o günlerde haftalık girişler uygulanmaz
+ * Çakışan aralıklarda location tracking (trackingMode 1) geofence'e (0) baskındır (sweep ile).
+ *
+ * stateAt / nextTransition: her adım binary search (O(log n)); takvim aritmetiği yalnızca
+ * sorgulanan anın yerel tarih/saatine çevrilmesi için yapılır (DST duvar saatine göre uygulanır:
+ * UTC offset değişimi de bir sınırdır; ileri alınan saatte atlanan aralık başı saat değişiminde,
+ * geri alınan saatte tekrar eden duvar saati ilk geçişte tetiklenir).
+ */
+final class ScheduleTable {
+
+    static final int OFF = -1;
+
+    private static final int DAY_MINUTES = 24 * 60;
+    private static final int WEEK_MINUTES = 7 * DAY_MINUTES;
+    // nextTransition: durum değiştirmeyen sınırlar (gün dönümü, bitişik aralıklar) için adım limiti
+    private static final int MAX_STEPS = 64;
+
+    /**
+     * Schedule state change
+     */
+    static final class Transition {
+        final long at;
+        final boolean enabled;
+        final int trackingMode;
+
+        Transition(long at, int state) {
+            this.at = at;
+            this.enabled = state != OFF;
+            this.trackingMode = state != OFF ? state : 1;
+        }
+    }
+
+    // Haftalık: sıralı, ayrık aralıklar (hafta dakikası)
+    private final int[] weekStarts;
+    private final int[] weekEnds;
+    private final int[] weekModes;
+    // Haftalık aralık sınırları (sıralı, tekil)
+    private final int[] weekBoundaries;
+
+    // Tarihli: sıralı, ayrık aralıklar (epoch ms)
+    private final long[] dateStarts;
+    private final long[] dateEnds;
+    private final int[] dateModes;
+    private final long[] dateBoundaries;
+
+    // Override günleri: sıralı, ayrık [first, last] gün run'ları (yyyyMMdd)
+    private final int[] overrideFirst;
+    private final int[] overrideLast;
+
+    private final int size;
+
+    private ScheduleTable(List<long[]> weekly, List<long[]> dated, List<int[]> overrideDays, int size) {
+        this.size = size;
+
+        weekStarts = new int[weekly.size()];
+        weekEnds = new int[weekly.size()];
+        weekModes = new int[weekly.size()];
+        int[] boundaries = new int[weekly.size() * 2];
+        for (int i = 0; i < weekly.size(); i++) {
+            long[] interval = weekly.get(i);
+            weekStarts[i] = (int) interval[0];
+            weekEnds[i] = (int) interval[1];
+            weekModes[i] = (int) interval[2];
+            boundaries[i * 2] = weekStarts[i];
+            boundaries[i * 2 + 1] = weekEnds[i] % WEEK_MINUTES;
+        }
+        weekBoundaries = distinct(boundaries);
+
+        dateStarts = new long[dated.size()];
+        dateEnds = new long[dated.size()];
+        dateModes = new int[dated.size()];
+        long[] dateBounds = new long[dated.size() * 2];
+        for (int i = 0; i < dated.size(); i++) {
+            long[] interval = dated.get(i);
+            dateStarts[i] = interval[0];
+            dateEnds[i] = interval[1];
+            dateModes[i] = (int) interval[2];
+            dateBounds[i * 2] = interval[0];
+            dateBounds[i * 2 + 1] = interval[1];
+        }
+        Arrays.sort(dateBounds);
+        dateBoundaries = dateBounds;
+
+        overrideFirst = new int[overrideDays.size()];
+        overrideLast = new int[overrideDays.size()];
+        for (int i = 0; i < overrideDays.size(); i++) {
+            overrideFirst[i] = overrideDays.get(i)[0];
+            overrideLast[i] = overrideDays.get(i)[1];
+        }
+    }
+
+    /**
+     * Compile parsed schedules (null: derlenecek giriş yok)
+     */
+    static ScheduleTable compile(List<Schedule> schedules) {
+        List<long[]> weekly = new ArrayList<>();
+        List<long[]> dated = new ArrayList<>();
+        List<int[]> overrideDays = new ArrayList<>();
+
+        for (Schedule schedule : schedules) {
+            if (schedule.isLiteralDate()) {
+                long on = schedule.onTime.getTimeInMillis();
+                long off = schedule.offTime.getTimeInMillis();
+                if (off <= on) {
+                    continue;
+                }
+                dated.add(new long[] {on, off, schedule.trackingMode});
+                overrideDays.add(new int[] {dayKey(on), dayKey(off - 1)});
+            } else {
+                int on = minuteOfDay(schedule.onTime);
+                int off = minuteOfDay(schedule.offTime);
+                int length = off > on ? off - on : off + DAY_MINUTES - on;
+                for (int day : schedule.getDays()) {
+                    if (day < Calendar.SUNDAY || day > Calendar.SATURDAY) {
+                        continue;
+                    }
+                    int start = (day - Calendar.SUNDAY) * DAY_MINUTES + on;
+                    int end = start + length;
+                    if (end > WEEK_MINUTES) {
+                        // Cumartesi gecesinden Pazar'a taşan aralık
+                        weekly.add(new long[] {start, WEEK_MINUTES, schedule.trackingMode});
+                        weekly.add(new long[] {0, end - WEEK_MINUTES, schedule.trackingMode});
+                    } else {
+                        weekly.add(new long[] {start, end, schedule.trackingMode});
+                    }
+                }
+            }
+        }
+        if (weekly.isEmpty() && dated.isEmpty()) {
+            return null;
+        }
+        return new ScheduleTable(sweep(weekly), sweep(dated), mergeDays(overrideDays), schedules.size());
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Schedule state at time (OFF veya trackingMode)
+     */
+    int stateAt(long time) {
+        Calendar calendar = Calendar.getInstance(Locale.US);
+        calendar.setTimeInMillis(time);
+        return stateAt(time, calendar);
+    }
+
+    private int stateAt(long time, Calendar calendar) {
+        if (isOverridden(dayKey(calendar))) {
+            int index = floor(dateStarts, time);
+            return index >= 0 && time < dateEnds[index] ? dateModes[index] : OFF;
+        }
+        int minute = minuteOfWeek(calendar);
+        int index = floorInt(weekStarts, minute);
+        return index >= 0 && minute < weekEnds[index] ? weekModes[index] : OFF;
+    }
+
+    /**
+     * Next state change after time (null: değişiklik yok / bulunamadı)
+     */
+    Transition nextTransition(long time) {
+        Calendar calendar = Calendar.getInstance(Locale.US);
+        calendar.setTimeInMillis(time);
+        int state = stateAt(time, calendar);
+        long cursor = time;
+        for (int step = 0; step < MAX_STEPS; step++) {
+            long next = nextBoundary(cursor, calendar);
+            if (next == Long.MAX_VALUE) {
+                return null;
+            }
+            calendar.setTimeInMillis(next);
+            int nextState = stateAt(next, calendar);
+            if (nextState != state) {
+                return new Transition(next, nextState);
+            }
+            cursor = next;
+        }
+        return null;
+    }
+
+    /**
+     * Earliest time > cursor where weekly / dated / override state may change (calendar: cursor anı)
+     */
+    private long nextBoundary(long cursor, Calendar calendar) {
+        long next = Long.MAX_VALUE;
+
+        int index = ceiling(dateBoundaries, cursor + 1);
+        if (index < dateBoundaries.length) {
+            next = dateBoundaries[index];
+        }
+
+        int today = dayKey(calendar);
+        boolean overridden = isOverridden(today);
+        if (weekBoundaries.length > 0 && !overridden) {
+            int minute = minuteOfWeek(calendar);
+            int boundary = ceilingInt(weekBoundaries, minute + 1);
+            int target = boundary < weekBoundaries.length ? weekBoundaries[boundary] : weekBoundaries[0] + WEEK_MINUTES;
+            next = Math.min(next, atMinuteOfWeek(calendar, minute, target));
+        }
+
+        // Override run'ına giriş / çıkış: gün başı
+        int run = floorInt(overrideFirst, today);
+        if (overridden) {
+            next = Math.min(next, startOfDay(overrideLast[run], 1, calendar));
+        } else if (run + 1 < overrideFirst.length) {
+            next = Math.min(next, startOfDay(overrideFirst[run + 1], 0, calendar));
+        }
+
+        // DST: duvar saati sıçrar; offset değişim anı da durum değiştirebilir
+        if (next != Long.MAX_VALUE) {
+            TimeZone zone = calendar.getTimeZone();
+            int offset = zone.getOffset(cursor);
+            if (zone.getOffset(next) != offset) {
+                next = offsetChange(zone, cursor, next, offset);
+            }
+        }
+        return next;
+    }
+
+    /**
+     * First instant in (from, to] whose UTC offset differs from offset (to'da farklı olduğu bilinir)
+     */
+    private static long offsetChange(TimeZone zone, long from, long to, int offset) {
+        long low = from;
+        long high = to;
+        while (high - low > 1) {
+            long middle = low + (high - low) / 2;
+            if (zone.getOffset(middle) == offset) {
+                low = middle;
+            } else {
+                high = middle;
+            }
+        }
+        return high;
+    }
+
+    private boolean isOverridden(int day) {
+        int run = floorInt(overrideFirst, day);
+        return run >= 0 && day <= overrideLast[run];
+    }
+
+    // ============================================================
+    // Merge helpers (compile)
+    // ============================================================
+
+    /**
+     * Sweep overlapping [start, end, mode] intervals into disjoint segments; her segmentte onu kapsayan
+     * en yüksek trackingMode, bitişik aynı mode'lu segmentler birleşir
+     */
+    private static List<long[]> sweep(List<long[]> intervals) {
+        long[][] events = new long[intervals.size() * 2][];
+        for (int i = 0; i < intervals.size(); i++) {
+            long[] interval = intervals.get(i);
+            events[i * 2] = new long[] {interval[0], 1, interval[2]};
+            events[i * 2 + 1] = new long[] {interval[1], -1, interval[2]};
+        }
+        Arrays.sort(events, (a, b) -> Long.compare(a[0], b[0]));
+
+        List<long[]> segments = new ArrayList<>();
+        int[] active = new int[2];
+        long[] open = null;
+        int i = 0;
+        while (i < events.length) {
+            long position = events[i][0];
+            while (i < events.length && events[i][0] == position) {
+                active[events[i][2] > 0 ? 1 : 0] += (int) events[i][1];
+                i++;
+            }
+            int mode = active[1] > 0 ? 1 : (active[0] > 0 ? 0 : OFF);
+            if (open != null && open[2] == mode) {
+                continue;
+            }
+            if (open != null) {
+                open[1] = position;
+                segments.add(open);
+                open = null;
+            }
+            if (mode != OFF) {
+                open = new long[] {position, 0, mode};
+            }
+        }
+        return segments;
+    }
+
+    private static List<int[]> mergeDays(List<int[]> runs) {
+        Collections.sort(runs, (a, b) -> Integer.compare(a[0], b[0]));
+        List<int[]> merged = new ArrayList<>();
+        for (int[] run : runs) {
+            int[] last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+            if (last != null && run[0] <= nextDayKey(last[1])) {
+                last[1] = Math.max(last[1], run[1]);
+            } else {
+                merged.add(run.clone());
+            }
+        }
+        return merged;
+    }
+
+    private static int[] distinct(int[] values) {
+        Arrays.sort(values);
+        int count = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (i == 0 || values[i] != values[count - 1]) {
+                values[count++] = values[i];
+            }
+        }
+        return Arrays.copyOf(values, count);
+    }
+
+    // ============================================================
+    // Calendar helpers
+    // ============================================================
+
+    private static int minuteOfDay(Calendar calendar) {
+        return calendar.get(Calendar.HOUR_OF_DAY) * 60 + calendar.get(Calendar.MINUTE);
+    }
+
+    private static int minuteOfWeek(Calendar calendar) {
+        return (calendar.get(Calendar.DAY_OF_WEEK) - Calendar.SUNDAY) * DAY_MINUTES + minuteOfDay(calendar);
+    }
+
+    private static int dayKey(Calendar calendar) {
+        return calendar.get(Calendar.YEAR) * 10000 + (calendar.get(Calendar.MONTH) + 1) * 100 +
+            calendar.get(Calendar.DAY_OF_MONTH);
+    }
+
+    private static int dayKey(long time) {
+        Calendar calendar = Calendar.getInstance(Locale.US);
+        calendar.setTimeInMillis(time);
+        return dayKey(calendar);
+    }
+
+    private static int nextDayKey(int day) {
+        Calendar calendar = Calendar.getInstance(Locale.US);
+        calendar.clear();
+        calendar.set(day / 10000, (day / 100) % 100 - 1, day % 100);
+        calendar.add(Calendar.DAY_OF_YEAR, 1);
+        return dayKey(calendar);
+    }
+
+    /**
+     * Wall-clock time of target minute-of-week (current: calendar'ın hafta dakikası, target > current)
+     */
+    private static long atMinuteOfWeek(Calendar calendar, int current, int target) {
+        Calendar result = (Calendar) calendar.clone();
+        result.add(Calendar.DAY_OF_YEAR, target / DAY_MINUTES - current / DAY_MINUTES);
+        result.set(Calendar.HOUR_OF_DAY, (target % DAY_MINUTES) / 60);
+        result.set(Calendar.MINUTE, target % 60);
+        result.set(Calendar.SECOND, 0);
+        result.set(Calendar.MILLISECOND, 0);
+        long time = result.getTimeInMillis();
+
+        // Geri alınan saatte tekrar eden duvar saati Calendar'da ikinci (standart) geçişe çözülür;
+        // cursor'dan sonraki ilk geçiş (yaz saati offset'i ile) tercih edilir
+        TimeZone zone = calendar.getTimeZone();
+        long cursor = calendar.getTimeInMillis();
+        int shift = zone.getOffset(cursor) - zone.getOffset(time);
+        if (shift > 0 && time - shift > cursor) {
+            Calendar earlier = (Calendar) calendar.clone();
+            earlier.setTimeInMillis(time - shift);
+            if (earlier.get(Calendar.HOUR_OF_DAY) == result.get(Calendar.HOUR_OF_DAY) &&
+                    earlier.get(Calendar.MINUTE) == result.get(Calendar.MINUTE)) {
+                return time - shift;
+            }
+        }
+        return time;
+    }
+
+    private static long startOfDay(int day, int plusDays, Calendar calendar) {
+        Calendar result = (Calendar) calendar.clone();
+        result.clear();
+        result.set(day / 10000, (day / 100) % 100 - 1, day % 100);
+        result.add(Calendar.DAY_OF_YEAR, plusDays);
+        return result.getTimeInMillis();
+    }
+
+    // ============================================================
+    // Binary search helpers
+    // ============================================================
+
+    // Index of last value <= key (-1: yok)
+    private static int floor(long[] values, long key) {
+        int index = Arrays.binarySearch(values, key);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    private static int floorInt(int[] values, int key) {
+        int index = Arrays.binarySearch(values, key);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    // Index of first value >= key (values.length: yok)
+    private static int ceiling(long[] values, long key) {
+        int index = Arrays.binarySearch(values, key);
+        if (index < 0) {
+            return -index - 1;
+        }
+        while (index > 0 && values[index - 1] == key) {
+            index--;
+        }
+        return index;
+    }
+
+    private static int ceilingInt(int[] values, int key) {
+        int index = Arrays.binarySearch(values, key);
+        return index >= 0 ? index : -index - 1;
+    }
+}
@@ -14,17 +14,18 @@ import com.backgroundlocation.config.Config;
 import com.backgroundlocation.event.ConfigChangeEvent;
 import com.backgroundlocation.logger.Log;
 import com.backgroundlocation.util.LogHelper;
-import org.greenrobot.eventbus.EventBus;
-import org.greenrobot.eventbus.Subscribe;
-import org.greenrobot.eventbus.ThreadMode;
+import com.backgroundlocation.event.EventDispatcher;
+
+import org.json.JSONArray;
+import org.json.JSONException;
 
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Collections;
+import java.util.Date;
 import java.util.List;
 import java.util.Locale;
-import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
@@ -37,18 +38,21 @@ public class TSScheduleManager {
     public static final String ACTION_NAME = "action";
     public static final String ACTION_ONESHOT = "ONESHOT";
     private static final int JOB_ID = 666;
+    private static final long ONESHOT_MIN_WINDOW_MS = 60 * 1000L;
     
     private static TSScheduleManager instance = null;
     private final Context context;
     private final SimpleDateFormat timeFormat = new SimpleDateFormat("HH:mm", Locale.US);
     private final List<Schedule> schedules = new ArrayList<>();
+    // schedules'ın derlenmiş hali (loadSchedules'ta bir kez)
+    private volatile ScheduleTable table;
     private final AtomicBoolean isStarted = new AtomicBoolean(false);
     
     public TSScheduleManager(Context context) {
         this.context = context.getApplicationContext();
-        EventBus eventBus = EventBus.getDefault();
-        if (!eventBus.isRegistered(this)) {
-            eventBus.register(this);
+        EventDispatcher dispatcher = EventDispatcher.getInstance();
+        if (!dispatcher.isSubscribed(this)) {
+            dispatcher.subscribe(this, ConfigChangeEvent.class, EventDispatcher.Delivery.MAIN, this::onConfigChange);
         }
     }
     
@@ -109,6 +113,8 @@ public class TSScheduleManager {
         
         Log.logger.info(Log.info("Cancel OneShot: " + action));
         
+        WakeupScheduler.getInstance(context).cancel(action);
+        
         // Cancel JobScheduler
         JobScheduler jobScheduler = (JobScheduler) context.getSystemService(Context.JOB_SCHEDULER_SERVICE);
         if (jobScheduler != null) {
@@ -142,16 +148,12 @@ public class TSScheduleManager {
         if (config.stopOnTerminate) {
             stop();
         }
-        EventBus eventBus = EventBus.getDefault();
-        if (eventBus.isRegistered(this)) {
-            eventBus.unregister(this);
-        }
+        EventDispatcher.getInstance().unsubscribe(this);
     }
     
     /**
      * Handle config change
      */
-    @Subscribe(threadMode = ThreadMode.MAIN)
     public void onConfigChange(ConfigChangeEvent event) {
         Config config = Config.getInstance(context);
         if (event.isDirty("schedule")) {
@@ -170,8 +172,14 @@ public class TSScheduleManager {
      * One-shot schedule with options
      */
     public void oneShot(String action, long delayMillis, boolean useAlarmManager, boolean exact) {
-        // TODO: Implement one-shot scheduling
-        LogHelper.d("TSScheduleManager", "One-shot: " + action + " delay: " + delayMillis);
+        if (action == null || action.isEmpty()) {
+            return;
+        }
+        // WakeupScheduler: exact değilse delay'in %10'u (en az 1 dakika) pencere; diğer işlerle birleşebilir
+        long earliestAt = System.currentTimeMillis() + Math.max(delayMillis, 0);
+        long window = exact ? 0 : Math.max(delayMillis / 10, ONESHOT_MIN_WINDOW_MS);
+        LogHelper.d("TSScheduleManager", "One-shot: " + action + " delay: " + delayMillis + " window: " + window);
+        WakeupScheduler.getInstance(context).schedule(action, earliestAt, earliestAt + window);
     }
     
     /**
@@ -181,6 +189,7 @@ public class TSScheduleManager {
         Config config = Config.getInstance(this.context);
         synchronized (schedules) {
             schedules.clear();
+            table = null;
         }
         
         if (config.schedulerEnabled) {
@@ -243,7 +252,7 @@ public class TSScheduleManager {
     }
     
     /**
-     * Load schedules from config
+     * Load schedules from config and compile them into the interval table
      */
     private boolean loadSchedules() {
         Config config = Config.getInstance(context);
@@ -251,8 +260,7 @@ public class TSScheduleManager {
             return false;
         }
         
-        String[] scheduleStrings = config.schedule.split(",");
-        for (String scheduleStr : scheduleStrings) {
+        for (String scheduleStr : splitSchedule(config.schedule)) {
             try {
                 schedules.add(new Schedule(scheduleStr.trim()));
             } catch (Exception e) {
@@ -260,90 +268,72 @@ public class TSScheduleManager {
             }
         }
         
-        return !schedules.isEmpty();
+        table = ScheduleTable.compile(schedules);
+        return table != null;
+    }
+    
+    /**
+     * Config.schedule: JSON array (JS'ten gelen string[]) veya comma-separated
+     */
+    private static List<String> splitSchedule(String schedule) {
+        List<String> result = new ArrayList<>();
+        String trimmed = schedule.trim();
+        if (trimmed.startsWith("[")) {
+            try {
+                JSONArray array = new JSONArray(trimmed);
+                for (int i = 0; i < array.length(); i++) {
+                    result.add(array.getString(i));
+                }
+                return result;
+            } catch (JSONException e) {
+                LogHelper.w("TSScheduleManager", "⚠️ Invalid schedule array: " + e.getMessage());
+            }
+        }
+        Collections.addAll(result, trimmed.split(","));
+        return result;
     }
     
     /**
      * Schedule next alarm
+     * Derlenmiş tablodan mevcut durum ve sonraki geçiş (binary search)
      */
     public void scheduleNext(Calendar calendar, Boolean enabled) {
+        ScheduleTable current;
         synchronized (schedules) {
-            if (schedules.isEmpty()) {
+            if (table == null) {
+                schedules.clear();
                 if (!loadSchedules()) {
                     stop();
                     return;
                 }
             }
+            current = table;
         }
         
-        // Check if more than 7 days in future
-        long daysDiff = TimeUnit.MILLISECONDS.toDays(
-            calendar.getTimeInMillis() - Calendar.getInstance().getTimeInMillis()
-        );
-        if (daysDiff >= 7) {
-            Log.logger.warn(Log.warn("Failed to find a schedule. Giving up."));
-            return;
-        }
-        
-        int dayOfWeek = calendar.get(Calendar.DAY_OF_WEEK);
-        Log.logger.debug(Log.info("Day #" + dayOfWeek + ": Searching schedule for alarms..."));
+        long now = calendar.getTimeInMillis();
+        int state = current.stateAt(now);
+        boolean shouldBeEnabled = state != ScheduleTable.OFF;
         
-        Schedule nextSchedule = null;
-        synchronized (schedules) {
-            for (Schedule schedule : schedules) {
-                if (schedule.isNext(calendar)) {
-                    nextSchedule = schedule;
-                    break;
-                }
-            }
+        if (shouldBeEnabled != enabled) {
+            Log.logger.debug(Log.info("Scheduler says we should be " + (shouldBeEnabled ? "ENABLED" : "DISABLED") + " but we are NOT"));
+            scheduleAlarm(shouldBeEnabled, now, shouldBeEnabled ? state : 1);
+            return;
         }
         
-        if (nextSchedule != null) {
-            if (calendar.after(nextSchedule.onTime) && calendar.before(nextSchedule.offTime)) {
-                // Currently in schedule window
-                if (!enabled) {
-                    Log.logger.debug(Log.info("Scheduler says we should be ENABLED but we are NOT"));
-                    scheduleAlarm(Boolean.TRUE, calendar, nextSchedule.trackingMode);
-                } else {
-                    scheduleAlarm(Boolean.FALSE, nextSchedule.offTime, nextSchedule.trackingMode);
-                }
-            } else if (calendar.before(nextSchedule.onTime)) {
-                // Before schedule window
-                if (enabled) {
-                    Log.logger.debug(Log.info("Scheduler says we should be DISABLED but we are NOT"));
-                    scheduleAlarm(Boolean.FALSE, calendar, nextSchedule.trackingMode);
-                } else {
-                    scheduleAlarm(Boolean.TRUE, nextSchedule.onTime, nextSchedule.trackingMode);
-                }
-            } else if (calendar.after(nextSchedule.offTime)) {
-                // After schedule window - check tomorrow
-                Log.logger.debug(Log.info("Scheduler failed to find any alarms today. Checking tomorrow..."));
-                calendar.add(Calendar.DAY_OF_YEAR, 1);
-                calendar.set(Calendar.HOUR_OF_DAY, 0);
-                calendar.set(Calendar.MINUTE, 0);
-                scheduleNext(calendar, enabled);
-            }
-        } else {
-            // No schedule found for today
-            if (enabled) {
-                Log.logger.debug(Log.info("Scheduler says we should be DISABLED but we are NOT"));
-                scheduleAlarm(Boolean.FALSE, calendar, 1);
-            } else {
-                Log.logger.debug(Log.info("Day #" + dayOfWeek + ": Failed to find alarms on this day. Trying tomorrow..."));
-                calendar.add(Calendar.DAY_OF_YEAR, 1);
-                calendar.set(Calendar.HOUR_OF_DAY, 0);
-                calendar.set(Calendar.MINUTE, 0);
-                scheduleNext(calendar, enabled);
-            }
+        ScheduleTable.Transition next = current.nextTransition(now);
+        if (next == null) {
+            Log.logger.warn(Log.warn("Failed to find a schedule. Giving up."));
+            return;
         }
+        Log.logger.debug(Log.info("Next schedule transition: " + (next.enabled ? "ON" : "OFF") + " @ " + new Date(next.at)));
+        scheduleAlarm(next.enabled, next.at, next.trackingMode);
     }
     
     /**
      * Schedule alarm
      */
-    private void scheduleAlarm(Boolean enabled, Calendar time, int trackingMode) {
+    private void scheduleAlarm(Boolean enabled, long triggerAtMillis, int trackingMode) {
         Config config = Config.getInstance(context);
-        long triggerAtMillis = time.getTimeInMillis();
         
         if (config.scheduleUseAlarmManager) {
             // Use AlarmManager
@@ -0,0 +1,25 @@
+package com.backgroundlocation.scheduler;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+
+import com.backgroundlocation.adapter.BackgroundLocationAdapter;
+
+/**
+ * WakeupReceiver
+ * WakeupScheduler alarm'ını alır, vadesi gelen task'ları background thread'de çalıştırır
+ */
+public class WakeupReceiver extends BroadcastReceiver {
+
+    @Override
+    public void onReceive(Context context, Intent intent) {
+        if (intent == null || !WakeupScheduler.ACTION_WAKEUP.equals(intent.getAction())) {
+            return;
+        }
+        // Task'lar bitene kadar process'i ayakta tut
+        final PendingResult result = goAsync();
+        BackgroundLocationAdapter.getThreadPool().execute(() ->
+            WakeupScheduler.getInstance(context).onWakeup(result::finish));
+    }
+}
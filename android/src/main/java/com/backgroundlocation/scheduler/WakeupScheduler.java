@@ -0,0 +1,243 @@
+package com.backgroundlocation.scheduler;
+
+import android.app.AlarmManager;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.content.SharedPreferences;
+import android.os.Build;
+
+import com.backgroundlocation.util.LogHelper;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Wakeup Scheduler
+ * Zamanlanmış arka plan işleri (heartbeat, stop timeout, stopAfterElapsedMinutes, one-shot'lar) için tek alarm.
+ * - Her task bir action ve [earliestAt, latestAt] penceresidir (action başına tek task, yeniden schedule eder)
+ * - Tek bir inexact RTC_WAKEUP alarm kurulur: en erken biten pencere (min latestAt) ve o ana kadar
+ *   başlamış tüm pencerelerin kesişimi. Alarm çaldığında vadesi gelen (earliestAt <= now) tüm task'lar
+ *   aynı wakeup'ta çalışır
+ * - Task tablosu SharedPreferences'ta tutulur; reboot sonrası BootReceiver restore() ile alarmı yeniden kurar
+ *   (reboot sırasında vadesi geçen task'lar hemen çalışır)
+ * - Task'lar ScheduleEvent.onOneShot ile dispatch edilir
+ */
+public class WakeupScheduler {
+
+    private static final String TAG = "WakeupScheduler";
+
+    static final String ACTION_WAKEUP = "WAKEUP";
+    private static final int REQUEST_CODE = 77777;
+    private static final String PREFS_NAME = "BackgroundLocation.wakeups";
+    private static final String KEY_TASKS = "tasks";
+    private static final long HOUR_MS = 60 * 60 * 1000L;
+
+    private static WakeupScheduler instance;
+
+    private final Context context;
+    // action -> {earliestAt, latestAt}
+    private final Map<String, long[]> tasks = new LinkedHashMap<>();
+
+    private long nextWakeupAt = 0;
+
+    // Metrics
+    private volatile long wakeups = 0;
+    private volatile long tasksRun = 0;
+    private volatile long coalesced = 0;
+    private volatile long firstWakeupAt = 0;
+    private volatile long lastWakeupAt = 0;
+
+    private WakeupScheduler(Context context) {
+        this.context = context;
+        load();
+    }
+
+    public static synchronized WakeupScheduler getInstance(Context context) {
+        if (instance == null) {
+            instance = new WakeupScheduler(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /**
+     * Schedule (or replace) task; çalışma anı pencere içinde, diğer task'larla birleştirilebilir
+     */
+    public synchronized void schedule(String action, long earliestAt, long latestAt) {
+        tasks.put(action, new long[] {earliestAt, Math.max(latestAt, earliestAt)});
+        LogHelper.d(TAG, "⏰ Scheduled " + action + " in " + ((earliestAt - System.currentTimeMillis()) / 1000) +
+            "s (window " + ((latestAt - earliestAt) / 1000) + "s)");
+        save();
+        rearm();
+    }
+
+    public synchronized void cancel(String action) {
+        if (tasks.remove(action) != null) {
+            save();
+            rearm();
+        }
+    }
+
+    public synchronized boolean isScheduled(String action) {
+        return tasks.containsKey(action);
+    }
+
+    /**
+     * Re-arm alarm from persisted table (boot / package replaced: alarm'lar silinmiş olur)
+     */
+    public synchronized void restore() {
+        LogHelper.d(TAG, "♻️ Restoring " + tasks.size() + " wakeup task(s)");
+        nextWakeupAt = 0;
+        rearm();
+    }
+
+    /**
+     * Alarm fired: vadesi gelen task'ları tek wakeup'ta çalıştır (WakeupReceiver, background thread)
+     */
+    void onWakeup(Runnable onFinish) {
+        List<String> due = new ArrayList<>();
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            Iterator<Map.Entry<String, long[]>> iterator = tasks.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<String, long[]> entry = iterator.next();
+                if (entry.getValue()[0] <= now) {
+                    due.add(entry.getKey());
+                    iterator.remove();
+                }
+            }
+            if (firstWakeupAt == 0) {
+                firstWakeupAt = now;
+            }
+            lastWakeupAt = now;
+            wakeups++;
+            tasksRun += due.size();
+            coalesced += Math.max(due.size() - 1, 0);
+            nextWakeupAt = 0;
+            save();
+            // Task'lar kendilerini yeniden schedule edebilir (heartbeat); alarm bu arada da kurulu olsun
+            rearm();
+        }
+
+        LogHelper.d(TAG, "⏰ Wakeup: " + due + " (" + due.size() + " task)");
+        for (String action : due) {
+            try {
+                ScheduleEvent.onOneShot(context, action, null);
+            } catch (Exception e) {
+                LogHelper.e(TAG, "❌ Wakeup task failed: " + action + ": " + e.getMessage(), e);
+            }
+        }
+        onFinish.run();
+    }
+
+    /**
+     * Single alarm for the earliest-closing window, opened as late as every started window allows
+     */
+    private void rearm() {
+        AlarmManager alarmManager = (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
+        if (alarmManager == null) {
+            LogHelper.e(TAG, "AlarmManager is null");
+            return;
+        }
+        if (tasks.isEmpty()) {
+            alarmManager.cancel(getPendingIntent());
+            nextWakeupAt = 0;
+            return;
+        }
+
+        long latest = Long.MAX_VALUE;
+        for (long[] window : tasks.values()) {
+            latest = Math.min(latest, window[1]);
+        }
+        long earliest = 0;
+        for (long[] window : tasks.values()) {
+            if (window[0] <= latest) {
+                earliest = Math.max(earliest, window[0]);
+            }
+        }
+        if (earliest == nextWakeupAt) {
+            return;
+        }
+        nextWakeupAt = earliest;
+
+        PendingIntent pendingIntent = getPendingIntent();
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT) {
+            alarmManager.setWindow(AlarmManager.RTC_WAKEUP, earliest, latest - earliest, pendingIntent);
+        } else {
+            alarmManager.set(AlarmManager.RTC_WAKEUP, earliest, pendingIntent);
+        }
+    }
+
+    private PendingIntent getPendingIntent() {
+        Intent intent = new Intent(context, WakeupReceiver.class);
+        intent.setAction(ACTION_WAKEUP);
+        int flags = PendingIntent.FLAG_UPDATE_CURRENT;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+            flags |= PendingIntent.FLAG_IMMUTABLE;
+        }
+        return PendingIntent.getBroadcast(context, REQUEST_CODE, intent, flags);
+    }
+
+    private void load() {
+        SharedPreferences prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        String json = prefs.getString(KEY_TASKS, null);
+        if (json == null) {
+            return;
+        }
+        try {
+            JSONObject table = new JSONObject(json);
+            Iterator<String> actions = table.keys();
+            while (actions.hasNext()) {
+                String action = actions.next();
+                JSONObject window = table.getJSONObject(action);
+                tasks.put(action, new long[] {window.getLong("earliestAt"), window.getLong("latestAt")});
+            }
+        } catch (JSONException e) {
+            LogHelper.w(TAG, "⚠️ Failed to load wakeup tasks: " + e.getMessage());
+        }
+    }
+
+    private void save() {
+        JSONObject table = new JSONObject();
+        try {
+            for (Map.Entry<String, long[]> entry : tasks.entrySet()) {
+                JSONObject window = new JSONObject();
+                window.put("earliestAt", entry.getValue()[0]);
+                window.put("latestAt", entry.getValue()[1]);
+                table.put(entry.getKey(), window);
+            }
+        } catch (JSONException e) {
+            LogHelper.w(TAG, "⚠️ Failed to save wakeup tasks: " + e.getMessage());
+            return;
+        }
+        context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE)
+            .edit()
+            .putString(KEY_TASKS, table.toString())
+            .apply();
+    }
+
+    /**
+     * Wakeup statistics (wakeupsPerHour: ilk wakeup'tan bu yana ortalama)
+     */
+    public synchronized JSONObject getMetrics() {
+        JSONObject json = new JSONObject();
+        try {
+            long elapsed = lastWakeupAt - firstWakeupAt;
+            json.put("wakeups", wakeups);
+            json.put("tasksRun", tasksRun);
+            json.put("coalesced", coalesced);
+            json.put("pending", tasks.size());
+            json.put("nextWakeupAt", nextWakeupAt);
+            json.put("wakeupsPerHour", wakeups > 1 && elapsed > 0 ? (double) (wakeups - 1) * HOUR_MS / elapsed : 0);
+        } catch (JSONException e) {
+            LogHelper.w(TAG, "Failed to build metrics: " + e.getMessage());
+        }
+        return json;
+    }
+}
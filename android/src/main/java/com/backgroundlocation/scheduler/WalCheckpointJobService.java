@@ -0,0 +1,113 @@
+package com.backgroundlocation.scheduler;
+
+import android.app.job.JobInfo;
+import android.app.job.JobParameters;
+import android.app.job.JobScheduler;
+import android.app.job.JobService;
+import android.content.ComponentName;
+import android.content.Context;
+
+import com.backgroundlocation.data.sqlite.LocationOpenHelper;
+import com.backgroundlocation.data.sqlite.RetentionManager;
+import com.backgroundlocation.service.SyncService;
+import com.backgroundlocation.util.LogHelper;
+import com.backgroundlocation.util.ThreadPools;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * WalCheckpointJobService
+ * WAL dosyasını cihaz şarjdayken veya idle iken ana DB'ye checkpoint eder.
+ * Aynı pencerede retention (maxDaysToPersist / maxRecordsToPersist) tam olarak uygulanır.
+ * JobInfo constraint'leri AND'lendiği için iki ayrı periyodik job kullanılır (charging / idle).
+ */
+public class WalCheckpointJobService extends JobService {
+
+    private static final String TAG = "WalCheckpointJobService";
+
+    private static final int JOB_ID_CHARGING = 0x57414c01;
+    private static final int JOB_ID_IDLE = 0x57414c02;
+    private static final long PERIOD_MS = 6 * 60 * 60 * 1000L; // 6 saat
+
+    private static final AtomicBoolean scheduled = new AtomicBoolean(false);
+
+    /**
+     * Schedule checkpoint jobs (idempotent, mevcut job'ların zamanlayıcısını sıfırlamaz)
+     */
+    public static void schedule(Context context) {
+        if (!scheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            JobScheduler scheduler = (JobScheduler) context.getSystemService(Context.JOB_SCHEDULER_SERVICE);
+            if (scheduler == null) {
+                return;
+            }
+            boolean hasCharging = false;
+            boolean hasIdle = false;
+            for (JobInfo job : scheduler.getAllPendingJobs()) {
+                if (job.getId() == JOB_ID_CHARGING) hasCharging = true;
+                if (job.getId() == JOB_ID_IDLE) hasIdle = true;
+            }
+            ComponentName component = new ComponentName(context, WalCheckpointJobService.class);
+            if (!hasCharging) {
+                scheduler.schedule(new JobInfo.Builder(JOB_ID_CHARGING, component)
+                    .setRequiresCharging(true)
+                    .setPeriodic(PERIOD_MS)
+                    .setPersisted(false)
+                    .build());
+            }
+            if (!hasIdle) {
+                scheduler.schedule(new JobInfo.Builder(JOB_ID_IDLE, component)
+                    .setRequiresDeviceIdle(true)
+                    .setPeriodic(PERIOD_MS)
+                    .setPersisted(false)
+                    .build());
+            }
+            LogHelper.d(TAG, "✅ WAL checkpoint jobs scheduled");
+        } catch (Exception e) {
+            scheduled.set(false);
+            LogHelper.w(TAG, "Failed to schedule WAL checkpoint: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean onStartJob(JobParameters params) {
+        // Sync sırasında checkpoint reader/writer ile yarışır; bir sonraki pencereye bırak
+        if (SyncService.isSyncing()) {
+            LogHelper.d(TAG, "⏸️ Sync in progress, skipping WAL checkpoint");
+            return false;
+        }
+        // Writer thread'de: insert'lerle sıralı çalışır
+        Future<?> future;
+        try {
+            future = ThreadPools.db().submit(() -> {
+                try {
+                    RetentionManager.getInstance(getApplicationContext()).prune();
+                    // Busy ise periyodik job bir sonraki pencerede tekrar dener
+                    LocationOpenHelper.getInstance(getApplicationContext()).checkpoint();
+                } catch (Exception e) {
+                    LogHelper.e(TAG, "❌ WAL checkpoint failed: " + e.getMessage(), e);
+                } finally {
+                    jobFinished(params, false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            LogHelper.w(TAG, "⚠️ WAL checkpoint rejected: " + e.getMessage());
+            return false;
+        }
+        // db pool doluysa task düşürülür (Future iptal edilir): job'u açık bırakma
+        if (future.isCancelled()) {
+            LogHelper.w(TAG, "⚠️ WAL checkpoint dropped, db queue full");
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public boolean onStopJob(JobParameters params) {
+        return false;
+    }
+}
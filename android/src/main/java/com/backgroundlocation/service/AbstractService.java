@@ -263,7 +263,7 @@ public abstract class AbstractService extends Service {
                 onCreateTime = -1;
             }
             
-            Notification notification = ForegroundNotification.build(getApplicationContext());
+            Notification notification = ForegroundNotification.build(getApplicationContext(), ForegroundNotification.NOTIFICATION_ID);
             if (Build.VERSION.SDK_INT >= 34) {
                 startForeground(ForegroundNotification.NOTIFICATION_ID, notification, -1);
             } else {
@@ -12,6 +12,8 @@ import com.backgroundlocation.config.Config;
 import com.backgroundlocation.util.LogHelper;
 import com.backgroundlocation.event.ActivityChangeEvent;
 import com.backgroundlocation.event.MotionChangeEvent;
+import com.backgroundlocation.event.EventDispatcher;
+import com.backgroundlocation.location.MotionPolicyEngine;
 import com.google.android.gms.common.api.ApiException;
 import com.google.android.gms.location.ActivityRecognition;
 import com.google.android.gms.location.ActivityRecognitionClient;
@@ -22,7 +24,6 @@ import com.google.android.gms.location.ActivityTransitionRequest;
 import com.google.android.gms.location.ActivityTransitionResult;
 import com.google.android.gms.location.DetectedActivity;
 
-import org.greenrobot.eventbus.EventBus;
 import org.json.JSONException;
 import org.json.JSONObject;
 
@@ -39,9 +40,10 @@ import java.util.concurrent.atomic.AtomicBoolean;
 public class ActivityRecognitionService extends Service {
     
     private static final String TAG = "ActivityRecognitionService";
+    private static final int MIN_POLICY_CONFIDENCE = 75;
     private static final AtomicBoolean isStarted = new AtomicBoolean(false);
     private static final AtomicBoolean motionTriggerDelay = new AtomicBoolean(false);
-    private static ActivityTransitionEvent lastActivity = new ActivityTransitionEvent(DetectedActivity.STILL, ActivityTransition.ACTIVITY_TRANSITION_ENTER, 0);
+    private static volatile ActivityTransitionEvent lastActivity = new ActivityTransitionEvent(DetectedActivity.STILL, ActivityTransition.ACTIVITY_TRANSITION_ENTER, 0);
     
     private Config config;
     private ActivityRecognitionClient activityRecognitionClient;
@@ -104,10 +106,15 @@ public class ActivityRecognitionService extends Service {
                 (transitionType == ActivityTransition.ACTIVITY_TRANSITION_ENTER ? "ENTER" : "EXIT") + 
                 " - " + activityName);
             
+            // Motion policy: yalnızca ENTER yeni durumu bildirir
+            if (transitionType == ActivityTransition.ACTIVITY_TRANSITION_ENTER) {
+                MotionPolicyEngine.getInstance().onActivity(activityName);
+            }
+            
             // Emit ActivityChangeEvent
             try {
                 ActivityChangeEvent activityEvent = new ActivityChangeEvent(activityName, 100);
-                EventBus.getDefault().post(activityEvent);
+                EventDispatcher.getInstance().post(activityEvent);
             } catch (Exception e) {
                 LogHelper.e(TAG, "Error emitting ActivityChangeEvent: " + e.getMessage(), e);
             }
@@ -128,7 +135,7 @@ public class ActivityRecognitionService extends Service {
                     locationJson.put("activity", activityName);
                     
                     MotionChangeEvent motionEvent = new MotionChangeEvent(isMoving, locationJson);
-                    EventBus.getDefault().post(motionEvent);
+                    EventDispatcher.getInstance().post(motionEvent);
                 } catch (JSONException e) {
                     LogHelper.e(TAG, "Error creating MotionChangeEvent: " + e.getMessage(), e);
                 }
@@ -155,10 +162,14 @@ public class ActivityRecognitionService extends Service {
         
         LogHelper.d(getApplicationContext(), TAG, "Activity Recognition: " + activityName + " (confidence: " + confidence + ")");
         
+        if (confidence >= MIN_POLICY_CONFIDENCE) {
+            MotionPolicyEngine.getInstance().onActivity(activityName);
+        }
+        
         // Emit ActivityChangeEvent
         try {
             ActivityChangeEvent activityEvent = new ActivityChangeEvent(activityName, confidence);
-            EventBus.getDefault().post(activityEvent);
+            EventDispatcher.getInstance().post(activityEvent);
         } catch (Exception e) {
             LogHelper.e(TAG, "Error emitting ActivityChangeEvent: " + e.getMessage(), e);
         }
@@ -373,7 +384,12 @@ public class ActivityRecognitionService extends Service {
      */
     public static boolean isMoving(Context context) {
         Config config = Config.getInstance(context);
-        int activityType = lastActivity.getActivityType();
+        ActivityTransitionEvent activity = lastActivity;
+        if (activity == null) {
+            // Henüz activity transition gelmedi: config'teki hareket durumu
+            return config.isMoving;
+        }
+        int activityType = activity.getActivityType();
         
         return activityType == DetectedActivity.IN_VEHICLE ||
                activityType == DetectedActivity.ON_BICYCLE ||
@@ -7,10 +7,11 @@ import android.net.NetworkCapabilities;
 import android.net.NetworkRequest;
 import android.util.Log;
 
+import com.backgroundlocation.adapter.BackgroundLocationAdapter;
 import com.backgroundlocation.config.Config;
 import com.backgroundlocation.event.ConnectivityChangeEvent;
+import com.backgroundlocation.event.EventDispatcher;
 
-import org.greenrobot.eventbus.EventBus;
 
 /**
  * Connectivity Monitor
@@ -121,11 +122,10 @@ public class ConnectivityMonitor {
             // CRITICAL: Only sync if tracking is enabled
             if (actuallyConnected && config.enabled && config.autoSync && !config.url.isEmpty()) {
                 // Delay 1 second before syncing
-                new android.os.Handler(android.os.Looper.getMainLooper())
-                    .postDelayed(() -> {
-                        Log.d(TAG, "🔄 Network available, triggering auto sync...");
-                        SyncService.sync(context);
-                    }, 1000);
+                BackgroundLocationAdapter.getUiHandler().postDelayed(() -> {
+                    Log.d(TAG, "🔄 Network available, triggering auto sync...");
+                    SyncService.autoSync(context);
+                }, 1000);
             } else if (actuallyConnected && !config.enabled) {
                 Log.d(TAG, "⏸️ Tracking not enabled, skipping sync");
             }
@@ -134,10 +134,10 @@ public class ConnectivityMonitor {
     
     /**
      * Emit connectivity event to React Native
-     * direct EventBus
+     * direct dispatch
      */
     private void emitConnectivityEvent(boolean connected) {
-        EventBus.getDefault().post(new ConnectivityChangeEvent(connected));
+        EventDispatcher.getInstance().post(new ConnectivityChangeEvent(connected));
     }
     
     /**
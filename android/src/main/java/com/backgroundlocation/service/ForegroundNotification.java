@@ -13,27 +13,106 @@ import android.graphics.Color;
 import android.media.AudioAttributes;
 import android.net.Uri;
 import android.os.Build;
+import android.service.notification.StatusBarNotification;
 import androidx.core.app.NotificationCompat;
 import com.backgroundlocation.Constants;
+import com.backgroundlocation.adapter.BackgroundLocationAdapter;
 import com.backgroundlocation.config.Config;
 import com.backgroundlocation.service.AbstractService;
 import com.backgroundlocation.util.LogHelper;
 
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * ForegroundNotification
  * Foreground service notification yönetimi
+ *
+ * Cache:
+ * - NotificationCompat.Builder, uygulama label'ı ve parse edilmiş renk bir kez oluşturulur; build()
+ *   içerik (channel, title, text, color, priority, when) değişmediyse aynı Notification'ı döner,
+ *   değiştiyse builder'da yalnızca değişen alanlar set edilir
+ * - Channel her channelId için bir kez oluşturulur / kontrol edilir
+ * - update(): setConfig sonrası; notify edilmiş içerikle aynıysa NotificationManager'a gitmez,
+ *   MIN_UPDATE_INTERVAL_MS'den sık değişiklikler tek trailing update'e birleşir
  */
 public class ForegroundNotification {
     
     public static final String NOTIFICATION_ACTION = Constants.ACTION_NOTIFICATION_ACTION;
     public static final int NOTIFICATION_ID = 9942585;
+    private static final String TAG = "ForegroundNotification";
     private static final String DEFAULT_LAYOUT = "default";
     private static final String NOTIFICATION_BUTTON_PAUSE = "notificationButtonPause";
+    private static final long MIN_UPDATE_INTERVAL_MS = 1000;
     private static final AtomicLong notificationTime = new AtomicLong(0);
     
+    private static final Object lock = new Object();
+    
+    // Cached builder ve resolved resource'lar
+    private static NotificationCompat.Builder builder;
+    private static Content content;
+    private static Notification notification;
+    private static String appLabel;
+    private static String colorSource;
+    private static Integer colorValue;
+    private static String ensuredChannelId;
+    
+    // Foreground notification id'leri ve son notify edilen içerik
+    private static final Set<Integer> foregroundIds = new LinkedHashSet<>();
+    private static Content notifiedContent;
+    private static long lastNotifyAt = 0;
+    private static boolean updatePending = false;
+    
+    // Metrics
+    private static volatile long builds = 0;
+    private static volatile long notifies = 0;
+    private static volatile long skipped = 0;
+    private static volatile long deferred = 0;
+    
+    /**
+     * Notification content (builder'a uygulanan alanlar)
+     */
+    private static final class Content {
+        final String channelId;
+        final String title;
+        final String text;
+        final Integer color;
+        final int priority;
+        final long when;
+        
+        Content(String channelId, String title, String text, Integer color, int priority, long when) {
+            this.channelId = channelId;
+            this.title = title;
+            this.text = text;
+            this.color = color;
+            this.priority = priority;
+            this.when = when;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Content)) return false;
+            Content other = (Content) o;
+            return priority == other.priority && when == other.when &&
+                Objects.equals(channelId, other.channelId) && Objects.equals(title, other.title) &&
+                Objects.equals(text, other.text) && Objects.equals(color, other.color);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(channelId, title, text, color, priority, when);
+        }
+    }
+    
     /**
      * Set notification time
      */
@@ -42,91 +121,207 @@ public class ForegroundNotification {
     }
     
     /**
-     * Build notification
+     * Build notification (içerik değişmediyse cached Notification)
      */
     public static Notification build(Context context) {
-        NotificationCompat.Builder builder = buildBaseNotification(context);
-        builder.setOnlyAlertOnce(true);
-        builder.setSound((Uri) null);
-        
-        if (notificationTime.get() > 0) {
-            builder.setWhen(notificationTime.get());
+        synchronized (lock) {
+            Content next = resolveContent(context);
+            if (notification != null && next.equals(content)) {
+                return notification;
+            }
+            createNotificationChannel(context, false);
+            apply(context, next);
+            notification = builder.build();
+            notification.flags |= Notification.FLAG_ONGOING_EVENT | Notification.FLAG_NO_CLEAR;
+            content = next;
+            builds++;
+            return notification;
         }
-        
-        if (Config.isLoaded()) {
-            Config config = Config.getInstance(context);
-            builder.setPriority(getPriorityFromConfig(config.priority));
-            applyNotificationConfig(context, builder, config);
-        } else {
-            applyDefaultNotification(context, builder);
+    }
+    
+    /**
+     * Build notification posted via startForeground(notificationId); update() bu id'yi günceller
+     */
+    public static Notification build(Context context, int notificationId) {
+        synchronized (lock) {
+            Notification result = build(context);
+            foregroundIds.add(notificationId);
+            notifiedContent = content;
+            return result;
         }
-        
-        Notification notification = builder.build();
-        notification.flags |= Notification.FLAG_ONGOING_EVENT | Notification.FLAG_NO_CLEAR;
-        return notification;
     }
     
     /**
-     * Build base notification
+     * Re-post foreground notification if its content changed (rate-limited, diffed)
      */
-    private static NotificationCompat.Builder buildBaseNotification(Context context) {
-        String channelId = getChannelId(context);
-        createNotificationChannel(context, false);
-        return new NotificationCompat.Builder(context, channelId);
+    public static void update(Context context) {
+        Context appContext = context.getApplicationContext();
+        synchronized (lock) {
+            if (foregroundIds.isEmpty()) {
+                return;
+            }
+            long wait = lastNotifyAt + MIN_UPDATE_INTERVAL_MS - System.currentTimeMillis();
+            if (wait > 0) {
+                if (!updatePending) {
+                    updatePending = true;
+                    deferred++;
+                    BackgroundLocationAdapter.getUiHandler().postDelayed(() -> {
+                        synchronized (lock) {
+                            updatePending = false;
+                        }
+                        update(appContext);
+                    }, wait);
+                }
+                return;
+            }
+            
+            Notification next = build(appContext);
+            if (content.equals(notifiedContent)) {
+                skipped++;
+                return;
+            }
+            
+            NotificationManager notificationManager = (NotificationManager) appContext.getSystemService(Context.NOTIFICATION_SERVICE);
+            if (notificationManager == null) {
+                return;
+            }
+            for (int id : activeForegroundIds(notificationManager)) {
+                notificationManager.notify(id, next);
+            }
+            notifiedContent = content;
+            lastNotifyAt = System.currentTimeMillis();
+            notifies++;
+        }
     }
     
     /**
-     * Apply notification config
+     * Foreground ids still showing (servis durduysa notification'ı yeniden yaratma)
      */
-    private static void applyNotificationConfig(Context context, NotificationCompat.Builder builder, Config config) {
-        ApplicationInfo appInfo = context.getApplicationInfo();
-        
+    private static List<Integer> activeForegroundIds(NotificationManager notificationManager) {
+        List<Integer> ids = new ArrayList<>();
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+            for (StatusBarNotification active : notificationManager.getActiveNotifications()) {
+                if (foregroundIds.contains(active.getId())) {
+                    ids.add(active.getId());
+                }
+            }
+        } else if (AbstractService.isAnyServiceActive()) {
+            ids.addAll(foregroundIds);
+        }
+        return ids;
+    }
+    
+    /**
+     * Resolve content from config (yalnızca field okuma; label / renk cache'lenir)
+     */
+    private static Content resolveContent(Context context) {
+        String channelId = getChannelId(context);
+        if (!Config.isLoaded()) {
+            return new Content(channelId, getAppLabel(context), null, null,
+                NotificationCompat.PRIORITY_DEFAULT, notificationTime.get());
+        }
+        Config config = Config.getInstance(context);
         // Orijinal Transistorsoft field isimleri (title, text, color, smallIcon, largeIcon, priority)
         String title = config.title;
         if (title == null || title.isEmpty()) {
-            int labelRes = appInfo.labelRes;
-            title = labelRes == 0 ? appInfo.nonLocalizedLabel.toString() : context.getString(labelRes);
+            title = getAppLabel(context);
+        }
+        return new Content(channelId, title, config.text, getColor(config.color),
+            getPriorityFromConfig(config.priority), notificationTime.get());
+    }
+    
+    /**
+     * Apply changed content fields to cached builder
+     */
+    private static void apply(Context context, Content next) {
+        Content previous = content;
+        if (builder == null) {
+            builder = new NotificationCompat.Builder(context.getApplicationContext(), next.channelId);
+            builder.setOnlyAlertOnce(true);
+            builder.setSound((Uri) null);
+            builder.setSmallIcon(android.R.drawable.ic_menu_mylocation);
+            previous = null;
         }
         
-        builder.setContentTitle(title);
-        builder.setContentText(config.text);
-        builder.setStyle(new NotificationCompat.BigTextStyle().bigText(config.text));
-        builder.setSmallIcon(android.R.drawable.ic_menu_mylocation);
+        if (previous == null || !Objects.equals(previous.channelId, next.channelId)) {
+            builder.setChannelId(next.channelId);
+        }
+        if (previous == null || !Objects.equals(previous.title, next.title)) {
+            builder.setContentTitle(next.title);
+        }
+        if (previous == null || !Objects.equals(previous.text, next.text)) {
+            builder.setContentText(next.text);
+            builder.setStyle(next.text != null ? new NotificationCompat.BigTextStyle().bigText(next.text) : null);
+        }
+        if (previous == null || !Objects.equals(previous.color, next.color)) {
+            builder.setColor(next.color != null ? next.color : NotificationCompat.COLOR_DEFAULT);
+        }
+        if (previous == null || previous.priority != next.priority) {
+            builder.setPriority(next.priority);
+        }
+        if (next.when > 0 && (previous == null || previous.when != next.when)) {
+            builder.setWhen(next.when);
+        }
         
-        // Set color
-        if (config.color != null && !config.color.isEmpty()) {
+        // Set large icon if available
+        // TODO: Implement large icon support
+    }
+    
+    private static String getAppLabel(Context context) {
+        if (appLabel == null) {
+            ApplicationInfo appInfo = context.getApplicationInfo();
+            int labelRes = appInfo.labelRes;
+            appLabel = labelRes == 0 ? appInfo.nonLocalizedLabel.toString() : context.getString(labelRes);
+        }
+        return appLabel;
+    }
+    
+    private static Integer getColor(String color) {
+        if (color == null || color.isEmpty()) {
+            return null;
+        }
+        if (!color.equals(colorSource)) {
+            colorSource = color;
             try {
-                builder.setColor(Color.parseColor(config.color));
+                colorValue = Color.parseColor(color);
             } catch (Exception e) {
-                LogHelper.w("ForegroundNotification", "Invalid color: " + config.color);
+                LogHelper.w(TAG, "Invalid color: " + color);
+                colorValue = null;
             }
         }
-        
-        // Set large icon if available
-        // TODO: Implement large icon support
+        return colorValue;
     }
     
     /**
-     * Apply default notification
+     * Notification build / notify statistics
      */
-    private static void applyDefaultNotification(Context context, NotificationCompat.Builder builder) {
-        ApplicationInfo appInfo = context.getApplicationInfo();
-        int labelRes = appInfo.labelRes;
-        String title = labelRes == 0 ? appInfo.nonLocalizedLabel.toString() : context.getString(labelRes);
-        builder.setContentTitle(title);
-        builder.setSmallIcon(android.R.drawable.ic_menu_mylocation);
+    public static JSONObject getMetrics() {
+        JSONObject json = new JSONObject();
+        try {
+            json.put("builds", builds);
+            json.put("notifies", notifies);
+            json.put("skipped", skipped);
+            json.put("deferred", deferred);
+        } catch (JSONException e) {
+            LogHelper.w(TAG, "Failed to build metrics: " + e.getMessage());
+        }
+        return json;
     }
     
     /**
      * Create notification channel
      */
     public static void createNotificationChannel(Context context, boolean force) {
+        String channelId = getChannelId(context);
+        if (!force && channelId.equals(ensuredChannelId)) {
+            return;
+        }
+        
         NotificationManager notificationManager = (NotificationManager) context.getSystemService(Context.NOTIFICATION_SERVICE);
         if (notificationManager == null) {
             return;
         }
         
-        String channelId = getChannelId(context);
         String channelName = getChannelName(context);
         
         if (Config.isLoaded()) {
@@ -155,6 +350,7 @@ public class ForegroundNotification {
                 notificationManager.createNotificationChannel(channel);
             }
         }
+        ensuredChannelId = channelId;
     }
     
     /**
@@ -208,12 +404,8 @@ public class ForegroundNotification {
      * Update channel ID
      */
     public static void onUpdateChannelId(Context context) {
-        NotificationManager notificationManager = (NotificationManager) context.getSystemService(Context.NOTIFICATION_SERVICE);
         createNotificationChannel(context, false);
-        
-        if (AbstractService.isAnyServiceActive()) {
-            notificationManager.notify(NOTIFICATION_ID, build(context));
-        }
+        update(context);
     }
     
     /**
@@ -12,15 +12,17 @@ import android.util.Log;
 import com.backgroundlocation.config.Config;
 import com.backgroundlocation.util.LogHelper;
 import com.backgroundlocation.data.LocationModel;
+import com.backgroundlocation.data.sqlite.SQLiteLocationDAO;
 import com.backgroundlocation.event.HeartbeatEvent;
 import com.backgroundlocation.receiver.HeartbeatReceiver;
+import com.backgroundlocation.scheduler.WakeupScheduler;
 import com.backgroundlocation.service.SyncService;
+import com.backgroundlocation.event.EventDispatcher;
 import com.google.android.gms.location.FusedLocationProviderClient;
 import com.google.android.gms.location.LocationServices;
 import com.google.android.gms.tasks.OnFailureListener;
 import com.google.android.gms.tasks.OnSuccessListener;
 
-import org.greenrobot.eventbus.EventBus;
 import org.json.JSONException;
 import org.json.JSONObject;
 
@@ -28,6 +30,13 @@ import org.json.JSONObject;
  * Heartbeat Service
  * Periyodik location gönderimi servisi
  *  HeartbeatService
+ *
+ * Wakeup azaltma:
+ * - Heartbeat interval grid'ine (epoch'tan itibaren interval katları) hizalanır ve interval'in
+ *   WINDOW_RATIO'su kadar pencere ile WakeupScheduler'a verilir; pencereleri çakışan diğer
+ *   zamanlanmış işlerle (stop timeout, stopAfterElapsedMinutes) tek wakeup'ta çalışır
+ * - Son interval içinde LocationService bir fix kaydettiyse getLastLocation ve sync atlanır,
+ *   heartbeat event o fix ile gönderilir (LocationService zaten autoSync kararını verdi)
  */
 public class HeartbeatService {
     
@@ -35,6 +44,20 @@ public class HeartbeatService {
     public static final String ACTION = "HEARTBEAT";
     private static final int REQUEST_CODE = 88888;
     
+    private static final double WINDOW_RATIO = 0.25;
+    private static final long MIN_WINDOW_MS = 60 * 1000L;
+    private static final long HOUR_MS = 60 * 60 * 1000L;
+    
+    // LocationService'in kaydettiği son fix
+    private static volatile LocationModel lastRecorded;
+    private static volatile long lastRecordedAt = 0;
+    
+    // Metrics
+    private static volatile long wakeups = 0;
+    private static volatile long skipped = 0;
+    private static volatile long firstWakeupAt = 0;
+    private static volatile long lastWakeupAt = 0;
+    
     /**
      * Start heartbeat service
      *  TSScheduleManager.oneShot
@@ -66,57 +89,35 @@ public class HeartbeatService {
     }
     
     /**
-     * Schedule heartbeat using AlarmManager
-     *  AlarmManager.setExact
+     * Record fix persisted by LocationService (db thread)
+     */
+    public static void onLocationRecorded(LocationModel location) {
+        lastRecorded = location;
+        lastRecordedAt = System.currentTimeMillis();
+    }
+    
+    /**
+     * Schedule heartbeat via WakeupScheduler (inexact window, interval grid'ine hizalı)
      */
     private static void scheduleHeartbeat(Context context, long delayMillis) {
-        AlarmManager alarmManager = (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
-        if (alarmManager == null) {
-            LogHelper.e(TAG, "AlarmManager is null");
-            return;
-        }
-        
-        Intent intent = new Intent(context, HeartbeatReceiver.class);
-        intent.setAction(ACTION);
-        
-        int flags = PendingIntent.FLAG_UPDATE_CURRENT;
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.S) {
-            flags |= PendingIntent.FLAG_IMMUTABLE;
-        }
-        
-        PendingIntent pendingIntent = PendingIntent.getBroadcast(
-            context,
-            REQUEST_CODE,
-            intent,
-            flags
-        );
+        // Bir sonraki grid noktası (en az delayMillis / 2 sonra): tüm heartbeat'ler aynı fazda,
+        // pencereleri çakışan diğer zamanlanmış işlerle tek wakeup'ta çalışır
+        long now = System.currentTimeMillis();
+        long triggerAtMillis = ((now + delayMillis / 2) / delayMillis + 1) * delayMillis;
+        long windowMillis = Math.max((long) (delayMillis * WINDOW_RATIO), MIN_WINDOW_MS);
         
-        long triggerAtMillis = System.currentTimeMillis() + delayMillis;
+        WakeupScheduler.getInstance(context).schedule(ACTION, triggerAtMillis, triggerAtMillis + windowMillis);
         
-        // Exact alarm kullanmıyoruz - sadece setWindow kullanıyoruz
-        // Bu izin gerektirmez ve daha güvenilir çalışır
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
-            alarmManager.setWindow(
-                AlarmManager.RTC_WAKEUP,
-                triggerAtMillis,
-                60000, // Allow 1 minute window
-                pendingIntent
-            );
-        } else {
-            alarmManager.set(
-                AlarmManager.RTC_WAKEUP,
-                triggerAtMillis,
-                pendingIntent
-            );
-        }
-        
-        LogHelper.d(TAG, "✅ Heartbeat scheduled (inexact): " + (delayMillis / 1000) + "s");
+        LogHelper.d(TAG, "✅ Heartbeat scheduled (inexact): " + ((triggerAtMillis - now) / 1000) + "s, window " + (windowMillis / 1000) + "s");
     }
     
     /**
      * Cancel heartbeat
      */
     private static void cancelHeartbeat(Context context) {
+        WakeupScheduler.getInstance(context).cancel(ACTION);
+        
+        // Eski sürümden kalmış HeartbeatReceiver alarm'ı
         AlarmManager alarmManager = (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
         if (alarmManager == null) {
             return;
@@ -155,10 +156,26 @@ public class HeartbeatService {
         }
         
         LogHelper.d(TAG, "❤️ Heartbeat triggered");
+        recordWakeup();
         
         // Schedule next heartbeat
         scheduleHeartbeat(context, interval * 1000L);
         
+        // Son interval içinde fix kaydedildiyse location / sync işi gereksiz
+        LocationModel recent = lastRecorded;
+        if (recent != null && System.currentTimeMillis() - lastRecordedAt < interval * 1000L) {
+            skipped++;
+            LogHelper.d(TAG, "⏭️ Recent fix recorded " + ((System.currentTimeMillis() - lastRecordedAt) / 1000) + "s ago, skipping getLastLocation / sync");
+            try {
+                JSONObject locationJson = recent.toJSON();
+                locationJson.put("event", "heartbeat");
+                EventDispatcher.getInstance().post(new HeartbeatEvent(locationJson));
+            } catch (JSONException e) {
+                LogHelper.e(TAG, "Error creating heartbeat event: " + e.getMessage(), e);
+            }
+            return;
+        }
+        
         // Get last location
         FusedLocationProviderClient fusedLocationClient = 
             LocationServices.getFusedLocationProviderClient(context);
@@ -185,11 +202,12 @@ public class HeartbeatService {
                         HeartbeatEvent heartbeatEvent = new HeartbeatEvent(locationJson);
                         
                         // Emit event
-                        EventBus.getDefault().post(heartbeatEvent);
+                        EventDispatcher.getInstance().post(heartbeatEvent);
                         
-                        // Auto-sync if enabled
-                        if (config.autoSync && !config.url.isEmpty()) {
-                            SyncService.sync(context);
+                        // Auto-sync if enabled (bekleyen kayıt yoksa sync wakeup'ı gereksiz; cached counter)
+                        if (config.autoSync && !config.url.isEmpty() &&
+                                SQLiteLocationDAO.getInstance(context).count(true) > 0) {
+                            SyncService.autoSync(context);
                         }
                     } catch (JSONException e) {
                         LogHelper.e(TAG, "Error creating heartbeat event: " + e.getMessage(), e);
@@ -204,6 +222,33 @@ public class HeartbeatService {
             });
     }
     
+    private static void recordWakeup() {
+        long now = System.currentTimeMillis();
+        if (firstWakeupAt == 0) {
+            firstWakeupAt = now;
+        }
+        lastWakeupAt = now;
+        wakeups++;
+    }
+    
+    /**
+     * Heartbeat wakeup metrics (wakeupsPerHour: ilk heartbeat'ten bu yana ortalama)
+     */
+    public static JSONObject getMetrics() {
+        JSONObject json = new JSONObject();
+        try {
+            long count = wakeups;
+            long elapsed = lastWakeupAt - firstWakeupAt;
+            json.put("wakeups", count);
+            json.put("skipped", skipped);
+            json.put("lastWakeupAt", lastWakeupAt);
+            json.put("wakeupsPerHour", count > 1 && elapsed > 0 ? (double) (count - 1) * HOUR_MS / elapsed : 0);
+        } catch (JSONException e) {
+            LogHelper.w(TAG, "Failed to build metrics: " + e.getMessage());
+        }
+        return json;
+    }
+    
     /**
      * Create location model from Location
      */
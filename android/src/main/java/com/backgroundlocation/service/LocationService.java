@@ -1,7 +1,6 @@
 package com.backgroundlocation.service;
 
 import android.Manifest;
-import android.app.AlarmManager;
 import android.app.Notification;
 import android.app.NotificationChannel;
 import android.app.NotificationManager;
@@ -20,21 +19,32 @@ import android.os.IBinder;
 import androidx.core.app.ActivityCompat;
 import androidx.core.app.NotificationCompat;
 
+import com.backgroundlocation.adapter.BackgroundLocationAdapter;
 import com.backgroundlocation.config.Config;
 import com.backgroundlocation.data.LocationModel;
+import com.backgroundlocation.data.sqlite.RetentionManager;
 import com.backgroundlocation.data.sqlite.SQLiteLocationDAO;
+import com.backgroundlocation.location.ElasticityController;
+import com.backgroundlocation.location.KalmanLocationFilter;
+import com.backgroundlocation.location.MotionPolicyEngine;
+import com.backgroundlocation.location.TrajectoryCompressor;
 import com.backgroundlocation.service.ConnectivityMonitor;
 import com.backgroundlocation.service.ActivityRecognitionService;
 import com.backgroundlocation.service.HeartbeatService;
 import com.backgroundlocation.service.ForegroundNotification;
 import com.backgroundlocation.scheduler.TSScheduleManager;
+import com.backgroundlocation.scheduler.WakeupScheduler;
 import com.backgroundlocation.event.LocationEvent;
+import com.backgroundlocation.headless.HeadlessTaskManager;
 import com.backgroundlocation.event.EnabledChangeEvent;
 import com.backgroundlocation.event.StopTimeoutEvent;
+import com.backgroundlocation.event.StopAfterElapsedMinutesEvent;
 import com.backgroundlocation.event.MotionActivityCheckEvent;
 import com.backgroundlocation.util.LogHelper;
+import com.backgroundlocation.util.ThreadPools;
+import com.backgroundlocation.event.EventDispatcher;
+import com.backgroundlocation.event.LocationBatchEvent;
 
-import org.greenrobot.eventbus.EventBus;
 import com.google.android.gms.location.FusedLocationProviderClient;
 import com.google.android.gms.location.LocationAvailability;
 import com.google.android.gms.location.LocationRequest;
@@ -45,6 +55,10 @@ import com.google.android.gms.tasks.OnSuccessListener;
 import com.google.android.gms.tasks.OnFailureListener;
 import com.google.android.gms.tasks.Task;
 
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -56,6 +70,7 @@ public class LocationService extends Service {
     private static final String TAG = "LocationService";
     private static final String CHANNEL_ID = "BackgroundLocationChannel";
     private static final int NOTIFICATION_ID = 12345678;
+    private static final long AUTO_STOP_WINDOW_MS = 60 * 1000L;
     
     private FusedLocationProviderClient fusedLocationClient;
     private Config config;
@@ -83,9 +98,8 @@ public class LocationService extends Service {
     private final java.util.Set<String> processedLocationKeys = new java.util.HashSet<>();
     private static final int MAX_PROCESSED_KEYS = 200;
     
-    // Debug bildirim throttle: en fazla 10 saniyede bir güncelle (konum çok değişmese bile spam önleme)
-    private long lastDebugNotificationUpdateTime = 0;
-    private static final long DEBUG_NOTIFICATION_THROTTLE_MS = 10_000;
+    // Batched LocationResult işlenirken kabul edilen fix'ler (main thread); null: tek tek persist
+    private List<BatchedLocation> locationBatch;
     
     @Override
     public void onCreate() {
@@ -93,16 +107,25 @@ public class LocationService extends Service {
         
         config = Config.getInstance(this);
         database = SQLiteLocationDAO.getInstance(this);
+        // Cached pending/locked sayaçlarını tablo ile doğrula (autoSync kontrolü bunları kullanır)
+        ThreadPools.db().execute(database::verifyCounts);
         fusedLocationClient = LocationServices.getFusedLocationProviderClient(this);
         
-        // Create notification channel
-        ForegroundNotification.createNotificationChannel(this, false);
+        // Motion policy profil değişimi: aktif request'i yeni profil ile değiştir
+        MotionPolicyEngine motionPolicy = MotionPolicyEngine.getInstance();
+        motionPolicy.update(config);
+        motionPolicy.setListener(() -> {
+            if (config.enabled) {
+                requestLocationUpdates(true);
+            }
+        });
         
         // CRITICAL: Start foreground notification in onCreate
         // This ensures notification is visible immediately when service starts
         if (config.foregroundService) {
             try {
-                Notification notification = ForegroundNotification.build(this);
+                // Channel + cached builder (ForegroundNotification)
+                Notification notification = ForegroundNotification.build(this, NOTIFICATION_ID);
                 // Android 34+ için -1 kullan (foregroundServiceType)
                 if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.UPSIDE_DOWN_CAKE) {
                     // Android 14+ (API 34+)
@@ -119,6 +142,11 @@ public class LocationService extends Service {
         // Initialize LifecycleManager
         com.backgroundlocation.lifecycle.LifecycleManager.getInstance().initialize();
         LogHelper.d(TAG, "✅ LifecycleManager initialized");
+        
+        // Headless warm-up: service restart'ta ReactContext'i ilk headless event'i beklemeden oluştur
+        if (config.enableHeadless && config.headlessWarmUp) {
+            HeadlessTaskManager.getInstance().warmUp(this);
+        }
     }
     
     @Override
@@ -146,8 +174,8 @@ public class LocationService extends Service {
             config.enabled = false;
             config.save();
             
-            // Emit enabledchange event (direct EventBus)
-            EventBus.getDefault().post(new EnabledChangeEvent(false));
+            // Emit enabledchange event (direct dispatch)
+            EventDispatcher.getInstance().post(new EnabledChangeEvent(false));
             
             stopSelf();
             return START_NOT_STICKY;
@@ -215,9 +243,8 @@ public class LocationService extends Service {
             }
             
             if (config.foregroundService) {
-                // Use ForegroundNotification.build() for consistent notification
-                ForegroundNotification.createNotificationChannel(this, false);
-                Notification notification = ForegroundNotification.build(this);
+                // Cached notification: içerik değişmediyse yeniden build edilmez
+                Notification notification = ForegroundNotification.build(this, NOTIFICATION_ID);
                 // Android 34+ için -1 kullan (foregroundServiceType)
                 if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.UPSIDE_DOWN_CAKE) {
                     startForeground(NOTIFICATION_ID, notification, -1);
@@ -241,51 +268,19 @@ public class LocationService extends Service {
     
     /**
      * Schedule auto stop based on stopAfterElapsedMinutes
-     * Exact alarm kullanmıyoruz - sadece setWindow kullanıyoruz
+     * WakeupScheduler: 1 dakikalık pencere, diğer zamanlanmış işlerle aynı wakeup'ta çalışabilir
      */
     private void scheduleAutoStop() {
         if (config.stopAfterElapsedMinutes > 0) {
             long stopTimeMillis = System.currentTimeMillis() + 
                     (config.stopAfterElapsedMinutes * 60L * 1000L);
             
-            AlarmManager alarmManager = (AlarmManager) getSystemService(Context.ALARM_SERVICE);
-            if (alarmManager == null) {
-                LogHelper.e(TAG, "AlarmManager is null, cannot schedule auto stop");
-                return;
-            }
-            
-            Intent stopIntent = new Intent(this, LocationService.class);
-            stopIntent.setAction("STOP_TRACKING");
-            
-            int flags = PendingIntent.FLAG_UPDATE_CURRENT;
-            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.S) {
-                flags |= PendingIntent.FLAG_IMMUTABLE;
-            }
-            
-            PendingIntent pendingIntent = PendingIntent.getService(
-                    this, 
-                    99999, 
-                    stopIntent, 
-                    flags
+            WakeupScheduler.getInstance(this).schedule(
+                    StopAfterElapsedMinutesEvent.ACTION,
+                    stopTimeMillis,
+                    stopTimeMillis + AUTO_STOP_WINDOW_MS
             );
             
-            // Exact alarm kullanmıyoruz - sadece setWindow kullanıyoruz
-            // Bu izin gerektirmez ve daha güvenilir çalışır
-            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
-                alarmManager.setWindow(
-                        AlarmManager.RTC_WAKEUP,
-                        stopTimeMillis,
-                        60000, // Allow 1 minute window
-                        pendingIntent
-                );
-            } else {
-                alarmManager.set(
-                        AlarmManager.RTC_WAKEUP,
-                        stopTimeMillis,
-                        pendingIntent
-                );
-            }
-            
             LogHelper.d(TAG, "✅ Auto stop scheduled (inexact): " + 
                     config.stopAfterElapsedMinutes + " minutes");
         }
@@ -294,6 +289,7 @@ public class LocationService extends Service {
     @Override
     public void onDestroy() {
         super.onDestroy();
+        MotionPolicyEngine.getInstance().setListener(null);
         
         // CRITICAL: Check stopOnTerminate before stopping service
         // If stopOnTerminate = false, service should continue in background
@@ -366,6 +362,17 @@ public class LocationService extends Service {
      * LocationCallback yerine PendingIntent kullanıyoruz - arka planda çalışması için!
      */
     private void startLocationUpdates() {
+        ElasticityController.getInstance().reset();
+        MotionPolicyEngine.getInstance().reset();
+        requestLocationUpdates(false);
+    }
+    
+    /**
+     * Build and register LocationRequest
+     * @param retune true: yalnızca elasticity için mevcut request'i aynı PendingIntent ile değiştir
+     *               (remove yok, update akışında boşluk oluşmaz)
+     */
+    private void requestLocationUpdates(boolean retune) {
         if (ActivityCompat.checkSelfPermission(this, Manifest.permission.ACCESS_FINE_LOCATION) 
                 != PackageManager.PERMISSION_GRANTED) {
             LogHelper.w(TAG, "Location permission not granted");
@@ -409,7 +416,25 @@ public class LocationService extends Service {
         
         // CRITICAL: Validate distanceFilter
         // distanceFilter < 0 is invalid, use default 10m
-        float distanceFilter = config.distanceFilter;
+        // Elasticity: hız bucket'ına göre ölçeklenmiş değer (ElasticityController), yoksa config.distanceFilter
+        float distanceFilter = ElasticityController.getInstance().getDistanceFilter(config);
+        long interval = config.locationUpdateInterval;
+        long fastestInterval = config.fastestLocationUpdateInterval;
+        // deferTime > 0: fused provider fix'leri biriktirip toplu teslim eder (daha az wakeup)
+        long maxWaitTime = Math.max(config.deferTime, 0);
+        
+        // Motion policy: mevcut hareket durumunun profili statik değerlerin yerine geçer
+        MotionPolicyEngine.Profile profile = MotionPolicyEngine.getInstance().getProfile();
+        if (profile != null) {
+            if (profile.priority > 0) {
+                priority = profile.priority;
+            }
+            distanceFilter = profile.distanceFilter;
+            interval = profile.interval;
+            fastestInterval = profile.fastestInterval;
+            maxWaitTime = Math.max(profile.maxWaitTime, 0);
+        }
+        
         if (distanceFilter < 0) {
             LogHelper.w(TAG, "Invalid distanceFilter: " + distanceFilter + ". Applying default 10.0m");
             distanceFilter = 10.0f;
@@ -446,7 +471,6 @@ public class LocationService extends Service {
         
         // Set interval: Sistemin location update göndermesi için beklediği süre
         // 0 = En hızlı şekilde (test için), >0 = Her X ms'de bir (production)
-        long interval = config.locationUpdateInterval;
         if (interval <= 0) {
             interval = 0; // 0 = En hızlı şekilde (test için)
         }
@@ -456,11 +480,7 @@ public class LocationService extends Service {
         // Bu bir "limit"tir - sistem bu süreden DAHA HIZLI update gönderemez
         // Sadece >= 0 ise set et, -1 ise hiç set etme (Android default: 30s)
         // interval'den küçük olmalı (örn: interval=10000, fastestInterval=5000)
-        if (config.fastestLocationUpdateInterval >= 0) {
-            long fastestInterval = config.fastestLocationUpdateInterval;
-            if (fastestInterval <= 0) {
-                fastestInterval = 0; // 0 = Limit yok (test için)
-            }
+        if (fastestInterval >= 0) {
             locationRequest.setFastestInterval(fastestInterval);
         }
         // Eğer < 0 ise (örn: -1), hiç set etme - Android'in default'unu kullan (30 saniye)
@@ -471,26 +491,34 @@ public class LocationService extends Service {
         locationRequest.setSmallestDisplacement(distanceFilter);
         
         // Set max wait time: 0 means get updates immediately, no batching
-        // Production: 0 is recommended for real-time tracking
-        locationRequest.setMaxWaitTime(0);
+        // Production: 0 is recommended for real-time tracking (motion policy profili batching açabilir)
+        locationRequest.setMaxWaitTime(maxWaitTime);
+        if (maxWaitTime > 0 && maxWaitTime < interval * 2) {
+            // Batching için maxWaitTime en az 2 x interval olmalı, aksi halde sistem fix'leri tek tek teslim eder
+            LogHelper.w(TAG, "⚠️ maxWaitTime (" + maxWaitTime + "ms) < 2 x interval (" + interval + "ms): batching will not take effect");
+        }
         
         LogHelper.d(TAG, "📋 LocationRequest config: " +
                 "priority=" + priority + 
-                ", interval=" + config.locationUpdateInterval + "ms" +
-                ", fastestInterval=" + (config.fastestLocationUpdateInterval >= 0 ? config.fastestLocationUpdateInterval : "default") + "ms" +
+                ", interval=" + interval + "ms" +
+                ", fastestInterval=" + (fastestInterval >= 0 ? fastestInterval : "default") + "ms" +
                 ", smallestDisplacement=" + distanceFilter + "m" +
-                ", maxWaitTime=0ms");
+                ", maxWaitTime=" + maxWaitTime + "ms" +
+                (profile != null ? " (motion policy: " + MotionPolicyEngine.getInstance().getState() + ")" : ""));
         
         try {
             // CRITICAL: Remove old location updates first
             // This ensures we don't have duplicate requests
-            PendingIntent oldPendingIntent = getPendingIntent(this);
-            try {
-                fusedLocationClient.removeLocationUpdates(oldPendingIntent);
-                LogHelper.d(TAG, "🧹 Removed old location updates");
-            } catch (Exception e) {
-                // Ignore - no old updates to remove
-                LogHelper.d(TAG, "No old location updates to remove");
+            // Retune: aynı PendingIntent ile requestLocationUpdates mevcut request'i zaten değiştirir
+            if (!retune) {
+                PendingIntent oldPendingIntent = getPendingIntent(this);
+                try {
+                    fusedLocationClient.removeLocationUpdates(oldPendingIntent);
+                    LogHelper.d(TAG, "🧹 Removed old location updates");
+                } catch (Exception e) {
+                    // Ignore - no old updates to remove
+                    LogHelper.d(TAG, "No old location updates to remove");
+                }
             }
             
             // CRITICAL: PendingIntent kullan - LocationCallback arka planda çalışmaz!
@@ -498,7 +526,7 @@ public class LocationService extends Service {
             
             LogHelper.d(TAG, "📡 Requesting location updates - " +
                     "priority: " + priority + ", interval: " + 
-                    config.locationUpdateInterval + "ms, distance: " + 
+                    interval + "ms, distance: " + 
                     distanceFilter + "m, desiredAccuracy: " + config.desiredAccuracy);
             LogHelper.d(TAG, "📡 PendingIntent: " + pendingIntent + 
                     " (isImmutable: " + (Build.VERSION.SDK_INT >= 23 ? pendingIntent.isImmutable() : "N/A") + ")");
@@ -514,6 +542,10 @@ public class LocationService extends Service {
                     pendingIntent
             );
             
+            if (retune) {
+                LogHelper.d(TAG, "✅ Location request retuned (smallestDisplacement: " + distanceFilter + "m)");
+                return;
+            }
             LogHelper.d(TAG, "✅ Location updates requested successfully (PendingIntent)");
             LogHelper.d(TAG, "⏳ Waiting for location updates... (check onStartCommand logs)");
             LogHelper.d(TAG, "🔍 DEBUG: If no location updates arrive, check:");
@@ -522,7 +554,7 @@ public class LocationService extends Service {
             LogHelper.d(TAG, "   3. Location permissions granted (FINE + BACKGROUND)");
             LogHelper.d(TAG, "   4. Device is not in Doze mode");
             LogHelper.d(TAG, "   5. LocationRequest config: interval=" + interval + "ms, fastest=" + 
-                    (config.fastestLocationUpdateInterval >= 0 ? config.fastestLocationUpdateInterval : "default") + "ms");
+                    (fastestInterval >= 0 ? fastestInterval : "default") + "ms");
             
             // NOT: getInitialLocation() çağrısını kaldırdık - duplicate location sorununa neden oluyordu
             // requestLocationUpdates() ile gelen ilk location update yeterli
@@ -592,6 +624,10 @@ public class LocationService extends Service {
      * Stop location updates
      */
     private void stopLocationUpdates() {
+        KalmanLocationFilter.getInstance().reset();
+        ElasticityController.getInstance().reset();
+        // Sıkıştırma penceresinde bekleyen son noktayı kaybetme
+        ThreadPools.db().execute(() -> persistAll(TrajectoryCompressor.getInstance().flush()));
         if (fusedLocationClient != null) {
             try {
                 PendingIntent pendingIntent = getPendingIntent(this);
@@ -632,6 +668,24 @@ public class LocationService extends Service {
             return;
         }
         
+        // Batched delivery (maxWaitTime): kabul edilen fix'ler toplanır, tek writer task'ında persist edilir
+        if (locationCount > 1) {
+            locationBatch = new ArrayList<>(locationCount);
+        }
+        try {
+            processLocations(locations);
+        } finally {
+            List<BatchedLocation> batch = locationBatch;
+            locationBatch = null;
+            if (batch != null && !batch.isEmpty()) {
+                ThreadPools.db().execute(() -> persistBatch(batch));
+            }
+        }
+        
+        LogHelper.d(TAG, "═══════════════════════════════════════════════════════════");
+    }
+    
+    private void processLocations(List<Location> locations) {
         // Her location için işle
         // CRITICAL: Aynı location'ı iki kez işlememek için timestamp kontrolü yap
         for (int i = 0; i < locations.size(); i++) {
@@ -698,8 +752,6 @@ public class LocationService extends Service {
             // TSLocationManager.onLocationResult() içinde de her location için buildTSLocation() çağrılıyor
             handleLocationUpdate(location);
         }
-        
-        LogHelper.d(TAG, "═══════════════════════════════════════════════════════════");
     }
     
     /**
@@ -709,7 +761,39 @@ public class LocationService extends Service {
         if (location == null) {
             return;
         }
-        
+        if (config.kalmanFilter) {
+            location = applyKalmanFilter(location);
+            if (location == null) {
+                return;
+            }
+        }
+        processLocation(location);
+    }
+    
+    /**
+     * Kalman stage: outlier ise null, değilse yumuşatılmış koordinat / hız / accuracy ile kopya
+     */
+    private Location applyKalmanFilter(Location location) {
+        KalmanLocationFilter kalman = KalmanLocationFilter.getInstance();
+        if (!kalman.update(location.getLatitude(), location.getLongitude(), location.getAccuracy(), location.getTime())) {
+            LogHelper.d(TAG, "⚠️ IGNORED: outlier rejected by Kalman gate (" +
+                location.getLatitude() + ", " + location.getLongitude() + ", accuracy: " + location.getAccuracy() + "m)");
+            return null;
+        }
+        Location filtered = new Location(location);
+        filtered.setLatitude(kalman.getLatitude());
+        filtered.setLongitude(kalman.getLongitude());
+        filtered.setAccuracy(kalman.getAccuracy());
+        if (!location.hasSpeed()) {
+            filtered.setSpeed(kalman.getSpeed());
+        }
+        return filtered;
+    }
+    
+    /**
+     * Process accepted (optionally filtered) location
+     */
+    private void processLocation(Location location) {
         // CRITICAL: Duplicate processing prevention - aynı location'ı iki kez işleme
         // Timestamp + koordinatlar kombinasyonu ile unique key oluştur
         String locationKey = location.getTime() + "_" + 
@@ -736,22 +820,23 @@ public class LocationService extends Service {
         // CRITICAL: Dynamic distance filter elasticity (orijinal Transistorsoft hesaplaması)
         // Orijinal: TSLocationManager.onLocationResult() içinde yapılıyor
         // Sadece location tracking mode'da, distanceFilter > 0, disableElasticity false ise
-        if (config.distanceFilter > 0 && !config.disableElasticity && 
+        // Hız kanıtı motion policy'ye (activity transition gecikirse daha aktif profile geçiş)
+        if (location.hasSpeed() && !Float.isNaN(location.getSpeed())) {
+            MotionPolicyEngine.getInstance().onSpeed(location.getSpeed());
+        }
+        
+        // Motion policy aktifken displacement profilden gelir, elasticity uygulanmaz
+        if (config.distanceFilter > 0 && !config.disableElasticity && !MotionPolicyEngine.getInstance().isEnabled() &&
             location.hasSpeed() && !Float.isNaN(location.getSpeed()) && 
             location.getAccuracy() <= 100.0f) { // MAXIMUM_LOCATION_ACCURACY = 100
             
-            float calculatedDistanceFilter = config.calculateDistanceFilter(location.getSpeed());
-            
-            // Eğer hesaplanan distance filter farklıysa, location request'i güncelle
-            // NOT: Bu performans sorununa neden olabilir, bu yüzden sadece önemli fark varsa güncelle
-            if (Math.abs(calculatedDistanceFilter - config.distanceFilter) > 10.0f) {
+            // Request yalnızca hız bucket'ı hold süresi boyunca sabit kalınca ve rate limit izin verince
+            // güncellenir (her fix'te re-request yok)
+            ElasticityController elasticity = ElasticityController.getInstance();
+            if (elasticity.offer(location, config)) {
                 LogHelper.d(TAG, "🔄 Re-scaling distanceFilter: " + config.distanceFilter + "m -> " + 
-                           calculatedDistanceFilter + "m (speed: " + location.getSpeed() + " m/s)");
-                
-                // Location request'i güncelle (async olarak, performans için)
-                // NOT: Her location'da güncelleme yapmak performans sorununa neden olabilir
-                // Bu yüzden sadece önemli fark varsa güncelle
-                // startLocationUpdates(); // REMOVED: Performance issue - too frequent updates
+                           elasticity.getDistanceFilter(config) + "m (speed: " + location.getSpeed() + " m/s)");
+                requestLocationUpdates(true);
             }
         }
         
@@ -826,6 +911,7 @@ public class LocationService extends Service {
         if (lastLocation != null) {
             // Orijinal formül: distanceTo >= (location.getAccuracy() + lastLocation.getAccuracy()) / 2.0f
             // Accuracy kontrolü: Sadece gerçek mesafe accuracy'den büyükse odometer'ı artır
+            // kalmanFilter açıkken location / lastLocation filtrelenmiş konumlar, accuracy posterior std-dev
             float distanceTo = location.distanceTo(lastLocation);
             float accuracyThreshold = (location.getAccuracy() + lastLocation.getAccuracy()) / 2.0f;
             
@@ -848,72 +934,180 @@ public class LocationService extends Service {
         // Create location model JSON
         LocationModel locationModel = createLocationModel(location);
         
+        if (locationBatch != null) {
+            locationBatch.add(new BatchedLocation(location, locationModel));
+            return;
+        }
+        
+        // Persist + event + autoSync + cleanup writer thread'de: main thread SQLite'ı beklemez,
+        // tek writer olduğu için location sırası korunur
+        ThreadPools.db().execute(() -> persistLocation(location, locationModel));
+    }
+    
+    /**
+     * Persist location and run post-insert work (db thread)
+     */
+    private void persistLocation(Location location, LocationModel locationModel) {
         // Save to SQLite database (as BLOB)
         // CRITICAL: Duplicate check'ten geçti, artık SQL'e kaydedebiliriz
-        String uuid = database.persist(locationModel.toJSON());
+        String uuid;
+        boolean stored;
+        TrajectoryCompressor compressor = TrajectoryCompressor.getInstance();
+        if (config.trajectoryTolerance > 0 || compressor.hasPending()) {
+            // Yol sıkıştırma: event / stop detection her fix için çalışır,
+            // DB'ye yalnızca yolu tolerans içinde temsil eden noktalar yazılır (gecikmeli)
+            java.util.Set<String> written = persistAll(compressor.offer(locationModel, config.trajectoryTolerance));
+            uuid = locationModel.uuid;
+            stored = written.contains(uuid);
+        } else {
+            uuid = database.persist(locationModel.toJSON());
+            stored = true;
+        }
         
         if (uuid != null) {
             // CRITICAL: Duplicate event prevention - aynı UUID'yi birden fazla kez post etme
-            synchronized (postedLocationUUIDs) {
-                if (postedLocationUUIDs.contains(uuid)) {
-                    // Bu UUID zaten post edilmiş, tekrar post etme
-                    LogHelper.d(TAG, "⚠️ Location UUID already posted, skipping event: " + uuid);
-                    return;
-                }
-                
-                // UUID'yi set'e ekle
-                postedLocationUUIDs.add(uuid);
-                
-                // Set çok büyüdüyse eski kayıtları temizle
-                if (postedLocationUUIDs.size() > MAX_POSTED_UUIDS) {
-                    // En eski UUID'yi kaldır
-                    String oldestUUID = postedLocationUUIDs.iterator().next();
-                    postedLocationUUIDs.remove(oldestUUID);
-                }
+            if (!markPosted(uuid)) {
+                // Bu UUID zaten post edilmiş, tekrar post etme
+                LogHelper.d(TAG, "⚠️ Location UUID already posted, skipping event: " + uuid);
+                return;
             }
             
-            // Emit event (direct EventBus)
-            EventBus.getDefault().post(new LocationEvent(locationModel.toJSON()));
+            // Emit event (direct dispatch)
+            EventDispatcher.getInstance().post(new LocationEvent(toEventJSON(locationModel, stored)));
             
-            // CRITICAL: Stop detection (orijinal Transistorsoft implementasyonu)
-            if (!config.disableStopDetection) {
-                performStopDetection(location);
+            HeartbeatService.onLocationRecorded(locationModel);
+            afterPersist(location);
+        }
+        
+        // Clean old records
+        cleanOldRecords();
+    }
+    
+    /**
+     * Persist a batched LocationResult as one unit (db thread):
+     * tek transaction, tek duplicate pass, tek event, tek sync kararı
+     */
+    private void persistBatch(List<BatchedLocation> batch) {
+        TrajectoryCompressor compressor = TrajectoryCompressor.getInstance();
+        List<BatchedLocation> accepted = new ArrayList<>(batch.size());
+        // null: accepted'ın hepsi DB'de
+        java.util.Set<String> written = null;
+        if (config.trajectoryTolerance > 0 || compressor.hasPending()) {
+            List<LocationModel> toPersist = new ArrayList<>();
+            for (BatchedLocation item : batch) {
+                toPersist.addAll(compressor.offer(item.model, config.trajectoryTolerance));
+                accepted.add(item);
             }
-            
-            // Update notification if debug mode – throttle: en fazla 10 saniyede bir
-            if (config.debug && config.foregroundService) {
-                long now = System.currentTimeMillis();
-                if (now - lastDebugNotificationUpdateTime >= DEBUG_NOTIFICATION_THROTTLE_MS) {
-                    lastDebugNotificationUpdateTime = now;
-                    try {
-                        NotificationManager notificationManager = (NotificationManager) getSystemService(Context.NOTIFICATION_SERVICE);
-                        if (notificationManager != null) {
-                            ForegroundNotification.createNotificationChannel(this, false);
-                            Notification notification = ForegroundNotification.build(this);
-                            notificationManager.notify(NOTIFICATION_ID, notification);
-                        }
-                    } catch (Exception e) {
-                        LogHelper.e(TAG, "Failed to update notification: " + e.getMessage(), e);
-                    }
-                }
+            written = persistAll(toPersist);
+        } else {
+            List<JSONObject> rows = new ArrayList<>(batch.size());
+            for (BatchedLocation item : batch) {
+                rows.add(item.model.toJSON());
             }
-            
-            // Check auto sync
-            // CRITICAL: Only sync if tracking is enabled
-            if (config.enabled && config.autoSync && !config.url.isEmpty()) {
-                int unlockedCount = database.count(true); // only unlocked
-                
-                if (config.autoSyncThreshold <= 0 || unlockedCount >= config.autoSyncThreshold) {
-                    LogHelper.d(TAG, "🔄 AutoSync triggered: " + unlockedCount + " >= " + config.autoSyncThreshold);
-                    SyncService.sync(this);
+            java.util.Set<String> inserted = new java.util.HashSet<>(database.persistAll(rows));
+            for (BatchedLocation item : batch) {
+                if (inserted.contains(item.model.uuid)) {
+                    accepted.add(item);
                 }
             }
         }
         
-        // Clean old records
+        List<JSONObject> events = new ArrayList<>(accepted.size());
+        // Event üreten son fix (reddedilen / duplicate kuyruk değil)
+        BatchedLocation last = null;
+        for (BatchedLocation item : accepted) {
+            if (markPosted(item.model.uuid)) {
+                events.add(toEventJSON(item.model, written == null || written.contains(item.model.uuid)));
+                last = item;
+            }
+        }
+        if (last != null) {
+            LogHelper.d(TAG, "💾 Batch persisted: " + events.size() + "/" + batch.size() + " locations");
+            EventDispatcher.getInstance().post(new LocationBatchEvent(events));
+            // Stop detection / notification / autoSync: event'i yayınlanan son location ile bir kez
+            HeartbeatService.onLocationRecorded(last.model);
+            afterPersist(last.location);
+        }
+        
         cleanOldRecords();
     }
     
+    /**
+     * Record uuid as posted; false if already posted
+     */
+    private boolean markPosted(String uuid) {
+        synchronized (postedLocationUUIDs) {
+            if (postedLocationUUIDs.contains(uuid)) {
+                return false;
+            }
+            
+            // UUID'yi set'e ekle
+            postedLocationUUIDs.add(uuid);
+            
+            // Set çok büyüdüyse eski kayıtları temizle
+            if (postedLocationUUIDs.size() > MAX_POSTED_UUIDS) {
+                // En eski UUID'yi kaldır
+                String oldestUUID = postedLocationUUIDs.iterator().next();
+                postedLocationUUIDs.remove(oldestUUID);
+            }
+            return true;
+        }
+    }
+    
+    /**
+     * Post-insert work: stop detection, autoSync (db thread)
+     * Notification içeriği location'a bağlı değil; güncelleme config değişiminde (ForegroundNotification.update)
+     */
+    private void afterPersist(Location location) {
+        // CRITICAL: Stop detection (orijinal Transistorsoft implementasyonu)
+        // Service state main thread'de değişir
+        if (!config.disableStopDetection) {
+            BackgroundLocationAdapter.getUiHandler().post(() -> performStopDetection(location));
+        }
+        
+        // Check auto sync
+        // CRITICAL: Only sync if tracking is enabled
+        if (config.enabled && config.autoSync && !config.url.isEmpty()) {
+            int unlockedCount = database.count(true); // only unlocked (cached counter)
+            
+            if (config.autoSyncThreshold <= 0 || unlockedCount >= config.autoSyncThreshold) {
+                LogHelper.d(TAG, "🔄 AutoSync triggered: " + unlockedCount + " >= " + config.autoSyncThreshold);
+                SyncService.autoSync(this);
+            }
+        }
+    }
+    
+    /**
+     * Persist points released by the trajectory compressor (db thread)
+     * @return uuids actually written
+     */
+    private java.util.Set<String> persistAll(List<LocationModel> locations) {
+        if (locations.isEmpty()) {
+            return java.util.Collections.emptySet();
+        }
+        List<JSONObject> rows = new ArrayList<>(locations.size());
+        for (LocationModel model : locations) {
+            rows.add(model.toJSON());
+        }
+        return new java.util.HashSet<>(database.persistAll(rows));
+    }
+    
+    /**
+     * Location event payload. Sıkıştırma penceresinde bekleyen (henüz / hiç yazılmamış) fix
+     * provisional: true ile işaretlenir; uuid'si DB'de olmayabilir (destroyLocation / sync ile eşleşmez)
+     */
+    private JSONObject toEventJSON(LocationModel model, boolean stored) {
+        JSONObject json = model.toJSON();
+        if (!stored) {
+            try {
+                json.put("provisional", true);
+            } catch (JSONException e) {
+                LogHelper.w(TAG, "Failed to mark provisional location: " + e.getMessage());
+            }
+        }
+        return json;
+    }
+    
     /**
      * Create location model from Location
      */
@@ -1034,29 +1228,17 @@ public class LocationService extends Service {
     
     /**
      * Clean old records from database
-     */
-    /**
-     * Clean old records from database
-     * Pattern: prune + shrink
+     * Pattern: prune + shrink (threshold-driven, see RetentionManager)
      */
     private void cleanOldRecords() {
         try {
-            // Prune: Remove records older than maxDaysToPersist
-            if (config.maxDaysToPersist > 0) {
-                database.prune(config.maxDaysToPersist);
-            }
-            
-            // Shrink: Limit total records
-            if (config.maxRecordsToPersist > 0) {
-                int count = database.count();
-                if (count > config.maxRecordsToPersist) {
-                    database.shrink(config.maxRecordsToPersist);
-                }
-            }
+            // Eşik aşılmadıkça DB'ye dokunmaz; silmeler chunk'lar halinde writer thread'de devam eder
+            RetentionManager.getInstance(this).maybePrune();
         } catch (Exception e) {
             LogHelper.e(TAG, "cleanOldRecords error: " + e.getMessage(), e);
         }
     }
+
     
     /**
      * Create notification for foreground service
@@ -1356,10 +1538,23 @@ public class LocationService extends Service {
         if (!isMoving && config.stopOnStationary) {
             LogHelper.d(TAG, "🛑 Stopping tracking due to stationary (stopOnStationary=true)");
             stop(this);
-            EventBus.getDefault().post(new EnabledChangeEvent(false));
+            EventDispatcher.getInstance().post(new EnabledChangeEvent(false));
         }
         
         LogHelper.d(TAG, "🏃 Pace changed: " + (isMoving ? "MOVING" : "STATIONARY"));
     }
+    
+    /**
+     * Accepted fix waiting for batch persist
+     */
+    private static final class BatchedLocation {
+        final Location location;
+        final LocationModel model;
+        
+        BatchedLocation(Location location, LocationModel model) {
+            this.location = location;
+            this.model = model;
+        }
+    }
 }
 
@@ -0,0 +1,358 @@
+package com.backgroundlocation.service;
+
+import com.backgroundlocation.config.Config;
+import com.backgroundlocation.data.LocationModel;
+import com.backgroundlocation.event.EventDispatcher;
+import com.backgroundlocation.event.TemplateErrorEvent;
+import com.backgroundlocation.util.LogHelper;
+
+import org.json.JSONObject;
+import org.json.JSONTokener;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import okio.Buffer;
+import okio.BufferedSink;
+
+/**
+ * Payload Template
+ * Config.locationTemplate / geofenceTemplate, ör:
+ *
+ *   {"lat":<%= latitude %>,"lng":<%= longitude %>,"id":"<%= uuid %>","act":"<%= activity.type %>"}
+ *
+ * setConfig'te bir kez token listesine derlenir; her kayıt reflection veya ara JSONObject olmadan
+ * doğrudan HTTP request body'sine (okio sink) yazılır. Değerler ham yazılır: string alanlar
+ * template'te tırnak içine alınmalıdır (içerik JSON-escape edilir).
+ * Derleme hataları (bilinmeyen alan, kapanmamış tag, geçersiz JSON) TemplateErrorEvent olarak yayınlanır
+ * ve ilgili template devre dışı kalır (varsayılan location JSON'u gönderilir).
+ */
+public final class PayloadTemplate {
+
+    private static final String TAG = "PayloadTemplate";
+    private static final String OPEN = "<%=";
+    private static final String CLOSE = "%>";
+
+    /**
+     * Template fields (tag adı -> LocationModel alanı)
+     */
+    enum Field {
+        UUID("uuid"),
+        TIMESTAMP("timestamp"),
+        LATITUDE("latitude"),
+        LONGITUDE("longitude"),
+        ACCURACY("accuracy"),
+        SPEED("speed"),
+        HEADING("heading"),
+        ALTITUDE("altitude"),
+        ALTITUDE_ACCURACY("altitude_accuracy"),
+        ODOMETER("odometer"),
+        IS_MOVING("is_moving"),
+        ACTIVITY_TYPE("activity.type"),
+        ACTIVITY_CONFIDENCE("activity.confidence"),
+        BATTERY_LEVEL("battery.level"),
+        BATTERY_IS_CHARGING("battery.is_charging"),
+        EXTRAS("extras"),
+        GEOFENCE_IDENTIFIER("geofence.identifier"),
+        GEOFENCE_ACTION("geofence.action");
+
+        final String tag;
+
+        Field(String tag) {
+            this.tag = tag;
+        }
+
+        static Field forTag(String tag) {
+            for (Field field : values()) {
+                if (field.tag.equals(tag)) {
+                    return field;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Template syntax / validation error
+     */
+    static class CompileException extends Exception {
+        final String field;
+
+        CompileException(String message, String field) {
+            super(message);
+            this.field = field;
+        }
+    }
+
+    // Derlenmiş template'ler (setConfig'te güncellenir, SyncService okur)
+    private static final Object lock = new Object();
+    private static String locationSource = "";
+    private static String geofenceSource = "";
+    private static String paramsSource = "";
+    private static volatile PayloadTemplate locationTemplate;
+    private static volatile PayloadTemplate geofenceTemplate;
+    private static volatile String paramsFragment = "";
+
+    // Literal (String) ve Field token'ları sırayla
+    private final Object[] tokens;
+
+    private PayloadTemplate(Object[] tokens) {
+        this.tokens = tokens;
+    }
+
+    /**
+     * Recompile templates if their source changed (setConfig / her sync batch'i, değişmediyse no-op)
+     */
+    public static void update(Config config) {
+        synchronized (lock) {
+            String location = config.locationTemplate != null ? config.locationTemplate : "";
+            String geofence = config.geofenceTemplate != null ? config.geofenceTemplate : "";
+            String params = config.params != null ? config.params : "";
+            if (!location.equals(locationSource)) {
+                locationSource = location;
+                locationTemplate = compileOrReport(location);
+            }
+            if (!geofence.equals(geofenceSource)) {
+                geofenceSource = geofence;
+                geofenceTemplate = compileOrReport(geofence);
+            }
+            if (!params.equals(paramsSource)) {
+                paramsSource = params;
+                paramsFragment = toFragment(params);
+            }
+        }
+    }
+
+    /**
+     * Template for row (geofence kayıtları geofenceTemplate'i tercih eder), null: varsayılan JSON
+     */
+    static PayloadTemplate forLocation(LocationModel location) {
+        PayloadTemplate geofence = geofenceTemplate;
+        if (geofence != null && location.geofenceIdentifier != null) {
+            return geofence;
+        }
+        return locationTemplate;
+    }
+
+    static boolean isEnabled() {
+        return locationTemplate != null || geofenceTemplate != null;
+    }
+
+    /**
+     * Config.params as a pre-serialized object member list (",\"k\":v,..."), "" if empty
+     */
+    static String getParamsFragment() {
+        return paramsFragment;
+    }
+
+    private static PayloadTemplate compileOrReport(String source) {
+        if (source.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            PayloadTemplate template = compile(source);
+            template.validate();
+            LogHelper.d(TAG, "✅ Template compiled (" + template.tokens.length + " tokens)");
+            return template;
+        } catch (CompileException e) {
+            LogHelper.w(TAG, "⚠️ Template error: " + e.getMessage());
+            EventDispatcher.getInstance().post(new TemplateErrorEvent(source, e.getMessage(), e.field));
+            return null;
+        }
+    }
+
+    /**
+     * Compile template source into literal / field tokens
+     */
+    static PayloadTemplate compile(String source) throws CompileException {
+        List<Object> tokens = new ArrayList<>();
+        int pos = 0;
+        while (pos < source.length()) {
+            int open = source.indexOf(OPEN, pos);
+            if (open < 0) {
+                tokens.add(source.substring(pos));
+                break;
+            }
+            if (open > pos) {
+                tokens.add(source.substring(pos, open));
+            }
+            int close = source.indexOf(CLOSE, open + OPEN.length());
+            if (close < 0) {
+                throw new CompileException("Unterminated tag at " + open, null);
+            }
+            String tag = source.substring(open + OPEN.length(), close).trim();
+            Field field = Field.forTag(tag);
+            if (field == null) {
+                throw new CompileException("Unknown template field: " + tag, tag);
+            }
+            tokens.add(field);
+            pos = close + CLOSE.length();
+        }
+        return new PayloadTemplate(tokens.toArray());
+    }
+
+    /**
+     * Render a sample row and check the result is a JSON value
+     */
+    private void validate() throws CompileException {
+        LocationModel sample = new LocationModel();
+        sample.activityType = "still";
+        sample.geofenceIdentifier = "sample";
+        sample.geofenceAction = "ENTER";
+        Buffer buffer = new Buffer();
+        try {
+            render(sample, buffer);
+            String rendered = buffer.readUtf8();
+            JSONTokener tokener = new JSONTokener(rendered);
+            tokener.nextValue();
+            if (tokener.nextClean() != 0) {
+                throw new CompileException("Template renders trailing content after JSON value", null);
+            }
+        } catch (CompileException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new CompileException("Template does not render valid JSON: " + e.getMessage(), null);
+        }
+    }
+
+    /**
+     * Render row directly into sink
+     */
+    void render(LocationModel location, BufferedSink sink) throws IOException {
+        for (Object token : tokens) {
+            if (token instanceof String) {
+                sink.writeUtf8((String) token);
+                continue;
+            }
+            switch ((Field) token) {
+                case UUID:
+                    writeEscaped(sink, location.uuid);
+                    break;
+                case TIMESTAMP:
+                    sink.writeDecimalLong(location.timestamp);
+                    break;
+                case LATITUDE:
+                    writeNumber(sink, location.latitude);
+                    break;
+                case LONGITUDE:
+                    writeNumber(sink, location.longitude);
+                    break;
+                case ACCURACY:
+                    writeNumber(sink, location.accuracy);
+                    break;
+                case SPEED:
+                    writeNumber(sink, location.speed);
+                    break;
+                case HEADING:
+                    writeNumber(sink, location.heading);
+                    break;
+                case ALTITUDE:
+                    writeNumber(sink, location.altitude);
+                    break;
+                case ALTITUDE_ACCURACY:
+                    writeNumber(sink, location.altitudeAccuracy);
+                    break;
+                case ODOMETER:
+                    writeNumber(sink, location.odometer);
+                    break;
+                case IS_MOVING:
+                    sink.writeUtf8(location.isMoving ? "true" : "false");
+                    break;
+                case ACTIVITY_TYPE:
+                    writeEscaped(sink, location.activityType);
+                    break;
+                case ACTIVITY_CONFIDENCE:
+                    sink.writeDecimalLong(location.activityConfidence);
+                    break;
+                case BATTERY_LEVEL:
+                    writeNumber(sink, location.batteryLevel);
+                    break;
+                case BATTERY_IS_CHARGING:
+                    sink.writeUtf8(location.batteryIsCharging ? "true" : "false");
+                    break;
+                case EXTRAS:
+                    // extras zaten JSON object string olarak saklanıyor
+                    sink.writeUtf8(location.extras != null && !location.extras.isEmpty() ? location.extras : "{}");
+                    break;
+                case GEOFENCE_IDENTIFIER:
+                    writeEscaped(sink, location.geofenceIdentifier);
+                    break;
+                case GEOFENCE_ACTION:
+                    writeEscaped(sink, location.geofenceAction);
+                    break;
+            }
+        }
+    }
+
+    private static void writeNumber(BufferedSink sink, float value) throws IOException {
+        if (Float.isNaN(value) || Float.isInfinite(value)) {
+            sink.writeUtf8("null");
+        } else if (value == Math.rint(value) && Math.abs(value) < 1e7f) {
+            sink.writeDecimalLong((long) value);
+        } else {
+            sink.writeUtf8(Float.toString(value));
+        }
+    }
+
+    private static void writeNumber(BufferedSink sink, double value) throws IOException {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            sink.writeUtf8("null");
+        } else if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            sink.writeDecimalLong((long) value);
+        } else {
+            sink.writeUtf8(Double.toString(value));
+        }
+    }
+
+    /**
+     * Write string content JSON-escaped, without surrounding quotes
+     */
+    private static void writeEscaped(BufferedSink sink, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            String replacement;
+            if (c == '"') {
+                replacement = "\\\"";
+            } else if (c == '\\') {
+                replacement = "\\\\";
+            } else if (c == '\n') {
+                replacement = "\\n";
+            } else if (c == '\r') {
+                replacement = "\\r";
+            } else if (c == '\t') {
+                replacement = "\\t";
+            } else if (c < 0x20) {
+                replacement = String.format("\\u%04x", (int) c);
+            } else {
+                continue;
+            }
+            if (i > start) {
+                sink.writeUtf8(value, start, i);
+            }
+            sink.writeUtf8(replacement);
+            start = i + 1;
+        }
+        if (start < value.length()) {
+            sink.writeUtf8(value, start, value.length());
+        }
+    }
+
+    private static String toFragment(String params) {
+        if (params.trim().isEmpty()) {
+            return "";
+        }
+        try {
+            String json = new JSONObject(params).toString();
+            // "{...}" -> ",..." (boş object: "")
+            return json.length() > 2 ? "," + json.substring(1, json.length() - 1) : "";
+        } catch (Exception e) {
+            LogHelper.w(TAG, "Failed to parse params: " + e.getMessage());
+            return "";
+        }
+    }
+}
@@ -1,15 +1,17 @@
 package com.backgroundlocation.service;
 
 import android.content.Context;
-import android.os.AsyncTask;
 
+import com.backgroundlocation.adapter.BackgroundLocationAdapter;
+import com.backgroundlocation.adapter.callback.SyncCallback;
 import com.backgroundlocation.config.Config;
 import com.backgroundlocation.data.LocationModel;
 import com.backgroundlocation.data.sqlite.SQLiteLocationDAO;
 import com.backgroundlocation.event.HttpResponseEvent;
 import com.backgroundlocation.util.LogHelper;
+import com.backgroundlocation.util.ThreadPools;
+import com.backgroundlocation.event.EventDispatcher;
 
-import org.greenrobot.eventbus.EventBus;
 
 import org.json.JSONArray;
 import org.json.JSONObject;
@@ -18,14 +20,22 @@ import java.io.IOException;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import okhttp3.Call;
 import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.RequestBody;
 import okhttp3.Response;
+import okio.Buffer;
+import okio.BufferedSink;
 
 /**
  * HTTP Sync Service
@@ -46,103 +56,237 @@ public class SyncService {
     // Thread-safe busy flag ()
     private static final AtomicBoolean isSyncing = new AtomicBoolean(false);
     
+    // Shared client (connection pool reuse); per-attempt timeout is set on each Call
+    private static final OkHttpClient client = new OkHttpClient.Builder()
+            .connectTimeout(30, TimeUnit.SECONDS)
+            .readTimeout(30, TimeUnit.SECONDS)
+            .writeTimeout(30, TimeUnit.SECONDS)
+            .build();
+    
+    // Currently running sync (for cancel())
+    private static volatile SyncFuture currentSync;
+    
     /**
      * Sync locations to server with LOCKING mechanism
      * AtomicBoolean compareAndSet
      */
-    public static void sync(Context context) {
+    public static Future<SyncResult> sync(Context context) {
+        return sync(context, null);
+    }
+    
+    /**
+     * Sync locations to server and complete callback (on UI thread) with the synced records.
+     * Returned Future can be used to wait for or cancel the sync.
+     */
+    public static Future<SyncResult> sync(Context context, SyncCallback callback) {
+        return start(context, false, callback);
+    }
+    
+    /**
+     * Auto-sync trigger (location / heartbeat / connectivity / http flush):
+     * autoSyncThreshold'un altındaysa sync yapılmaz. Explicit sync() threshold'u uygulamaz
+     */
+    public static Future<SyncResult> autoSync(Context context) {
+        return start(context, true, null);
+    }
+    
+    private static Future<SyncResult> start(Context context, boolean auto, SyncCallback callback) {
         // Thread-safe check ()
-        if (isSyncing.compareAndSet(false, true)) {
-            new SyncTask(context).execute();
-        } else {
+        if (!isSyncing.compareAndSet(false, true)) {
             LogHelper.d(context, TAG, "⏸️ HttpService is busy, skipping");
+            return completed(new SyncResult(false, 0, "HTTP_SERVICE_BUSY"), callback);
+        }
+        
+        SyncFuture future = new SyncFuture(new SyncTask(context, auto), callback);
+        try {
+            currentSync = future;
+            ThreadPools.io().execute(future);
+        } catch (RejectedExecutionException e) {
+            currentSync = null;
+            isSyncing.set(false);
+            LogHelper.e(TAG, "❌ Sync rejected: " + e.getMessage());
+            return completed(new SyncResult(false, 0, "HTTP_SERVICE_BUSY"), callback);
+        }
+        return future;
+    }
+    
+    /**
+     * Cancel in-flight sync (aborts the HTTP call, unlocks records)
+     */
+    public static boolean cancel() {
+        SyncFuture future = currentSync;
+        return future != null && future.cancel(true);
+    }
+    
+    /**
+     * Check if a sync is in progress
+     */
+    public static boolean isSyncing() {
+        return isSyncing.get();
+    }
+    
+    private static Future<SyncResult> completed(SyncResult result, SyncCallback callback) {
+        FutureTask<SyncResult> future = new FutureTask<>(() -> result);
+        future.run();
+        deliver(result, callback);
+        return future;
+    }
+    
+    private static void deliver(SyncResult result, SyncCallback callback) {
+        if (callback == null) {
+            return;
+        }
+        BackgroundLocationAdapter.getUiHandler().post(() -> {
+            if (result.success) {
+                callback.onSuccess(result.locations);
+            } else {
+                callback.onFailure(result.message);
+            }
+        });
+    }
+    
+    /**
+     * Cancellation token shared between the Future and the running SyncTask
+     */
+    private static class CancellationToken {
+        private final AtomicBoolean cancelled = new AtomicBoolean(false);
+        private volatile Call call;
+        
+        void cancel() {
+            if (cancelled.compareAndSet(false, true)) {
+                Call inflight = call;
+                if (inflight != null) {
+                    inflight.cancel();
+                }
+            }
+        }
+        
+        boolean isCancelled() {
+            return cancelled.get();
+        }
+        
+        void setCall(Call call) {
+            this.call = call;
+            if (cancelled.get()) {
+                call.cancel();
+            }
+        }
+    }
+    
+    /**
+     * Future wrapper: releases busy flag and completes SyncCallback exactly once
+     */
+    private static class SyncFuture extends FutureTask<SyncResult> {
+        private final SyncTask task;
+        private final SyncCallback callback;
+        
+        SyncFuture(SyncTask task, SyncCallback callback) {
+            super(task);
+            this.task = task;
+            this.callback = callback;
+        }
+        
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            task.token.cancel();
+            return super.cancel(mayInterruptIfRunning);
+        }
+        
+        @Override
+        protected void done() {
+            // Cancelled before it ever ran: SyncTask.call() won't release the flag
+            if (!task.started.get()) {
+                isSyncing.set(false);
+            }
+            if (currentSync == this) {
+                currentSync = null;
+            }
+            
+            SyncResult result;
+            if (isCancelled()) {
+                result = new SyncResult(false, 0, "SYNC_CANCELLED");
+            } else {
+                try {
+                    result = get();
+                } catch (InterruptedException | ExecutionException e) {
+                    result = new SyncResult(false, 0, e.getMessage());
+                }
+            }
+            
+            if (!result.success && result.message != null) {
+                LogHelper.e(TAG, "❌ Sync failed: " + result.message);
+            } else if (result.success && result.count > 0) {
+                LogHelper.d(TAG, "✅ Sync completed: " + result.count + " locations synced");
+            }
+            deliver(result, callback);
         }
     }
     
-    private static class SyncTask extends AsyncTask<Void, Void, SyncResult> {
-        private Context context;
-        private Config config;
-        private SQLiteLocationDAO database;
+    private static class SyncTask implements Callable<SyncResult> {
+        private final Context context;
+        private final Config config;
+        private final SQLiteLocationDAO database;
+        private final boolean auto;
+        private final CancellationToken token = new CancellationToken();
+        private final AtomicBoolean started = new AtomicBoolean(false);
+        private final List<LocationModel> synced = new ArrayList<>();
         
-        public SyncTask(Context context) {
+        SyncTask(Context context, boolean auto) {
             this.context = context.getApplicationContext();
+            this.auto = auto;
             this.config = Config.getInstance(this.context);
             this.database = SQLiteLocationDAO.getInstance(this.context);
         }
         
         @Override
-        protected void onPreExecute() {
-            // isSyncing already set in sync() method
+        public SyncResult call() {
+            started.set(true);
+            try {
+                // Batch loop (önceki recursive doInBackground() yerine)
+                while (true) {
+                    SyncResult result = syncBatch();
+                    if (!result.success || !result.hasMore || token.isCancelled()) {
+                        return result;
+                    }
+                }
+            } finally {
+                // Release busy flag on the worker thread (main looper'a bağımlı değil)
+                isSyncing.set(false);
+            }
         }
         
-        @Override
-        protected SyncResult doInBackground(Void... voids) {
+        private SyncResult syncBatch() {
+            List<LocationModel> locations = null;
             try {
                 // 1. Get unlocked count ()
                 int unlockedCount = database.count(true); // only unlocked
                 
                 LogHelper.d(TAG, "📊 Unlocked locations: " + unlockedCount);
                 
-                // Check threshold
-                if (config.autoSyncThreshold > 0 && unlockedCount < config.autoSyncThreshold) {
+                // Check threshold (yalnızca auto-sync tetiklerinde)
+                if (auto && config.autoSyncThreshold > 0 && unlockedCount < config.autoSyncThreshold) {
                     android.util.Log.i(TAG, "⏸️ Below threshold (" + config.autoSyncThreshold + "), skipping sync");
-                    return new SyncResult(true, 0, "Below threshold");
+                    return new SyncResult(true, synced, "Below threshold");
                 }
                 
                 // 2. CRITICAL: Get locations WITH LOCKING ()
                 // This will SELECT WHERE locked=0 and UPDATE SET locked=1
-                List<LocationModel> locations = database.allWithLocking(config.maxBatchSize);
+                locations = database.allWithLocking(config.maxBatchSize);
                 
                 if (locations.isEmpty()) {
                     LogHelper.d(TAG, "ℹ️ No locations to sync");
-                    return new SyncResult(true, 0, "No locations to sync");
+                    return new SyncResult(true, synced, "No locations to sync");
                 }
                 
                 LogHelper.d(TAG, "🔒 Locked " + locations.size() + " records (allWithLocking)");
                 
-                // 4. Convert to JSON array (batch)
-                JSONArray jsonArray = new JSONArray();
-                for (LocationModel location : locations) {
-                    jsonArray.put(location.toJSON());
-                }
-                
-                // 5. Prepare request body
-                JSONObject body = new JSONObject();
-                
-                // Check batchSync mode
-                if (config.batchSync) {
-                    // Batch mode: wrap in "locations" array
-                    body.put("locations", jsonArray);
-                } else {
-                    // Single mode: send first location only
-                    if (jsonArray.length() > 0) {
-                        body = jsonArray.getJSONObject(0);
-                    }
-                }
-                
-                // Merge params from config
-                if (config.params != null && !config.params.isEmpty()) {
-                    try {
-                        JSONObject paramsJson = new JSONObject(config.params);
-                        Iterator<String> keys = paramsJson.keys();
-                        while (keys.hasNext()) {
-                            String key = keys.next();
-                            body.put(key, paramsJson.get(key));
-                        }
-                    } catch (Exception e) {
-                        LogHelper.w(TAG, "Failed to merge params: " + e.getMessage());
-                    }
-                }
-                
-                // 6. Create HTTP client
-                OkHttpClient client = new OkHttpClient.Builder()
-                        .connectTimeout(30, TimeUnit.SECONDS)
-                        .readTimeout(30, TimeUnit.SECONDS)
-                        .writeTimeout(30, TimeUnit.SECONDS)
-                        .build();
+                // 4-6. Request body: compiled template'ler varsa satırlar doğrudan stream edilir
+                PayloadTemplate.update(config);
+                RequestBody requestBody = PayloadTemplate.isEnabled()
+                    ? templateBody(locations, config.batchSync)
+                    : RequestBody.create(jsonBody(config, locations).toString(), JSON);
                 
                 // 7. Build request with headers
-                RequestBody requestBody = RequestBody.create(body.toString(), JSON);
                 Request.Builder requestBuilder = new Request.Builder()
                         .url(config.url);
                 
@@ -172,82 +316,202 @@ public class SyncService {
                 
                 LogHelper.d(TAG, "HTTP " + config.method + " batch (" + locations.size() + ") to " + config.url);
                 
-                // 8. Execute request
-                Response response = client.newCall(request).execute();
-                int statusCode = response.code();
-                String responseBody = response.body() != null ? response.body().string() : "";
+                // 8. Execute request (per-attempt timeout, cancellable)
+                Call call = client.newCall(request);
+                call.timeout().timeout(Math.max(config.httpTimeout, 1000), TimeUnit.MILLISECONDS);
+                token.setCall(call);
                 
-                boolean success = response.isSuccessful();
+                int statusCode;
+                String responseBody;
+                boolean success;
+                try (Response response = call.execute()) {
+                    statusCode = response.code();
+                    responseBody = response.body() != null ? response.body().string() : "";
+                    success = response.isSuccessful();
+                } finally {
+                    token.call = null;
+                }
                 
                 LogHelper.d(TAG, "HTTP Response: " + statusCode + " - " +
                     (success ? "SUCCESS" : "FAILED"));
                 
-                // 9. Emit HTTP event (direct EventBus)
+                // 9. Emit HTTP event (direct dispatch)
                 HttpResponseEvent httpEvent = new HttpResponseEvent(statusCode, success, responseBody);
-                EventBus.getDefault().post(httpEvent);
+                EventDispatcher.getInstance().post(httpEvent);
                 
                 if (success) {
                     // 10. SUCCESS: Delete synced locations ()
                     database.destroyAll(locations);
                     LogHelper.d(TAG, "✅ DELETED " + locations.size() + " synced records");
                     
-                    // Check if there are more to sync (recursive pattern)
+                    synced.addAll(locations);
+                    
+                    // Check if there are more to sync (loop in call())
                     int remaining = database.count(true); // unlocked count
-                    if (config.autoSyncThreshold > 0 && remaining >= config.autoSyncThreshold) {
-                        // Recursively sync more
+                    SyncResult result = new SyncResult(true, synced, responseBody);
+                    boolean more = auto
+                        ? config.autoSyncThreshold > 0 && remaining >= config.autoSyncThreshold
+                        : remaining > 0;
+                    if (more) {
                         LogHelper.d(TAG, "🔄 More locations to sync (" + remaining + "), continuing...");
-                        return doInBackground(); // Recursive call
+                        result.hasMore = true;
                     }
-                    
-                    return new SyncResult(true, locations.size(), responseBody);
+                    return result;
                 } else {
                     // 11. FAILURE: Unlock locations for retry ()
                     database.unlock(locations);
                     LogHelper.w(TAG, "🔓 UNLOCKED " + locations.size() + " records (will retry later)");
                     
-                    return new SyncResult(false, 0, "HTTP " + statusCode + ": " + responseBody);
+                    // Önceki batch'ler upload edilip silindi; sayıları sonuçta kalsın
+                    return new SyncResult(false, synced, "HTTP " + statusCode + ": " + responseBody);
                 }
                 
             } catch (Exception e) {
-                e.printStackTrace();
+                if (token.isCancelled()) {
+                    LogHelper.w(TAG, "⏹️ Sync cancelled");
+                } else {
+                    e.printStackTrace();
+                }
                 
-                // On exception, unlock all to be safe ()
+                // Unlock this batch for retry (unlockAll fallback if batch unknown)
                 try {
-                    database.unlockAll();
-                    LogHelper.w(TAG, "🔓 Unlocked all locations due to exception");
+                    if (locations != null && !locations.isEmpty()) {
+                        database.unlock(locations);
+                        LogHelper.w(TAG, "🔓 Unlocked " + locations.size() + " records due to exception");
+                    } else {
+                        database.unlockAll();
+                        LogHelper.w(TAG, "🔓 Unlocked all locations due to exception");
+                    }
                 } catch (Exception ex) {
                     ex.printStackTrace();
                 }
                 
-                return new SyncResult(false, 0, e.getMessage());
+                return new SyncResult(false, synced, token.isCancelled() ? "SYNC_CANCELLED" : e.getMessage());
             }
         }
+    }
+    
+    /**
+     * Default body: location JSON (batch: { locations: [...] }) merged with Config.params
+     */
+    private static JSONObject jsonBody(Config config, List<LocationModel> locations) throws Exception {
+        JSONArray jsonArray = new JSONArray();
+        for (LocationModel location : locations) {
+            jsonArray.put(location.toJSON());
+        }
         
-        @Override
-        protected void onPostExecute(SyncResult result) {
-            // Release busy flag ()
-            isSyncing.set(false);
+        JSONObject body = new JSONObject();
+        
+        // Check batchSync mode
+        if (config.batchSync) {
+            // Batch mode: wrap in "locations" array
+            body.put("locations", jsonArray);
+        } else {
+            // Single mode: send first location only
+            if (jsonArray.length() > 0) {
+                body = jsonArray.getJSONObject(0);
+            }
+        }
+        
+        // Merge params from config
+        if (config.params != null && !config.params.isEmpty()) {
+            try {
+                JSONObject paramsJson = new JSONObject(config.params);
+                Iterator<String> keys = paramsJson.keys();
+                while (keys.hasNext()) {
+                    String key = keys.next();
+                    body.put(key, paramsJson.get(key));
+                }
+            } catch (Exception e) {
+                LogHelper.w(TAG, "Failed to merge params: " + e.getMessage());
+            }
+        }
+        return body;
+    }
+    
+    /**
+     * Templated body, rendered row by row into the request sink:
+     * batch: { "locations": [row, ...], ...params }, single: { ...row, ...params } (untemplated body ile aynı şekil)
+     * Template'i olmayan satırlar (ör. geofenceTemplate yalnızca) varsayılan JSON ile yazılır.
+     */
+    private static RequestBody templateBody(List<LocationModel> locations, boolean batch) {
+        final String params = PayloadTemplate.getParamsFragment();
+        return new RequestBody() {
+            @Override
+            public MediaType contentType() {
+                return JSON;
+            }
             
-            if (!result.success && result.message != null) {
-                LogHelper.e(TAG, "❌ Sync failed: " + result.message);
-            } else if (result.success && result.count > 0) {
-                LogHelper.d(TAG, "✅ Sync completed: " + result.count + " locations synced");
+            @Override
+            public void writeTo(BufferedSink sink) throws IOException {
+                if (batch) {
+                    sink.writeUtf8("{\"locations\":[");
+                    for (int i = 0; i < locations.size(); i++) {
+                        if (i > 0) {
+                            sink.writeByte(',');
+                        }
+                        writeRow(locations.get(i), sink);
+                    }
+                    sink.writeByte(']');
+                    sink.writeUtf8(params);
+                    sink.writeByte('}');
+                } else {
+                    writeSingle(locations.get(0), params, sink);
+                }
             }
+        };
+    }
+    
+    /**
+     * Single mode: row at JSON root with params merged in (jsonBody ile aynı şekil)
+     */
+    private static void writeSingle(LocationModel location, String params, BufferedSink sink) throws IOException {
+        Buffer row = new Buffer();
+        writeRow(location, row);
+        String json = row.readUtf8().trim();
+        if (params.isEmpty() || !json.endsWith("}")) {
+            // Object olmayan template'e params eklenemez (validate geçerli JSON garanti eder)
+            sink.writeUtf8(json);
+            return;
+        }
+        String members = json.substring(0, json.length() - 1);
+        sink.writeUtf8(members);
+        // "{}" template: params'ın baştaki virgülü atılır
+        sink.writeUtf8(members.trim().equals("{") ? params.substring(1) : params);
+        sink.writeByte('}');
+    }
+    
+    private static void writeRow(LocationModel location, BufferedSink sink) throws IOException {
+        PayloadTemplate template = PayloadTemplate.forLocation(location);
+        if (template != null) {
+            template.render(location, sink);
+        } else {
+            sink.writeUtf8(location.toJSON().toString());
         }
     }
     
     /**
      * Result class for sync operation
      */
-    private static class SyncResult {
-        boolean success;
-        int count;
-        String message;
+    public static class SyncResult {
+        public final boolean success;
+        public final int count;
+        public final String message;
+        public final List<LocationModel> locations;
+        boolean hasMore = false;
         
         SyncResult(boolean success, int count, String message) {
             this.success = success;
             this.count = count;
             this.message = message;
+            this.locations = new ArrayList<>();
+        }
+        
+        SyncResult(boolean success, List<LocationModel> synced, String message) {
+            this.success = success;
+            this.count = synced.size();
+            this.message = message;
+            this.locations = new ArrayList<>(synced);
         }
     }
     
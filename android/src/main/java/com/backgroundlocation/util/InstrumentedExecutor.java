@@ -0,0 +1,261 @@
+package com.backgroundlocation.util;
+
+import android.os.Looper;
+
+import org.json.JSONObject;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Instrumented Executor
+ * Bounded ThreadPoolExecutor that records queue depth, wait time and run time
+ * so contention between DB / IO / compute work is visible under load.
+ */
+public class InstrumentedExecutor extends ThreadPoolExecutor {
+
+    private static final String TAG = "InstrumentedExecutor";
+
+    private final String name;
+    private final int queueCapacity;
+
+    private final AtomicLong submitted = new AtomicLong(0);
+    private final AtomicLong completed = new AtomicLong(0);
+    private final AtomicLong failed = new AtomicLong(0);
+    private final AtomicLong rejected = new AtomicLong(0);
+    private final AtomicLong dropped = new AtomicLong(0);
+    private final AtomicLong totalWaitNanos = new AtomicLong(0);
+    private final AtomicLong maxWaitNanos = new AtomicLong(0);
+    private final AtomicLong totalRunNanos = new AtomicLong(0);
+    private final AtomicLong maxRunNanos = new AtomicLong(0);
+    private final AtomicInteger maxQueueDepth = new AtomicInteger(0);
+
+    public InstrumentedExecutor(String name, int corePoolSize, int maximumPoolSize, int queueCapacity,
+                                BlockingQueue<Runnable> queue, RejectedExecutionHandler rejectionPolicy) {
+        super(corePoolSize, maximumPoolSize, 30L, TimeUnit.SECONDS, queue);
+        this.name = name;
+        this.queueCapacity = queueCapacity;
+        setThreadFactory(new NamedThreadFactory("BackgroundLocation-" + name));
+        setRejectedExecutionHandler(new CountingRejectionHandler(rejectionPolicy));
+        allowCoreThreadTimeOut(true);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        if (command == null) {
+            throw new NullPointerException();
+        }
+        submitted.incrementAndGet();
+        super.execute(command instanceof TimedRunnable ? command : new TimedRunnable(command));
+
+        int depth = getQueue().size();
+        int max;
+        while (depth > (max = maxQueueDepth.get())) {
+            if (maxQueueDepth.compareAndSet(max, depth)) {
+                break;
+            }
+        }
+    }
+
+    @Override
+    protected void beforeExecute(Thread thread, Runnable runnable) {
+        super.beforeExecute(thread, runnable);
+        if (runnable instanceof TimedRunnable) {
+            TimedRunnable timed = (TimedRunnable) runnable;
+            timed.startedAt = System.nanoTime();
+            long wait = timed.startedAt - timed.enqueuedAt;
+            totalWaitNanos.addAndGet(wait);
+            updateMax(maxWaitNanos, wait);
+        }
+    }
+
+    @Override
+    protected void afterExecute(Runnable runnable, Throwable throwable) {
+        super.afterExecute(runnable, throwable);
+        if (runnable instanceof TimedRunnable) {
+            TimedRunnable timed = (TimedRunnable) runnable;
+            long run = System.nanoTime() - timed.startedAt;
+            totalRunNanos.addAndGet(run);
+            updateMax(maxRunNanos, run);
+        }
+        // submit(): FutureTask exception'ı yutar, sonuçtan çıkar
+        if (throwable == null && runnable instanceof TimedRunnable) {
+            Runnable delegate = ((TimedRunnable) runnable).delegate;
+            if (delegate instanceof Future && ((Future<?>) delegate).isDone()) {
+                try {
+                    ((Future<?>) delegate).get();
+                } catch (CancellationException e) {
+                    // İptal edilen task hata sayılmaz
+                } catch (ExecutionException e) {
+                    throwable = e.getCause();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+        if (throwable != null) {
+            failed.incrementAndGet();
+            LogHelper.e(TAG, "[" + name + "] task failed: " + throwable.getMessage(), throwable);
+        }
+        completed.incrementAndGet();
+    }
+
+    /**
+     * Snapshot of pool metrics
+     */
+    public JSONObject getMetrics() {
+        JSONObject json = new JSONObject();
+        try {
+            long done = Math.max(completed.get(), 1);
+            json.put("name", name);
+            json.put("poolSize", getPoolSize());
+            json.put("activeCount", getActiveCount());
+            json.put("maxPoolSize", getMaximumPoolSize());
+            json.put("queueDepth", getQueue().size());
+            json.put("maxQueueDepth", maxQueueDepth.get());
+            json.put("queueCapacity", queueCapacity);
+            json.put("submitted", submitted.get());
+            json.put("completed", completed.get());
+            json.put("failed", failed.get());
+            json.put("rejected", rejected.get());
+            json.put("dropped", dropped.get());
+            json.put("avgWaitMs", nanosToMillis(totalWaitNanos.get() / done));
+            json.put("maxWaitMs", nanosToMillis(maxWaitNanos.get()));
+            json.put("avgRunMs", nanosToMillis(totalRunNanos.get() / done));
+            json.put("maxRunMs", nanosToMillis(maxRunNanos.get()));
+        } catch (Exception e) {
+            LogHelper.w(TAG, "Failed to build metrics: " + e.getMessage());
+        }
+        return json;
+    }
+
+    private static double nanosToMillis(long nanos) {
+        return nanos / 1000000.0;
+    }
+
+    private static void updateMax(AtomicLong target, long value) {
+        long max;
+        while (value > (max = target.get())) {
+            if (target.compareAndSet(max, value)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Runnable wrapper carrying enqueue / start timestamps
+     */
+    private static class TimedRunnable implements Runnable {
+        private final Runnable delegate;
+        private final long enqueuedAt = System.nanoTime();
+        private long startedAt;
+
+        TimedRunnable(Runnable delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void run() {
+            delegate.run();
+        }
+    }
+
+    /**
+     * Counts rejections, then applies the configured policy
+     */
+    private class CountingRejectionHandler implements RejectedExecutionHandler {
+        private final RejectedExecutionHandler delegate;
+
+        CountingRejectionHandler(RejectedExecutionHandler delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void rejectedExecution(Runnable runnable, ThreadPoolExecutor executor) {
+            rejected.incrementAndGet();
+            LogHelper.w(TAG, "[" + name + "] queue full (" + getQueue().size() + "), applying " +
+                delegate.getClass().getSimpleName());
+            delegate.rejectedExecution(runnable, executor);
+        }
+    }
+
+    /**
+     * Bounded blocking offer: kuyruk doluysa timeoutMs kadar yer bekler, yine dolu ise task log'lanıp
+     * düşürülür (dropped). Task asla caller thread'inde çalışmaz; main thread ve pool'un kendi
+     * thread'leri beklemez (ANR / kendi kuyruğunu bekleyerek kilitlenme).
+     */
+    public static class BlockingOfferPolicy implements RejectedExecutionHandler {
+        private final long timeoutMs;
+
+        public BlockingOfferPolicy(long timeoutMs) {
+            this.timeoutMs = timeoutMs;
+        }
+
+        @Override
+        public void rejectedExecution(Runnable runnable, ThreadPoolExecutor executor) {
+            if (executor.isShutdown()) {
+                drop(runnable, executor, "executor shut down");
+                return;
+            }
+            boolean wait = Looper.myLooper() != Looper.getMainLooper() && !isPoolThread(executor);
+            try {
+                boolean queued = wait
+                    ? executor.getQueue().offer(runnable, timeoutMs, TimeUnit.MILLISECONDS)
+                    : executor.getQueue().offer(runnable);
+                if (!queued) {
+                    drop(runnable, executor, wait ? "queue full after " + timeoutMs + "ms" : "queue full");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                drop(runnable, executor, "interrupted");
+            }
+        }
+
+        private static boolean isPoolThread(ThreadPoolExecutor executor) {
+            return executor instanceof InstrumentedExecutor &&
+                Thread.currentThread().getName().startsWith("BackgroundLocation-" + ((InstrumentedExecutor) executor).name + "-");
+        }
+
+        private static void drop(Runnable runnable, ThreadPoolExecutor executor, String reason) {
+            if (executor instanceof InstrumentedExecutor) {
+                InstrumentedExecutor instrumented = (InstrumentedExecutor) executor;
+                instrumented.dropped.incrementAndGet();
+                LogHelper.e(TAG, "[" + instrumented.name + "] task dropped: " + reason);
+            } else {
+                LogHelper.e(TAG, "Task dropped: " + reason);
+            }
+            // submit() çağıranı beklemede kalmasın
+            if (runnable instanceof TimedRunnable && ((TimedRunnable) runnable).delegate instanceof Future) {
+                ((Future<?>) ((TimedRunnable) runnable).delegate).cancel(false);
+            }
+        }
+    }
+
+    private static class NamedThreadFactory implements ThreadFactory {
+        private final String prefix;
+        private final AtomicInteger count = new AtomicInteger(0);
+
+        NamedThreadFactory(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, prefix + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.backgroundlocation.util;
+
+import org.json.JSONObject;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Thread Pools
+ * Plugin'in executor topolojisi:
+ * - db: tek writer thread (SQLite yazma sırası korunur)
+ * - dbRead: WAL reader'lar (writer'ı beklemeden okuma)
+ * - io: network (HTTP sync)
+ * - compute: callback'ler, model dönüşümleri ve diğer kısa işler
+ * Hepsi bounded queue + rejection policy ile çalışır ve metrik toplar; hiçbir policy task'ı
+ * caller thread'inde çalıştırmaz.
+ */
+public final class ThreadPools {
+
+    private static final int CPU_COUNT = Runtime.getRuntime().availableProcessors();
+
+    private static final int DB_QUEUE_CAPACITY = 1024;
+    private static final int DB_READ_QUEUE_CAPACITY = 256;
+    private static final int IO_QUEUE_CAPACITY = 64;
+    private static final int COMPUTE_QUEUE_CAPACITY = 256;
+
+    private static final long DB_OFFER_TIMEOUT_MS = 2000;
+    private static final long COMPUTE_OFFER_TIMEOUT_MS = 500;
+
+    // Single writer. Writer işi asla caller'da çalışmaz (FIFO yazma sırası ve main thread'de DB olmaması):
+    // kuyruk doluysa üretici bounded süre bekler, sonra task log'lanıp dropped sayılır
+    private static final InstrumentedExecutor DB = new InstrumentedExecutor(
+        "db", 1, 1, DB_QUEUE_CAPACITY,
+        new LinkedBlockingQueue<Runnable>(DB_QUEUE_CAPACITY),
+        new InstrumentedExecutor.BlockingOfferPolicy(DB_OFFER_TIMEOUT_MS));
+
+    // WAL readers. Abort: main thread'e (caller) düşmemek için; AsyncDAO failure callback'i döner
+    private static final InstrumentedExecutor DB_READ = new InstrumentedExecutor(
+        "dbRead", 2, 2, DB_READ_QUEUE_CAPACITY,
+        new LinkedBlockingQueue<Runnable>(DB_READ_QUEUE_CAPACITY),
+        new ThreadPoolExecutor.AbortPolicy());
+
+    // Network. Abort: çağıran (SyncService) RejectedExecutionException'ı yakalar, bir sonraki tetiklemede tekrar denenir
+    private static final InstrumentedExecutor IO = new InstrumentedExecutor(
+        "io", 2, 2, IO_QUEUE_CAPACITY,
+        new LinkedBlockingQueue<Runnable>(IO_QUEUE_CAPACITY),
+        new ThreadPoolExecutor.AbortPolicy());
+
+    private static final InstrumentedExecutor COMPUTE = new InstrumentedExecutor(
+        "compute", Math.max(2, Math.min(CPU_COUNT - 1, 4)), Math.max(2, Math.min(CPU_COUNT - 1, 4)),
+        COMPUTE_QUEUE_CAPACITY,
+        new LinkedBlockingQueue<Runnable>(COMPUTE_QUEUE_CAPACITY),
+        new InstrumentedExecutor.BlockingOfferPolicy(COMPUTE_OFFER_TIMEOUT_MS));
+
+    private ThreadPools() {
+    }
+
+    /**
+     * Single-writer database thread
+     */
+    public static ExecutorService db() {
+        return DB;
+    }
+
+    /**
+     * Database reader pool (WAL)
+     */
+    public static ExecutorService dbRead() {
+        return DB_READ;
+    }
+
+    /**
+     * Network I/O pool
+     */
+    public static ExecutorService io() {
+        return IO;
+    }
+
+    /**
+     * General purpose compute pool
+     */
+    public static ExecutorService compute() {
+        return COMPUTE;
+    }
+
+    /**
+     * Check if current thread is the DB writer thread
+     */
+    public static boolean isDbThread() {
+        return Thread.currentThread().getName().startsWith("BackgroundLocation-db-");
+    }
+
+    /**
+     * Metrics for all pools (queue depth, wait time, run time, rejections)
+     */
+    public static JSONObject getMetrics() {
+        JSONObject json = new JSONObject();
+        try {
+            json.put(DB.getName(), DB.getMetrics());
+            json.put(DB_READ.getName(), DB_READ.getMetrics());
+            json.put(IO.getName(), IO.getMetrics());
+            json.put(COMPUTE.getName(), COMPUTE.getMetrics());
+        } catch (Exception e) {
+            LogHelper.w("ThreadPools", "Failed to build metrics: " + e.getMessage());
+        }
+        return json;
+    }
+}
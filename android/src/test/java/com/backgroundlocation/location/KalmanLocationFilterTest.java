@@ -0,0 +1,237 @@
+package com.backgroundlocation.location;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * KalmanLocationFilter
+ * Sentetik trace'ler (sabit hız + Gauss gürültü + enjekte sıçramalar) üzerinde outlier eleme,
+ * reset kuralları, rebase ve throughput.
+ */
+public class KalmanLocationFilterTest {
+
+    private static final double EARTH_RADIUS = 6371008.8;
+    private static final double START_LAT = 41.0082;
+    private static final double START_LNG = 28.9784;
+    private static final long INTERVAL_MS = 1000;
+
+    private KalmanLocationFilter filter;
+
+    @Before
+    public void setUp() {
+        filter = KalmanLocationFilter.getInstance();
+        filter.reset();
+    }
+
+    @Test
+    public void rejectsInjectedJumpsAndSmoothsNoise() {
+        Random random = new Random(1);
+        double speed = 12; // m/s
+        double noise = 6;  // metre (σ)
+        int fixes = 600;
+        int jumpsRejected = 0;
+        int jumps = 0;
+        double rawError = 0;
+        double filteredError = 0;
+        double filteredSpeed = 0;
+        int measured = 0;
+
+        for (int i = 0; i < fixes; i++) {
+            double east = speed * i * 0.6;
+            double north = speed * i * 0.8;
+            boolean jump = i > 20 && i % 50 == 0;
+            double noiseEast = random.nextGaussian() * noise;
+            double noiseNorth = random.nextGaussian() * noise;
+            if (jump) {
+                // Multipath / hücre baz istasyonu sıçraması: 400-900 m
+                double distance = 400 + random.nextDouble() * 500;
+                double bearing = random.nextDouble() * 2 * Math.PI;
+                noiseEast = distance * Math.sin(bearing);
+                noiseNorth = distance * Math.cos(bearing);
+                jumps++;
+            }
+            boolean accepted = filter.update(lat(north + noiseNorth), lng(east + noiseEast), (float) noise, i * INTERVAL_MS);
+            if (jump) {
+                assertFalse("jump at fix " + i + " accepted", accepted);
+                jumpsRejected++;
+                continue;
+            }
+            assertTrue("regular fix " + i + " rejected", accepted);
+            if (i >= 30) {
+                rawError += noiseEast * noiseEast + noiseNorth * noiseNorth;
+                filteredError += squaredError(east, north);
+                filteredSpeed += filter.getSpeed();
+                measured++;
+            }
+        }
+
+        assertEquals(jumps, jumpsRejected);
+        double rawRms = Math.sqrt(rawError / measured);
+        double filteredRms = Math.sqrt(filteredError / measured);
+        assertTrue("filtered RMS " + filteredRms + " not below raw " + rawRms, filteredRms < rawRms * 0.8);
+        assertEquals(speed, filteredSpeed / measured, 1.0);
+    }
+
+    @Test
+    public void resetsAfterConsecutiveRejects() {
+        driveStraight(30, 0);
+
+        // Tünel çıkışı: konum gerçekten 2 km ileride; ilk MAX_CONSECUTIVE_REJECTS fix reddedilir
+        double northAfterTunnel = 2000;
+        long time = 30 * INTERVAL_MS;
+        for (int i = 0; i < KalmanLocationFilter.MAX_CONSECUTIVE_REJECTS; i++) {
+            assertFalse(filter.update(lat(northAfterTunnel + i), lng(0), 5, time));
+            time += INTERVAL_MS;
+        }
+        // Sonraki fix filtreyi ölçümde yeniden başlatır
+        assertTrue(filter.update(lat(northAfterTunnel + 3), lng(0), 5, time));
+        assertEquals(lat(northAfterTunnel + 3), filter.getLatitude(), 1e-9);
+        assertEquals(lng(0), filter.getLongitude(), 1e-9);
+
+        // Yeni konumdan takip devam eder
+        time += INTERVAL_MS;
+        assertTrue(filter.update(lat(northAfterTunnel + 4), lng(0), 5, time));
+    }
+
+    @Test
+    public void resetsAfterGap() {
+        driveStraight(30, 0);
+
+        long time = 29 * INTERVAL_MS + KalmanLocationFilter.MAX_GAP_MS + 1;
+        // Gap sonrası uzak fix: gating uygulanmaz, filtre ölçümde yeniden başlar
+        assertTrue(filter.update(lat(5000), lng(3000), 8, time));
+        assertEquals(lat(5000), filter.getLatitude(), 1e-9);
+        assertEquals(lng(3000), filter.getLongitude(), 1e-9);
+        assertEquals(0f, filter.getSpeed(), 0f);
+    }
+
+    @Test
+    public void gapWithinLimitStillGates() {
+        driveStraight(30, 0);
+
+        long time = 29 * INTERVAL_MS + KalmanLocationFilter.MAX_GAP_MS / 10;
+        assertFalse(filter.update(lat(5000), lng(3000), 8, time));
+    }
+
+    @Test
+    public void rebasePreservesPosition() {
+        driveStraight(40, 0);
+        double latitude = filter.getLatitude();
+        double longitude = filter.getLongitude();
+        float speed = filter.getSpeed();
+        float accuracy = filter.getAccuracy();
+
+        filter.rebase();
+
+        assertEquals(latitude, filter.getLatitude(), 0);
+        assertEquals(longitude, filter.getLongitude(), 0);
+        assertEquals(speed, filter.getSpeed(), 0);
+        assertEquals(accuracy, filter.getAccuracy(), 0);
+
+        // Rebase'li ve rebase'siz filtre aynı ölçümlerle aynı tahmini üretir (projeksiyon farkı < 1 cm)
+        double[] rebased = continueStraight(40, 20);
+        filter.reset();
+        driveStraight(40, 0);
+        double[] plain = continueStraight(40, 20);
+        assertEquals(0, distance(rebased[0], rebased[1], plain[0], plain[1]), 0.01);
+    }
+
+    @Test
+    public void tracksAcrossAutomaticRebase() {
+        // 35 m/s ile ~70 km: REBASE_DISTANCE en az bir kez aşılır
+        double speed = 35;
+        int fixes = (int) (KalmanLocationFilter.REBASE_DISTANCE * 1.4 / speed);
+        Random random = new Random(3);
+        double maxError = 0;
+        int rejected = 0;
+        for (int i = 0; i < fixes; i++) {
+            double north = speed * i;
+            double east = speed * i * 0.25;
+            if (!filter.update(lat(north + random.nextGaussian() * 5), lng(east + random.nextGaussian() * 5), 5,
+                    i * INTERVAL_MS)) {
+                rejected++;
+                continue;
+            }
+            if (i > 10) {
+                maxError = Math.max(maxError, Math.sqrt(squaredError(east, north)));
+            }
+        }
+        // Gate %99.9: Gauss gürültüde seyrek yanlış red beklenir, rebase sonrası artmamalı
+        assertTrue("rejected " + rejected + "/" + fixes, rejected <= fixes / 100);
+        assertTrue("max error " + maxError + "m", maxError < 25);
+    }
+
+    @Test
+    public void throughput() {
+        Random random = new Random(5);
+        int fixes = 200_000;
+        double[] lats = new double[fixes];
+        double[] lngs = new double[fixes];
+        for (int i = 0; i < fixes; i++) {
+            lats[i] = lat(8.0 * i + random.nextGaussian() * 5);
+            lngs[i] = lng(6.0 * i + random.nextGaussian() * 5);
+        }
+        // Warm-up
+        for (int i = 0; i < fixes; i++) {
+            filter.update(lats[i], lngs[i], 5, i * INTERVAL_MS);
+        }
+        filter.reset();
+
+        long started = System.nanoTime();
+        for (int i = 0; i < fixes; i++) {
+            filter.update(lats[i], lngs[i], 5, i * INTERVAL_MS);
+        }
+        long perUpdate = (System.nanoTime() - started) / fixes;
+
+        System.out.println("KalmanLocationFilter: " + perUpdate + "ns/update (" +
+            (1_000_000_000L / Math.max(perUpdate, 1)) + " updates/s)");
+        // Cömert sınır: fix başına allocation / pahalı çağrı eklenirse yakalar
+        assertTrue("update too slow: " + perUpdate + "ns", perUpdate < 20_000);
+    }
+
+    // ============================================================
+    // Helpers
+    // ============================================================
+
+    /**
+     * Kuzeye 10 m/s, 1 Hz, gürültüsüz fix'ler (0..count-1)
+     */
+    private void driveStraight(int count, long startTime) {
+        for (int i = 0; i < count; i++) {
+            assertTrue(filter.update(lat(10.0 * i), lng(0), 5, startTime + i * INTERVAL_MS));
+        }
+    }
+
+    private double[] continueStraight(int from, int count) {
+        for (int i = from; i < from + count; i++) {
+            filter.update(lat(10.0 * i), lng(0), 5, i * INTERVAL_MS);
+        }
+        return new double[] {filter.getLatitude(), filter.getLongitude()};
+    }
+
+    private double squaredError(double east, double north) {
+        double dx = Math.toRadians(filter.getLongitude() - START_LNG) * Math.cos(Math.toRadians(START_LAT)) * EARTH_RADIUS - east;
+        double dy = Math.toRadians(filter.getLatitude() - START_LAT) * EARTH_RADIUS - north;
+        return dx * dx + dy * dy;
+    }
+
+    private static double lat(double north) {
+        return START_LAT + Math.toDegrees(north / EARTH_RADIUS);
+    }
+
+    private static double lng(double east) {
+        return START_LNG + Math.toDegrees(east / (EARTH_RADIUS * Math.cos(Math.toRadians(START_LAT))));
+    }
+
+    private static double distance(double lat1, double lng1, double lat2, double lng2) {
+        double dy = Math.toRadians(lat2 - lat1) * EARTH_RADIUS;
+        double dx = Math.toRadians(lng2 - lng1) * Math.cos(Math.toRadians(lat1)) * EARTH_RADIUS;
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+}
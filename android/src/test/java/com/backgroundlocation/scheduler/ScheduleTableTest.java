@@ -0,0 +1,444 @@
+package com.backgroundlocation.scheduler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TimeZone;
+
+/**
+ * ScheduleTable
+ * Rastgele schedule'lar dakika dakika brute-force tarama ile karşılaştırılır (stateAt + nextTransition);
+ * gece yarısı / hafta dönümü, tarihli override, mode 1 > mode 0 ve DST sınırları ayrıca kontrol edilir.
+ */
+public class ScheduleTableTest {
+
+    private static final long MINUTE = 60 * 1000L;
+    private static final int DAY_MINUTES = 24 * 60;
+    private static final int WEEK_MINUTES = 7 * DAY_MINUTES;
+    private static final int OFF = ScheduleTable.OFF;
+
+    private TimeZone defaultZone;
+
+    @Before
+    public void setUp() {
+        defaultZone = TimeZone.getDefault();
+        // DST'li bir zone: 2026-03-29 02:00 -> 03:00, 2026-10-25 03:00 -> 02:00 (ikisi de Pazar)
+        TimeZone.setDefault(TimeZone.getTimeZone("Europe/Berlin"));
+    }
+
+    @After
+    public void tearDown() {
+        TimeZone.setDefault(defaultZone);
+    }
+
+    // ============================================================
+    // Property: random schedules vs brute-force minute scan
+    // ============================================================
+
+    @Test
+    public void randomSchedulesMatchBruteForce() {
+        Random random = new Random(42);
+        long[] windows = {
+            at(2026, 3, 22, 0, 0),  // spring forward haftası
+            at(2026, 10, 18, 0, 0), // fall back haftası
+            at(2026, 6, 28, 0, 0)   // DST'siz, ay / hafta dönümü
+        };
+        for (int trial = 0; trial < 40; trial++) {
+            List<String> specs = randomSpecs(random, windows[trial % windows.length]);
+            assertMatchesBruteForce(specs, windows[trial % windows.length], 14);
+        }
+    }
+
+    // ============================================================
+    // Edge cases
+    // ============================================================
+
+    @Test
+    public void wrapsAcrossMidnightAndSaturdayToSunday() {
+        List<String> specs = Arrays.asList("7 22:00-02:00", "2-6 23:30-00:30 geofence");
+        ScheduleTable table = compile(specs);
+
+        // 2026-05-09 Cumartesi
+        assertEquals(OFF, table.stateAt(at(2026, 5, 9, 21, 59)));
+        assertEquals(1, table.stateAt(at(2026, 5, 9, 23, 59)));
+        assertEquals(1, table.stateAt(at(2026, 5, 10, 1, 59)));
+        assertEquals(OFF, table.stateAt(at(2026, 5, 10, 2, 0)));
+        // Pazartesi 23:30 -> Salı 00:30
+        assertEquals(0, table.stateAt(at(2026, 5, 11, 23, 45)));
+        assertEquals(0, table.stateAt(at(2026, 5, 12, 0, 15)));
+        // Cuma gecesi Cumartesi'ye taşar
+        assertEquals(0, table.stateAt(at(2026, 5, 9, 0, 15)));
+
+        assertTransition(table.nextTransition(at(2026, 5, 9, 12, 0)), at(2026, 5, 9, 22, 0), 1);
+        assertTransition(table.nextTransition(at(2026, 5, 9, 23, 0)), at(2026, 5, 10, 2, 0), OFF);
+        assertTransition(table.nextTransition(at(2026, 5, 10, 3, 0)), at(2026, 5, 11, 23, 30), 0);
+
+        assertMatchesBruteForce(specs, at(2026, 5, 3, 0, 0), 14);
+    }
+
+    @Test
+    public void datedEntriesOverrideWeeklyOnTheirDays() {
+        List<String> specs = Arrays.asList(
+            "1-7 09:00-17:00",
+            "2026-05-06 12:00-13:00 geofence",
+            "2026-05-08-22:00 2026-05-09-01:00"
+        );
+        ScheduleTable table = compile(specs);
+
+        assertEquals(1, table.stateAt(at(2026, 5, 5, 10, 0)));
+        // Override günü: haftalık 09:00-17:00 uygulanmaz
+        assertEquals(OFF, table.stateAt(at(2026, 5, 6, 10, 0)));
+        assertEquals(0, table.stateAt(at(2026, 5, 6, 12, 30)));
+        assertEquals(OFF, table.stateAt(at(2026, 5, 6, 16, 0)));
+        assertEquals(1, table.stateAt(at(2026, 5, 7, 10, 0)));
+        // Gece yarısını aşan tarihli giriş: iki gün de override
+        assertEquals(OFF, table.stateAt(at(2026, 5, 8, 10, 0)));
+        assertEquals(1, table.stateAt(at(2026, 5, 9, 0, 30)));
+        assertEquals(OFF, table.stateAt(at(2026, 5, 9, 10, 0)));
+
+        assertTransition(table.nextTransition(at(2026, 5, 5, 18, 0)), at(2026, 5, 6, 12, 0), 0);
+        assertTransition(table.nextTransition(at(2026, 5, 6, 13, 30)), at(2026, 5, 7, 9, 0), 1);
+        assertTransition(table.nextTransition(at(2026, 5, 7, 18, 0)), at(2026, 5, 8, 22, 0), 1);
+        assertTransition(table.nextTransition(at(2026, 5, 9, 0, 0)), at(2026, 5, 9, 1, 0), OFF);
+        assertTransition(table.nextTransition(at(2026, 5, 9, 2, 0)), at(2026, 5, 10, 9, 0), 1);
+
+        assertMatchesBruteForce(specs, at(2026, 5, 3, 0, 0), 14);
+    }
+
+    @Test
+    public void locationModeWinsOverGeofenceMode() {
+        List<String> specs = Arrays.asList(
+            "1-7 08:00-18:00 geofence",
+            "1-7 12:00-14:00",
+            "2-6 13:00-20:00 geofence"
+        );
+        ScheduleTable table = compile(specs);
+
+        assertEquals(0, table.stateAt(at(2026, 5, 5, 11, 0)));
+        assertEquals(1, table.stateAt(at(2026, 5, 5, 12, 0)));
+        assertEquals(1, table.stateAt(at(2026, 5, 5, 13, 30)));
+        assertEquals(0, table.stateAt(at(2026, 5, 5, 14, 0)));
+        assertEquals(0, table.stateAt(at(2026, 5, 5, 19, 0)));
+
+        assertTransition(table.nextTransition(at(2026, 5, 5, 9, 0)), at(2026, 5, 5, 12, 0), 1);
+        assertTransition(table.nextTransition(at(2026, 5, 5, 13, 0)), at(2026, 5, 5, 14, 0), 0);
+        assertTransition(table.nextTransition(at(2026, 5, 5, 15, 0)), at(2026, 5, 5, 20, 0), OFF);
+
+        assertMatchesBruteForce(specs, at(2026, 5, 3, 0, 0), 7);
+    }
+
+    @Test
+    public void followsWallClockAcrossDstBoundaries() {
+        List<String> specs = Arrays.asList("1 02:30-04:00");
+        ScheduleTable table = compile(specs);
+
+        // Spring forward: 02:00-03:00 yok, aralık 03:00 CEST'te açık
+        assertTransition(table.nextTransition(at(2026, 3, 28, 20, 0)), at(2026, 3, 29, 3, 0), 1);
+        assertTransition(table.nextTransition(at(2026, 3, 29, 3, 0)), at(2026, 3, 29, 4, 0), OFF);
+
+        // Fall back: 02:00-03:00 iki kez yaşanır (önce CEST, sonra CET)
+        long firstHalfPast = at(2026, 10, 25, 2, 0) - 60 * MINUTE + 30 * MINUTE; // 02:30 CEST
+        long fallBack = at(2026, 10, 25, 2, 0);                                  // 03:00 CEST = 02:00 CET
+        assertEquals(firstHalfPast + 60 * MINUTE, at(2026, 10, 25, 2, 30));
+        assertTransition(table.nextTransition(firstHalfPast - 15 * MINUTE), firstHalfPast, 1);
+        assertTransition(table.nextTransition(firstHalfPast + 15 * MINUTE), fallBack, OFF);
+        assertTransition(table.nextTransition(fallBack), at(2026, 10, 25, 2, 30), 1);
+        assertTransition(table.nextTransition(at(2026, 10, 25, 2, 45)), at(2026, 10, 25, 4, 0), OFF);
+
+        assertMatchesBruteForce(specs, at(2026, 3, 22, 0, 0), 14);
+        assertMatchesBruteForce(specs, at(2026, 10, 18, 0, 0), 14);
+        assertMatchesBruteForce(Arrays.asList("1-7 01:00-03:00", "1 02:00-02:30 geofence", "7 23:00-02:15"),
+            at(2026, 10, 18, 0, 0), 14);
+    }
+
+    @Test
+    public void emptyScheduleCompilesToNull() {
+        assertNull(ScheduleTable.compile(new ArrayList<Schedule>()));
+    }
+
+    // ============================================================
+    // Microbenchmark
+    // ============================================================
+
+    @Test
+    public void lookupsStayFastWithFiveHundredEntries() {
+        Random random = new Random(7);
+        long start = at(2026, 1, 1, 0, 0);
+        List<String> specs = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            specs.add(i % 5 == 0 ? randomDated(random, start + random.nextInt(300) * DAY_MINUTES * MINUTE) : randomWeekly(random));
+        }
+        List<Schedule> schedules = parse(specs);
+
+        long compileStarted = System.nanoTime();
+        ScheduleTable table = null;
+        for (int i = 0; i < 20; i++) {
+            table = ScheduleTable.compile(schedules);
+        }
+        long compileNs = (System.nanoTime() - compileStarted) / 20;
+        assertNotNull(table);
+
+        int queries = 20000;
+        long[] times = new long[queries];
+        for (int i = 0; i < queries; i++) {
+            times[i] = start + (long) (random.nextDouble() * 365 * DAY_MINUTES) * MINUTE;
+        }
+        // Warm-up
+        int sink = 0;
+        for (long time : times) {
+            sink += table.stateAt(time);
+        }
+
+        long stateStarted = System.nanoTime();
+        for (long time : times) {
+            sink += table.stateAt(time);
+        }
+        long stateNs = (System.nanoTime() - stateStarted) / queries;
+
+        long nextStarted = System.nanoTime();
+        for (long time : times) {
+            ScheduleTable.Transition transition = table.nextTransition(time);
+            if (transition != null) {
+                sink += transition.trackingMode;
+            }
+        }
+        long nextNs = (System.nanoTime() - nextStarted) / queries;
+
+        System.out.println("ScheduleTable n=500: compile " + compileNs / 1000 + "us, stateAt " + stateNs +
+            "ns, nextTransition " + nextNs + "ns (sink " + sink + ")");
+        // Cömert sınırlar: yavaş CI makinelerinde de O(n) taramaya düşüşü yakalar
+        assertTrue("compile too slow: " + compileNs + "ns", compileNs < 50_000_000L);
+        assertTrue("stateAt too slow: " + stateNs + "ns", stateNs < 100_000L);
+        assertTrue("nextTransition too slow: " + nextNs + "ns", nextNs < 1_000_000L);
+    }
+
+    // ============================================================
+    // Brute force reference
+    // ============================================================
+
+    /**
+     * stateAt her dakika, nextTransition her 7 dakikada brute-force taramayla karşılaştırılır
+     */
+    private static void assertMatchesBruteForce(List<String> specs, long from, int days) {
+        List<Schedule> schedules = parse(specs);
+        ScheduleTable table = ScheduleTable.compile(schedules);
+        assertNotNull(table);
+
+        int minutes = days * DAY_MINUTES;
+        // nextTransition için tarama ufku: pencere + 8 gün
+        int horizon = minutes + 8 * DAY_MINUTES;
+        int[] expected = new int[horizon];
+        for (int i = 0; i < horizon; i++) {
+            expected[i] = bruteState(schedules, from + i * MINUTE);
+        }
+        int[] nextChange = new int[horizon];
+        nextChange[horizon - 1] = -1;
+        for (int i = horizon - 2; i >= 0; i--) {
+            nextChange[i] = expected[i + 1] != expected[i] ? i + 1 : nextChange[i + 1];
+        }
+
+        for (int i = 0; i < minutes; i++) {
+            long time = from + i * MINUTE;
+            int state = table.stateAt(time);
+            if (state != expected[i]) {
+                fail("stateAt " + describe(time) + ": expected " + expected[i] + ", got " + state + " for " + specs);
+            }
+            if (i % 7 != 0) {
+                continue;
+            }
+            ScheduleTable.Transition transition = table.nextTransition(time);
+            int change = nextChange[i];
+            if (change < 0) {
+                if (transition != null && transition.at < from + horizon * MINUTE) {
+                    fail("nextTransition " + describe(time) + ": unexpected " + describe(transition.at) + " for " + specs);
+                }
+                continue;
+            }
+            long changeAt = from + change * MINUTE;
+            if (transition == null || transition.at != changeAt || stateOf(transition) != expected[change]) {
+                fail("nextTransition " + describe(time) + ": expected " + describe(changeAt) + " -> " + expected[change] +
+                    ", got " + (transition == null ? "null" : describe(transition.at) + " -> " + stateOf(transition)) +
+                    " for " + specs);
+            }
+        }
+    }
+
+    /**
+     * Spec tanımından doğrudan: tarihli girişin kapsadığı günlerde yalnızca tarihli girişler,
+     * diğer günlerde haftalık girişler; çakışmada en yüksek trackingMode
+     */
+    private static int bruteState(List<Schedule> schedules, long time) {
+        Calendar calendar = Calendar.getInstance(Locale.US);
+        calendar.setTimeInMillis(time);
+        int day = dayKey(calendar);
+
+        boolean overridden = false;
+        int dated = OFF;
+        for (Schedule schedule : schedules) {
+            if (!schedule.isLiteralDate()) {
+                continue;
+            }
+            long on = schedule.onTime.getTimeInMillis();
+            long off = schedule.offTime.getTimeInMillis();
+            if (off <= on) {
+                continue;
+            }
+            if (dayKey(on) <= day && day <= dayKey(off - 1)) {
+                overridden = true;
+            }
+            if (on <= time && time < off) {
+                dated = Math.max(dated, schedule.trackingMode);
+            }
+        }
+        if (overridden) {
+            return dated;
+        }
+
+        int minute = (calendar.get(Calendar.DAY_OF_WEEK) - Calendar.SUNDAY) * DAY_MINUTES +
+            calendar.get(Calendar.HOUR_OF_DAY) * 60 + calendar.get(Calendar.MINUTE);
+        int state = OFF;
+        for (Schedule schedule : schedules) {
+            if (schedule.isLiteralDate()) {
+                continue;
+            }
+            int on = schedule.onTime.get(Calendar.HOUR_OF_DAY) * 60 + schedule.onTime.get(Calendar.MINUTE);
+            int off = schedule.offTime.get(Calendar.HOUR_OF_DAY) * 60 + schedule.offTime.get(Calendar.MINUTE);
+            int length = off > on ? off - on : off + DAY_MINUTES - on;
+            for (int weekday : schedule.getDays()) {
+                int start = (weekday - Calendar.SUNDAY) * DAY_MINUTES + on;
+                if (Math.floorMod(minute - start, WEEK_MINUTES) < length) {
+                    state = Math.max(state, schedule.trackingMode);
+                }
+            }
+        }
+        return state;
+    }
+
+    // ============================================================
+    // Helpers
+    // ============================================================
+
+    private static List<String> randomSpecs(Random random, long windowStart) {
+        List<String> specs = new ArrayList<>();
+        int weekly = 1 + random.nextInt(6);
+        for (int i = 0; i < weekly; i++) {
+            specs.add(randomWeekly(random));
+        }
+        int dated = random.nextInt(4);
+        for (int i = 0; i < dated; i++) {
+            specs.add(randomDated(random, windowStart + random.nextInt(14) * (long) DAY_MINUTES * MINUTE));
+        }
+        return specs;
+    }
+
+    private static String randomWeekly(Random random) {
+        StringBuilder days = new StringBuilder();
+        if (random.nextBoolean()) {
+            int first = 1 + random.nextInt(7);
+            days.append(first).append('-').append(first + random.nextInt(8 - first));
+        } else {
+            for (int day = 1; day <= 7; day++) {
+                if (random.nextInt(3) == 0) {
+                    days.append(days.length() > 0 ? "," : "").append(day);
+                }
+            }
+            if (days.length() == 0) {
+                days.append(1 + random.nextInt(7));
+            }
+        }
+        return days + " " + randomTime(random) + "-" + randomTime(random) + randomMode(random);
+    }
+
+    private static String randomDated(Random random, long day) {
+        Calendar calendar = Calendar.getInstance(Locale.US);
+        calendar.setTimeInMillis(day);
+        String date = String.format(Locale.US, "%04d-%02d-%02d", calendar.get(Calendar.YEAR),
+            calendar.get(Calendar.MONTH) + 1, calendar.get(Calendar.DAY_OF_MONTH));
+        if (random.nextInt(3) == 0) {
+            calendar.add(Calendar.DAY_OF_YEAR, 1 + random.nextInt(2));
+            String offDate = String.format(Locale.US, "%04d-%02d-%02d", calendar.get(Calendar.YEAR),
+                calendar.get(Calendar.MONTH) + 1, calendar.get(Calendar.DAY_OF_MONTH));
+            return date + "-" + randomTime(random) + " " + offDate + "-" + randomTime(random) + randomMode(random);
+        }
+        return date + " " + randomTime(random) + "-" + randomTime(random) + randomMode(random);
+    }
+
+    private static String randomTime(Random random) {
+        // DST saatlerine (02:xx) ve gece yarısına sık düşsün
+        int hour = random.nextInt(4) == 0 ? new int[] {0, 2, 3, 23}[random.nextInt(4)] : random.nextInt(24);
+        int minute = random.nextBoolean() ? random.nextInt(4) * 15 : random.nextInt(60);
+        return String.format(Locale.US, "%02d:%02d", hour, minute);
+    }
+
+    private static String randomMode(Random random) {
+        switch (random.nextInt(3)) {
+            case 0:
+                return " geofence";
+            case 1:
+                return " location";
+            default:
+                return "";
+        }
+    }
+
+    private static List<Schedule> parse(List<String> specs) {
+        List<Schedule> schedules = new ArrayList<>(specs.size());
+        for (String spec : specs) {
+            schedules.add(new Schedule(spec));
+        }
+        return schedules;
+    }
+
+    private static ScheduleTable compile(List<String> specs) {
+        ScheduleTable table = ScheduleTable.compile(parse(specs));
+        assertNotNull(table);
+        return table;
+    }
+
+    private static void assertTransition(ScheduleTable.Transition transition, long at, int state) {
+        assertNotNull("expected transition at " + describe(at), transition);
+        assertEquals("transition time", describe(at), describe(transition.at));
+        assertEquals("transition state", state, stateOf(transition));
+    }
+
+    private static int stateOf(ScheduleTable.Transition transition) {
+        return transition.enabled ? transition.trackingMode : OFF;
+    }
+
+    private static long at(int year, int month, int day, int hour, int minute) {
+        Calendar calendar = Calendar.getInstance(Locale.US);
+        calendar.clear();
+        calendar.set(year, month - 1, day, hour, minute);
+        return calendar.getTimeInMillis();
+    }
+
+    private static int dayKey(long time) {
+        Calendar calendar = Calendar.getInstance(Locale.US);
+        calendar.setTimeInMillis(time);
+        return dayKey(calendar);
+    }
+
+    private static int dayKey(Calendar calendar) {
+        return calendar.get(Calendar.YEAR) * 10000 + (calendar.get(Calendar.MONTH) + 1) * 100 +
+            calendar.get(Calendar.DAY_OF_MONTH);
+    }
+
+    private static String describe(long time) {
+        Calendar calendar = Calendar.getInstance(Locale.US);
+        calendar.setTimeInMillis(time);
+        return String.format(Locale.US, "%1$tF %1$tR %1$tZ", calendar);
+    }
+}
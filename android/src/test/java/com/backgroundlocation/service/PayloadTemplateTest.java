@@ -0,0 +1,107 @@
+package com.backgroundlocation.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.backgroundlocation.data.LocationModel;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import okio.Buffer;
+
+/**
+ * PayloadTemplate
+ * Token render çıktısı ve 1k satırlık sync batch'i başına render throughput'u.
+ */
+public class PayloadTemplateTest {
+
+    private static final String TEMPLATE =
+        "{\"lat\":<%= latitude %>,\"lng\":<%= longitude %>,\"acc\":<%= accuracy %>,\"spd\":<%= speed %>," +
+        "\"ts\":<%= timestamp %>,\"id\":\"<%= uuid %>\",\"act\":\"<%= activity.type %>\"," +
+        "\"moving\":<%= is_moving %>,\"odo\":<%= odometer %>,\"bat\":<%= battery.level %>,\"extras\":<%= extras %>}";
+
+    private static final int BATCH = 1000;
+
+    @Test
+    public void rendersFieldsIntoSink() throws Exception {
+        LocationModel location = new LocationModel();
+        location.uuid = "a\"b";
+        location.latitude = 41.0082;
+        location.longitude = 28.5;
+        location.accuracy = 5;
+        location.speed = Float.NaN;
+        location.timestamp = 1700000000000L;
+        location.activityType = "on_foot\n";
+        location.isMoving = true;
+        location.odometer = 1234.5f;
+        location.batteryLevel = 0.75f;
+
+        Buffer buffer = new Buffer();
+        PayloadTemplate.compile(TEMPLATE).render(location, buffer);
+
+        assertEquals("{\"lat\":41.0082,\"lng\":28.5,\"acc\":5,\"spd\":null,\"ts\":1700000000000," +
+            "\"id\":\"a\\\"b\",\"act\":\"on_foot\\n\",\"moving\":true,\"odo\":1234.5,\"bat\":0.75,\"extras\":{}}",
+            buffer.readUtf8());
+    }
+
+    @Test(expected = PayloadTemplate.CompileException.class)
+    public void rejectsUnknownField() throws Exception {
+        PayloadTemplate.compile("{\"x\":<%= nope %>}");
+    }
+
+    @Test
+    public void renderThroughputPerThousandRows() throws Exception {
+        PayloadTemplate template = PayloadTemplate.compile(TEMPLATE);
+        List<LocationModel> rows = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            LocationModel location = new LocationModel();
+            location.latitude = 41.0082 + i * 1e-5;
+            location.longitude = 28.9784 + i * 1e-5;
+            location.accuracy = 3 + (i % 20) * 0.5f;
+            location.speed = (i % 30) * 0.7f;
+            location.activityType = i % 2 == 0 ? "in_vehicle" : "walking";
+            location.isMoving = true;
+            location.odometer = i * 12.5f;
+            location.batteryLevel = 0.8f;
+            location.extras = "{\"trip\":" + (i / 100) + "}";
+            rows.add(location);
+        }
+
+        // Warm-up
+        for (int round = 0; round < 50; round++) {
+            renderBatch(template, rows);
+        }
+
+        int rounds = 200;
+        long bytes = 0;
+        long started = System.nanoTime();
+        for (int round = 0; round < rounds; round++) {
+            bytes += renderBatch(template, rows);
+        }
+        long perBatch = (System.nanoTime() - started) / rounds;
+
+        System.out.println("PayloadTemplate: " + (perBatch / 1000) + "µs per 1k rows (" +
+            (bytes / rounds / BATCH) + " bytes/row)");
+        // Cömert sınır: satır başına ara JSONObject / reflection eklenirse yakalar
+        assertTrue("render too slow: " + perBatch + "ns per 1k rows", perBatch < 50_000_000L);
+    }
+
+    /**
+     * SyncService.TemplatedBody gibi: "[row,row,...]" tek sink'e
+     */
+    private static long renderBatch(PayloadTemplate template, List<LocationModel> rows) throws Exception {
+        Buffer sink = new Buffer();
+        sink.writeByte('[');
+        for (int i = 0; i < rows.size(); i++) {
+            if (i > 0) sink.writeByte(',');
+            template.render(rows.get(i), sink);
+        }
+        sink.writeByte(']');
+        long size = sink.size();
+        sink.clear();
+        return size;
+    }
+}
@@ -17,6 +17,11 @@ import type {
   DeviceInfo,
   Sensors,
   Activity,
+  Diagnostics,
+  LocationQueryOptions,
+  LocationQueryPage,
+  LocationAggregate,
+  LocationCounts,
   LocationCallback,
   MotionChangeCallback,
   ActivityChangeCallback,
@@ -25,6 +30,7 @@ import type {
   GeofencesChangeCallback,
   HeartbeatCallback,
   HttpCallback,
+  TemplateErrorCallback,
   ConnectivityChangeCallback,
   EnabledChangeCallback,
   PowerSaveChangeCallback,
@@ -276,6 +282,51 @@ class BackgroundLocation {
     });
   }
 
+  /**
+   * Mevcut durumu senkron al (Android, bridge round-trip olmadan).
+   * Blocking metodlar desteklenmiyorsa (remote debugger / iOS) undefined döner; getState() kullanın.
+   * @returns State | undefined
+   */
+  getStateSync(): State | undefined {
+    return this._callSync<State>('getStateSync');
+  }
+
+  /**
+   * Kaydedilmiş konum sayısını senkron al (Android).
+   * Native sayaçlar henüz yüklenmediyse undefined döner; getCount() kullanın.
+   * @returns number | undefined
+   */
+  getCountSync(): number | undefined {
+    const count = this._callSync<number>('getCountSync');
+    return count === undefined || count < 0 ? undefined : count;
+  }
+
+  /**
+   * Kayıt sayaçlarını senkron al (Android).
+   * Native sayaçlar henüz yüklenmediyse undefined döner; getLocationCounts() kullanın.
+   * @returns LocationCounts | undefined
+   */
+  getLocationCountsSync(): LocationCounts | undefined {
+    const counts = this._callSync<LocationCounts>('getLocationCountsSync');
+    return counts && typeof counts.total === 'number' ? counts : undefined;
+  }
+
+  /**
+   * Odometer değerini senkron al (Android)
+   * @returns number | undefined
+   */
+  getOdometerSync(): number | undefined {
+    return this._callSync<number>('getOdometerSync');
+  }
+
+  /**
+   * Hareket halinde mi, senkron (Android)
+   * @returns boolean | undefined
+   */
+  isMovingSync(): boolean | undefined {
+    return this._callSync<boolean>('isMovingSync');
+  }
+
   /**
    * Kaydedilmiş konumları al
    * @returns Promise<Location[]>
@@ -289,6 +340,37 @@ class BackgroundLocation {
     });
   }
 
+  /**
+   * Kaydedilmiş konumları sorgula (filtre / projection native SQL tarafında)
+   * Sonraki sayfa için dönen cursor'ı query.cursor olarak verin.
+   * @param query Sorgu seçenekleri
+   * @returns Promise<LocationQueryPage>
+   */
+  async queryLocations(query: LocationQueryOptions = {}): Promise<LocationQueryPage> {
+    return new Promise((resolve, reject) => {
+      RNBackgroundLocation.queryLocations(
+        query,
+        (page: LocationQueryPage) => resolve(page),
+        (error: string) => reject(error)
+      );
+    });
+  }
+
+  /**
+   * Kaydedilmiş konumlar üzerinde aggregate (count, bbox, timespan, distance)
+   * @param query Sorgu seçenekleri (aggregates, groupBy)
+   * @returns Promise<LocationAggregate>
+   */
+  async aggregateLocations(query: LocationQueryOptions = {}): Promise<LocationAggregate> {
+    return new Promise((resolve, reject) => {
+      RNBackgroundLocation.aggregateLocations(
+        query,
+        (result: LocationAggregate) => resolve(result),
+        (error: string) => reject(error)
+      );
+    });
+  }
+
   /**
    * Kaydedilmiş konum sayısını al
    * @returns Promise<number>
@@ -302,6 +384,19 @@ class BackgroundLocation {
     });
   }
 
+  /**
+   * Kayıt sayaçlarını al: toplam, bekleyen (sync edilmemiş), kilitli (sync sürüyor)
+   * @returns Promise<LocationCounts>
+   */
+  async getLocationCounts(): Promise<LocationCounts> {
+    return new Promise((resolve, reject) => {
+      RNBackgroundLocation.getLocationCounts(
+        (counts: LocationCounts) => resolve(counts),
+        (error: string) => reject(error)
+      );
+    });
+  }
+
   /**
    * Manuel konum ekle
    * @param location Konum objesi
@@ -345,6 +440,37 @@ class BackgroundLocation {
     });
   }
 
+  /**
+   * Birden fazla konumu UUID ile sil (ör. custom upload sonrası)
+   * Bulunamayan UUID'ler yok sayılır.
+   * @param uuids Konum UUID'leri
+   * @returns Promise<number> Silinen kayıt sayısı
+   */
+  async destroyLocationsByUuid(uuids: string[]): Promise<number> {
+    return new Promise((resolve, reject) => {
+      RNBackgroundLocation.destroyLocationsByUuid(
+        uuids,
+        (deleted: number) => resolve(deleted),
+        (error: string) => reject(error)
+      );
+    });
+  }
+
+  /**
+   * UUID ile kayıtlı konumu al
+   * @param uuid Konum UUID'si
+   * @returns Promise<Location>
+   */
+  async getLocation(uuid: string): Promise<Location> {
+    return new Promise((resolve, reject) => {
+      RNBackgroundLocation.getLocation(
+        uuid,
+        (location: Location) => resolve(location),
+        (error: string) => reject(error)
+      );
+    });
+  }
+
   /**
    * Konumları sunucuya senkronize et
    * @returns Promise<Location[]> Senkronize edilen konumlar
@@ -594,6 +720,35 @@ class BackgroundLocation {
     });
   }
 
+  /**
+   * Native diagnostics (executor metrikleri)
+   * @returns Promise<Diagnostics>
+   */
+  async getDiagnostics(): Promise<Diagnostics> {
+    return new Promise((resolve, reject) => {
+      RNBackgroundLocation.getDiagnostics(
+        (diagnostics: Diagnostics) => resolve(diagnostics),
+        (error: string) => reject(error)
+      );
+    });
+  }
+
+  /**
+   * Headless task'ı bitir (Android)
+   * Event'ler journal'dan ack'lenir; çağrılmazsa task timeout'unda ack'lenir
+   * @param taskId Headless event params.taskId
+   * @returns Promise<number>
+   */
+  async finishHeadlessTask(taskId: number): Promise<number> {
+    return new Promise((resolve, reject) => {
+      RNBackgroundLocation.finishHeadlessTask(
+        taskId,
+        (id: number) => resolve(id),
+        (error: string) => reject(error)
+      );
+    });
+  }
+
   /**
    * Log kayıtlarını sil
    * @returns Promise<boolean>
@@ -763,6 +918,13 @@ class BackgroundLocation {
     return this._addEventListener('http', callback);
   }
 
+  /**
+   * Template error event listener (locationTemplate / geofenceTemplate derlenemedi)
+   */
+  onTemplateError(callback: TemplateErrorCallback): () => void {
+    return this._addEventListener('templateerror', callback);
+  }
+
   /**
    * Connectivity change event listener
    */
@@ -810,6 +972,19 @@ class BackgroundLocation {
 
   // Private Methods
 
+  private _callSync<T>(method: string): T | undefined {
+    const fn = RNBackgroundLocation[method];
+    if (Platform.OS !== 'android' || typeof fn !== 'function') {
+      return undefined;
+    }
+    try {
+      return fn() as T;
+    } catch (e) {
+      // Remote debugger'da senkron native çağrı yapılamaz
+      return undefined;
+    }
+  }
+
   private _addEventListener(event: string, callback: Function): () => void {
     // CRITICAL: Duplicate prevention - aynı event için önceki listener'ı kaldır
     // Bu, useEffect'in birden fazla kez çalışması durumunda duplicate listener'ları önler
@@ -833,7 +1008,7 @@ class BackgroundLocation {
     // CRITICAL: Yeni listener ekle - her event için sadece BİR listener olmalı
     // NativeEventEmitter.addListener her çağrıldığında yeni bir listener ekler
     // Bu yüzden önceki listener'ı mutlaka kaldırmalıyız
-    const subscription = eventEmitter.addListener(event, (data: any) => {
+    const dispatch = (data: any) => {
       // CRITICAL: Callback'i sadece bir kez çağır (duplicate prevention)
       try {
         // CRITICAL: enabledchange ve powersavechange event'leri için data.enabled veya data.isPowerSaveMode extract et
@@ -849,6 +1024,14 @@ class BackgroundLocation {
       } catch (error) {
         console.error(`Error in ${event} listener:`, error);
       }
+    };
+    const subscription = eventEmitter.addListener(event, (data: any) => {
+      // eventEmitPolicy batch: { __batch: [...], dropped } -> event'ler sırayla tek tek
+      if (data && Array.isArray(data.__batch)) {
+        data.__batch.forEach(dispatch);
+      } else {
+        dispatch(data);
+      }
     });
     
     const key = `${event}_${Date.now()}_${Math.random()}`;
@@ -18,6 +18,11 @@ export interface Location {
   is_moving?: boolean;
   /** Odometer (km) */
   odometer?: number;
+  /**
+   * trajectoryTolerance açıkken fix henüz DB'ye yazılmadı (sıkıştırma penceresinde);
+   * yazılmayabilir, uuid'si kayıtlarda bulunmayabilir
+   */
+  provisional?: boolean;
   /** Ekstra veriler */
   extras?: Record<string, any>;
 }
@@ -63,6 +68,11 @@ export interface Config {
   distanceFilter?: number;
   /** Durağan konum tespit mesafesi (metre) */
   stationaryRadius?: number;
+  /**
+   * Yol sıkıştırma toleransı (metre). >0 ise düz segmentlerdeki ara noktalar kaydedilmez;
+   * kaydedilen noktalar arası lineer interpolasyon yolu bu tolerans içinde verir. 0 = kapalı
+   */
+  trajectoryTolerance?: number;
   /** Konum güncellemesi aralığı (ms) */
   locationUpdateInterval?: number;
   /** En hızlı konum aralığı (ms) */
@@ -85,6 +95,11 @@ export interface Config {
   disableElasticity?: boolean;
   /** Interval çarpanı (elasticity multiplier) */
   elasticityMultiplier?: number;
+  /**
+   * Hareket durumuna göre LocationRequest profilleri (MotionPolicyEngine).
+   * Tanımsız durumlar / alanlar statik config değerlerini kullanır.
+   */
+  motionPolicy?: MotionPolicy;
   
   // Arka Plan Ayarları
   /** Arka plan modu */
@@ -133,8 +148,23 @@ export interface Config {
   headers?: Record<string, string>;
   /** HTTP params */
   params?: Record<string, any>;
+  /**
+   * HTTP body template (her kayıt için), ör: '{"lat":<%= latitude %>,"id":"<%= uuid %>"}'
+   * Alanlar: uuid, timestamp, latitude, longitude, accuracy, speed, heading, altitude,
+   * altitude_accuracy, odometer, is_moving, activity.type, activity.confidence,
+   * battery.level, battery.is_charging, extras, geofence.identifier, geofence.action.
+   * String alanlar tırnak içinde yazılmalıdır. Body: { locations: [...] } (batchSync) / { location }
+   */
+  locationTemplate?: string;
+  /** Geofence kayıtları için template (boş: locationTemplate) */
+  geofenceTemplate?: string;
   /** Extras (her location'a eklenir) */
   extras?: Record<string, any>;
+  /**
+   * Android: JS event emit policy (event adı -> policy). Tanımsız event'ler immediate gönderilir.
+   * Batch'lenen event'ler listener'lara tek tek iletilir.
+   */
+  eventEmitPolicy?: Record<string, EventEmitPolicy>;
   /** Otomatik sync aktif mi? */
   autoSync?: boolean;
   /** Sync intervali (saniye) */
@@ -147,6 +177,18 @@ export interface Config {
   maxRecordsToPersist?: number;
   /** Batch sync aktif mi? */
   batchSync?: boolean;
+  /** Sync denemesi başına HTTP timeout (ms) */
+  httpTimeout?: number;
+  
+  // SQLite
+  /** PRAGMA synchronous: OFF | NORMAL | FULL (varsayılan NORMAL, WAL ile güvenli) */
+  sqliteSynchronous?: 'OFF' | 'NORMAL' | 'FULL';
+  /** PRAGMA cache_size (negatif değer KiB, pozitif sayfa sayısı) */
+  sqliteCacheSize?: number;
+  /** PRAGMA temp_store: DEFAULT | FILE | MEMORY */
+  sqliteTempStore?: 'DEFAULT' | 'FILE' | 'MEMORY';
+  /** PRAGMA mmap_size (bytes, 0 = kapalı) */
+  sqliteMmapSize?: number;
   
   // Geofence
   /** Geofence aktif mi? */
@@ -155,10 +197,15 @@ export interface Config {
   geofenceInitialTriggerEntry?: boolean;
   
   // Güç Yönetimi
-  /** Güç tasarrufu modu */
+  /**
+   * Batched delivery (ms): > 0 ise fix'ler en fazla bu süre biriktirilip toplu teslim edilir
+   * (LocationRequest maxWaitTime). Etkili olması için en az 2 x locationUpdateInterval olmalı.
+   */
   deferTime?: number;
   /** Allow standby */
   allowIdenticalLocations?: boolean;
+  /** Kalman filtresi: fix yumuşatma + outlier eleme (default: false) */
+  kalmanFilter?: boolean;
   /** Prevent suspend (Android Doze koruması) */
   preventSuspend?: boolean;
   /** Timestamp metadata ekle */
@@ -181,6 +228,15 @@ export interface Config {
   // Platform Specific
   /** Android: Enable headless mode */
   enableHeadless?: boolean;
+  /**
+   * Android: Headless event'leri bu süre (ms) boyunca toplayıp tek HeadlessJS task'ında
+   * `{ name: 'batch', events: HeadlessEvent[], dropped }` olarak gönder. 0 = her event ayrı task
+   */
+  headlessBatchWindow?: number;
+  /** Android: Batch buffer limiti (JS yavaşsa en eski location/heartbeat event'leri atılır) */
+  headlessBatchMaxSize?: number;
+  /** Android: Service restart / boot'ta ReactContext'i ilk headless event'i beklemeden oluştur */
+  headlessWarmUp?: boolean;
   /** App kill'de durdur */
   stopOnTerminate?: boolean;
   /** Boot'ta başlat */
@@ -254,6 +310,15 @@ export interface ActivityChangeEvent {
   confidence: number;
 }
 
+export interface TemplateErrorEvent {
+  /** Hatalı template */
+  template: string;
+  /** Hata mesajı */
+  error: string;
+  /** Bilinmeyen alan (varsa) */
+  field: string | null;
+}
+
 export interface HttpEvent {
   /** HTTP başarılı mı? */
   success: boolean;
@@ -308,6 +373,82 @@ export interface WatchPositionOptions {
   extras?: Record<string, any>;
 }
 
+export type LocationQueryField =
+  | 'uuid'
+  | 'timestamp'
+  | 'latitude'
+  | 'longitude'
+  | 'accuracy'
+  | 'speed'
+  | 'activity'
+  | 'is_moving'
+  | 'odometer';
+
+export interface LocationQueryOptions {
+  /** Başlangıç zamanı (epoch ms, dahil) */
+  start?: number;
+  /** Bitiş zamanı (epoch ms, dahil) */
+  end?: number;
+  /** Sıralama (kayıt sırası), varsayılan: asc */
+  order?: 'asc' | 'desc';
+  /** Sayfa boyutu (varsayılan 100, max 1000) */
+  limit?: number;
+  /** Önceki sayfanın cursor'ı */
+  cursor?: number;
+  /** Yalnızca bu kolonlar döner (boş: tüm location) */
+  fields?: LocationQueryField[];
+  /** Maksimum accuracy (metre) */
+  maxAccuracy?: number;
+  /** Activity tipleri (walking, in_vehicle, ...) */
+  activities?: string[];
+  /** Hareket durumu */
+  isMoving?: boolean;
+  /** aggregateLocations için: count, bbox, timespan, distance */
+  aggregates?: Array<'count' | 'bbox' | 'timespan' | 'distance'>;
+  /** aggregateLocations için gruplama */
+  groupBy?: 'day';
+}
+
+export interface LocationQueryPage {
+  /** Sonuçlar (fields verilmişse projected satırlar) */
+  locations: Array<Partial<Location> & Record<string, any>>;
+  /** Bir sonraki sayfa için cursor */
+  cursor: number;
+  /** Daha fazla sonuç var mı? */
+  hasMore: boolean;
+}
+
+export interface LocationCounts {
+  /** Toplam kayıt */
+  total: number;
+  /** Henüz sync edilmemiş (unlocked) kayıt */
+  pending: number;
+  /** Sync sürerken kilitli kayıt */
+  locked: number;
+}
+
+export interface LocationAggregate {
+  /** groupBy: 'day' ise gün (yyyy-MM-dd, local) */
+  day?: string;
+  count?: number;
+  bbox?: {
+    minLatitude: number;
+    maxLatitude: number;
+    minLongitude: number;
+    maxLongitude: number;
+  };
+  timespan?: {
+    start: number;
+    end: number;
+    /** ms */
+    duration: number;
+  };
+  /** Ardışık konumlar arası mesafe toplamı (metre) */
+  distance?: number;
+  /** groupBy verilmişse gün bazında sonuçlar */
+  groups?: LocationAggregate[];
+}
+
 export interface DeviceInfo {
   /** Platform: ios, android */
   platform: string;
@@ -334,6 +475,239 @@ export interface Sensors {
   significant_motion: boolean;
 }
 
+export interface ExecutorMetrics {
+  /** Pool adı: db, io, compute */
+  name: string;
+  poolSize: number;
+  activeCount: number;
+  maxPoolSize: number;
+  /** Kuyrukta bekleyen iş sayısı */
+  queueDepth: number;
+  /** Gözlenen en yüksek kuyruk derinliği */
+  maxQueueDepth: number;
+  queueCapacity: number;
+  submitted: number;
+  completed: number;
+  failed: number;
+  /** Kuyruk dolu olduğu için reddedilen iş sayısı */
+  rejected: number;
+  /** Reddedilip bekleme süresinde de kuyruğa giremediği için düşürülen iş sayısı */
+  dropped: number;
+  /** Ortalama kuyruk bekleme süresi (ms) */
+  avgWaitMs: number;
+  maxWaitMs: number;
+  /** Ortalama çalışma süresi (ms) */
+  avgRunMs: number;
+  maxRunMs: number;
+}
+
+export interface HeadlessColdStartMetrics {
+  /** Warm-up ile mi başlatıldı? */
+  warmUp: boolean;
+  /** Mevcut ReactContext yeniden kullanıldı mı (cold start yok)? */
+  contextReused: boolean;
+  /** Faz süreleri (ms), -1 = henüz gerçekleşmedi */
+  processStartToContextInit: number;
+  contextInitToReady: number;
+  processStartToContextReady: number;
+  processStartToFirstEvent: number;
+  firstEventToFirstTask: number;
+  processStartToFirstTask: number;
+}
+
+export interface Diagnostics {
+  /** Executor metrikleri */
+  executors: Record<string, ExecutorMetrics>;
+  /** Main thread'den yapılan DB erişim sayısı (sadece debug build) */
+  mainThreadDbAccess: number;
+  /** Headless cold-start faz süreleri */
+  headless: HeadlessColdStartMetrics;
+  /** Native event dispatcher metrikleri */
+  events: EventDispatcherMetrics;
+  /** JS event emit metrikleri (event adı -> sayaçlar) */
+  emitter: Record<string, EventEmitterMetrics>;
+  /** Retention (prune / shrink) durumu */
+  retention: RetentionMetrics;
+  /** Yol sıkıştırma (trajectoryTolerance) */
+  compression: CompressionMetrics;
+  /** Kalman filtresi (kalmanFilter) */
+  kalman: KalmanMetrics;
+  /** distanceFilter elasticity */
+  elasticity: ElasticityMetrics;
+  /** Motion policy engine */
+  motionPolicy: MotionPolicyMetrics;
+  /** Heartbeat wakeup'ları */
+  heartbeat: HeartbeatMetrics;
+  scheduler: SchedulerMetrics;
+  notification: NotificationMetrics;
+}
+
+export interface HeartbeatMetrics {
+  /** Heartbeat alarm wakeup sayısı */
+  wakeups: number;
+  /** Yakın zamanda fix kaydedildiği için location / sync işi atlanan heartbeat */
+  skipped: number;
+  lastWakeupAt: number;
+  /** İlk heartbeat'ten bu yana saatlik ortalama wakeup */
+  wakeupsPerHour: number;
+}
+
+export interface NotificationMetrics {
+  /** İçerik değiştiği için yeniden build edilen foreground notification */
+  builds: number;
+  /** NotificationManager.notify çağrısı */
+  notifies: number;
+  /** İçerik aynı olduğu için atlanan update */
+  skipped: number;
+  /** Rate limit nedeniyle ertelenen (birleştirilen) update */
+  deferred: number;
+}
+
+export interface SchedulerMetrics {
+  /** Zamanlanmış işler için alarm wakeup sayısı (heartbeat, stop timeout, stopAfterElapsedMinutes) */
+  wakeups: number;
+  /** Çalıştırılan task sayısı */
+  tasksRun: number;
+  /** Başka bir task'ın wakeup'ına eklenerek çalışan task sayısı */
+  coalesced: number;
+  /** Bekleyen task sayısı */
+  pending: number;
+  /** Kurulu alarm'ın pencere başlangıcı (0: alarm yok) */
+  nextWakeupAt: number;
+  /** İlk wakeup'tan bu yana saatlik ortalama wakeup */
+  wakeupsPerHour: number;
+}
+
+export type MotionState = 'still' | 'on_foot' | 'on_bicycle' | 'in_vehicle';
+
+export interface MotionPolicyProfile {
+  /** LocationRequest priority (100: high accuracy, 102: balanced, 104: low power, 105: passive) */
+  priority?: number;
+  /** ms */
+  interval?: number;
+  /** ms */
+  fastestInterval?: number;
+  /** metre */
+  distanceFilter?: number;
+  /** Batching: fix'ler en fazla bu kadar ms biriktirilip toplu teslim edilir */
+  maxWaitTime?: number;
+}
+
+export type MotionPolicy = Partial<Record<MotionState, MotionPolicyProfile>>;
+
+export interface MotionPolicyMetrics {
+  enabled: boolean;
+  /** Uygulanmış hareket durumu */
+  state: MotionState;
+  /** Hysteresis süresini bekleyen durum */
+  candidate: MotionState | null;
+  transitions: number;
+  lastTransitionAt: number;
+}
+
+export interface ElasticityMetrics {
+  /** Uygulanmış hız bucket'ı (0: base distanceFilter) */
+  bucket: number;
+  /** LocationRequest yeniden istenme sayısı */
+  requests: number;
+  /** Rate limit nedeniyle ertelenen değişiklik */
+  suppressed: number;
+  /** Büyütülmüş smallestDisplacement sayesinde gelmeyen fix (tahmini) */
+  fixesSaved: number;
+}
+
+export interface KalmanMetrics {
+  /** Kabul edilen fix */
+  accepted: number;
+  /** Outlier olarak atılan fix */
+  rejected: number;
+  /** Filtrenin yeniden başlatılma sayısı (uzun boşluk / art arda red) */
+  resets: number;
+}
+
+export interface CompressionMetrics {
+  /** Sıkıştırıcıya giren fix sayısı */
+  received: number;
+  /** Kaydedilen nokta sayısı */
+  retained: number;
+  /** received / retained */
+  ratio: number;
+  /** Pencerede bekleyen nokta */
+  buffered: number;
+}
+
+export interface RetentionMetrics {
+  /** Bellekteki kayıt sayısı (-1: henüz yüklenmedi) */
+  rowCount: number;
+  /** En eski kaydın zamanı (epoch ms) */
+  minRecordedAt: number;
+  /** Toplam silinen kayıt */
+  pruned: number;
+  /** Son silme zamanı (epoch ms) */
+  lastPruneAt: number;
+}
+
+export interface EventEmitPolicy {
+  /** immediate (varsayılan) | throttle (rate/sn) | batch (interval ms) */
+  mode: 'immediate' | 'throttle' | 'batch';
+  /** throttle: saniyede en fazla event */
+  rate?: number;
+  /** batch: toplama süresi (ms) */
+  interval?: number;
+  /**
+   * drop: throttle'da aradaki event'ler atılır, batch'te maxBatchSize aşılınca en eski atılır.
+   * merge: yalnızca en son event gönderilir
+   */
+  strategy?: 'drop' | 'merge';
+  /** batch: tek seferde gönderilecek en fazla event (varsayılan 100) */
+  maxBatchSize?: number;
+}
+
+export interface EventEmitterMetrics {
+  mode: string;
+  received: number;
+  emitted: number;
+  batches: number;
+  dropped: number;
+  merged: number;
+}
+
+export interface EventBufferMetrics {
+  capacity: number;
+  depth: number;
+  maxDepth: number;
+  enqueued: number;
+  /** Buffer capacity üstündeyken eklenen event sayısı (event'ler atılmaz, main thread gecikmesi sinyali) */
+  overCapacity: number;
+}
+
+export interface EventDispatcherMetrics {
+  posted: number;
+  /** Typed listener'ı olmayıp EventBus'a iletilen event sayısı */
+  bridged: number;
+  failed: number;
+  /** Event tipi -> ring buffer metrikleri (LocationEvent, ActivityChangeEvent) */
+  buffers: Record<string, EventBufferMetrics>;
+}
+
+export interface HeadlessEvent {
+  /** Event adı: location, motionchange, geofence, heartbeat, http, ... */
+  name: string;
+  params: any;
+  /** Android: finishHeadlessTask(taskId) ile ack (yalnızca task params'ında) */
+  taskId?: number;
+}
+
+export interface HeadlessBatchEvent {
+  name: 'batch';
+  /** Event'ler geliş sırasıyla */
+  events: HeadlessEvent[];
+  /** Buffer taştığı için atılan event sayısı */
+  dropped: number;
+  /** Android: finishHeadlessTask(taskId) ile ack */
+  taskId?: number;
+}
+
 /** Event listener callback types */
 export type LocationCallback = (location: Location) => void;
 export type MotionChangeCallback = (event: MotionChangeEvent) => void;
@@ -343,6 +717,7 @@ export type GeofenceCallback = (event: GeofenceEvent) => void;
 export type GeofencesChangeCallback = (event: { on: Geofence[]; off: Geofence[] }) => void;
 export type HeartbeatCallback = (event: HeartbeatEvent) => void;
 export type HttpCallback = (event: HttpEvent) => void;
+export type TemplateErrorCallback = (event: TemplateErrorEvent) => void;
 export type ConnectivityChangeCallback = (event: ConnectivityChangeEvent) => void;
 export type EnabledChangeCallback = (enabled: boolean) => void;
 export type PowerSaveChangeCallback = (isPowerSaveMode: boolean) => void;